@@ -0,0 +1,99 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suites with the throughput profile, the allocation profile or both, and stores
+ * each run as a JMH JSON file that {@link CompareResults} can diff against a later run.
+ *
+ * <p>Usage: {@code java -jar target/benchmarks.jar [throughput|allocation|all] [regex]
+ * [results-dir]}. The regex selects benchmarks as JMH's {@code -i} option does (default: every
+ * suite); results go to {@code results/<timestamp>-<profile>.json}. The throughput profile reports
+ * operations per second; the allocation profile reports the average time per operation with the
+ * {@code gc} profiler, whose {@code gc.alloc.rate.norm} metric is the bytes allocated per
+ * operation.
+ *
+ * <p>For any other JMH option, run {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main}.
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALL = "all";
+    private static final String THROUGHPUT = "throughput";
+    private static final String ALLOCATION = "allocation";
+    private static final String DEFAULT_INCLUDE = "fr\\.softsf\\.canscan\\.benchmarks\\..*";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** Not instantiable. */
+    private BenchmarkRunner() {}
+
+    /**
+     * Runs the selected profiles.
+     *
+     * @param args optional profile, benchmark regex and results directory
+     * @throws RunnerException if a benchmark fails
+     * @throws IOException if the results directory cannot be created
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        String profile = args.length > 0 ? args[0] : ALL;
+        String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+        Path results = Path.of(args.length > 2 ? args[2] : "results");
+        List<String> profiles =
+                switch (profile) {
+                    case ALL -> List.of(THROUGHPUT, ALLOCATION);
+                    case THROUGHPUT, ALLOCATION -> List.of(profile);
+                    default ->
+                            throw new IllegalArgumentException(
+                                    "Profil inconnu : " + profile + " (throughput|allocation|all)");
+                };
+        Files.createDirectories(results);
+        String stamp = LocalDateTime.now().format(STAMP);
+        for (String name : profiles) {
+            Path file = results.resolve(stamp + "-" + name + ".json");
+            new Runner(options(name, include, file)).run();
+            System.out.println("[Bench] Résultats : " + file.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Builds the JMH options of a profile.
+     *
+     * @param profile {@code throughput} or {@code allocation}
+     * @param include the benchmark regex
+     * @param file the JSON result file
+     * @return the options
+     */
+    private static Options options(String profile, String include, Path file) {
+        ChainedOptionsBuilder builder =
+                new OptionsBuilder()
+                        .include(include)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result(file.toString());
+        if (ALLOCATION.equals(profile)) {
+            return builder.mode(Mode.AverageTime)
+                    .timeUnit(TimeUnit.MILLISECONDS)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+        }
+        return builder.mode(Mode.Throughput).timeUnit(TimeUnit.SECONDS).build();
+    }
+}
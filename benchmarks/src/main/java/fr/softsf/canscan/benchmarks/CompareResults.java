@@ -0,0 +1,130 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.softsf.canscan.util.JsonObjectParser;
+
+/**
+ * Compares two JMH JSON result files, such as two runs of {@link BenchmarkRunner} before and after
+ * a change.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar fr.softsf.canscan.benchmarks.CompareResults
+ * <baseline.json> <current.json>}. For each benchmark and parameter set present in both files,
+ * prints the primary score and, for allocation runs, the bytes allocated per operation, with the
+ * relative change.
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double PERCENT = 100.0;
+
+    /** Not instantiable. */
+    private CompareResults() {}
+
+    /**
+     * Prints the comparison.
+     *
+     * @param args the baseline and current result files
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : CompareResults <référence.json> <actuel.json>");
+            System.exit(2);
+        }
+        Map<String, Map<String, Object>> baseline = load(Path.of(args[0]));
+        Map<String, Map<String, Object>> current = load(Path.of(args[1]));
+        for (Map.Entry<String, Map<String, Object>> entry : current.entrySet()) {
+            Map<String, Object> before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%s : nouveau%n", entry.getKey());
+                continue;
+            }
+            printMetric(entry.getKey(), primary(before), primary(entry.getValue()));
+            Map<String, Object> allocBefore = allocation(before);
+            Map<String, Object> allocAfter = allocation(entry.getValue());
+            if (allocBefore != null && allocAfter != null) {
+                printMetric("  allocation", allocBefore, allocAfter);
+            }
+        }
+    }
+
+    /**
+     * Reads a result file into its runs, keyed by benchmark, mode and parameters.
+     *
+     * @param file the JMH JSON file
+     * @return the runs, in file order
+     * @throws IOException if the file cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> load(Path file) throws IOException {
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        List<Object> runs =
+                (List<Object>) JsonObjectParser.parseObject("{\"runs\":" + json + "}").get("runs");
+        Map<String, Map<String, Object>> byKey = new LinkedHashMap<>();
+        for (Object run : runs) {
+            Map<String, Object> fields = (Map<String, Object>) run;
+            String benchmark = (String) fields.get("benchmark");
+            Object params = fields.get("params");
+            byKey.put(
+                    benchmark.substring(
+                                    benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1)
+                            + " ["
+                            + fields.get("mode")
+                            + "]"
+                            + (params == null ? "" : " " + params),
+                    fields);
+        }
+        return byKey;
+    }
+
+    /**
+     * Returns the primary metric of a run.
+     *
+     * @param run the run fields
+     * @return the metric, with {@code score} and {@code scoreUnit}
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> primary(Map<String, Object> run) {
+        return (Map<String, Object>) run.get("primaryMetric");
+    }
+
+    /**
+     * Returns the bytes allocated per operation of a run, if the {@code gc} profiler was used.
+     *
+     * @param run the run fields
+     * @return the metric, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> allocation(Map<String, Object> run) {
+        Map<String, Object> secondary = (Map<String, Object>) run.get("secondaryMetrics");
+        return secondary == null ? null : (Map<String, Object>) secondary.get(ALLOCATION_METRIC);
+    }
+
+    /**
+     * Prints one metric of both runs and its relative change.
+     *
+     * @param label the line label
+     * @param before the baseline metric
+     * @param after the current metric
+     */
+    private static void printMetric(
+            String label, Map<String, Object> before, Map<String, Object> after) {
+        double from = Double.parseDouble((String) before.get("score"));
+        double to = Double.parseDouble((String) after.get("score"));
+        System.out.printf(
+                "%s : %.3f -> %.3f %s (%+.1f %%)%n",
+                label, from, to, after.get("scoreUnit"), (to - from) / from * PERCENT);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.awt.Color;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Measures {@link EncodedImage#createMatrix} across free text lengths, from a few words to a
+ * version 40 symbol at level H.
+ */
+@State(Scope.Benchmark)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CreateMatrixBenchmark {
+
+    /** The payload length, in characters. */
+    @Param({"16", "128", "512", "1024"})
+    public int length;
+
+    private final EncodedImage encodedImage = new EncodedImage();
+    private final CommonFields config =
+            new CommonFields(null, 400, Fixtures.LOGO_RATIO, Color.BLACK, Color.WHITE, false, 3);
+    private String payload;
+
+    /** Builds the payload of the trial. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = Fixtures.freeText(length);
+    }
+
+    /**
+     * Encodes the payload.
+     *
+     * @return the module matrix, consumed by JMH
+     * @throws WriterException if encoding fails
+     */
+    @Benchmark
+    public BitMatrix createMatrix() throws WriterException {
+        return encodedImage.createMatrix(payload, config);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+/** Payloads and files shared by the benchmark suites. */
+final class Fixtures {
+
+    /** A typical MeCard, as built by the contact form. */
+    static final String CONTACT =
+            "MECARD:N:Dupont,Marie;ORG:Société Exemple;TEL:+33612345678;"
+                    + "EMAIL:marie.dupont@exemple.fr;ADR:12 rue des Lilas, 69000 Lyon;"
+                    + "URL:https://exemple.fr;;";
+
+    /** The default logo ratio of the UI. */
+    static final double LOGO_RATIO = 0.27;
+
+    private static final int LOGO_SIZE = 256;
+    private static final String FILLER =
+            "Réunion de suivi du lot A-12, salle 3, le 14/03 à 10h30. Ordre du jour : bilan, "
+                    + "planning, questions diverses. ";
+
+    /** Not instantiable. */
+    private Fixtures() {}
+
+    /**
+     * Returns a free text payload of the given length, mixing letters, digits and accents.
+     *
+     * @param length the number of characters
+     * @return the payload
+     */
+    static String freeText(int length) {
+        return FILLER.repeat(length / FILLER.length() + 1).substring(0, length);
+    }
+
+    /**
+     * Writes a colored square logo to a temporary PNG file.
+     *
+     * @return the file, to delete after use
+     * @throws IOException if the file cannot be written
+     */
+    static Path writeLogo() throws IOException {
+        BufferedImage logo = new BufferedImage(LOGO_SIZE, LOGO_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = logo.createGraphics();
+        try {
+            g.setColor(new Color(0x1E, 0x88, 0xE5));
+            g.fillOval(0, 0, LOGO_SIZE, LOGO_SIZE);
+        } finally {
+            g.dispose();
+        }
+        Path file = Files.createTempFile("canscan-bench-logo", ".png");
+        ImageIO.write(logo, "png", file.toFile());
+        return file;
+    }
+}
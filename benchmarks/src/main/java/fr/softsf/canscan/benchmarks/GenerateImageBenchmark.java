@@ -0,0 +1,107 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.zxing.WriterException;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Measures {@link EncodedImage#generateImage} on a contact card, across image sizes, module shapes,
+ * logo presence and quiet zones.
+ *
+ * <p>The largest size stays under the 200 million pixel limit enforced by {@link EncodedImage}.
+ */
+@State(Scope.Benchmark)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GenerateImageBenchmark {
+
+    /** The image side, in pixels. */
+    @Param({"200", "1000", "4000", "14000"})
+    public int size;
+
+    /** Whether modules are drawn as circles. */
+    @Param({"false", "true"})
+    public boolean rounded;
+
+    /** Whether a logo is drawn in the center. */
+    @Param({"false", "true"})
+    public boolean logo;
+
+    /** The quiet zone, in modules. */
+    @Param({"0", "3", "10"})
+    public int margin;
+
+    private EncodedImage encodedImage;
+    private CommonFields config;
+    private Path logoFile;
+
+    /**
+     * Writes the logo and builds the configuration of the trial.
+     *
+     * @throws IOException if the logo cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        encodedImage = new EncodedImage();
+        logoFile = logo ? Fixtures.writeLogo() : null;
+        config =
+                new CommonFields(
+                        logoFile == null ? null : logoFile.toFile(),
+                        size,
+                        Fixtures.LOGO_RATIO,
+                        Color.BLACK,
+                        Color.WHITE,
+                        rounded,
+                        margin);
+    }
+
+    /**
+     * Deletes the logo of the trial.
+     *
+     * @throws IOException if the logo cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (logoFile != null) {
+            Files.deleteIfExists(logoFile);
+        }
+    }
+
+    /**
+     * Encodes and renders the contact card.
+     *
+     * @return the image, consumed by JMH
+     * @throws WriterException if encoding fails
+     * @throws IOException if the logo cannot be read
+     */
+    @Benchmark
+    public BufferedImage generateImage() throws WriterException, IOException {
+        return encodedImage.generateImage(Fixtures.CONTACT, config);
+    }
+}
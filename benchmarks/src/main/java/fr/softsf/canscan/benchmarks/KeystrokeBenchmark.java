@@ -0,0 +1,183 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.awt.Color;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import javax.swing.JTextField;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StructuredAppend;
+import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.service.DataBuilderService;
+import fr.softsf.canscan.util.CoordinateHelper;
+import fr.softsf.canscan.util.DateHelper;
+import fr.softsf.canscan.util.ValidationFieldHelper;
+
+/**
+ * Measures the keystroke-to-payload path of the form: what {@code getQrInput} and {@link
+ * DataBuilderService#buildData} run on every edit, before any encoding.
+ *
+ * <p>Run with the allocation profile of {@link BenchmarkRunner} to get the bytes allocated per
+ * keystroke ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KeystrokeBenchmark {
+
+    /** The meeting title typed by the user, ASCII or accented. */
+    @Param({"Weekly sync 42", "Réunion d'équipe à Lyon, salle Été"})
+    public String title;
+
+    private final JTextField latitude = new JTextField("45.764043123");
+    private final JTextField longitude = new JTextField("-4.835659");
+    private final LocalDate date = LocalDate.of(2025, 3, 14);
+    private final LocalTime begin = LocalTime.of(10, 30);
+    private final LocalTime end = LocalTime.of(11, 45);
+    private WholeFields contact;
+
+    /** Builds the contact form of the trial. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        contact =
+                fields(
+                        Mode.MECARD,
+                        "Marie Dupont",
+                        "+33612345678",
+                        "marie.dupont@exemple.fr",
+                        "",
+                        "",
+                        "",
+                        "");
+    }
+
+    /**
+     * Runs the meeting path: UID, both coordinates, both dates, then the iCalendar payload.
+     *
+     * @return the payload, consumed by JMH
+     */
+    @Benchmark
+    public EncodedData meetKeystroke() {
+        String uid = ValidationFieldHelper.INSTANCE.validateAndGetMeetUID(title);
+        String lat = CoordinateHelper.INSTANCE.getValidatedCoordinate(latitude, true);
+        String lon = CoordinateHelper.INSTANCE.getValidatedCoordinate(longitude, false);
+        String start = DateHelper.INSTANCE.validateAndGetDateAndTime(date, begin);
+        String stop = DateHelper.INSTANCE.validateAndGetDateAndTime(date, end);
+        return DataBuilderService.INSTANCE.buildData(
+                Mode.MEET, fields(Mode.MEET, title, uid, start, stop, lat, lon, "Marie Dupont"));
+    }
+
+    /**
+     * Runs the contact path.
+     *
+     * @return the payload, consumed by JMH
+     */
+    @Benchmark
+    public EncodedData mecardKeystroke() {
+        return DataBuilderService.INSTANCE.buildData(Mode.MECARD, contact);
+    }
+
+    /**
+     * Runs the meeting UID derivation alone.
+     *
+     * @return the UID, consumed by JMH
+     */
+    @Benchmark
+    public String meetUid() {
+        return ValidationFieldHelper.INSTANCE.validateAndGetMeetUID(title);
+    }
+
+    /**
+     * Runs the latitude validation alone.
+     *
+     * @return the truncated latitude, consumed by JMH
+     */
+    @Benchmark
+    public String coordinate() {
+        return CoordinateHelper.INSTANCE.getValidatedCoordinate(latitude, true);
+    }
+
+    /**
+     * Runs the date formatting alone.
+     *
+     * @return the iCalendar timestamp, consumed by JMH
+     */
+    @Benchmark
+    public String dateTime() {
+        return DateHelper.INSTANCE.validateAndGetDateAndTime(date, begin);
+    }
+
+    /**
+     * Builds the form fields, as {@code CanScan.getQrInput} does; the meeting arguments are reused
+     * for the contact name, phone and email.
+     *
+     * @param mode the form mode
+     * @param a the meeting title, or the contact name
+     * @param b the meeting UID, or the phone
+     * @param c the meeting start, or the email
+     * @param d the meeting end
+     * @param lat the latitude
+     * @param lon the longitude
+     * @param organizer the meeting organizer
+     * @return the fields
+     */
+    private static WholeFields fields(
+            Mode mode,
+            String a,
+            String b,
+            String c,
+            String d,
+            String lat,
+            String lon,
+            String organizer) {
+        boolean meet = mode == Mode.MEET;
+        return new WholeFields(
+                () -> 400,
+                mode,
+                "",
+                meet ? "" : a,
+                "",
+                meet ? "" : b,
+                meet ? "" : c,
+                "",
+                "",
+                meet ? a : "",
+                meet ? b : "",
+                organizer,
+                meet ? c : "",
+                d,
+                lat,
+                lon,
+                "",
+                400,
+                3,
+                Fixtures.LOGO_RATIO,
+                Color.BLACK,
+                Color.WHITE,
+                false,
+                EccLevel.AUTO,
+                false,
+                false,
+                StructuredAppend.OFF);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.zxing.WriterException;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.service.batch.PngOutput;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/** Measures the PNG encoding of rendered codes, as done when saving or exporting them. */
+@State(Scope.Benchmark)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PngEncodingBenchmark {
+
+    /** The image side, in pixels. */
+    @Param({"200", "1000", "4000"})
+    public int size;
+
+    private BufferedImage image;
+
+    /**
+     * Renders the image of the trial.
+     *
+     * @throws WriterException if encoding fails
+     * @throws IOException if rendering fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws WriterException, IOException {
+        image =
+                new EncodedImage()
+                        .generateImage(
+                                Fixtures.CONTACT,
+                                new CommonFields(
+                                        null,
+                                        size,
+                                        Fixtures.LOGO_RATIO,
+                                        Color.BLACK,
+                                        Color.WHITE,
+                                        false,
+                                        3));
+    }
+
+    /**
+     * Encodes the image as PNG in memory.
+     *
+     * @return the PNG bytes, consumed by JMH
+     * @throws IOException if no PNG encoder is available
+     */
+    @Benchmark
+    public byte[] encodePng() throws IOException {
+        return PngOutput.INSTANCE.encode(image);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.benchmarks;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import fr.softsf.canscan.service.qr.QrEncoder;
+
+/**
+ * Compares ZXing's {@code MultiFormatWriter} with {@link QrEncoder} on payloads filling a version
+ * at level H; the trial fails if both encoders do not return equal matrices.
+ */
+@State(Scope.Benchmark)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class QrEncoderBenchmark {
+
+    private static final int MARGIN = 3;
+
+    /** The symbol version the payload fills. */
+    @Param({"10", "25", "40"})
+    public int version;
+
+    private final MultiFormatWriter writer = new MultiFormatWriter();
+    private final Map<EncodeHintType, Object> hints =
+            Map.of(
+                    EncodeHintType.CHARACTER_SET,
+                    "UTF-8",
+                    EncodeHintType.ERROR_CORRECTION,
+                    ErrorCorrectionLevel.H,
+                    EncodeHintType.MARGIN,
+                    MARGIN);
+    private String payload;
+
+    /**
+     * Builds the payload of the trial and checks that both encoders agree on it.
+     *
+     * @throws WriterException if the payload cannot be encoded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws WriterException {
+        payload = payloadFor(version);
+        if (!zxing().equals(qrEncoder())) {
+            throw new IllegalStateException("Matrices différentes en version " + version);
+        }
+    }
+
+    /**
+     * Encodes the payload with ZXing.
+     *
+     * @return the module matrix, consumed by JMH
+     * @throws WriterException if encoding fails
+     */
+    @Benchmark
+    public BitMatrix zxing() throws WriterException {
+        return writer.encode(payload, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    /**
+     * Encodes the payload with the native encoder.
+     *
+     * @return the module matrix, consumed by JMH
+     * @throws WriterException if encoding fails
+     */
+    @Benchmark
+    public BitMatrix qrEncoder() throws WriterException {
+        return QrEncoder.INSTANCE.encode(payload, ErrorCorrectionLevel.H, MARGIN);
+    }
+
+    /**
+     * Returns the longest byte-mode payload of a version at level H.
+     *
+     * @param version the version
+     * @return the payload
+     */
+    private static String payloadFor(int version) {
+        int dimension = 17 + 4 * version + 2 * MARGIN;
+        StringBuilder payload = new StringBuilder("https://exemple.fr/?");
+        try {
+            while (QrEncoder.INSTANCE
+                            .encode(payload + "x", ErrorCorrectionLevel.H, MARGIN)
+                            .getWidth()
+                    <= dimension) {
+                payload.append((char) ('a' + payload.length() % 26));
+            }
+        } catch (WriterException tooBig) {
+            // Version 40 is full: the payload built so far is the longest one.
+        }
+        return payload.toString();
+    }
+}
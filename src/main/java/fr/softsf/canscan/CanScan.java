@@ -18,10 +18,12 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Objects;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -47,12 +49,18 @@ import fr.softsf.canscan.constant.FloatConstants;
 import fr.softsf.canscan.constant.IntConstants;
 import fr.softsf.canscan.constant.StringConstants;
 import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
 import fr.softsf.canscan.model.EncodedData;
 import fr.softsf.canscan.model.MecardJFields;
 import fr.softsf.canscan.model.MeetJFields;
 import fr.softsf.canscan.model.Mode;
 import fr.softsf.canscan.model.NativeImageUiComponents;
+import fr.softsf.canscan.model.StructuredAppend;
 import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+import fr.softsf.canscan.monitoring.EdtWatchdog;
+import fr.softsf.canscan.monitoring.PreviewLatencyTracer;
+import fr.softsf.canscan.monitoring.SessionRecorder;
 import fr.softsf.canscan.service.DataBuilderService;
 import fr.softsf.canscan.service.GenerateAndSaveService;
 import fr.softsf.canscan.service.VersionService;
@@ -138,6 +146,13 @@ public class CanScan extends JFrame {
                     IntConstants.MAX_PERCENTAGE.getValue(),
                     (int) (imageRatio * IntConstants.MAX_PERCENTAGE.getValue()));
     private final JCheckBox roundedModulesCheckBox = new JCheckBox();
+    private final JComboBox<EccLevel> eccLevelComboBox = new JComboBox<>(EccLevel.values());
+    private final JCheckBox compactCheckBox = new JCheckBox();
+    private final JCheckBox microQrCheckBox = new JCheckBox();
+    private final JLabel compactionLabel = new JLabel();
+    private final JLabel capacityLabel = new JLabel();
+    private final JComboBox<StructuredAppend> structuredAppendComboBox =
+            new JComboBox<>(StructuredAppend.values());
     // CONTAINERS
     private final JPanel northPanelWrapper = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
     private final CardLayout cardLayout = new CardLayout();
@@ -155,7 +170,13 @@ public class CanScan extends JFrame {
     private final transient DynamicResizeWorker qrCodeResize =
             new DynamicResizeWorker(encodedImage, qrCodeLabel, loader);
     private final transient DynamicPreviewWorker qrCodePreview =
-            new DynamicPreviewWorker(encodedImage, qrCodeResize, qrCodeLabel, loader);
+            new DynamicPreviewWorker(
+                    encodedImage,
+                    qrCodeResize,
+                    qrCodeLabel,
+                    compactionLabel,
+                    capacityLabel,
+                    loader);
     private final transient ColorOperation colorOperation = new ColorOperation();
     private final transient GenerateAndSaveService generateAndSaveService =
             new GenerateAndSaveService(encodedImage);
@@ -387,7 +408,8 @@ public class CanScan extends JFrame {
     /**
      * Adds common input fields to the north panel.
      *
-     * <p>Includes logo path, margin, ratio, colors, size, and rounded modules options.
+     * <p>Includes logo path, margin, ratio, colors, size, rounded modules, error correction, and
+     * compaction options.
      */
     private void addNorthPanelCommonFields(JPanel northPanel, GridBagConstraints grid) {
         if (Checker.INSTANCE.checkNPE(northPanel, "addNorthPanelCommonFields", NORTH_PANEL)
@@ -440,6 +462,36 @@ public class CanScan extends JFrame {
                         "Modules ronds", WARNING_ICON),
                 "<html>Arrondir les modules.<br>Cela peut gêner la détection.</html>",
                 roundedModulesCheckBox);
+        UiComponentsConfiguration.INSTANCE.addRow(
+                northPanel,
+                grid,
+                "Correction",
+                "<html>Le niveau de correction d'erreurs.<br>Automatique : le plus bas qui"
+                        + " compense la zone du logo.</html>",
+                eccLevelComboBox);
+        JPanel compactPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        compactPanel.add(compactCheckBox);
+        compactPanel.add(compactionLabel);
+        UiComponentsConfiguration.INSTANCE.addRow(
+                northPanel,
+                grid,
+                "Compacter",
+                "<html>Découper le contenu en segments numériques, alphanumériques et octets,<br>"
+                        + "avec le jeu de caractères le plus court.</html>",
+                compactPanel);
+        UiComponentsConfiguration.INSTANCE.addRow(
+                northPanel,
+                grid,
+                UiComponentsConfiguration.INSTANCE.getIconAfterTextHtml("Micro QR", WARNING_ICON),
+                "<html>Utiliser un Micro QR (M1 à M4) si le contenu est assez court et sans logo."
+                        + "<br>Tous les lecteurs ne le prennent pas en charge.</html>",
+                microQrCheckBox);
+        UiComponentsConfiguration.INSTANCE.addRow(
+                northPanel,
+                grid,
+                "Capacité",
+                "La version estimée et la part de la capacité utilisée, à chaque frappe.",
+                capacityLabel);
     }
 
     /**
@@ -662,6 +714,13 @@ public class CanScan extends JFrame {
         }
         UiComponentsConfiguration.INSTANCE.populateFreePanel(
                 freePanel, grid, freeField, freeScrollPane);
+        UiComponentsConfiguration.INSTANCE.addRow(
+                freePanel,
+                grid,
+                "Multi-symboles",
+                "<html>Répartir un texte trop long sur 16 codes QR liés au plus.<br>Enregistrés"
+                        + " côte à côte dans une image, ou en fichiers numérotés.</html>",
+                structuredAppendComboBox);
     }
 
     /** Attaches automatic QR preview updates and input validation to all fields and controls. */
@@ -697,6 +756,11 @@ public class CanScan extends JFrame {
         ratioSlider.addChangeListener(e -> qrCodePreview.updateQrCodePreview(getQrInput()));
         roundedModulesCheckBox.addActionListener(
                 e -> qrCodePreview.updateQrCodePreview(getQrInput()));
+        eccLevelComboBox.addActionListener(e -> qrCodePreview.updateQrCodePreview(getQrInput()));
+        compactCheckBox.addActionListener(e -> qrCodePreview.updateQrCodePreview(getQrInput()));
+        microQrCheckBox.addActionListener(e -> qrCodePreview.updateQrCodePreview(getQrInput()));
+        structuredAppendComboBox.addActionListener(
+                e -> qrCodePreview.updateQrCodePreview(getQrInput()));
         meetBeginDatePicker
                 .getComponentDateTextField()
                 .getDocument()
@@ -836,8 +900,12 @@ public class CanScan extends JFrame {
                             qrColor,
                             bgColor,
                             roundedModulesCheckBox.isSelected(),
-                            validateAndGetMargin());
-            generateAndSaveService.generateAndSave(qrData, config, loader);
+                            validateAndGetMargin(),
+                            (EccLevel) eccLevelComboBox.getSelectedItem(),
+                            compactCheckBox.isSelected(),
+                            microQrCheckBox.isSelected());
+            generateAndSaveService.generateAndSave(
+                    qrData, config, getQrInput().activeStructuredAppend(), loader);
         } catch (Exception ex) {
             MyPopup.INSTANCE.showDialog(
                     "Erreur inattendue lors de la génération du QR Code",
@@ -889,7 +957,11 @@ public class CanScan extends JFrame {
                 validateAndGetRatio(),
                 qrColor,
                 bgColor,
-                roundedModulesCheckBox.isSelected());
+                roundedModulesCheckBox.isSelected(),
+                (EccLevel) eccLevelComboBox.getSelectedItem(),
+                compactCheckBox.isSelected(),
+                microQrCheckBox.isSelected(),
+                (StructuredAppend) structuredAppendComboBox.getSelectedItem());
     }
 
     /** Validates and returns the current meet UID from the meet title field. */
@@ -917,13 +989,32 @@ public class CanScan extends JFrame {
     }
 
     /**
-     * Application entry point. Initializes the UI theme, font, and launches the GUI on the EDT.
+     * Application entry point. Starts the EDT watchdog with {@code -Dcanscan.edtWatchdog=true},
+     * registers the metrics, latency and EDT watchdog MBeans with {@code -Dcanscan.jmx=true}, so
+     * that the platform MBean server is only started when monitored, initializes the UI theme,
+     * font, and launches the GUI on the EDT, recording the session into a file with {@code
+     * -Dcanscan.recordSession=<file>}.
      *
      * @param args command-line arguments (ignored)
      */
     public static void main(String[] args) {
+        EdtWatchdog.INSTANCE.setEnabled(
+                Boolean.getBoolean(StringConstants.EDT_WATCHDOG_PROPERTY.getValue()));
+        if (Boolean.getBoolean(StringConstants.JMX_PROPERTY.getValue())) {
+            PreviewLatencyTracer.INSTANCE.register();
+            EdtWatchdog.INSTANCE.register();
+            CanScanMetrics.INSTANCE.register();
+        }
         FlatCobalt2IJTheme.setup();
         FontManager.INSTANCE.initialize();
-        SwingUtilities.invokeLater(() -> new CanScan().setVisible(true));
+        String session = System.getProperty(StringConstants.SESSION_RECORD_PROPERTY.getValue());
+        SwingUtilities.invokeLater(
+                () -> {
+                    CanScan frame = new CanScan();
+                    frame.setVisible(true);
+                    if (session != null) {
+                        SessionRecorder.INSTANCE.start(frame, Path.of(session));
+                    }
+                });
     }
 }
@@ -0,0 +1,513 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.LabelSheet;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.ShardMergeReport;
+import fr.softsf.canscan.model.StreamReport;
+import fr.softsf.canscan.service.batch.BatchRowMapper;
+import fr.softsf.canscan.service.batch.BatchRowSource;
+import fr.softsf.canscan.service.batch.ChunkClaimRowSource;
+import fr.softsf.canscan.service.batch.FolderWatcher;
+import fr.softsf.canscan.service.batch.IncrementalBatchService;
+import fr.softsf.canscan.service.batch.LabelSheetExportService;
+import fr.softsf.canscan.service.batch.NdjsonStreamService;
+import fr.softsf.canscan.service.batch.RowSourceFactory;
+import fr.softsf.canscan.service.batch.ShardMergeService;
+import fr.softsf.canscan.service.batch.ShardRowSource;
+import fr.softsf.canscan.service.batch.ZipExportService;
+import fr.softsf.canscan.ui.EncodedImage;
+import fr.softsf.canscan.util.CliArguments;
+
+/**
+ * CanScan headless entry point — generates QR codes from files without opening the GUI.
+ *
+ * <p>Usage: {@code java -cp canscan.jar fr.softsf.canscan.CanScanCli <command> [options]}. Runs
+ * with {@code java.awt.headless=true}; progress and reports are written through {@link
+ * System.Logger}.
+ */
+public final class CanScanCli {
+
+    private static final System.Logger LOGGER = System.getLogger(CanScanCli.class.getName());
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_PARTIAL_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_ERROR = 3;
+    private static final String USAGE =
+            """
+            Usage : CanScanCli <commande> [options]
+
+            Commandes :
+              batch   Génère un PNG par ligne d'un CSV, événement d'un .ics ou
+                      contact d'un .vcf (incrémental par défaut)
+                      --input <fichier.csv|.ics|.vcf>
+                      --output <dossier|archive.zip|planche.pdf>
+                      [--key id] [--mode MECARD|MEET|FREE] [--delimiter ,]
+                      [--horizon 365] [--full] [--threads N]
+                      Planche PDF (mm) : [--columns 3] [--rows 8] [--page-width 210]
+                      [--page-height 297] [--sheet-margin 10] [--gutter 0]
+                      [--bleed 0] [--crop-marks]
+                      Répartition (sortie dossier) : [--shard i/n] ou
+                      [--queue <dossier partagé>] [--chunk-size 10000] [--worker nom]
+              merge   Vérifie que chaque ligne a été produite une seule fois par les
+                      partitions, puis fusionne leurs manifestes
+                      --input <fichier.csv|.ics|.vcf> --output <dossier>
+                      [--key id] [--mode MECARD|MEET|FREE] [--delimiter ,]
+              watch   Surveille un dossier de .csv, .ics et .vcf et régénère les lignes
+                      modifiées
+                      --input <dossier> --output <dossier> [--debounce 500]
+                      [--key id] [--mode MECARD|MEET|FREE] [--delimiter ,]
+                      [--horizon 365] [--threads N]
+              stream  Lit des requêtes JSON (une par ligne) sur l'entrée standard et
+                      écrit un PNG par requête sur la sortie standard, dans l'ordre
+                      [--format base64|png] [--mode MECARD|MEET|FREE] [--threads N]
+                      base64 : une ligne par code ; png : longueur sur 4 octets
+                      (big-endian) puis le PNG ; réponse vide en cas d'échec
+
+            Style (toutes commandes) :
+              [--size 400] [--margin 3] [--ratio 0.27] [--logo <image>]
+              [--qr-color #000000] [--bg-color #FFFFFF] [--rounded]
+              [--ecc auto|L|M|Q|H] [--compact] [--micro]
+            """;
+    private static final int DEFAULT_DEBOUNCE_MILLIS = 500;
+    private static final int DEFAULT_HORIZON_DAYS = 365;
+    private static final double PERCENT = 100.0;
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final String PDF_EXTENSION = ".pdf";
+    private static final double DEFAULT_PAGE_WIDTH_MM = 210;
+    private static final double DEFAULT_PAGE_HEIGHT_MM = 297;
+    private static final int DEFAULT_COLUMNS = 3;
+    private static final int DEFAULT_ROWS = 8;
+    private static final double DEFAULT_SHEET_MARGIN_MM = 10;
+    private static final int DEFAULT_CHUNK_SIZE = 10_000;
+    private static final Set<String> FLAGS =
+            Set.of("rounded", "full", "crop-marks", "compact", "micro");
+
+    private CanScanCli() {}
+
+    /**
+     * Headless entry point.
+     *
+     * @param args the command name followed by its options
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs a command and returns the process exit code.
+     *
+     * @param args the command name followed by its options
+     * @return 0 on success, 1 if some rows failed, 2 on usage error, 3 on I/O error
+     */
+    static int run(String[] args) {
+        if (args.length == 0) {
+            LOGGER.log(System.Logger.Level.INFO, USAGE);
+            return EXIT_USAGE;
+        }
+        List<String> rest = Arrays.asList(args).subList(1, args.length);
+        try {
+            CliArguments options = new CliArguments(rest, FLAGS);
+            return switch (args[0]) {
+                case "batch" -> batch(options);
+                case "watch" -> watch(options);
+                case "merge" -> merge(options);
+                case "stream" -> stream(options);
+                default -> {
+                    LOGGER.log(System.Logger.Level.ERROR, "Commande inconnue : " + args[0]);
+                    LOGGER.log(System.Logger.Level.INFO, USAGE);
+                    yield EXIT_USAGE;
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(System.Logger.Level.ERROR, e.getMessage());
+            LOGGER.log(System.Logger.Level.INFO, USAGE);
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Erreur d'entrée/sortie : " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(System.Logger.Level.ERROR, "Opération interrompue");
+            return EXIT_ERROR;
+        }
+    }
+
+    /**
+     * Runs the {@code batch} command: CSV rows, iCalendar events or vCard contacts to PNG files,
+     * incremental unless {@code --full}, to a single ZIP archive when the output ends with {@code
+     * .zip}, or to a vector label sheet when it ends with {@code .pdf}.
+     *
+     * @param options the parsed options
+     * @return the exit code
+     * @throws IOException if the input or output cannot be accessed
+     * @throws InterruptedException if interrupted while rendering
+     */
+    private static int batch(CliArguments options) throws IOException, InterruptedException {
+        Path input = options.requirePath("input");
+        Path output = options.requirePath("output");
+        RowSourceFactory sources = rowSources(options);
+        BatchReport report;
+        try (BatchRowSource source = sources.open(input)) {
+            report =
+                    options.get("shard", "").isEmpty() && options.get("queue", "").isEmpty()
+                            ? export(options, source, output)
+                            : partition(options, source, output);
+        }
+        logReport(report);
+        return report.failed() > 0 ? EXIT_PARTIAL_FAILURE : EXIT_OK;
+    }
+
+    /**
+     * Renders one partition of the input into a shared output directory: the static shard {@code
+     * --shard i/n}, or the chunks claimed from the {@code --queue} directory under the {@code
+     * --worker} name, which defaults to the host name and process id.
+     *
+     * @param options the parsed options
+     * @param input the full input
+     * @param output the shared output directory
+     * @return the run summary of this partition
+     * @throws IOException if the input, the queue or the output cannot be accessed
+     * @throws InterruptedException if interrupted while rendering
+     * @throws IllegalArgumentException if the output is an archive or a label sheet
+     */
+    private static BatchReport partition(CliArguments options, BatchRowSource input, Path output)
+            throws IOException, InterruptedException {
+        String name = output.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(ZIP_EXTENSION) || name.endsWith(PDF_EXTENSION)) {
+            throw new IllegalArgumentException("--shard et --queue exigent un dossier de sortie");
+        }
+        IncrementalBatchService service =
+                new IncrementalBatchService(new EncodedImage(), threads(options));
+        boolean incremental = !options.has("full");
+        String shardOption = options.get("shard", "");
+        if (shardOption.isEmpty()) {
+            return claimChunks(options, service, input, output, incremental);
+        }
+        int[] shard = shard(shardOption);
+        return service.run(
+                new ShardRowSource(input, shard[0], shard[1]),
+                output,
+                incremental,
+                ShardRowSource.partitionName(shard[0], shard[1]));
+    }
+
+    /**
+     * Renders the chunks claimed from the {@code --queue} directory, then marks them done if no row
+     * failed, so that a rerun under the same {@code --worker} name retries them.
+     *
+     * @param options the parsed options
+     * @param service the batch service
+     * @param input the full input
+     * @param output the shared output directory
+     * @param incremental {@code true} to skip unchanged rows
+     * @return the run summary of this worker
+     * @throws IOException if the input, the queue or the output cannot be accessed
+     * @throws InterruptedException if interrupted while rendering
+     */
+    private static BatchReport claimChunks(
+            CliArguments options,
+            IncrementalBatchService service,
+            BatchRowSource input,
+            Path output,
+            boolean incremental)
+            throws IOException, InterruptedException {
+        String worker = options.get("worker", defaultWorkerName());
+        ChunkClaimRowSource source =
+                new ChunkClaimRowSource(
+                        input,
+                        options.requirePath("queue"),
+                        options.getInt("chunk-size", DEFAULT_CHUNK_SIZE),
+                        worker);
+        BatchReport report =
+                service.run(source, output, incremental, ChunkClaimRowSource.partitionName(worker));
+        if (report.failed() == 0) {
+            source.markDone();
+        }
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                "Travailleur {0} : lots {1}",
+                worker,
+                source.claimedChunks());
+        return report;
+    }
+
+    /**
+     * Parses a {@code --shard i/n} value.
+     *
+     * @param value the option value
+     * @return the shard index and count
+     * @throws IllegalArgumentException if the value is malformed or out of range
+     */
+    private static int[] shard(String value) {
+        int slash = value.indexOf('/');
+        try {
+            int index = Integer.parseInt(value.substring(0, Math.max(slash, 0)));
+            int count = Integer.parseInt(value.substring(slash + 1));
+            if (count < 1 || index < 0 || index >= count) {
+                throw new IllegalArgumentException("--shard hors limites : " + value);
+            }
+            return new int[] {index, count};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--shard attend i/n, par exemple 0/4 : " + value, e);
+        }
+    }
+
+    /**
+     * Returns a worker name unique across hosts sharing a queue: the host name and process id.
+     *
+     * @return the worker name
+     */
+    private static String defaultWorkerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Runs the {@code merge} command: verifies the partitions written by {@code --shard} or {@code
+     * --queue} runs against the full input and merges their manifests.
+     *
+     * @param options the parsed options
+     * @return 0 if every row was produced exactly once, 1 otherwise
+     * @throws IOException if the input or the output directory cannot be read
+     */
+    private static int merge(CliArguments options) throws IOException {
+        Path input = options.requirePath("input");
+        Path output = options.requirePath("output");
+        ShardMergeReport report;
+        try (BatchRowSource source = rowSources(options).open(input)) {
+            report = ShardMergeService.INSTANCE.merge(source, output);
+        }
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                String.format(
+                        "%d partitions, %d lignes attendues : %d fusionnées, %d manquantes,"
+                                + " %d en double, %d incomplètes, %d orphelines",
+                        report.partitions(),
+                        report.expected(),
+                        report.merged(),
+                        report.missing(),
+                        report.duplicated(),
+                        report.incomplete(),
+                        report.orphaned()));
+        return report.isComplete() ? EXIT_OK : EXIT_PARTIAL_FAILURE;
+    }
+
+    /**
+     * Writes the rows to the output selected by its extension: a ZIP archive, a label sheet PDF, or
+     * a directory of PNG files.
+     *
+     * @param options the parsed options
+     * @param source the input rows
+     * @param output the output path
+     * @return the run summary
+     * @throws IOException if the input or output cannot be accessed
+     * @throws InterruptedException if interrupted while rendering
+     */
+    private static BatchReport export(CliArguments options, BatchRowSource source, Path output)
+            throws IOException, InterruptedException {
+        String name = output.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(ZIP_EXTENSION)) {
+            return new ZipExportService(new EncodedImage(), threads(options))
+                    .export(source, output);
+        }
+        if (name.endsWith(PDF_EXTENSION)) {
+            return new LabelSheetExportService(new EncodedImage(), labelSheet(options))
+                    .export(source, output);
+        }
+        return new IncrementalBatchService(new EncodedImage(), threads(options))
+                .run(source, output, !options.has("full"));
+    }
+
+    /**
+     * Builds the label sheet layout from the {@code --page-width}, {@code --page-height}, {@code
+     * --columns}, {@code --rows}, {@code --sheet-margin}, {@code --gutter}, {@code --bleed}
+     * (millimetres) and {@code --crop-marks} options. Defaults to A4 with 3 by 8 labels.
+     *
+     * @param options the parsed options
+     * @return the layout
+     */
+    private static LabelSheet labelSheet(CliArguments options) {
+        return new LabelSheet(
+                options.getDouble("page-width", DEFAULT_PAGE_WIDTH_MM) * LabelSheet.POINTS_PER_MM,
+                options.getDouble("page-height", DEFAULT_PAGE_HEIGHT_MM) * LabelSheet.POINTS_PER_MM,
+                options.getInt("columns", DEFAULT_COLUMNS),
+                options.getInt("rows", DEFAULT_ROWS),
+                options.getDouble("sheet-margin", DEFAULT_SHEET_MARGIN_MM)
+                        * LabelSheet.POINTS_PER_MM,
+                options.getDouble("gutter", 0) * LabelSheet.POINTS_PER_MM,
+                options.getDouble("bleed", 0) * LabelSheet.POINTS_PER_MM,
+                options.has("crop-marks"));
+    }
+
+    /**
+     * Runs the {@code stream} command: answers the JSON requests read on standard input until its
+     * end, then logs the latency percentiles.
+     *
+     * @param options the parsed options
+     * @return 0 if every request succeeded, 1 otherwise
+     * @throws IOException if standard input or output fails
+     * @throws InterruptedException if interrupted while rendering
+     */
+    private static int stream(CliArguments options) throws IOException, InterruptedException {
+        NdjsonStreamService.Format format;
+        try {
+            format =
+                    NdjsonStreamService.Format.valueOf(
+                            options.get("format", "base64").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("--format attend base64 ou png", e);
+        }
+        StreamReport report =
+                new NdjsonStreamService(
+                                new EncodedImage(),
+                                threads(options),
+                                BatchRowMapper.INSTANCE.parseMode(
+                                        options.get("mode", ""), Mode.FREE),
+                                options.toCommonFields(),
+                                format)
+                        .serve(System.in, System.out);
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                String.format(
+                        "%d requêtes, %d en échec (%d ms) ; latence p50 %d µs, p90 %d µs,"
+                                + " p99 %d µs, p99.9 %d µs, max %d µs",
+                        report.requests(),
+                        report.failed(),
+                        report.elapsedMillis(),
+                        report.p50Micros(),
+                        report.p90Micros(),
+                        report.p99Micros(),
+                        report.p999Micros(),
+                        report.maxMicros()));
+        return report.failed() > 0 ? EXIT_PARTIAL_FAILURE : EXIT_OK;
+    }
+
+    /**
+     * Runs the {@code watch} command until the process is stopped.
+     *
+     * @param options the parsed options
+     * @return the exit code
+     * @throws IOException if the input folder cannot be watched
+     * @throws InterruptedException if interrupted while waiting for changes
+     */
+    private static int watch(CliArguments options) throws IOException, InterruptedException {
+        Path input = options.requirePath("input");
+        Path output = options.requirePath("output");
+        RowSourceFactory sources = rowSources(options);
+        Duration debounce = Duration.ofMillis(options.getInt("debounce", DEFAULT_DEBOUNCE_MILLIS));
+        try (FolderWatcher watcher =
+                new FolderWatcher(
+                        new IncrementalBatchService(new EncodedImage(), threads(options)),
+                        sources,
+                        input,
+                        output,
+                        debounce)) {
+            Runtime.getRuntime()
+                    .addShutdownHook(new Thread(() -> closeQuietly(watcher), "WatchShutdown"));
+            watcher.run();
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Closes a watcher from the shutdown hook.
+     *
+     * @param watcher the watcher to stop
+     */
+    private static void closeQuietly(FolderWatcher watcher) {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Arrêt de la surveillance : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the input reader factory from the {@code --delimiter}, {@code --key}, {@code --mode},
+     * {@code --horizon} and style options.
+     *
+     * @param options the parsed options
+     * @return the factory
+     */
+    private static RowSourceFactory rowSources(CliArguments options) {
+        return new RowSourceFactory(
+                delimiter(options),
+                options.get("key", "id"),
+                BatchRowMapper.INSTANCE.parseMode(options.get("mode", ""), Mode.MECARD),
+                options.toCommonFields(),
+                Period.ofDays(options.getInt("horizon", DEFAULT_HORIZON_DAYS)));
+    }
+
+    /**
+     * Returns the {@code --threads} option, defaulting to the number of processors.
+     *
+     * @param options the parsed options
+     * @return the thread count
+     */
+    private static int threads(CliArguments options) {
+        return options.getInt("threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the {@code --delimiter} option as a single character.
+     *
+     * @param options the parsed options
+     * @return the delimiter
+     * @throws IllegalArgumentException if the value is not a single character
+     */
+    private static char delimiter(CliArguments options) {
+        String value = options.get("delimiter", ",");
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("--delimiter attend un seul caractère");
+        }
+        return value.charAt(0);
+    }
+
+    /**
+     * Logs a batch summary.
+     *
+     * @param report the summary
+     */
+    private static void logReport(BatchReport report) {
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                String.format(
+                        "%d lignes : %d générées, %d inchangées, %d supprimées, %d en échec"
+                                + " (%d ms) ; %d doublons (%.1f %%) copiés, environ %d ms"
+                                + " de rendu économisées",
+                        report.total(),
+                        report.rendered(),
+                        report.unchanged(),
+                        report.deleted(),
+                        report.failed(),
+                        report.elapsedMillis(),
+                        report.deduplicated(),
+                        report.total() == 0
+                                ? 0.0
+                                : PERCENT * report.deduplicated() / report.total(),
+                        report.savedMillis()));
+    }
+}
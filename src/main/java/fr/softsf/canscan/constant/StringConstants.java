@@ -16,6 +16,10 @@ public enum StringConstants {
     GENERATE_AND_SAVE_QR_CODE("generateAndSaveQrCode"),
     DEFAULT_QR_CODE_DIMENSION_FIELD("400"),
     DOMAIN("@SOFT64.FR"),
+    LATENCY_OVERLAY_PROPERTY("canscan.latencyOverlay"),
+    EDT_WATCHDOG_PROPERTY("canscan.edtWatchdog"),
+    JMX_PROPERTY("canscan.jmx"),
+    SESSION_RECORD_PROPERTY("canscan.recordSession"),
     LATEST_RELEASES_REPO_URL("https://github.com/Lob2018/CanScan/releases/latest");
 
     private final String value;
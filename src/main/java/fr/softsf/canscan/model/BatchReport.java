@@ -0,0 +1,40 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Summary of a headless batch run.
+ *
+ * @param total number of rows read from the input
+ * @param rendered number of rows whose output was written, including deduplicated ones
+ * @param unchanged number of rows skipped because their output is up to date
+ * @param deleted number of outputs removed because their row disappeared from the input
+ * @param failed number of rows that could not be rendered
+ * @param deduplicated number of written rows whose payload and style matched an earlier row, and
+ *     whose output was copied from it instead of being rendered again
+ * @param elapsedMillis wall-clock duration of the run in milliseconds
+ * @param renderMillis time spent building and rendering rows, summed over render threads
+ */
+public record BatchReport(
+        int total,
+        int rendered,
+        int unchanged,
+        int deleted,
+        int failed,
+        int deduplicated,
+        long elapsedMillis,
+        long renderMillis) {
+
+    /**
+     * Estimates the render time saved by deduplication, from the average time of actual renders.
+     *
+     * @return the estimated saving in milliseconds
+     */
+    public long savedMillis() {
+        int actual = rendered - deduplicated;
+        return actual <= 0 ? 0 : renderMillis * deduplicated / actual;
+    }
+}
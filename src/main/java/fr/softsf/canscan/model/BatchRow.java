@@ -0,0 +1,14 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * One input row of a headless batch run.
+ *
+ * @param key stable identifier of the row, used for output naming and change tracking
+ * @param fields the row content and visual configuration, as the UI would have collected it
+ */
+public record BatchRow(String key, WholeFields fields) {}
@@ -0,0 +1,51 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.util.Map;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeDataView;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+
+/**
+ * Size and effectiveness of a render cache.
+ *
+ * <p>The JMX view is built here rather than through the accessors, which the platform MBean server
+ * could only call if the package were exported to every module.
+ *
+ * @param cache the cache name
+ * @param size the number of entries, as last observed
+ * @param hits the lookups that found an entry
+ * @param misses the lookups that did not
+ * @param hitRatio the share of hits, from 0 to 1, or 0 before any lookup
+ */
+public record CacheStats(String cache, long size, long hits, long misses, double hitRatio)
+        implements CompositeDataView {
+
+    /**
+     * Returns the statistics as the composite data shown by JMX.
+     *
+     * @param type the composite type derived from the record components
+     * @return the composite data
+     */
+    @Override
+    public CompositeData toCompositeData(CompositeType type) {
+        try {
+            return new CompositeDataSupport(
+                    type,
+                    Map.of(
+                            "cache", cache,
+                            "size", size,
+                            "hits", hits,
+                            "misses", misses,
+                            "hitRatio", hitRatio));
+        } catch (OpenDataException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+/**
+ * Estimated space a payload takes in a QR code, computed from its segment lengths without encoding
+ * it.
+ *
+ * @param level the error correction level
+ * @param version the smallest version holding the payload, or 40 if none does
+ * @param usedBits the segment bits, before termination and padding
+ * @param capacityBits the data capacity of {@code version} at {@code level}, in bits
+ * @param symbols the number of linked symbols; above 1, the other components describe the largest
+ */
+public record CapacityEstimate(
+        ErrorCorrectionLevel level, int version, int usedBits, int capacityBits, int symbols) {
+
+    private static final int BASE_DIMENSION = 17;
+    private static final int MODULES_PER_VERSION = 4;
+    private static final double PERCENT = 100.0;
+
+    /** Tells whether the payload fits in a QR code. */
+    public boolean fits() {
+        return usedBits <= capacityBits;
+    }
+
+    /** Returns the number of modules per side, quiet zone excluded. */
+    public int modules() {
+        return BASE_DIMENSION + MODULES_PER_VERSION * version;
+    }
+
+    /** Returns the share of the version capacity used, in percent; above 100 when too long. */
+    public double percentUsed() {
+        return usedBits * PERCENT / capacityBits;
+    }
+
+    /** Returns a short French description for the capacity indicator. */
+    public String text() {
+        if (symbols > 1) {
+            return String.format(
+                    "%d symboles liés, jusqu'à la version %d (%d×%d modules), niveau %s",
+                    symbols, version, modules(), modules(), level);
+        }
+        if (fits()) {
+            return String.format(
+                    "Version %d (%d×%d modules), %.0f %% utilisés, niveau %s",
+                    version, modules(), modules(), percentUsed(), level);
+        }
+        return String.format(
+                "Trop long : %.0f %% de la capacité maximale (version 40, niveau %s)",
+                percentUsed(), level);
+    }
+}
@@ -8,7 +8,14 @@ package fr.softsf.canscan.model;
 import java.awt.Color;
 import java.io.File;
 
-/** Common form fields used to configure QR code generation. */
+/**
+ * Common form fields used to configure QR code generation.
+ *
+ * <p>{@code eccLevel} selects the error correction level; {@link EccLevel#AUTO} picks it from the
+ * logo area given by {@code imageRatio}. {@code compact} selects minimal segments and the smallest
+ * character set instead of a single UTF-8 segment. {@code microQr} allows a Micro QR symbol when
+ * the payload is short enough and no logo is embedded.
+ */
 public record CommonFields(
         File logoFile,
         int size,
@@ -16,4 +23,40 @@ public record CommonFields(
         Color qrColor,
         Color bgColor,
         boolean roundedModules,
-        int margin) {}
+        int margin,
+        EccLevel eccLevel,
+        boolean compact,
+        boolean microQr) {
+
+    /** Normalizes a missing error correction setting to the historical level H. */
+    public CommonFields {
+        if (eccLevel == null) {
+            eccLevel = EccLevel.H;
+        }
+    }
+
+    /**
+     * Creates a configuration with the historical error correction level H, UTF-8 layout and
+     * regular QR symbols.
+     */
+    public CommonFields(
+            File logoFile,
+            int size,
+            double imageRatio,
+            Color qrColor,
+            Color bgColor,
+            boolean roundedModules,
+            int margin) {
+        this(
+                logoFile,
+                size,
+                imageRatio,
+                qrColor,
+                bgColor,
+                roundedModules,
+                margin,
+                EccLevel.H,
+                false,
+                false);
+    }
+}
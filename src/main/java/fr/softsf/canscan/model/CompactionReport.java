@@ -0,0 +1,36 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Compares the symbol of a payload with and without compaction.
+ *
+ * @param standard the symbol with a single UTF-8 segment, or {@code null} if the payload does not
+ *     fit
+ * @param compact the symbol with minimal segments and the smallest character set, or {@code null}
+ *     if the payload does not fit
+ */
+public record CompactionReport(QrSymbolInfo standard, QrSymbolInfo compact) {
+
+    /** Returns a short French side-by-side description of both symbols. */
+    public String text() {
+        return "Standard : " + describe(standard) + " · Compacté : " + describe(compact);
+    }
+
+    /**
+     * Describes one symbol briefly.
+     *
+     * @param symbol the symbol, or {@code null}
+     * @return the version and module count, or a too-long notice
+     */
+    private static String describe(QrSymbolInfo symbol) {
+        return symbol == null
+                ? "trop long"
+                : String.format(
+                        "V%d %d×%d %s",
+                        symbol.version(), symbol.modules(), symbol.modules(), symbol.level());
+    }
+}
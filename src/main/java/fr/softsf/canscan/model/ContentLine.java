@@ -0,0 +1,28 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.util.Map;
+
+/**
+ * One unfolded iCalendar or vCard content line ({@code NAME;PARAM=VALUE:value}).
+ *
+ * @param name property name, uppercased and without vCard group prefix (e.g. {@code DTSTART})
+ * @param params parameters keyed by uppercased name, with surrounding quotes removed
+ * @param value raw property value, still escaped as in the file
+ */
+public record ContentLine(String name, Map<String, String> params, String value) {
+
+    /**
+     * Returns a parameter value.
+     *
+     * @param param the parameter name, uppercased
+     * @return the value, or {@code ""} if absent
+     */
+    public String param(String param) {
+        return params.getOrDefault(param, "");
+    }
+}
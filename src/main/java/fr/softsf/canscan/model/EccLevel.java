@@ -0,0 +1,61 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.util.Locale;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+/**
+ * QR code error correction settings: a fixed level, or {@link #AUTO} to pick the lowest level whose
+ * recovery capacity still covers the area hidden by the logo.
+ */
+public enum EccLevel {
+    AUTO("Automatique", null),
+    L("L (7 %)", ErrorCorrectionLevel.L),
+    M("M (15 %)", ErrorCorrectionLevel.M),
+    Q("Q (25 %)", ErrorCorrectionLevel.Q),
+    H("H (30 %)", ErrorCorrectionLevel.H);
+
+    private final String label;
+    private final ErrorCorrectionLevel level;
+
+    EccLevel(String label, ErrorCorrectionLevel level) {
+        this.label = label;
+        this.level = level;
+    }
+
+    /** Returns the setting label. */
+    public String text() {
+        return label;
+    }
+
+    /** Returns the fixed ZXing level, or {@code null} for {@link #AUTO}. */
+    public ErrorCorrectionLevel level() {
+        return level;
+    }
+
+    /**
+     * Parses a setting name, case-insensitively.
+     *
+     * @param value {@code auto}, {@code L}, {@code M}, {@code Q} or {@code H}
+     * @return the setting
+     * @throws IllegalArgumentException if the value is unknown
+     */
+    public static EccLevel parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Niveau de correction inconnu : " + value + " (auto, L, M, Q ou H)", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.time.Instant;
+
+/**
+ * A stall of the Event Dispatch Thread caught by the watchdog.
+ *
+ * @param start when the EDT stopped dispatching, to the millisecond
+ * @param durationMillis how long the EDT did not dispatch
+ * @param stack the EDT stack captured while it was blocked
+ */
+public record EdtStall(Instant start, long durationMillis, String stack) {
+
+    /** Returns a French header line followed by the stack. */
+    public String text() {
+        return String.format("%s : EDT bloqué %d ms%n%s", start, durationMillis, stack);
+    }
+}
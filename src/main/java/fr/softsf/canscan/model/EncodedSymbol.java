@@ -0,0 +1,16 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * An encoded symbol, ready to be drawn.
+ *
+ * @param matrix the modules, quiet zone included
+ * @param info the symbol description, including its type
+ */
+public record EncodedSymbol(BitMatrix matrix, QrSymbolInfo info) {}
@@ -0,0 +1,69 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Page layout of a multi-up label sheet, in PDF points (1/72 inch).
+ *
+ * <p>The printable area is the page minus {@code margin} on each side, split into {@code columns}
+ * by {@code rows} labels separated by {@code gutter}. Each code is centered in its label; its
+ * background extends {@code bleed} beyond the label so a slightly off cut leaves no white edge.
+ *
+ * @param pageWidth page width
+ * @param pageHeight page height
+ * @param columns labels per row
+ * @param rows labels per column
+ * @param margin outer page margin
+ * @param gutter space between adjacent labels
+ * @param bleed background overflow around each label
+ * @param cropMarks whether to draw cut marks at label corners
+ */
+public record LabelSheet(
+        double pageWidth,
+        double pageHeight,
+        int columns,
+        int rows,
+        double margin,
+        double gutter,
+        double bleed,
+        boolean cropMarks) {
+
+    /** Points per millimetre. */
+    public static final double POINTS_PER_MM = 72 / 25.4;
+
+    /** A4 page width, in points. */
+    public static final double A4_WIDTH = 210 * POINTS_PER_MM;
+
+    /** A4 page height, in points. */
+    public static final double A4_HEIGHT = 297 * POINTS_PER_MM;
+
+    /**
+     * Returns the number of labels on a page.
+     *
+     * @return columns times rows
+     */
+    public int labelsPerPage() {
+        return columns * rows;
+    }
+
+    /**
+     * Returns the width of one label.
+     *
+     * @return the label width
+     */
+    public double labelWidth() {
+        return (pageWidth - 2 * margin - (columns - 1) * gutter) / columns;
+    }
+
+    /**
+     * Returns the height of one label.
+     *
+     * @return the label height
+     */
+    public double labelHeight() {
+        return (pageHeight - 2 * margin - (rows - 1) * gutter) / rows;
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * One line of an incremental batch manifest.
+ *
+ * @param key row key
+ * @param hash hex digest of the row's {@link EncodedData} and {@link CommonFields}
+ * @param fileName output file name, relative to the output directory
+ */
+public record ManifestEntry(String key, String hash, String fileName) {}
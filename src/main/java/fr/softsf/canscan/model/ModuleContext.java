@@ -9,6 +9,7 @@ package fr.softsf.canscan.model;
  * Context for QR module rendering, including configuration, matrix dimensions, and logo area.
  *
  * @param config QR code configuration
+ * @param type symbol type, which decides the position patterns
  * @param matrixWidth matrix width
  * @param matrixHeight matrix height
  * @param whiteBoxX logo area X coordinate
@@ -17,6 +18,7 @@ package fr.softsf.canscan.model;
  */
 public record ModuleContext(
         CommonFields config,
+        SymbolType type,
         int matrixWidth,
         int matrixHeight,
         int whiteBoxX,
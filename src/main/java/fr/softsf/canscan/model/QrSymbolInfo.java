@@ -0,0 +1,40 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+/**
+ * Describes an encoded QR code symbol.
+ *
+ * @param type the symbol type
+ * @param level the error correction level actually used
+ * @param version the symbol version, from 1 to 40, or from 1 to 4 for a Micro QR symbol
+ * @param modules the number of modules per side, quiet zone excluded
+ */
+public record QrSymbolInfo(SymbolType type, ErrorCorrectionLevel level, int version, int modules) {
+
+    /**
+     * Tells whether the symbol is a Micro QR code.
+     *
+     * @return {@code true} for versions M1 to M4
+     */
+    public boolean micro() {
+        return type == SymbolType.MICRO_QR;
+    }
+
+    /** Returns a short French description, such as {@code Version 5 (37×37 modules), niveau M}. */
+    public String text() {
+        return String.format(
+                micro()
+                        ? "Micro QR M%d (%d×%d modules), niveau %s"
+                        : "Version %d (%d×%d modules), niveau %s",
+                version,
+                modules,
+                modules,
+                level);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Parsed iCalendar {@code RRULE} (RFC 5545), restricted to the parts CanScan expands.
+ *
+ * @param frequency {@link ChronoUnit#DAYS}, {@link ChronoUnit#WEEKS}, {@link ChronoUnit#MONTHS} or
+ *     {@link ChronoUnit#YEARS}
+ * @param interval number of frequency units between periods (at least 1)
+ * @param count maximum number of occurrences, or {@code 0} if unbounded
+ * @param until last allowed occurrence start (inclusive), or {@code null} if unbounded
+ * @param byDay {@code BYDAY} entries, empty if absent
+ * @param byMonthDay {@code BYMONTHDAY} values (negative counts from the month end), empty if absent
+ * @param byMonth {@code BYMONTH} values (1 to 12), empty if absent
+ * @param weekStart first day of the week ({@code WKST}), used by weekly rules
+ */
+public record RecurrenceRule(
+        ChronoUnit frequency,
+        int interval,
+        int count,
+        ZonedDateTime until,
+        List<WeekdayNum> byDay,
+        List<Integer> byMonthDay,
+        List<Integer> byMonth,
+        DayOfWeek weekStart) {
+
+    /**
+     * One {@code BYDAY} entry, such as {@code MO}, {@code 2TU} or {@code -1FR}.
+     *
+     * @param ordinal occurrence within the month ({@code -1} for the last), or {@code 0} for every
+     *     such weekday
+     * @param day the weekday
+     */
+    public record WeekdayNum(int ordinal, DayOfWeek day) {}
+}
@@ -0,0 +1,18 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/** The caches of the render pipeline whose size and hit ratio are monitored. */
+public enum RenderCache {
+    /** The function-module layouts of the QR versions, kept for the whole run. */
+    QR_LAYOUT,
+    /** The archive positions of the entries reused for identical rows of a ZIP export. */
+    ZIP_RENDERS,
+    /** The matrices reused for identical rows of a label sheet. */
+    LABEL_MATRICES,
+    /** The last preview image, shown again when nothing it depends on changed. */
+    LAST_PREVIEW
+}
@@ -0,0 +1,17 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The rendered images of linked symbols, in sequence order.
+ *
+ * @param images the images
+ * @param info the description of the largest symbol
+ */
+public record RenderedSymbols(List<BufferedImage> images, QrSymbolInfo info) {}
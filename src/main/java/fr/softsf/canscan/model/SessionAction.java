@@ -0,0 +1,24 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/** The user actions of a recorded session, with the meaning of their value. */
+public enum SessionAction {
+    /** Text typed or pasted in a field: {@code offset:text}. */
+    INSERT,
+    /** Text deleted from a field: {@code offset:length}. */
+    REMOVE,
+    /** A slider moved: the new value. */
+    SLIDE,
+    /** A radio button or check box clicked: no value. */
+    CLICK,
+    /** A combo box entry chosen: its index. */
+    SELECT,
+    /** A color chosen in the color dialog: {@code #RRGGBB}. */
+    COLOR,
+    /** The window resized: {@code widthxheight}. */
+    RESIZE
+}
@@ -0,0 +1,102 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * One user action of a recorded session, stored as a tab-separated line: delay, action, target,
+ * value. Backslashes, tabs and line breaks of the value are escaped.
+ *
+ * @param delayMillis the time elapsed since the previous action
+ * @param action the action
+ * @param target the name of the component acted on
+ * @param value the value of the action, as described by {@link SessionAction}
+ */
+public record SessionEvent(long delayMillis, SessionAction action, String target, String value) {
+
+    private static final char SEPARATOR = '\t';
+    private static final char ESCAPE = '\\';
+    private static final int FIELDS = 4;
+
+    /**
+     * Returns the line of the event in a session file.
+     *
+     * @return the line, without line break
+     */
+    public String toLine() {
+        return String.valueOf(delayMillis)
+                + SEPARATOR
+                + action
+                + SEPARATOR
+                + target
+                + SEPARATOR
+                + escape(value);
+    }
+
+    /**
+     * Reads an event from its line in a session file.
+     *
+     * @param line the line, without line break
+     * @return the event
+     * @throws IllegalArgumentException if the line is not a session event
+     */
+    public static SessionEvent parse(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR), FIELDS);
+        if (fields.length < FIELDS) {
+            throw new IllegalArgumentException("Ligne de session invalide : " + line);
+        }
+        return new SessionEvent(
+                Long.parseLong(fields[0]),
+                SessionAction.valueOf(fields[1]),
+                fields[2],
+                unescape(fields[3]));
+    }
+
+    /**
+     * Escapes the backslashes, tabs and line breaks of a value.
+     *
+     * @param value the raw value
+     * @return the value, on one line and without tab
+     */
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case ESCAPE -> escaped.append("\\\\");
+                case SEPARATOR -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Restores the value escaped by {@link #escape(String)}.
+     *
+     * @param escaped the value read from the file
+     * @return the raw value
+     */
+    private static String unescape(String escaped) {
+        StringBuilder value = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+            if (c == ESCAPE && i + 1 < escaped.length()) {
+                i++;
+                c =
+                        switch (escaped.charAt(i)) {
+                            case 't' -> SEPARATOR;
+                            case 'n' -> '\n';
+                            case 'r' -> '\r';
+                            default -> escaped.charAt(i);
+                        };
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Summary of the verification of a batch split across several processes.
+ *
+ * @param partitions number of partition manifests found in the output directory
+ * @param expected number of distinct keys in the input
+ * @param merged number of keys produced by exactly one partition with a complete output
+ * @param missing number of input keys no partition produced
+ * @param duplicated number of input keys produced by more than one partition
+ * @param incomplete number of input keys whose output file is missing or truncated
+ * @param orphaned number of produced keys absent from the input, left out of the merge
+ */
+public record ShardMergeReport(
+        int partitions,
+        int expected,
+        int merged,
+        int missing,
+        int duplicated,
+        int incomplete,
+        int orphaned) {
+
+    /**
+     * Tells whether every input row was produced exactly once.
+     *
+     * @return {@code true} if the partitions can be merged
+     */
+    public boolean isComplete() {
+        return missing == 0 && duplicated == 0 && incomplete == 0;
+    }
+}
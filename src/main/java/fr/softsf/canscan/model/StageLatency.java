@@ -0,0 +1,62 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+import java.util.Map;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeDataView;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+
+/**
+ * Duration statistics of a render stage.
+ *
+ * <p>The JMX view is built here rather than through the accessors, which the platform MBean server
+ * could only call if the package were exported to every module.
+ *
+ * @param stage the stage name
+ * @param count the number of timed runs
+ * @param p50Micros the median duration, in microseconds
+ * @param p95Micros the 95th percentile duration, in microseconds
+ * @param p99Micros the 99th percentile duration, in microseconds
+ * @param maxMicros the longest duration, in microseconds
+ * @param meanMicros the mean duration, in microseconds
+ */
+public record StageLatency(
+        String stage,
+        long count,
+        long p50Micros,
+        long p95Micros,
+        long p99Micros,
+        long maxMicros,
+        double meanMicros)
+        implements CompositeDataView {
+
+    /**
+     * Returns the statistics as the composite data shown by JMX.
+     *
+     * @param type the composite type derived from the record components
+     * @return the composite data
+     */
+    @Override
+    public CompositeData toCompositeData(CompositeType type) {
+        try {
+            return new CompositeDataSupport(
+                    type,
+                    Map.of(
+                            "stage", stage,
+                            "count", count,
+                            "p50Micros", p50Micros,
+                            "p95Micros", p95Micros,
+                            "p99Micros", p99Micros,
+                            "maxMicros", maxMicros,
+                            "meanMicros", meanMicros));
+        } catch (OpenDataException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
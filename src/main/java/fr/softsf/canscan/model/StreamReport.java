@@ -0,0 +1,29 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Summary of a {@code stream} session, with the latency of each request measured from the moment
+ * its line was read to the moment its response was flushed.
+ *
+ * @param requests number of request lines read
+ * @param failed number of requests answered with an empty response
+ * @param elapsedMillis wall-clock duration of the session in milliseconds
+ * @param p50Micros median latency in microseconds
+ * @param p90Micros 90th percentile latency in microseconds
+ * @param p99Micros 99th percentile latency in microseconds
+ * @param p999Micros 99.9th percentile latency in microseconds
+ * @param maxMicros largest latency in microseconds
+ */
+public record StreamReport(
+        int requests,
+        int failed,
+        long elapsedMillis,
+        long p50Micros,
+        long p90Micros,
+        long p99Micros,
+        long p999Micros,
+        long maxMicros) {}
@@ -0,0 +1,37 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/**
+ * Free text settings for payloads too long for one QR code: no split, or up to 16 linked symbols in
+ * structured append mode, saved side by side in one image or as numbered files.
+ */
+public enum StructuredAppend {
+    OFF("Désactivé"),
+    STRIP("Une image"),
+    FILES("Fichiers numérotés");
+
+    private final String label;
+
+    StructuredAppend(String label) {
+        this.label = label;
+    }
+
+    /** Returns the setting label. */
+    public String text() {
+        return label;
+    }
+
+    /** Tells whether long payloads are split across linked symbols. */
+    public boolean splits() {
+        return this != OFF;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.model;
+
+/** The kind of an encoded symbol, which decides where its position patterns are drawn. */
+public enum SymbolType {
+    /** A regular QR code, with position patterns at three corners. */
+    QR,
+    /** A Micro QR code, with a single, top-left position pattern. */
+    MICRO_QR
+}
@@ -54,6 +54,12 @@ import java.util.function.IntSupplier;
  * @param qrColor Color of the QR code modules.
  * @param bgColor Background color of the QR code and the quiet zone.
  * @param isRoundedModules {@code true} if modules should be rendered with rounded corners.
+ * @param eccLevel Error correction level, or {@link EccLevel#AUTO} to derive it from the logo
+ *     ratio.
+ * @param isCompact {@code true} to encode with minimal segments and the smallest character set.
+ * @param isMicroQr {@code true} to use a Micro QR symbol when the payload fits and there is no
+ *     logo.
+ * @param structuredAppend How free text too long for one QR code is split across linked symbols.
  */
 public record WholeFields(
         IntSupplier availableHeightForQrCode,
@@ -78,4 +84,21 @@ public record WholeFields(
         double ratio,
         Color qrColor,
         Color bgColor,
-        boolean isRoundedModules) {}
+        boolean isRoundedModules,
+        EccLevel eccLevel,
+        boolean isCompact,
+        boolean isMicroQr,
+        StructuredAppend structuredAppend) {
+
+    /**
+     * Returns the structured append setting that applies: the configured one in {@link Mode#FREE},
+     * {@link StructuredAppend#OFF} for the structured modes, whose readers expect a single symbol.
+     *
+     * @return the setting in effect
+     */
+    public StructuredAppend activeStructuredAppend() {
+        return currentMode == Mode.FREE && structuredAppend != null
+                ? structuredAppend
+                : StructuredAppend.OFF;
+    }
+}
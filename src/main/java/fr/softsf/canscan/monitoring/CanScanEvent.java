@@ -0,0 +1,86 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the JFR events of the render pipeline.
+ *
+ * <p>The events are disabled by default, even in a recording started with the JDK profiles; the
+ * {@code .myresources/jfr/canscan.jfc} settings enable them. When disabled, {@link #shouldCommit()}
+ * is a constant {@code false} once compiled, so the event objects are not even allocated: callers
+ * only fill the fields after checking it.
+ *
+ * <p>Events of a render stage also time it for {@link CanScanMetrics} when started with {@link
+ * #start()}, whether JFR records them or not.
+ *
+ * <p>Fields declared here and in the other base classes are protected: JFR does not record the
+ * private fields of a superclass.
+ */
+@Category("CanScan")
+@Enabled(false)
+@StackTrace(false)
+public abstract class CanScanEvent extends Event {
+
+    @Label("Correlation ID")
+    protected long correlationId;
+
+    private final transient RenderStage stage;
+    private transient long startNanos;
+
+    /** Creates an instant event, or an event outside the render stages. */
+    protected CanScanEvent() {
+        this(null);
+    }
+
+    /**
+     * Creates the event of a render stage.
+     *
+     * @param stage the stage timed for {@link CanScanMetrics}
+     */
+    protected CanScanEvent(RenderStage stage) {
+        this.stage = stage;
+    }
+
+    /** Starts the event and the timing of its stage. */
+    public void start() {
+        startNanos = System.nanoTime();
+        begin();
+    }
+
+    /**
+     * Ends the event, records the duration of its stage and, if it is enabled and above its
+     * threshold, tags it with the action bound to the calling thread.
+     *
+     * @return {@code true} if the caller should fill the fields and commit
+     */
+    protected boolean endAndCheck() {
+        end();
+        if (stage != null && startNanos != 0) {
+            CanScanMetrics.INSTANCE.recordStage(stage, System.nanoTime() - startNanos);
+        }
+        if (shouldCommit()) {
+            correlationId = RenderCorrelation.INSTANCE.current();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tags the event with another action than the one bound to the calling thread.
+     *
+     * @param correlationId the identifier of the action
+     */
+    protected void correlate(long correlationId) {
+        this.correlationId = correlationId;
+    }
+}
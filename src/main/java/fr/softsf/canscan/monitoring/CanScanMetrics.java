@@ -0,0 +1,224 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.softsf.canscan.model.CacheStats;
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.model.RenderStage;
+import fr.softsf.canscan.model.StageLatency;
+import fr.softsf.canscan.util.LatencyHistogram;
+import fr.softsf.canscan.util.MemoryHelper;
+
+/**
+ * Application-level metrics of the render pipeline, registered in the platform MBean server as
+ * {@value #OBJECT_NAME} so that VisualVM or JConsole show them next to the GC and heap graphs.
+ *
+ * <p>Stage durations are timed by the JFR events of each stage, whether JFR records them or not;
+ * renders are counted by the preview and save workers, which also measure the bytes their thread
+ * allocates; cancelled and dropped renders are counted by {@code AbstractDynamicWorker}; the caches
+ * report their lookups and size.
+ */
+public enum CanScanMetrics implements CanScanMetricsMXBean {
+    INSTANCE;
+
+    /** The JMX name of the metrics. */
+    public static final String OBJECT_NAME = "fr.softsf.canscan:type=CanScanMetrics";
+
+    private static final double P50 = 50;
+    private static final double P95 = 95;
+    private static final double P99 = 99;
+    private static final RenderStage[] STAGES = RenderStage.values();
+    private static final RenderCache[] CACHES = RenderCache.values();
+    private final LatencyHistogram[] stages = new LatencyHistogram[RenderStage.values().length];
+    private final LatencyHistogram allocations = new LatencyHistogram();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLongArray cacheHits = new AtomicLongArray(RenderCache.values().length);
+    private final AtomicLongArray cacheMisses = new AtomicLongArray(RenderCache.values().length);
+    private final AtomicLongArray cacheSizes = new AtomicLongArray(RenderCache.values().length);
+    private final com.sun.management.ThreadMXBean threads = allocationCounter();
+
+    /** Creates one histogram per stage. */
+    CanScanMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the thread bean able to measure allocations, if the JVM supports it.
+     *
+     * @return the bean, or {@code null}
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean counter
+                && counter.isThreadAllocatedMemorySupported()) {
+            counter.setThreadAllocatedMemoryEnabled(true);
+            return counter;
+        }
+        return null;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, once.
+     *
+     * @return {@code true} if the metrics are registered
+     */
+    public boolean register() {
+        return MBeanRegistry.INSTANCE.register(this, OBJECT_NAME);
+    }
+
+    /**
+     * Records the duration of a stage.
+     *
+     * @param stage the stage
+     * @param nanos the duration, in nanoseconds
+     */
+    public void recordStage(RenderStage stage, long nanos) {
+        stages[stage.ordinal()].record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread, to pass to {@link #recordRender}
+     * once the render is done.
+     *
+     * @return the byte count, or {@code -1} if the JVM does not measure it
+     */
+    public long allocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Counts a render done by the calling thread.
+     *
+     * @param allocatedBefore what {@link #allocatedBytes()} returned before the render
+     */
+    public void recordRender(long allocatedBefore) {
+        renders.increment();
+        if (allocatedBefore >= 0) {
+            allocations.record(allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /** Counts a render cancelled while running. */
+    public void renderCancelled() {
+        cancelled.increment();
+    }
+
+    /** Counts a render dropped before it started. */
+    public void renderDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Counts a cache lookup.
+     *
+     * @param cache the cache
+     * @param hit {@code true} if an entry was found
+     */
+    public void cacheLookup(RenderCache cache, boolean hit) {
+        (hit ? cacheHits : cacheMisses).incrementAndGet(cache.ordinal());
+    }
+
+    /**
+     * Reports the size of a cache.
+     *
+     * @param cache the cache
+     * @param size the number of entries
+     */
+    public void cacheSize(RenderCache cache, long size) {
+        cacheSizes.set(cache.ordinal(), size);
+    }
+
+    @Override
+    public long getRenderCount() {
+        return renders.sum();
+    }
+
+    @Override
+    public long getCancelledRenderCount() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public long getDroppedRenderCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public StageLatency[] getStageLatencies() {
+        StageLatency[] latencies = new StageLatency[STAGES.length];
+        for (int i = 0; i < latencies.length; i++) {
+            LatencyHistogram histogram = stages[i];
+            latencies[i] =
+                    new StageLatency(
+                            STAGES[i].name(),
+                            histogram.count(),
+                            histogram.valueAtPercentile(P50),
+                            histogram.valueAtPercentile(P95),
+                            histogram.valueAtPercentile(P99),
+                            histogram.max(),
+                            histogram.mean());
+        }
+        return latencies;
+    }
+
+    @Override
+    public CacheStats[] getCaches() {
+        CacheStats[] caches = new CacheStats[CACHES.length];
+        for (int i = 0; i < caches.length; i++) {
+            long hits = cacheHits.get(i);
+            long misses = cacheMisses.get(i);
+            long lookups = hits + misses;
+            caches[i] =
+                    new CacheStats(
+                            CACHES[i].name(),
+                            cacheSizes.get(i),
+                            hits,
+                            misses,
+                            lookups == 0 ? 0 : (double) hits / lookups);
+        }
+        return caches;
+    }
+
+    @Override
+    public long getMeanAllocatedBytesPerRender() {
+        return Math.round(allocations.mean());
+    }
+
+    @Override
+    public long getMaxAllocatedBytesPerRender() {
+        return allocations.max();
+    }
+
+    @Override
+    public long getImageMemoryBudgetMB() {
+        return MemoryHelper.INSTANCE.getAvailableMemoryMB();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : stages) {
+            histogram.reset();
+        }
+        allocations.reset();
+        renders.reset();
+        cancelled.reset();
+        dropped.reset();
+        for (int i = 0; i < CACHES.length; i++) {
+            cacheHits.set(i, 0);
+            cacheMisses.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.CacheStats;
+import fr.softsf.canscan.model.StageLatency;
+
+/** JMX view of the render pipeline: counts, stage durations, caches, allocation and memory. */
+public interface CanScanMetricsMXBean {
+
+    /**
+     * Returns the number of previews and saves rendered.
+     *
+     * @return the count
+     */
+    long getRenderCount();
+
+    /**
+     * Returns the number of renders cancelled while running, superseded by a newer edit.
+     *
+     * @return the count
+     */
+    long getCancelledRenderCount();
+
+    /**
+     * Returns the number of renders dropped before they started, while their debounce delay was
+     * still pending.
+     *
+     * @return the count
+     */
+    long getDroppedRenderCount();
+
+    /**
+     * Returns the duration statistics of each render stage.
+     *
+     * @return one entry per stage, in pipeline order
+     */
+    StageLatency[] getStageLatencies();
+
+    /**
+     * Returns the size and hit ratio of each render cache.
+     *
+     * @return one entry per cache
+     */
+    CacheStats[] getCaches();
+
+    /**
+     * Returns the mean number of bytes the rendering thread allocates per render.
+     *
+     * @return the mean, or {@code 0} if the JVM does not measure thread allocation
+     */
+    long getMeanAllocatedBytesPerRender();
+
+    /**
+     * Returns the largest number of bytes the rendering thread allocated for one render.
+     *
+     * @return the maximum, or {@code 0} if the JVM does not measure thread allocation
+     */
+    long getMaxAllocatedBytesPerRender();
+
+    /**
+     * Returns the memory currently available for a new image, safety margin deducted, as checked
+     * before each render.
+     *
+     * @return the budget, in megabytes
+     */
+    long getImageMemoryBudgetMB();
+
+    /** Forgets the counts, durations and cache statistics; cache sizes are kept. */
+    void reset();
+}
@@ -0,0 +1,23 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Reads and draws the logo of a symbol, if any. */
+@Name("fr.softsf.canscan.DrawLogo")
+@Label("Draw Logo")
+@Description("Reads and draws the logo of a symbol, if any.")
+public final class DrawLogoEvent extends SymbolEvent {
+
+    /** Creates the event. */
+    public DrawLogoEvent() {
+        super(RenderStage.DRAW_LOGO);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Draws the data modules of a symbol. */
+@Name("fr.softsf.canscan.DrawModules")
+@Label("Draw Modules")
+@Description("Draws the data modules of a symbol.")
+public final class DrawModulesEvent extends SymbolEvent {
+
+    /** Creates the event. */
+    public DrawModulesEvent() {
+        super(RenderStage.DRAW_MODULES);
+    }
+}
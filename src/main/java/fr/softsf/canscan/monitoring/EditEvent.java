@@ -0,0 +1,38 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Marks an edit of the form that schedules a preview, the origin of the correlation identifier
+ * carried by the events of its render.
+ */
+@Name("fr.softsf.canscan.Edit")
+@Label("Form Edit")
+@Description("An edit of the form that schedules a preview.")
+public final class EditEvent extends CanScanEvent {
+
+    @Label("Mode")
+    private String mode;
+
+    /**
+     * Records an edit, if the event is enabled.
+     *
+     * @param correlationId the identifier of the edit
+     * @param mode the form mode
+     */
+    public static void emit(long correlationId, String mode) {
+        EditEvent event = new EditEvent();
+        if (event.shouldCommit()) {
+            event.correlate(correlationId);
+            event.mode = mode;
+            event.commit();
+        }
+    }
+}
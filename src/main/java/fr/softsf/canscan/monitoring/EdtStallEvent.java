@@ -0,0 +1,40 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** An Event Dispatch Thread stall, committed by the watchdog when the EDT dispatches again. */
+@Name("fr.softsf.canscan.EdtStall")
+@Label("EDT Stall")
+@Description("The Event Dispatch Thread did not dispatch for longer than the watchdog threshold.")
+public final class EdtStallEvent extends CanScanEvent {
+
+    @Label("Stall")
+    @Timespan(Timespan.MILLISECONDS)
+    private long stall;
+
+    @Label("EDT Stack")
+    private String stack;
+
+    /**
+     * Records a stall, if the event is enabled.
+     *
+     * @param stallMillis the stall duration, in milliseconds
+     * @param stack the EDT stack captured during the stall
+     */
+    public static void emit(long stallMillis, String stack) {
+        EdtStallEvent event = new EdtStallEvent();
+        if (event.shouldCommit()) {
+            event.stall = stallMillis;
+            event.stack = stack;
+            event.commit();
+        }
+    }
+}
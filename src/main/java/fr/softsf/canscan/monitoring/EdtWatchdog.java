@@ -0,0 +1,228 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.awt.EventQueue;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import fr.softsf.canscan.model.EdtStall;
+import fr.softsf.canscan.util.LatencyHistogram;
+
+/**
+ * Detects stalls of the Event Dispatch Thread, such as blocking I/O or a {@code get()} on a worker
+ * run from a listener.
+ *
+ * <p>A daemon thread posts a heartbeat to the EDT every {@value #PERIOD_MILLIS} ms and waits for it
+ * to run. When the heartbeat waits longer than the threshold, the EDT stack is captured while it is
+ * still blocked; once the EDT dispatches again, the stall duration is recorded in a {@link
+ * LatencyHistogram}, kept with its stack among the latest stalls, logged and committed as an {@link
+ * EdtStallEvent}. The watchdog is off by default and can be switched at runtime through JMX, as
+ * {@value #OBJECT_NAME}.
+ */
+public enum EdtWatchdog implements EdtWatchdogMXBean {
+    INSTANCE;
+
+    /** The JMX name of the watchdog. */
+    public static final String OBJECT_NAME = "fr.softsf.canscan:type=EdtWatchdog";
+
+    private static final System.Logger LOGGER = System.getLogger(EdtWatchdog.class.getName());
+    private static final long PERIOD_MILLIS = 20;
+    private static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    private static final int MAX_FRAMES = 32;
+    private static final int RECENT_STALLS = 16;
+    private static final double P50 = 50;
+    private static final double P95 = 95;
+    private static final double P99 = 99;
+    private final LatencyHistogram stalls = new LatencyHistogram();
+    private final Deque<EdtStall> recent = new ArrayDeque<>();
+    private final Object beatLock = new Object();
+    private volatile long thresholdMillis = DEFAULT_THRESHOLD_MILLIS;
+    private Thread sampler;
+    private long cycle;
+    private long beatAt;
+    private Thread edt;
+
+    /**
+     * Registers the watchdog in the platform MBean server, once.
+     *
+     * @return {@code true} if the watchdog is registered
+     */
+    public boolean register() {
+        return MBeanRegistry.INSTANCE.register(this, OBJECT_NAME);
+    }
+
+    @Override
+    public synchronized boolean isEnabled() {
+        return sampler != null;
+    }
+
+    @Override
+    public synchronized void setEnabled(boolean enabled) {
+        if (enabled == (sampler != null)) {
+            return;
+        }
+        if (enabled) {
+            sampler = new Thread(this::sample, "EdtWatchdog");
+            sampler.setDaemon(true);
+            sampler.start();
+            return;
+        }
+        sampler.interrupt();
+        sampler = null;
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    @Override
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = Math.max(1, thresholdMillis);
+    }
+
+    /** Posts heartbeats until the sampler thread is interrupted. */
+    private void sample() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                watchBeat();
+                Thread.sleep(PERIOD_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Posts one heartbeat and waits for the EDT to run it, capturing the EDT stack once the wait
+     * exceeds the threshold.
+     *
+     * @throws InterruptedException if the watchdog is stopped
+     */
+    private void watchBeat() throws InterruptedException {
+        long posted = System.nanoTime();
+        long beat;
+        synchronized (beatLock) {
+            beat = ++cycle;
+            beatAt = 0;
+        }
+        EventQueue.invokeLater(() -> beat(beat));
+        String stack = null;
+        long ranAt;
+        synchronized (beatLock) {
+            while (beatAt == 0) {
+                long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted);
+                long threshold = thresholdMillis;
+                if (stack == null && waited >= threshold) {
+                    stack = stackOf(edt);
+                }
+                beatLock.wait(stack == null ? Math.max(1, threshold - waited) : 0);
+            }
+            ranAt = beatAt;
+        }
+        if (stack != null) {
+            record(TimeUnit.NANOSECONDS.toMillis(ranAt - posted), stack);
+        }
+    }
+
+    /**
+     * Runs on the EDT: marks a heartbeat as dispatched.
+     *
+     * @param beat the heartbeat number, ignored if a newer one was posted since
+     */
+    private void beat(long beat) {
+        synchronized (beatLock) {
+            edt = Thread.currentThread();
+            if (beat == cycle) {
+                beatAt = Math.max(1, System.nanoTime());
+                beatLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Formats the top of a thread stack.
+     *
+     * @param thread the EDT, or {@code null} before its first heartbeat
+     * @return the frames, one per line
+     */
+    private static String stackOf(Thread thread) {
+        if (thread == null) {
+            return "\tpile indisponible";
+        }
+        StackTraceElement[] frames = thread.getStackTrace();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.length, MAX_FRAMES); i++) {
+            sb.append("\tat ").append(frames[i]).append(System.lineSeparator());
+        }
+        if (frames.length > MAX_FRAMES) {
+            sb.append("\t…").append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records a stall.
+     *
+     * @param millis the stall duration
+     * @param stack the EDT stack captured during the stall
+     */
+    private void record(long millis, String stack) {
+        EdtStall stall = new EdtStall(Instant.now().minusMillis(millis), millis, stack);
+        synchronized (recent) {
+            if (recent.size() == RECENT_STALLS) {
+                recent.removeFirst();
+            }
+            recent.addLast(stall);
+        }
+        stalls.record(millis);
+        EdtStallEvent.emit(millis, stack);
+        LOGGER.log(System.Logger.Level.WARNING, stall::text);
+    }
+
+    @Override
+    public long getStallCount() {
+        return stalls.count();
+    }
+
+    @Override
+    public long getP50Millis() {
+        return stalls.valueAtPercentile(P50);
+    }
+
+    @Override
+    public long getP95Millis() {
+        return stalls.valueAtPercentile(P95);
+    }
+
+    @Override
+    public long getP99Millis() {
+        return stalls.valueAtPercentile(P99);
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return stalls.max();
+    }
+
+    @Override
+    public String[] getRecentStalls() {
+        synchronized (recent) {
+            return recent.stream().map(EdtStall::text).toArray(String[]::new);
+        }
+    }
+
+    @Override
+    public void reset() {
+        stalls.reset();
+        synchronized (recent) {
+            recent.clear();
+        }
+    }
+}
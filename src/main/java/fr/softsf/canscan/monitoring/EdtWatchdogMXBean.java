@@ -0,0 +1,83 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+/** JMX view and switch of the Event Dispatch Thread watchdog. */
+public interface EdtWatchdogMXBean {
+
+    /**
+     * Tells whether the watchdog samples the EDT.
+     *
+     * @return {@code true} if running
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops the watchdog.
+     *
+     * @param enabled {@code true} to sample the EDT
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the dispatch delay above which the EDT counts as stalled.
+     *
+     * @return the threshold, in milliseconds
+     */
+    long getThresholdMillis();
+
+    /**
+     * Sets the dispatch delay above which the EDT counts as stalled.
+     *
+     * @param thresholdMillis the threshold, in milliseconds, at least 1
+     */
+    void setThresholdMillis(long thresholdMillis);
+
+    /**
+     * Returns the number of recorded stalls.
+     *
+     * @return the count
+     */
+    long getStallCount();
+
+    /**
+     * Returns the median stall duration.
+     *
+     * @return the 50th percentile, in milliseconds
+     */
+    long getP50Millis();
+
+    /**
+     * Returns the 95th percentile stall duration.
+     *
+     * @return the 95th percentile, in milliseconds
+     */
+    long getP95Millis();
+
+    /**
+     * Returns the 99th percentile stall duration.
+     *
+     * @return the 99th percentile, in milliseconds
+     */
+    long getP99Millis();
+
+    /**
+     * Returns the longest stall duration.
+     *
+     * @return the maximum, in milliseconds
+     */
+    long getMaxMillis();
+
+    /**
+     * Returns the latest stalls with their EDT stacks, oldest first.
+     *
+     * @return the stall descriptions
+     */
+    String[] getRecentStalls();
+
+    /** Forgets the recorded stalls. */
+    void reset();
+}
@@ -0,0 +1,40 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/** Registers the monitoring MBeans in the platform MBean server, for JConsole or VisualVM. */
+public enum MBeanRegistry {
+    INSTANCE;
+
+    private static final System.Logger LOGGER = System.getLogger(MBeanRegistry.class.getName());
+
+    /**
+     * Registers an MBean under a name, unless one already is; a failure is logged, never thrown.
+     *
+     * @param mbean the MBean
+     * @param objectName the JMX name, such as {@code fr.softsf.canscan:type=PreviewLatency}
+     * @return {@code true} if an MBean is registered under the name
+     */
+    public boolean register(Object mbean, String objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                return true;
+            }
+            server.registerMBean(mbean, name);
+            return true;
+        } catch (JMException | SecurityException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "MBean non enregistré : " + objectName, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+/** JMX view of the input-to-pixels latency of the live preview, in milliseconds. */
+public interface PreviewLatencyMXBean {
+
+    /**
+     * Returns the number of measured edits.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Returns the median latency.
+     *
+     * @return the 50th percentile, in milliseconds
+     */
+    double getP50Millis();
+
+    /**
+     * Returns the 95th percentile latency.
+     *
+     * @return the 95th percentile, in milliseconds
+     */
+    double getP95Millis();
+
+    /**
+     * Returns the 99th percentile latency.
+     *
+     * @return the 99th percentile, in milliseconds
+     */
+    double getP99Millis();
+
+    /**
+     * Returns the largest latency.
+     *
+     * @return the maximum, in milliseconds
+     */
+    double getMaxMillis();
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean, in milliseconds
+     */
+    double getMeanMillis();
+
+    /** Forgets the measured latencies, for instance before a scenario. */
+    void reset();
+}
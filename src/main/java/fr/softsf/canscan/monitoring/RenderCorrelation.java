@@ -0,0 +1,55 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Links the render work to the user action that triggered it.
+ *
+ * <p>Each edit of the form, each resize of the window and each export gets a new identifier; the
+ * worker that handles it binds the identifier to its thread, so every JFR event of the pipeline
+ * carries it as {@code correlationId}. Events recorded outside a bound thread carry {@code 0}.
+ */
+public enum RenderCorrelation {
+    INSTANCE;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<Long> current = new ThreadLocal<>();
+
+    /**
+     * Returns a new identifier, for a new user action.
+     *
+     * @return a positive identifier, unique for the session
+     */
+    public long next() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Binds an identifier to the calling thread, until {@link #unbind()}.
+     *
+     * @param correlationId the identifier of the action being handled
+     */
+    public void bind(long correlationId) {
+        current.set(correlationId);
+    }
+
+    /** Removes the identifier of the calling thread, which may be a pooled worker thread. */
+    public void unbind() {
+        current.remove();
+    }
+
+    /**
+     * Returns the identifier bound to the calling thread.
+     *
+     * @return the identifier, or {@code 0} if none is bound
+     */
+    public long current() {
+        Long correlationId = current.get();
+        return correlationId == null ? 0 : correlationId;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Scales the generated image to the preview area. */
+@Name("fr.softsf.canscan.Resize")
+@Label("Resize Preview")
+@Description("Scales the generated image to the preview area.")
+public final class ResizeEvent extends CanScanEvent {
+
+    @Label("Source Width (px)")
+    private int sourceWidth;
+
+    @Label("Source Height (px)")
+    private int sourceHeight;
+
+    @Label("Width (px)")
+    private int width;
+
+    @Label("Height (px)")
+    private int height;
+
+    /** Creates the event. */
+    public ResizeEvent() {
+        super(RenderStage.RESIZE);
+    }
+
+    /**
+     * Ends the resize and commits it if enabled.
+     *
+     * @param correlationId the identifier of the action that requested the resize
+     * @param sourceWidth the width of the generated image
+     * @param sourceHeight the height of the generated image
+     * @param width the width of the preview
+     * @param height the height of the preview
+     */
+    public void finish(
+            long correlationId, int sourceWidth, int sourceHeight, int width, int height) {
+        if (endAndCheck()) {
+            correlate(correlationId);
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.width = width;
+            this.height = height;
+            commit();
+        }
+    }
+}
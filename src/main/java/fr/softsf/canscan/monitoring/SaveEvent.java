@@ -0,0 +1,56 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.io.File;
+
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Writes an exported image as a PNG file. */
+@Name("fr.softsf.canscan.Save")
+@Label("Save PNG")
+@Description("Writes an exported image as a PNG file.")
+public final class SaveEvent extends CanScanEvent {
+
+    @Label("Width (px)")
+    private int width;
+
+    @Label("Height (px)")
+    private int height;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Path")
+    private String path;
+
+    /** Creates the event. */
+    public SaveEvent() {
+        super(RenderStage.SAVE);
+    }
+
+    /**
+     * Ends the write and commits it if enabled.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param file the written file
+     */
+    public void finish(int width, int height, File file) {
+        if (endAndCheck()) {
+            this.width = width;
+            this.height = height;
+            bytes = file.length();
+            path = file.getAbsolutePath();
+            commit();
+        }
+    }
+}
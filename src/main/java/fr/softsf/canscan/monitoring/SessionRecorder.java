@@ -0,0 +1,380 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.InputMethodEvent;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JSlider;
+import javax.swing.JToggleButton;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.JTextComponent;
+
+import com.github.lgooddatepicker.components.DatePicker;
+import com.github.lgooddatepicker.components.TimePicker;
+
+import fr.softsf.canscan.model.SessionAction;
+import fr.softsf.canscan.model.SessionEvent;
+
+/**
+ * Records the interaction timeline of a user into a session file, for the replay benchmark of the
+ * test sources.
+ *
+ * <p>The components are the fields of the window, named after them when they have no name. Recorded
+ * are the edits typed or pasted in the focused text field, the slider moves, the clicks on radio
+ * buttons and check boxes, the combo box choices, the colors chosen for the color buttons, which
+ * show them as {@code #RRGGBB}, and the window sizes. The logo, chosen through a file dialog, is
+ * not. Each action is one {@link SessionEvent} line after a {@value #HEADER} header; a file whose
+ * name ends with {@code .gz} is compressed. Fields are found by reflection, so recording needs the
+ * JVM, not the native image.
+ */
+public enum SessionRecorder {
+    INSTANCE;
+
+    /** The first line of a session file. */
+    public static final String HEADER = "# canscan-session 1";
+
+    private static final System.Logger LOGGER = System.getLogger(SessionRecorder.class.getName());
+    private static final Pattern HEX_COLOR = Pattern.compile("#[0-9A-F]{6}");
+    private static final String PICKER_TEXT = ".text";
+    private static final String GZIP_SUFFIX = ".gz";
+    private BufferedWriter writer;
+    private Path file;
+    private long lastMillis;
+    private long count;
+
+    /**
+     * Starts recording the window into a file, replacing it, and stops at JVM shutdown. Call on the
+     * EDT, once the window is built. If the file cannot be created, the failure is logged and
+     * nothing is recorded.
+     *
+     * @param window the window, whose fields are the recorded components
+     * @param target the session file
+     */
+    public synchronized void start(Window window, Path target) {
+        if (writer != null) {
+            return;
+        }
+        try {
+            writer = open(target);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Enregistrement de la session impossible", e);
+            return;
+        }
+        file = target;
+        lastMillis = System.currentTimeMillis();
+        count = 0;
+        namedComponents(window).forEach(this::watch);
+        window.addComponentListener(
+                new ComponentAdapter() {
+                    @Override
+                    public void componentResized(ComponentEvent e) {
+                        recordSize(window);
+                    }
+                });
+        recordSize(window);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "SessionRecorder"));
+        LOGGER.log(System.Logger.Level.INFO, "Enregistrement de la session dans {0}", target);
+    }
+
+    /**
+     * Creates a session file and writes its header.
+     *
+     * @param target the session file
+     * @return the writer of the actions
+     * @throws IOException if the file cannot be created
+     */
+    private static BufferedWriter open(Path target) throws IOException {
+        OutputStream out = Files.newOutputStream(target);
+        if (isCompressed(target)) {
+            out = new GZIPOutputStream(out);
+        }
+        BufferedWriter created =
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        created.write(HEADER);
+        created.newLine();
+        return created;
+    }
+
+    /** Stops recording and closes the file; does nothing if not recording. */
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            LOGGER.log(
+                    System.Logger.Level.INFO,
+                    "Session enregistrée : {0} actions dans {1}",
+                    count,
+                    file);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Fermeture de la session impossible", e);
+        }
+        writer = null;
+    }
+
+    /**
+     * Reads the actions of a session file.
+     *
+     * @param source the session file, compressed if its name ends with {@code .gz}
+     * @return the actions, in order
+     * @throws IOException if the file cannot be read or is not a session file
+     */
+    public static List<SessionEvent> read(Path source) throws IOException {
+        InputStream in = Files.newInputStream(source);
+        if (isCompressed(source)) {
+            in = new GZIPInputStream(in);
+        }
+        List<SessionEvent> events = new ArrayList<>();
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (HEADER.equals(reader.readLine())) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    events.add(SessionEvent.parse(line));
+                }
+                return events;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        throw new IOException("Fichier de session invalide : " + source);
+    }
+
+    /**
+     * Returns the components held by the fields of an object, naming the unnamed ones after their
+     * field. The text field of a date or time picker is added as {@code <picker>.text}.
+     *
+     * @param owner the object, such as the main window
+     * @return the components, by name, in field order
+     */
+    public static Map<String, JComponent> namedComponents(Object owner) {
+        Map<String, JComponent> components = new LinkedHashMap<>();
+        for (Field field : owner.getClass().getDeclaredFields()) {
+            if (JComponent.class.isAssignableFrom(field.getType())
+                    && !Modifier.isStatic(field.getModifiers())
+                    && field.trySetAccessible()) {
+                addComponent(components, field, owner);
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Adds the component of a field, named after it if unnamed.
+     *
+     * @param components the components by name
+     * @param field the accessible field
+     * @param owner the object holding the field
+     */
+    private static void addComponent(
+            Map<String, JComponent> components, Field field, Object owner) {
+        JComponent component;
+        try {
+            component = (JComponent) field.get(owner);
+        } catch (IllegalAccessException e) {
+            return;
+        }
+        if (component == null) {
+            return;
+        }
+        if (component.getName() == null) {
+            component.setName(field.getName());
+        }
+        components.put(component.getName(), component);
+        if (component instanceof DatePicker picker) {
+            components.put(component.getName() + PICKER_TEXT, picker.getComponentDateTextField());
+        } else if (component instanceof TimePicker picker) {
+            components.put(component.getName() + PICKER_TEXT, picker.getComponentTimeTextField());
+        }
+    }
+
+    /**
+     * Adds the listener that records the actions on a component, if it has any.
+     *
+     * @param name the component name
+     * @param component the component
+     */
+    private void watch(String name, JComponent component) {
+        switch (component) {
+            case JTextComponent text -> watchText(name, text);
+            case JSlider slider -> watchSlider(name, slider);
+            case JToggleButton toggle ->
+                    toggle.addActionListener(e -> record(SessionAction.CLICK, name, ""));
+            case JComboBox<?> combo ->
+                    combo.addActionListener(
+                            e -> {
+                                if (isUserInput()) {
+                                    record(
+                                            SessionAction.SELECT,
+                                            name,
+                                            String.valueOf(combo.getSelectedIndex()));
+                                }
+                            });
+            case JButton button ->
+                    button.addPropertyChangeListener(
+                            "text",
+                            e -> {
+                                if (e.getNewValue() instanceof String hex
+                                        && HEX_COLOR.matcher(hex).matches()) {
+                                    record(SessionAction.COLOR, name, hex);
+                                }
+                            });
+            default -> {
+                // Containers and labels carry no action
+            }
+        }
+    }
+
+    /**
+     * Records the edits typed or pasted in a text component while it has the focus; edits made by
+     * the application, such as a derived field, are replayed by the application itself.
+     *
+     * @param name the component name
+     * @param text the text component
+     */
+    private void watchText(String name, JTextComponent text) {
+        text.getDocument()
+                .addDocumentListener(
+                        new DocumentListener() {
+                            @Override
+                            public void insertUpdate(DocumentEvent e) {
+                                if (text.isFocusOwner() && isUserInput()) {
+                                    recordInsert(name, e);
+                                }
+                            }
+
+                            @Override
+                            public void removeUpdate(DocumentEvent e) {
+                                if (text.isFocusOwner() && isUserInput()) {
+                                    record(
+                                            SessionAction.REMOVE,
+                                            name,
+                                            e.getOffset() + ":" + e.getLength());
+                                }
+                            }
+
+                            @Override
+                            public void changedUpdate(DocumentEvent e) {
+                                // Attribute changes are not user edits
+                            }
+                        });
+    }
+
+    /**
+     * Records the inserted text of a document event.
+     *
+     * @param name the component name
+     * @param e the insertion
+     */
+    private void recordInsert(String name, DocumentEvent e) {
+        try {
+            String inserted = e.getDocument().getText(e.getOffset(), e.getLength());
+            record(SessionAction.INSERT, name, e.getOffset() + ":" + inserted);
+        } catch (BadLocationException ex) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Insertion illisible dans {0}", name);
+        }
+    }
+
+    /**
+     * Records every value a slider takes, whether dragged, clicked or moved with the keyboard.
+     *
+     * @param name the component name
+     * @param slider the slider
+     */
+    private void watchSlider(String name, JSlider slider) {
+        int[] last = {slider.getValue()};
+        slider.addChangeListener(
+                e -> {
+                    if (slider.getValue() != last[0]) {
+                        last[0] = slider.getValue();
+                        record(SessionAction.SLIDE, name, String.valueOf(last[0]));
+                    }
+                });
+    }
+
+    /**
+     * Records the size of the window.
+     *
+     * @param window the window
+     */
+    private void recordSize(Window window) {
+        record(SessionAction.RESIZE, "", window.getWidth() + "x" + window.getHeight());
+    }
+
+    /**
+     * Writes an action with the time elapsed since the previous one; stops recording if the file
+     * cannot be written.
+     *
+     * @param action the action
+     * @param target the component name
+     * @param value the action value
+     */
+    private synchronized void record(SessionAction action, String target, String value) {
+        if (writer == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            writer.write(new SessionEvent(now - lastMillis, action, target, value).toLine());
+            writer.newLine();
+            lastMillis = now;
+            count++;
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Écriture de la session impossible", e);
+            stop();
+        }
+    }
+
+    /**
+     * Tells whether the event being dispatched comes from the keyboard, the mouse or an input
+     * method.
+     *
+     * @return {@code true} for user input
+     */
+    private static boolean isUserInput() {
+        AWTEvent current = EventQueue.getCurrentEvent();
+        return current instanceof InputEvent || current instanceof InputMethodEvent;
+    }
+
+    /**
+     * Tells whether a session file is compressed.
+     *
+     * @param path the file
+     * @return {@code true} if its name ends with {@code .gz}
+     */
+    private static boolean isCompressed(Path path) {
+        return path.getFileName().toString().endsWith(GZIP_SUFFIX);
+    }
+}
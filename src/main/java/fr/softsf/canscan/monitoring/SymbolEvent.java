@@ -0,0 +1,59 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.RenderStage;
+import jdk.jfr.Label;
+
+/** Base of the events of one symbol render stage, described by its size and style flags. */
+public abstract class SymbolEvent extends CanScanEvent {
+
+    @Label("Size (px)")
+    protected int size;
+
+    @Label("Modules")
+    protected int modules;
+
+    @Label("Rounded Modules")
+    protected boolean rounded;
+
+    @Label("Logo")
+    protected boolean logo;
+
+    @Label("Compact")
+    protected boolean compact;
+
+    @Label("Micro QR")
+    protected boolean micro;
+
+    /**
+     * Creates the event of a symbol stage.
+     *
+     * @param stage the stage timed for {@link CanScanMetrics}
+     */
+    protected SymbolEvent(RenderStage stage) {
+        super(stage);
+    }
+
+    /**
+     * Ends the stage and commits it if enabled.
+     *
+     * @param config the render configuration
+     * @param matrixWidth the width of the matrix, quiet zone included
+     */
+    public void finish(CommonFields config, int matrixWidth) {
+        if (endAndCheck()) {
+            size = config.size();
+            modules = matrixWidth - 2 * config.margin();
+            rounded = config.roundedModules();
+            logo = config.logoFile() != null;
+            compact = config.compact();
+            micro = config.microQr();
+            commit();
+        }
+    }
+}
@@ -20,13 +20,18 @@ import fr.softsf.canscan.util.DateHelper;
  * Service for generating QR code content and default filenames.
  *
  * <p>Supports MECARD MEET FREE modes with input validation and standardized formatting. Returns
- * structured results for encoding and export.
+ * structured results for encoding and export. Payloads are rebuilt on every keystroke, so each is
+ * written into a single presized builder, without intermediate strings.
  */
 public enum DataBuilderService {
     INSTANCE;
 
     private static final String APPEND_FIELD_WITH_SPECIFIED_SEPARATOR =
             "appendFieldWithSpecifiedSeparator";
+    private static final String PRODID =
+            String.format("-//Soft64.fr//CanScan %s//FR", StringConstants.VERSION.getValue());
+    private static final int MEET_FIXED_LENGTH = 256;
+    private static final int MECARD_FIXED_LENGTH = 40;
 
     /**
      * Builds the QR content and default filename based on the selected mode.
@@ -98,25 +103,19 @@ public enum DataBuilderService {
             String meetName,
             String meetLat,
             String meetLong) {
-        if (StringUtils.isBlank(
-                meetTitle
-                        + meetUId
-                        + meetBeginDateTime
-                        + meetEndDateTime
-                        + meetName
-                        + meetLat
-                        + meetLat)) {
+        if (allBlank(meetTitle, meetUId, meetBeginDateTime, meetEndDateTime, meetName, meetLat)) {
             return "";
         }
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb =
+                new StringBuilder(
+                        MEET_FIXED_LENGTH
+                                + length(meetTitle, meetUId, meetBeginDateTime, meetEndDateTime)
+                                + length(meetName)
+                                + 2 * length(meetLat, meetLong));
         String separator = System.lineSeparator();
         appendFieldWithSpecifiedSeparator(sb, "BEGIN", "VCALENDAR", separator);
         appendFieldWithSpecifiedSeparator(sb, "VERSION", "2.0", separator);
-        appendFieldWithSpecifiedSeparator(
-                sb,
-                "PRODID",
-                String.format("-//Soft64.fr//CanScan %s//FR", StringConstants.VERSION.getValue()),
-                separator);
+        appendFieldWithSpecifiedSeparator(sb, "PRODID", PRODID, separator);
         appendFieldWithSpecifiedSeparator(sb, "BEGIN", "VEVENT", separator);
         appendFieldWithSpecifiedSeparator(sb, "UID", meetUId, separator);
         if (StringUtils.isNotBlank(meetName)) {
@@ -127,15 +126,13 @@ public enum DataBuilderService {
         appendFieldWithSpecifiedSeparator(sb, "DTEND", meetEndDateTime, separator);
         appendFieldWithSpecifiedSeparator(sb, "SUMMARY", meetTitle, separator);
         if (StringUtils.isNotBlank(meetLat) && StringUtils.isNotBlank(meetLong)) {
-            appendFieldWithSpecifiedSeparator(
-                    sb, "GEO", String.format("%s;%s", meetLat, meetLong), separator);
-            appendFieldWithSpecifiedSeparator(
-                    sb,
-                    "LOCATION",
-                    String.format(
-                            "https://www.openstreetmap.org/?mlat=%s&mlon=%s&zoom=15",
-                            meetLat, meetLong),
-                    separator);
+            sb.append("GEO:").append(meetLat).append(';').append(meetLong).append(separator);
+            sb.append("LOCATION:https://www.openstreetmap.org/?mlat=")
+                    .append(meetLat)
+                    .append("&mlon=")
+                    .append(meetLong)
+                    .append("&zoom=15")
+                    .append(separator);
         }
         appendFieldWithSpecifiedSeparator(sb, "END", "VEVENT", separator);
         appendFieldWithSpecifiedSeparator(sb, "END", "VCALENDAR", separator);
@@ -159,10 +156,12 @@ public enum DataBuilderService {
      */
     public String buildMecard(
             String name, String tel, String email, String org, String adr, String url) {
-        if (StringUtils.isBlank(name + tel + email + org + adr + url)) {
+        if (allBlank(name, tel, email, org, adr, url)) {
             return "";
         }
-        StringBuilder sb = new StringBuilder("MECARD:");
+        StringBuilder sb =
+                new StringBuilder(MECARD_FIXED_LENGTH + length(name, tel, email, org, adr, url));
+        sb.append("MECARD:");
         appendFieldWithSpecifiedSeparator(sb, "N", name, ";");
         appendFieldWithSpecifiedSeparator(sb, "TEL", tel, ";");
         appendFieldWithSpecifiedSeparator(sb, "EMAIL", email, ";");
@@ -173,6 +172,36 @@ public enum DataBuilderService {
         return sb.toString();
     }
 
+    /**
+     * Tells whether all values are blank, as {@link StringUtils#isBlank} on their concatenation: a
+     * {@code null} value counts as the text {@code "null"}, which is not blank.
+     *
+     * @param values the values
+     * @return {@code true} if every value is non-null and blank
+     */
+    private static boolean allBlank(String... values) {
+        for (String value : values) {
+            if (value == null || StringUtils.isNotBlank(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total length of values, for presizing a builder.
+     *
+     * @param values the values
+     * @return the sum of the lengths, {@code null} counting as 0
+     */
+    private static int length(String... values) {
+        int total = 0;
+        for (String value : values) {
+            total += StringUtils.length(value);
+        }
+        return total;
+    }
+
     /**
      * Appends a MECARD field in the format {@code fieldName:value<separator>} if the value is
      * non-blank.
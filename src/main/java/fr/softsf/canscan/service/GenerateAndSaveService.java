@@ -15,6 +15,7 @@ import javax.swing.SwingWorker;
 import fr.softsf.canscan.constant.StringConstants;
 import fr.softsf.canscan.model.CommonFields;
 import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.StructuredAppend;
 import fr.softsf.canscan.ui.EncodedImage;
 import fr.softsf.canscan.ui.MyPopup;
 import fr.softsf.canscan.ui.worker.GenerateAndSaveWorker;
@@ -39,14 +40,20 @@ public class GenerateAndSaveService {
      * Generates and saves a QR code as a PNG file using the provided data and configuration.
      *
      * <p>Validates input data, applies visual settings, generates the QR code image, and saves it
-     * to a user-selected file location. All operations are performed asynchronously to prevent UI
-     * blocking.
+     * to a user-selected file location. A payload too long for one symbol can be split across
+     * linked symbols, saved in that file side by side or as numbered files next to it. All
+     * operations are performed asynchronously to prevent UI blocking.
      *
      * @param qrData the QR code data; must not be null
      * @param config the visual configuration; must not be null
+     * @param structuredAppend how a payload too long for one symbol is split and saved
      * @param loader the progress indicator to display during generation
      */
-    public void generateAndSave(EncodedData qrData, CommonFields config, JProgressBar loader) {
+    public void generateAndSave(
+            EncodedData qrData,
+            CommonFields config,
+            StructuredAppend structuredAppend,
+            JProgressBar loader) {
         if (checkNPEInputs(qrData, config, loader)) {
             if (qrData.data().isBlank()) {
                 MyPopup.INSTANCE.showDialog(
@@ -60,7 +67,7 @@ public class GenerateAndSaveService {
                 return;
             }
             loader.setVisible(true);
-            executeQrGeneration(qrData, config, loader, outputFile);
+            executeQrGeneration(qrData, config, structuredAppend, loader, outputFile);
         }
     }
 
@@ -88,13 +95,19 @@ public class GenerateAndSaveService {
      *
      * @param qrData the QR code data
      * @param config the visual configuration
+     * @param structuredAppend how a payload too long for one symbol is split and saved
      * @param loader the progress bar to hide after completion
      * @param outputFile the file where the QR code will be saved
      */
     private void executeQrGeneration(
-            EncodedData qrData, CommonFields config, JProgressBar loader, File outputFile) {
+            EncodedData qrData,
+            CommonFields config,
+            StructuredAppend structuredAppend,
+            JProgressBar loader,
+            File outputFile) {
         SwingWorker<BufferedImage, Void> worker =
-                new GenerateAndSaveWorker(qrData, config, loader, outputFile, encodedImage);
+                new GenerateAndSaveWorker(
+                        qrData, config, loader, outputFile, encodedImage, structuredAppend);
         worker.execute();
     }
 
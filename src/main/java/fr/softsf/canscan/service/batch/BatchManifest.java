@@ -0,0 +1,218 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.softsf.canscan.model.ManifestEntry;
+
+/**
+ * Persistent map of row key to input digest and output file, used by incremental batch runs.
+ *
+ * <p>Stored as a UTF-8 tab-separated file ({@code key, hash, file}) sorted by key, so it diffs
+ * cleanly under version control. Backslashes, tabs and line breaks in keys are escaped. Saving
+ * writes a temporary file and moves it over the previous manifest, so an interrupted run never
+ * leaves a truncated manifest behind. Mutators are thread-safe.
+ */
+public final class BatchManifest {
+
+    /** Default manifest file name inside an output directory. */
+    public static final String DEFAULT_FILE_NAME = ".canscan-manifest.tsv";
+
+    /** Prefix of the manifest file names of partitioned runs. */
+    public static final String PARTITION_PREFIX = ".canscan-manifest-";
+
+    private static final String HEADER = "# CanScan manifest v1";
+    private static final int COLUMNS = 3;
+    private final Path file;
+    private final Map<String, ManifestEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty manifest bound to a file.
+     *
+     * @param file where {@link #save()} writes; must not be {@code null}
+     */
+    private BatchManifest(Path file) {
+        this.file = Objects.requireNonNull(file, "file must not be null");
+    }
+
+    /**
+     * Returns the manifest file name of a run.
+     *
+     * <p>Processes sharing an output directory each own one partition, so they never write the same
+     * manifest.
+     *
+     * @param partition the partition name, or an empty string for a run owning the whole directory
+     * @return the file name
+     */
+    public static String fileNameFor(String partition) {
+        return partition.isEmpty() ? DEFAULT_FILE_NAME : PARTITION_PREFIX + partition + ".tsv";
+    }
+
+    /**
+     * Loads a manifest, or returns an empty one if the file does not exist.
+     *
+     * @param file the manifest file
+     * @return the loaded manifest
+     * @throws IOException if the file exists but cannot be read or is malformed
+     */
+    public static BatchManifest load(Path file) throws IOException {
+        BatchManifest manifest = new BatchManifest(file);
+        if (Files.notExists(file)) {
+            return manifest;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t", -1);
+                if (parts.length != COLUMNS) {
+                    throw new IOException(
+                            "Manifeste invalide " + file + " à la ligne " + lineNumber);
+                }
+                String key = unescape(parts[0]);
+                manifest.entries.put(key, new ManifestEntry(key, parts[1], parts[2]));
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Returns the entry for a key.
+     *
+     * @param key the row key
+     * @return the entry, or {@code null} if unknown
+     */
+    public ManifestEntry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Adds or replaces an entry.
+     *
+     * @param entry the entry; must not be {@code null}
+     */
+    public void put(ManifestEntry entry) {
+        entries.put(entry.key(), entry);
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key the row key
+     * @return the removed entry, or {@code null} if unknown
+     */
+    public ManifestEntry remove(String key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Returns a snapshot of all entries.
+     *
+     * @return the entries, in no particular order
+     */
+    public List<ManifestEntry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Atomically writes the manifest to its file.
+     *
+     * @throws IOException if writing fails
+     */
+    public void save() throws IOException {
+        List<ManifestEntry> sorted = entries();
+        sorted.sort(Comparator.comparing(ManifestEntry::key));
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write(HEADER);
+                out.newLine();
+                for (ManifestEntry e : sorted) {
+                    out.write(escape(e.key()));
+                    out.write('\t');
+                    out.write(e.hash());
+                    out.write('\t');
+                    out.write(e.fileName());
+                    out.newLine();
+                }
+            }
+            Files.move(
+                    tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Escapes characters that would break the line and column structure.
+     *
+     * @param value the raw key
+     * @return the escaped key
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\t", "\\t")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r");
+    }
+
+    /**
+     * Reverses {@link #escape(String)}.
+     *
+     * @param value the escaped key
+     * @return the raw key
+     */
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(
+                        switch (next) {
+                            case 't' -> '\t';
+                            case 'n' -> '\n';
+                            case 'r' -> '\r';
+                            default -> next;
+                        });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
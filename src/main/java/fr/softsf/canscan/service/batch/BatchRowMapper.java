@@ -0,0 +1,98 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StructuredAppend;
+import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.util.ValidationFieldHelper;
+
+/**
+ * Maps named input columns onto a {@link WholeFields}, the same structure the UI builds from its
+ * form, so headless runs go through {@link fr.softsf.canscan.service.DataBuilderService} unchanged.
+ *
+ * <p>Column names are the {@link WholeFields} component names ({@code name}, {@code tel}, {@code
+ * meetTitle}, ...). Missing columns are treated as empty.
+ */
+public enum BatchRowMapper {
+    INSTANCE;
+
+    private static final int NO_AVAILABLE_HEIGHT = 0;
+
+    /**
+     * Builds the fields for one row.
+     *
+     * <p>If the MEET UID is blank it is derived from the title, exactly as the UI does.
+     *
+     * @param mode the encoding mode of the row
+     * @param column lookup returning the trimmed value of a column, or {@code ""} if absent
+     * @param style the visual configuration shared by the run
+     * @return the populated fields
+     */
+    public WholeFields toWholeFields(Mode mode, UnaryOperator<String> column, CommonFields style) {
+        String meetTitle = column.apply("meetTitle");
+        String meetUId = column.apply("meetUId");
+        if (StringUtils.isBlank(meetUId) && StringUtils.isNotBlank(meetTitle)) {
+            meetUId = ValidationFieldHelper.INSTANCE.validateAndGetMeetUID(meetTitle);
+        }
+        return new WholeFields(
+                () -> NO_AVAILABLE_HEIGHT,
+                mode,
+                column.apply("free"),
+                column.apply("name"),
+                column.apply("org"),
+                column.apply("tel"),
+                column.apply("email"),
+                column.apply("adr"),
+                column.apply("url"),
+                meetTitle,
+                meetUId,
+                column.apply("meetName"),
+                column.apply("meetBeginDateTime"),
+                column.apply("meetEndDateTime"),
+                column.apply("meetLat"),
+                column.apply("meetLong"),
+                style.logoFile() == null ? "" : style.logoFile().getPath(),
+                style.size(),
+                style.margin(),
+                style.imageRatio(),
+                style.qrColor(),
+                style.bgColor(),
+                style.roundedModules(),
+                style.eccLevel(),
+                style.compact(),
+                style.microQr(),
+                StructuredAppend.OFF);
+    }
+
+    /**
+     * Parses a mode name, accepting either the enum name or its label, case-insensitively.
+     *
+     * @param value the raw value; blank selects {@code fallback}
+     * @param fallback the mode to use when {@code value} is blank
+     * @return the parsed mode
+     * @throws IllegalArgumentException if {@code value} names no known mode
+     */
+    public Mode parseMode(String value, Mode fallback) {
+        if (StringUtils.isBlank(value)) {
+            return fallback;
+        }
+        String normalized = value.trim();
+        for (Mode mode : Mode.values()) {
+            if (mode.name().equalsIgnoreCase(normalized)
+                    || mode.text().equalsIgnoreCase(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Mode inconnu : " + normalized.toUpperCase(Locale.ROOT));
+    }
+}
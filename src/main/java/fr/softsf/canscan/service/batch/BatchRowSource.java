@@ -0,0 +1,46 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import fr.softsf.canscan.model.BatchRow;
+
+/**
+ * Pull-based stream of {@link BatchRow}s read from an input file.
+ *
+ * <p>Implementations read lazily so that inputs of any size are processed with bounded memory.
+ */
+public interface BatchRowSource extends Closeable {
+
+    /**
+     * Reads the next row.
+     *
+     * @return the next row, or {@code null} when the input is exhausted
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    BatchRow nextRow() throws IOException;
+
+    /**
+     * Returns a source without rows, used to prune every output of an input that was removed.
+     *
+     * @return an empty source
+     */
+    static BatchRowSource empty() {
+        return new BatchRowSource() {
+            @Override
+            public BatchRow nextRow() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed thread pool whose submissions block once a given number of tasks are in flight.
+ *
+ * <p>Lets a producer stream rows from an input of any size into the pool without queueing the whole
+ * input in memory: the producer simply waits for a free slot.
+ */
+public final class BoundedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    /**
+     * Creates the pool.
+     *
+     * @param threads number of worker threads (at least 1)
+     * @param maxInFlight maximum number of submitted but unfinished tasks (at least 1)
+     * @param threadName prefix for worker thread names
+     */
+    public BoundedExecutor(int threads, int maxInFlight, String threadName) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor =
+                Executors.newFixedThreadPool(
+                        Math.max(1, threads),
+                        r -> new Thread(r, threadName + "-" + counter.incrementAndGet()));
+        this.slots = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    /**
+     * Submits a task, blocking while the in-flight limit is reached.
+     *
+     * @param task the task to run
+     * @throws InterruptedException if interrupted while waiting for a slot
+     */
+    public void submit(Runnable task) throws InterruptedException {
+        slots.acquire();
+        try {
+            executor.execute(
+                    () -> {
+                        try {
+                            task.run();
+                        } finally {
+                            slots.release();
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting tasks and waits until every submitted task has finished.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        executor.shutdown();
+        boolean terminated;
+        do {
+            terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
+        } while (!terminated);
+    }
+
+    /** Cancels pending tasks and interrupts running ones if the pool is still active. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import fr.softsf.canscan.model.ManifestEntry;
+
+/**
+ * Append-only record of the rows completed by a batch run, so that a crashed run can resume.
+ *
+ * <p>The {@link BatchManifest} is only saved at the end of a run. Meanwhile each completed row is
+ * appended to this journal, in the manifest's line format. Entries are written and flushed to disk
+ * in groups, once {@code groupSize} entries are pending or {@code maxDelayMillis} have elapsed, so
+ * the cost of {@code fsync} is shared by many rows. A crash loses at most the last group, whose
+ * rows are simply rendered again.
+ *
+ * <p>On the next run, {@link #replay} merges the journal into the manifest, keeping only entries
+ * whose PNG is complete, and the journal is deleted once the manifest has been saved.
+ */
+final class CheckpointJournal implements Closeable {
+
+    /** Default journal file name inside an output directory. */
+    static final String DEFAULT_FILE_NAME = ".canscan-journal.tsv";
+
+    private static final String PARTITION_PREFIX = ".canscan-journal-";
+
+    private static final System.Logger LOGGER = System.getLogger(CheckpointJournal.class.getName());
+    private static final int COLUMNS = 3;
+    private final FileChannel channel;
+    private final int groupSize;
+    private final long maxDelayNanos;
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingEntries;
+    private long lastSyncNanos = System.nanoTime();
+    private long syncs;
+
+    /**
+     * Opens a journal for appending, creating it if needed.
+     *
+     * @param file the journal file
+     * @param groupSize number of entries per flush
+     * @param maxDelayMillis maximum age of an unflushed entry, checked when an entry is recorded
+     * @throws IOException if the file cannot be opened
+     */
+    CheckpointJournal(Path file, int groupSize, long maxDelayMillis) throws IOException {
+        this.channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+        this.groupSize = Math.max(1, groupSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    /**
+     * Returns the journal file name of a run, following {@link BatchManifest#fileNameFor}.
+     *
+     * @param partition the partition name, or an empty string for a run owning the whole directory
+     * @return the file name
+     */
+    static String fileNameFor(String partition) {
+        return partition.isEmpty() ? DEFAULT_FILE_NAME : PARTITION_PREFIX + partition + ".tsv";
+    }
+
+    /**
+     * Merges the entries of a previous, interrupted run into a manifest.
+     *
+     * <p>Entries whose output is missing or truncated are ignored, as is a torn last line. When the
+     * run owns the whole directory, stale temporary files left next to the outputs are deleted;
+     * partitioned runs leave them, since they may belong to another process still writing.
+     *
+     * @param file the journal file
+     * @param manifest the manifest to complete
+     * @param outputDir the output directory
+     * @param ownsDirectory whether no other process writes to the directory
+     * @return the keys of the entries recovered
+     * @throws IOException if the journal or the output directory cannot be read
+     */
+    static Set<String> replay(
+            Path file, BatchManifest manifest, Path outputDir, boolean ownsDirectory)
+            throws IOException {
+        if (ownsDirectory) {
+            deleteTemporaryFiles(outputDir);
+        }
+        Set<String> recovered = new HashSet<>();
+        if (Files.notExists(file)) {
+            return recovered;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts.length == COLUMNS
+                        && PngOutput.INSTANCE.isComplete(outputDir.resolve(parts[2]))) {
+                    String key = BatchManifest.unescape(parts[0]);
+                    manifest.put(new ManifestEntry(key, parts[1], parts[2]));
+                    recovered.add(key);
+                } else {
+                    LOGGER.log(System.Logger.Level.DEBUG, "Entrée de reprise ignorée : {0}", line);
+                }
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Appends a completed row, flushing the current group to disk if it is full or old enough.
+     *
+     * @param entry the completed row
+     * @throws IOException if flushing fails
+     */
+    synchronized void record(ManifestEntry entry) throws IOException {
+        pending.append(BatchManifest.escape(entry.key()))
+                .append('\t')
+                .append(entry.hash())
+                .append('\t')
+                .append(entry.fileName())
+                .append('\n');
+        pendingEntries++;
+        if (pendingEntries >= groupSize || System.nanoTime() - lastSyncNanos >= maxDelayNanos) {
+            sync();
+        }
+    }
+
+    /**
+     * Returns the number of group flushes so far.
+     *
+     * @return the flush count
+     */
+    synchronized long syncCount() {
+        return syncs;
+    }
+
+    /**
+     * Flushes the pending entries and closes the file.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try (channel) {
+            sync();
+        }
+    }
+
+    /**
+     * Writes the pending entries and forces them to disk.
+     *
+     * @throws IOException if writing fails
+     */
+    private void sync() throws IOException {
+        if (pendingEntries == 0) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+        pending.setLength(0);
+        pendingEntries = 0;
+        lastSyncNanos = System.nanoTime();
+        syncs++;
+    }
+
+    /**
+     * Deletes the temporary files of writes interrupted by a crash.
+     *
+     * @param outputDir the output directory
+     * @throws IOException if the directory cannot be listed
+     */
+    private static void deleteTemporaryFiles(Path outputDir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(outputDir, "*.part")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
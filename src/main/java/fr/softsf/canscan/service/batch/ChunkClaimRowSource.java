@@ -0,0 +1,247 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import fr.softsf.canscan.model.BatchRow;
+
+/**
+ * Keeps the rows of the input chunks this worker claims from a shared directory queue.
+ *
+ * <p>The input is cut into consecutive chunks of {@code chunkSize} rows. Entering a chunk, the
+ * worker writes its name into a temporary file of the queue directory, then publishes it as {@code
+ * chunk-NNNNNNNN.lock} with a hard link, or an atomic move where links are not supported. Both fail
+ * if the lock exists, so exactly one worker wins each chunk and the others skip its rows, and a
+ * published lock always names its owner, even if the worker dies right after. A worker restarted
+ * under the same name takes back the chunks it claimed but did not finish. An empty lock, left by a
+ * worker that crashed while creating it before locks were published this way, is moved aside and
+ * the chunk claimed again. {@link #markDone()} writes the {@code .done} markers once the claimed
+ * rows are safely written.
+ */
+public final class ChunkClaimRowSource implements BatchRowSource {
+
+    private static final String LOCK = ".lock";
+    private static final String DONE = ".done";
+    private static final String CLAIM_PREFIX = "claim-";
+    private static final String TMP = ".tmp";
+    private static final String ABANDONED = ".abandoned";
+    private final BatchRowSource delegate;
+    private final Path queueDir;
+    private final int chunkSize;
+    private final String worker;
+    private final List<Integer> claimed = new ArrayList<>();
+    private long position;
+    private boolean owned;
+
+    /**
+     * Wraps a source.
+     *
+     * @param delegate the full input, read in the same order by every worker
+     * @param queueDir the directory shared by the workers
+     * @param chunkSize the number of rows per chunk
+     * @param worker the name of this worker, unique among the workers
+     * @throws IOException if the queue directory cannot be created
+     * @throws IllegalArgumentException if the chunk size is not positive or the name is blank
+     */
+    public ChunkClaimRowSource(BatchRowSource delegate, Path queueDir, int chunkSize, String worker)
+            throws IOException {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.queueDir = Objects.requireNonNull(queueDir, "queueDir must not be null");
+        this.worker = Objects.requireNonNull(worker, "worker must not be null");
+        if (chunkSize < 1 || worker.isBlank()) {
+            throw new IllegalArgumentException("Taille de lot ou nom de travailleur invalide");
+        }
+        this.chunkSize = chunkSize;
+        Files.createDirectories(queueDir);
+    }
+
+    /**
+     * Returns the partition name used for the manifest and journal of a worker.
+     *
+     * @param worker the worker name
+     * @return the partition name
+     */
+    public static String partitionName(String worker) {
+        return "worker-" + worker.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    @Override
+    public BatchRow nextRow() throws IOException {
+        BatchRow row = delegate.nextRow();
+        while (row != null) {
+            if (position % chunkSize == 0) {
+                owned = claim((int) (position / chunkSize));
+            }
+            position++;
+            if (owned) {
+                return row;
+            }
+            row = delegate.nextRow();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the chunks claimed so far.
+     *
+     * @return the chunk indexes, in input order
+     */
+    public List<Integer> claimedChunks() {
+        return List.copyOf(claimed);
+    }
+
+    /**
+     * Marks every claimed chunk as done, so that no worker processes it again.
+     *
+     * @throws IOException if a marker cannot be written
+     */
+    public void markDone() throws IOException {
+        for (int chunk : claimed) {
+            Files.writeString(chunkFile(chunk, DONE), worker, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * Claims a chunk, or takes it back if this worker claimed it in an unfinished run.
+     *
+     * @param chunk the chunk index
+     * @return {@code true} if this worker owns the chunk
+     * @throws IOException if the queue directory cannot be accessed
+     */
+    private boolean claim(int chunk) throws IOException {
+        if (Files.exists(chunkFile(chunk, DONE))) {
+            return false;
+        }
+        Path lock = chunkFile(chunk, LOCK);
+        boolean mine = publish(lock) || owns(lock);
+        if (mine) {
+            claimed.add(chunk);
+        }
+        return mine;
+    }
+
+    /**
+     * Tells whether an existing lock names this worker, recovering it first if it is empty.
+     *
+     * @param lock the lock file
+     * @return {@code true} if this worker owns the chunk
+     * @throws IOException if the queue directory cannot be written
+     */
+    private boolean owns(Path lock) throws IOException {
+        String owner = ownerOf(lock);
+        return owner.isEmpty() ? recover(lock) : worker.equals(owner);
+    }
+
+    /**
+     * Publishes a lock naming this worker, all at once: the name is written to a temporary file
+     * first, which is then linked, or moved where links are not supported, to the lock path.
+     *
+     * @param lock the lock file
+     * @return {@code true} if the lock was published, {@code false} if it already exists
+     * @throws IOException if the queue directory cannot be written
+     */
+    private boolean publish(Path lock) throws IOException {
+        Path tmp = Files.createTempFile(queueDir, CLAIM_PREFIX, TMP);
+        try {
+            Files.writeString(tmp, worker, StandardCharsets.UTF_8);
+            try {
+                Files.createLink(lock, tmp);
+            } catch (UnsupportedOperationException e) {
+                Files.move(tmp, lock, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Moves an empty lock aside and claims its chunk again. Only one worker can move a given lock;
+     * if a valid lock was moved instead, because another worker recovered the chunk in between, it
+     * is put back.
+     *
+     * @param lock the empty lock file
+     * @return {@code true} if this worker now owns the chunk
+     * @throws IOException if the queue directory cannot be written
+     */
+    private boolean recover(Path lock) throws IOException {
+        Path aside = queueDir.resolve(lock.getFileName() + "." + partitionName(worker) + ABANDONED);
+        Files.deleteIfExists(aside);
+        String owner;
+        try {
+            Files.move(lock, aside, StandardCopyOption.ATOMIC_MOVE);
+            owner = ownerOf(aside);
+        } catch (NoSuchFileException e) {
+            owner = "";
+        }
+        if (owner.isEmpty()) {
+            Files.deleteIfExists(aside);
+            return publish(lock) || worker.equals(ownerOf(lock));
+        }
+        restore(lock, aside);
+        return worker.equals(owner);
+    }
+
+    /**
+     * Puts back a valid lock moved aside by mistake.
+     *
+     * @param lock the lock file
+     * @param aside the moved lock
+     * @throws IOException if the queue directory cannot be written
+     */
+    private static void restore(Path lock, Path aside) throws IOException {
+        try {
+            Files.createLink(lock, aside);
+        } catch (UnsupportedOperationException e) {
+            Files.move(aside, lock, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another worker published its claim meanwhile: the rows may be rendered twice
+        }
+        Files.deleteIfExists(aside);
+    }
+
+    /**
+     * Reads the owner of a lock.
+     *
+     * @param lock the lock file
+     * @return the worker name, or an empty string if the lock is empty or unreadable
+     */
+    private static String ownerOf(Path lock) {
+        try {
+            return Files.readString(lock, StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Returns a marker file of a chunk.
+     *
+     * @param chunk the chunk index
+     * @param suffix {@link #LOCK} or {@link #DONE}
+     * @return the file path
+     */
+    private Path chunkFile(int chunk, String suffix) {
+        return queueDir.resolve(String.format("chunk-%08d%s", chunk, suffix));
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import fr.softsf.canscan.model.ContentLine;
+
+/**
+ * Streaming reader for the content-line syntax shared by iCalendar (RFC 5545) and vCard (RFC 2426,
+ * RFC 6350).
+ *
+ * <p>Folded lines are unfolded, quoted-printable soft line breaks are joined, and each line is
+ * split into name, parameters and value; vCard group prefixes ({@code item1.EMAIL}) are dropped.
+ * {@link #nextComponent(String)} returns one component at a time, so a file of any size is read in
+ * a single pass while holding a single component in memory. Values are left encoded; see {@link
+ * #text(ContentLine)} and {@link #components(ContentLine)}.
+ */
+public final class ContentLineReader implements Closeable {
+
+    private static final String BEGIN = "BEGIN";
+    private static final String END = "END";
+    private static final String ENCODING = "ENCODING";
+    private static final String QUOTED_PRINTABLE = "QUOTED-PRINTABLE";
+    private static final int HEX_DIGITS = 2;
+    private final BufferedReader reader;
+    private String lookahead;
+    private int lineNumber;
+
+    /**
+     * Wraps a character stream.
+     *
+     * @param reader the source; must not be {@code null}
+     */
+    public ContentLineReader(Reader reader) {
+        Objects.requireNonNull(reader, "reader must not be null");
+        this.reader =
+                reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next component of a type, such as {@code VEVENT} or {@code VCARD}.
+     *
+     * <p>Only the properties of the component itself are returned: nested components (e.g. {@code
+     * VALARM}) and everything outside components of this type are skipped.
+     *
+     * @param type the component type, uppercased
+     * @return the properties in file order, or {@code null} when no such component remains
+     * @throws IOException if reading fails or the component is not terminated
+     */
+    public List<ContentLine> nextComponent(String type) throws IOException {
+        ContentLine line;
+        while ((line = next()) != null) {
+            if (BEGIN.equals(line.name()) && type.equalsIgnoreCase(line.value().trim())) {
+                return readComponent(type);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the properties of a component, after its {@code BEGIN} line.
+     *
+     * @param type the component type, for error messages
+     * @return the properties
+     * @throws IOException if reading fails or the stream ends inside the component
+     */
+    private List<ContentLine> readComponent(String type) throws IOException {
+        List<ContentLine> properties = new ArrayList<>();
+        int nested = 0;
+        ContentLine line;
+        while ((line = next()) != null) {
+            if (BEGIN.equals(line.name())) {
+                nested++;
+            } else if (END.equals(line.name())) {
+                if (nested == 0) {
+                    return properties;
+                }
+                nested--;
+            } else if (nested == 0) {
+                properties.add(line);
+            }
+        }
+        throw new IOException(type + " non terminé à la ligne " + lineNumber);
+    }
+
+    /**
+     * Reads the next content line.
+     *
+     * @return the parsed line, or {@code null} at end of stream
+     * @throws IOException if reading fails
+     */
+    public ContentLine next() throws IOException {
+        String raw = nextLine();
+        if (raw == null) {
+            return null;
+        }
+        ContentLine line = parse(raw);
+        if (isQuotedPrintable(line) && line.value().endsWith("=")) {
+            StringBuilder value = new StringBuilder(line.value());
+            String more;
+            while (value.charAt(value.length() - 1) == '=' && (more = nextLine()) != null) {
+                value.setLength(value.length() - 1);
+                value.append(more);
+            }
+            line = new ContentLine(line.name(), line.params(), value.toString());
+        }
+        return line;
+    }
+
+    /**
+     * Returns the current physical line number, for error messages.
+     *
+     * @return the number of lines read so far
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the next unfolded, non-empty line.
+     *
+     * @return the line, or {@code null} at end of stream
+     * @throws IOException if reading fails
+     */
+    private String nextLine() throws IOException {
+        String line = lookahead != null ? lookahead : readPhysicalLine();
+        lookahead = null;
+        while (line != null && line.isEmpty()) {
+            line = readPhysicalLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(line);
+        String next;
+        while ((next = readPhysicalLine()) != null
+                && (next.startsWith(" ") || next.startsWith("\t"))) {
+            sb.append(next, 1, next.length());
+        }
+        lookahead = next;
+        return sb.toString();
+    }
+
+    /**
+     * Reads one physical line, dropping a leading byte order mark.
+     *
+     * @return the line, or {@code null} at end of stream
+     * @throws IOException if reading fails
+     */
+    private String readPhysicalLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                return line.substring(1);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Splits a content line into name, parameters and value.
+     *
+     * <p>Colons and semicolons inside double-quoted parameter values are not treated as separators.
+     *
+     * @param line the unfolded line
+     * @return the property; a line without a colon yields an empty value
+     */
+    static ContentLine parse(String line) {
+        int colon = indexOfUnquoted(line, ':', 0);
+        String head = colon < 0 ? line : line.substring(0, colon);
+        String value = colon < 0 ? "" : line.substring(colon + 1);
+        Map<String, String> params = new HashMap<>();
+        int semicolon = indexOfUnquoted(head, ';', 0);
+        String name = semicolon < 0 ? head : head.substring(0, semicolon);
+        while (semicolon >= 0) {
+            int next = indexOfUnquoted(head, ';', semicolon + 1);
+            putParam(params, head.substring(semicolon + 1, next < 0 ? head.length() : next));
+            semicolon = next;
+        }
+        name = name.substring(name.indexOf('.') + 1).trim().toUpperCase(Locale.ROOT);
+        return new ContentLine(name, params, value);
+    }
+
+    /**
+     * Finds a character outside double-quoted sections.
+     *
+     * @param text the text to search
+     * @param target the character to find
+     * @param from the start index, outside any quoted section
+     * @return the index, or {@code -1} if absent
+     */
+    private static int indexOfUnquoted(String text, char target, int from) {
+        boolean outside = true;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                outside = !outside;
+            } else if (outside && c == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a parameter, stripping surrounding quotes. Repeated parameters are joined with commas.
+     * vCard 2.1 bare parameters ({@code TEL;WORK;PREF}) are stored as {@code TYPE} values, except
+     * encodings, which are stored as {@code ENCODING}.
+     *
+     * @param params the target map
+     * @param token the raw parameter
+     */
+    private static void putParam(Map<String, String> params, String token) {
+        int eq = token.indexOf('=');
+        String name = eq < 0 ? "" : token.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+        String value = token.substring(eq + 1).trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        if (name.isEmpty()) {
+            name = QUOTED_PRINTABLE.equalsIgnoreCase(value) ? ENCODING : "TYPE";
+        }
+        params.merge(name, value, (a, b) -> a + "," + b);
+    }
+
+    /**
+     * Tells whether a line's value is quoted-printable encoded.
+     *
+     * @param line the line
+     * @return {@code true} for {@code ENCODING=QUOTED-PRINTABLE}
+     */
+    private static boolean isQuotedPrintable(ContentLine line) {
+        return QUOTED_PRINTABLE.equalsIgnoreCase(line.param(ENCODING));
+    }
+
+    /**
+     * Returns the decoded text of a line: quoted-printable is decoded with the {@code CHARSET}
+     * parameter (UTF-8 by default), then {@code TEXT} escapes are removed.
+     *
+     * @param line the line, or {@code null}
+     * @return the trimmed text, or {@code ""}
+     */
+    public static String text(ContentLine line) {
+        return line == null ? "" : unescapeText(decoded(line)).trim();
+    }
+
+    /**
+     * Returns the decoded components of a structured value ({@code N}, {@code ADR}, {@code ORG}),
+     * split on unescaped semicolons.
+     *
+     * @param line the line, or {@code null}
+     * @return the trimmed components; empty if {@code line} is {@code null}
+     */
+    public static List<String> components(ContentLine line) {
+        List<String> parts = new ArrayList<>();
+        if (line == null) {
+            return parts;
+        }
+        String value = decoded(line);
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ';') {
+                parts.add(unescapeText(value.substring(start, i)).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(unescapeText(value.substring(start)).trim());
+        return parts;
+    }
+
+    /**
+     * Removes the transfer encoding of a value, keeping {@code TEXT} escapes.
+     *
+     * @param line the line
+     * @return the value
+     */
+    private static String decoded(ContentLine line) {
+        return isQuotedPrintable(line)
+                ? decodeQuotedPrintable(line.value(), charsetOf(line))
+                : line.value();
+    }
+
+    /**
+     * Returns the {@code CHARSET} parameter, falling back to UTF-8 if absent or unknown.
+     *
+     * @param line the line
+     * @return the charset
+     */
+    private static Charset charsetOf(ContentLine line) {
+        String name = line.param("CHARSET");
+        try {
+            return name.isBlank() ? StandardCharsets.UTF_8 : Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * Decodes a quoted-printable value ({@code =XX} escapes). Malformed escapes are kept as-is.
+     *
+     * @param value the encoded value, soft line breaks already joined
+     * @param charset the charset of the decoded bytes
+     * @return the decoded text
+     */
+    static String decodeQuotedPrintable(String value, Charset charset) {
+        if (value.indexOf('=') < 0) {
+            return value;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '='
+                    && i + HEX_DIGITS < value.length()
+                    && isHexPair(value, i + 1)) {
+                writeText(bytes, value.substring(start, i), charset);
+                bytes.write(HexFormat.fromHexDigits(value, i + 1, i + 1 + HEX_DIGITS));
+                i += HEX_DIGITS;
+                start = i + 1;
+            }
+        }
+        writeText(bytes, value.substring(start), charset);
+        return bytes.toString(charset);
+    }
+
+    /**
+     * Appends literal text to a byte buffer.
+     *
+     * @param bytes the buffer
+     * @param text the text
+     * @param charset the target charset
+     */
+    private static void writeText(ByteArrayOutputStream bytes, String text, Charset charset) {
+        byte[] encoded = text.getBytes(charset);
+        bytes.write(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Tells whether two hexadecimal digits start at an index.
+     *
+     * @param value the text
+     * @param index the start index
+     * @return {@code true} if both characters are hexadecimal digits
+     */
+    private static boolean isHexPair(String value, int index) {
+        return HexFormat.isHexDigit(value.charAt(index))
+                && HexFormat.isHexDigit(value.charAt(index + 1));
+    }
+
+    /**
+     * Unescapes a {@code TEXT} value ({@code \\}, {@code \;}, {@code \,}, {@code \n}).
+     *
+     * <p>Line breaks are turned into spaces, since the value is re-emitted as a single line.
+     *
+     * @param value the escaped value
+     * @return the plain text
+     */
+    public static String unescapeText(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ *
+ * <p>Reads one record at a time from the underlying {@link Reader}, so memory stays bounded by the
+ * largest record rather than the file size. Supports quoted fields, escaped quotes ({@code ""}),
+ * embedded line breaks, CRLF or LF line endings, and a leading UTF-8 byte order mark.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+    private static final int END_OF_STREAM = -1;
+    private final Reader reader;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    private boolean firstChar = true;
+    private int pushedBack = END_OF_STREAM - 1;
+    private long lineNumber;
+
+    /**
+     * Creates a reader over the given character stream.
+     *
+     * @param reader the source; should be buffered for performance; must not be {@code null}
+     * @param delimiter the field delimiter (e.g. {@code ','} or {@code ';'})
+     */
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = Objects.requireNonNull(reader, "reader must not be null");
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * <p>Blank lines are skipped.
+     *
+     * @return the record fields, or {@code null} at end of stream
+     * @throws IOException if reading fails or a quoted field is not terminated
+     */
+    public List<String> readRecord() throws IOException {
+        int c = skipBlankLines();
+        if (c == END_OF_STREAM) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        while (c != END_OF_STREAM) {
+            if (c == '"' && field.isEmpty()) {
+                readQuotedField();
+            } else if (c == delimiter) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                consumeLineBreak(c);
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    /**
+     * Skips empty lines and returns the first character of the next record.
+     *
+     * @return the first character, or {@code -1} at end of stream
+     * @throws IOException if reading fails
+     */
+    private int skipBlankLines() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            consumeLineBreak(c);
+            c = read();
+        }
+        return c;
+    }
+
+    /**
+     * Reads the rest of a quoted field into the field buffer, after its opening quote.
+     *
+     * @throws IOException if reading fails or the stream ends before the closing quote
+     */
+    private void readQuotedField() throws IOException {
+        int c = read();
+        while (c != END_OF_STREAM) {
+            if (c == '"') {
+                int next = read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    pushedBack = next;
+                    return;
+                }
+            } else {
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            }
+            c = read();
+        }
+        throw new IOException("Guillemet non fermé dans le CSV à la ligne " + (lineNumber + 1));
+    }
+
+    /**
+     * Consumes the remainder of a CRLF sequence and updates the line counter.
+     *
+     * @param c the first line-break character read
+     * @throws IOException if reading fails
+     */
+    private void consumeLineBreak(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    /**
+     * Reads one character, honouring the push-back slot and skipping a leading byte order mark.
+     *
+     * @return the character, or {@code -1} at end of stream
+     * @throws IOException if reading fails
+     */
+    private int read() throws IOException {
+        if (pushedBack >= END_OF_STREAM) {
+            int c = pushedBack;
+            pushedBack = END_OF_STREAM - 1;
+            return c;
+        }
+        int c = reader.read();
+        if (firstChar) {
+            firstChar = false;
+            if (c == BYTE_ORDER_MARK) {
+                return reader.read();
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Returns the number of line breaks consumed so far, useful for error reporting.
+     *
+     * @return the current line number (0-based)
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+
+/**
+ * {@link BatchRowSource} reading a UTF-8 CSV file with a header line.
+ *
+ * <p>The header names the columns (see {@link BatchRowMapper}); matching is case-insensitive. A key
+ * column is required and identifies each row across runs. An optional {@code mode} column selects
+ * MECARD, MEET or FREE per row; otherwise the default mode applies. Rows with a blank key are
+ * skipped with a warning.
+ */
+public final class CsvRowSource implements BatchRowSource {
+
+    private static final System.Logger LOGGER = System.getLogger(CsvRowSource.class.getName());
+    private static final String MODE_COLUMN = "mode";
+    private final CsvReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final int keyIndex;
+    private final Mode defaultMode;
+    private final CommonFields style;
+
+    /**
+     * Opens the CSV file and reads its header.
+     *
+     * @param csv the input file
+     * @param delimiter the field delimiter
+     * @param keyColumn the name of the column holding the row key
+     * @param defaultMode the mode used when the row has no {@code mode} value
+     * @param style the visual configuration applied to every row
+     * @throws IOException if the file cannot be read, is empty, or lacks the key column
+     */
+    public CsvRowSource(
+            Path csv, char delimiter, String keyColumn, Mode defaultMode, CommonFields style)
+            throws IOException {
+        Objects.requireNonNull(csv, "csv must not be null");
+        this.defaultMode = Objects.requireNonNull(defaultMode, "defaultMode must not be null");
+        this.style = Objects.requireNonNull(style, "style must not be null");
+        this.reader =
+                new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8), delimiter);
+        try {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IOException("Fichier CSV vide : " + csv);
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(normalize(header.get(i)), i);
+            }
+            Integer index = columns.get(normalize(keyColumn));
+            if (index == null) {
+                throw new IOException("Colonne clé absente du CSV : " + keyColumn);
+            }
+            keyIndex = index;
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public BatchRow nextRow() throws IOException {
+        List<String> values;
+        while ((values = reader.readRecord()) != null) {
+            String key = valueAt(values, keyIndex);
+            if (StringUtils.isBlank(key)) {
+                LOGGER.log(
+                        System.Logger.Level.WARNING,
+                        "Ligne {0} ignorée : clé vide",
+                        reader.getLineNumber());
+                continue;
+            }
+            List<String> row = values;
+            Mode mode = BatchRowMapper.INSTANCE.parseMode(column(row, MODE_COLUMN), defaultMode);
+            return new BatchRow(
+                    key,
+                    BatchRowMapper.INSTANCE.toWholeFields(mode, name -> column(row, name), style));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the trimmed value of a named column for the given record.
+     *
+     * @param values the record
+     * @param name the column name
+     * @return the value, or {@code ""} if the column is absent or the record is short
+     */
+    private String column(List<String> values, String name) {
+        Integer index = columns.get(normalize(name));
+        return index == null ? "" : valueAt(values, index);
+    }
+
+    /**
+     * Returns the trimmed value at a position, tolerating short records.
+     *
+     * @param values the record
+     * @param index the column position
+     * @return the value, or {@code ""} if out of range
+     */
+    private static String valueAt(List<String> values, int index) {
+        return index < values.size() ? values.get(index).trim() : "";
+    }
+
+    /**
+     * Normalizes a header name for case-insensitive lookup.
+     *
+     * @param name the raw header name
+     * @return the normalized name
+     */
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
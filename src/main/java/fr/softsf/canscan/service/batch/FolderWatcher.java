@@ -0,0 +1,268 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import fr.softsf.canscan.model.BatchReport;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Daemon keeping a folder of input files (see {@link RowSourceFactory}) in sync with their QR code
+ * images.
+ *
+ * <p>Each supported file {@code <input>/name.ext} owns the output directory {@code
+ * <output>/name.ext}, maintained by {@link IncrementalBatchService}: its manifest provides the
+ * row-level diff, so only added or modified rows are built and rendered, and the images of removed
+ * rows (or of a removed file) are deleted. Change events are debounced: a file is processed once it
+ * has been quiet for the debounce delay, or after ten delays if it keeps changing. Between changes
+ * the thread blocks in {@link WatchService#take()} and uses no CPU.
+ *
+ * <p>For each processed file the queue lag (first event to start of processing), the wall-clock
+ * duration and the average render latency per code are logged.
+ */
+public final class FolderWatcher implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(FolderWatcher.class.getName());
+    private static final int MAX_DEBOUNCE_ROUNDS = 10;
+    private final IncrementalBatchService service;
+    private final RowSourceFactory sources;
+    private final Path inputDir;
+    private final Path outputDir;
+    private final long debounceNanos;
+    private final WatchService watchService;
+    private final Map<Path, Long> pending = new LinkedHashMap<>();
+    private long lastEventNanos;
+
+    /**
+     * Registers the input folder; events occurring from now on are not lost.
+     *
+     * @param service the incremental generator
+     * @param sources opens the changed files
+     * @param inputDir the watched folder
+     * @param outputDir the folder receiving one sub-folder per input file
+     * @param debounce quiet delay before a changed file is processed
+     * @throws IOException if the folder cannot be watched
+     */
+    public FolderWatcher(
+            IncrementalBatchService service,
+            RowSourceFactory sources,
+            Path inputDir,
+            Path outputDir,
+            Duration debounce)
+            throws IOException {
+        this.service = Objects.requireNonNull(service, "service must not be null");
+        this.sources = Objects.requireNonNull(sources, "sources must not be null");
+        this.inputDir = Objects.requireNonNull(inputDir, "inputDir must not be null");
+        this.outputDir = Objects.requireNonNull(outputDir, "outputDir must not be null");
+        this.debounceNanos =
+                Objects.requireNonNull(debounce, "debounce must not be null").toNanos();
+        this.watchService = inputDir.getFileSystem().newWatchService();
+        inputDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+    }
+
+    /**
+     * Synchronizes every input file, then processes changes until {@link #close()} is called.
+     *
+     * @throws IOException if the input folder cannot be listed
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void run() throws IOException, InterruptedException {
+        queueAll(System.nanoTime());
+        flush();
+        LOGGER.log(System.Logger.Level.INFO, "Surveillance de {0}", inputDir);
+        try {
+            while (true) {
+                drain(watchService.take());
+                awaitQuiet();
+                flush();
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.log(System.Logger.Level.INFO, "Surveillance arrêtée");
+        }
+    }
+
+    /**
+     * Keeps collecting events until no event arrived for the debounce delay, or the oldest pending
+     * change has waited {@value #MAX_DEBOUNCE_ROUNDS} delays.
+     *
+     * @throws IOException if the input folder must be rescanned and cannot be listed
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void awaitQuiet() throws IOException, InterruptedException {
+        long oldest = pending.values().stream().min(Long::compare).orElse(lastEventNanos);
+        long deadline = oldest + debounceNanos * MAX_DEBOUNCE_ROUNDS;
+        while (true) {
+            long wait = Math.min(lastEventNanos + debounceNanos, deadline) - System.nanoTime();
+            if (wait <= 0) {
+                return;
+            }
+            WatchKey key = watchService.poll(wait, TimeUnit.NANOSECONDS);
+            if (key != null) {
+                drain(key);
+            }
+        }
+    }
+
+    /**
+     * Records the files touched by the events of a key and re-arms it.
+     *
+     * @param key the signalled key
+     * @throws IOException if events were lost and the input folder cannot be listed
+     */
+    private void drain(WatchKey key) throws IOException {
+        long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                queueAll(now);
+            } else if (event.context() instanceof Path name) {
+                queue(inputDir.resolve(name), now);
+            }
+        }
+        key.reset();
+        lastEventNanos = now;
+    }
+
+    /**
+     * Queues every supported file of the input folder, after startup or lost events.
+     *
+     * @param now the event time
+     * @throws IOException if the folder cannot be listed
+     */
+    private void queueAll(long now) throws IOException {
+        try (Stream<Path> files = Files.list(inputDir)) {
+            files.filter(Files::isRegularFile).forEach(file -> queue(file, now));
+        }
+    }
+
+    /**
+     * Queues a supported file, keeping the time of its first pending event. Folders are ignored, so
+     * an output folder placed inside the input folder is not mistaken for an input.
+     *
+     * @param file the changed file
+     * @param now the event time
+     */
+    private void queue(Path file, long now) {
+        if (sources.supports(file) && (Files.isRegularFile(file) || Files.notExists(file))) {
+            pending.putIfAbsent(file, now);
+        }
+    }
+
+    /**
+     * Processes and clears the pending files.
+     *
+     * @throws InterruptedException if the thread is interrupted while rendering
+     */
+    private void flush() throws InterruptedException {
+        List<Map.Entry<Path, Long>> files = new ArrayList<>(pending.entrySet());
+        pending.clear();
+        for (Map.Entry<Path, Long> entry : files) {
+            process(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Brings the outputs of one input file up to date.
+     *
+     * <p>A file that cannot be read (for instance while it is still being written) is logged and
+     * retried on its next change.
+     *
+     * @param file the input file, possibly deleted
+     * @param firstEventNanos when its first pending event was seen
+     * @throws InterruptedException if the thread is interrupted while rendering
+     */
+    private void process(Path file, long firstEventNanos) throws InterruptedException {
+        long lagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstEventNanos);
+        Path target =
+                outputDir.resolve(OutputNaming.INSTANCE.baseNameFor(file.getFileName().toString()));
+        boolean removed = Files.notExists(file);
+        try (BatchRowSource source = removed ? BatchRowSource.empty() : sources.open(file)) {
+            BatchReport report = service.run(source, target, true);
+            logReport(file, lagMillis, report);
+            if (removed) {
+                removeOutputDirectory(target);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(
+                    System.Logger.Level.WARNING,
+                    "{0} non traité : {1} (nouvel essai à la prochaine modification)",
+                    file.getFileName(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the manifest and the output folder of a deleted input, if nothing else is left.
+     *
+     * @param target the output folder
+     * @throws IOException if the manifest cannot be deleted
+     */
+    private static void removeOutputDirectory(Path target) throws IOException {
+        Files.deleteIfExists(target.resolve(BatchManifest.DEFAULT_FILE_NAME));
+        try {
+            Files.deleteIfExists(target);
+        } catch (DirectoryNotEmptyException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Dossier conservé, non vide : {0}", target);
+        }
+    }
+
+    /**
+     * Logs the metrics of one processed file.
+     *
+     * @param file the input file
+     * @param lagMillis queue lag in milliseconds
+     * @param report the run summary
+     */
+    private static void logReport(Path file, long lagMillis, BatchReport report) {
+        int actual = report.rendered() - report.deduplicated();
+        double perCode = actual <= 0 ? 0 : (double) report.renderMillis() / actual;
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                String.format(
+                        "%s : attente %d ms, traitement %d ms, rendu moyen %.1f ms/code ;"
+                                + " %d générées dont %d dédupliquées, %d inchangées,"
+                                + " %d supprimées, %d en échec",
+                        file.getFileName(),
+                        lagMillis,
+                        report.elapsedMillis(),
+                        perCode,
+                        report.rendered(),
+                        report.deduplicated(),
+                        report.unchanged(),
+                        report.deleted(),
+                        report.failed()));
+    }
+
+    /**
+     * Stops watching; a running {@link #run()} returns after the file being processed.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.ContentLine;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.RecurrenceRule;
+import fr.softsf.canscan.util.DateHelper;
+import fr.softsf.canscan.util.ValidationFieldHelper;
+
+/**
+ * {@link BatchRowSource} turning each {@code VEVENT} of an iCalendar file into MEET rows.
+ *
+ * <p>{@code SUMMARY}, {@code UID}, {@code DTSTART}, {@code DTEND} (or {@code DURATION}), the {@code
+ * ORGANIZER} common name and {@code GEO} fill the MEET fields of the UI. Dates are converted to
+ * UTC, as the UI does: {@code TZID} parameters are honored and floating times are read as UTC. The
+ * row key is the UID, suffixed with the {@code RECURRENCE-ID} for overridden occurrences. Events
+ * whose dates cannot be read are skipped with a warning.
+ *
+ * <p>Recurring events ({@code RRULE}) yield one row per occurrence starting before the horizon,
+ * enumerated lazily by {@link RecurrenceIterator}, so an unbounded rule never materializes a list
+ * of occurrences. Occurrences listed in {@code EXDATE} or overridden by another {@code VEVENT} with
+ * the same UID and a {@code RECURRENCE-ID} are left out; the overrides are collected by a first,
+ * lightweight pass over the file. Each occurrence row is keyed, and its MEET UID suffixed, with its
+ * UTC start, so that every session imports as a distinct calendar event.
+ */
+public final class IcsRowSource implements BatchRowSource {
+
+    private static final System.Logger LOGGER = System.getLogger(IcsRowSource.class.getName());
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter LOCAL_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final int DATE_LENGTH = 8;
+    private static final String MAILTO = "mailto:";
+    private static final String VEVENT = "VEVENT";
+    private static final String RECURRENCE_ID = "RECURRENCE-ID";
+    private static final String KEY_SEPARATOR = "#";
+    private final ContentLineReader reader;
+    private final CommonFields style;
+    private final ZonedDateTime horizon;
+    private final Set<String> overridden;
+    private Iterator<BatchRow> pending = Collections.emptyIterator();
+
+    /**
+     * Opens an iCalendar file.
+     *
+     * @param ics the input file
+     * @param style the visual configuration applied to every event
+     * @param horizon exclusive upper bound on the start of expanded occurrences
+     * @throws IOException if the file cannot be read
+     */
+    public IcsRowSource(Path ics, CommonFields style, ZonedDateTime horizon) throws IOException {
+        Objects.requireNonNull(ics, "ics must not be null");
+        this.style = Objects.requireNonNull(style, "style must not be null");
+        this.horizon = Objects.requireNonNull(horizon, "horizon must not be null");
+        this.overridden = scanOverrides(ics);
+        this.reader = new ContentLineReader(Files.newBufferedReader(ics, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public BatchRow nextRow() throws IOException {
+        while (true) {
+            if (pending.hasNext()) {
+                return pending.next();
+            }
+            List<ContentLine> event = reader.nextComponent(VEVENT);
+            if (event == null) {
+                return null;
+            }
+            try {
+                pending = rowsOf(event);
+            } catch (DateTimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Événement ignoré : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Collects the keys of overridden occurrences ({@code UID#RECURRENCE-ID}).
+     *
+     * @param ics the input file
+     * @return the keys
+     * @throws IOException if the file cannot be read
+     */
+    private static Set<String> scanOverrides(Path ics) throws IOException {
+        Set<String> keys = new HashSet<>();
+        try (ContentLineReader scan =
+                new ContentLineReader(Files.newBufferedReader(ics, StandardCharsets.UTF_8))) {
+            List<ContentLine> event;
+            while ((event = scan.nextComponent(VEVENT)) != null) {
+                Map<String, ContentLine> byName = byName(event);
+                ContentLine recurrenceId = byName.get(RECURRENCE_ID);
+                String uid = uidOf(byName);
+                if (recurrenceId != null && StringUtils.isNotBlank(uid)) {
+                    try {
+                        keys.add(uid + KEY_SEPARATOR + toUtcText(parseDateTime(recurrenceId)));
+                    } catch (DateTimeException e) {
+                        LOGGER.log(System.Logger.Level.DEBUG, "RECURRENCE-ID illisible : " + uid);
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Maps one event onto its rows: one row, or one per occurrence for a recurring event.
+     *
+     * @param event the event properties
+     * @return the rows, computed lazily
+     * @throws DateTimeException if a date cannot be parsed
+     */
+    private Iterator<BatchRow> rowsOf(List<ContentLine> event) {
+        Map<String, ContentLine> byName = byName(event);
+        String uid = uidOf(byName);
+        if (StringUtils.isBlank(uid)) {
+            LOGGER.log(System.Logger.Level.WARNING, "Événement ignoré : ni UID ni SUMMARY");
+            return Collections.emptyIterator();
+        }
+        ContentLine startProperty = byName.get("DTSTART");
+        if (startProperty == null) {
+            throw new DateTimeException("DTSTART absent pour " + uid);
+        }
+        ZonedDateTime start = parseDateTime(startProperty);
+        ZonedDateTime end = endOf(start, startProperty, byName);
+        Map<String, String> columns = commonColumns(byName, uid);
+        ContentLine recurrenceId = byName.get(RECURRENCE_ID);
+        ContentLine rrule = byName.get("RRULE");
+        if (recurrenceId != null) {
+            String key = uid + KEY_SEPARATOR + toUtcText(parseDateTime(recurrenceId));
+            return List.of(toRow(key, columns, start, end)).iterator();
+        }
+        if (rrule == null) {
+            return List.of(toRow(uid, columns, start, end)).iterator();
+        }
+        RecurrenceRule rule;
+        try {
+            rule = RecurrenceIterator.parseRule(rrule.value(), start);
+        } catch (DateTimeException e) {
+            LOGGER.log(
+                    System.Logger.Level.WARNING,
+                    "{0} : {1}, seule la première occurrence est générée",
+                    uid,
+                    e.getMessage());
+            return List.of(toRow(uid, columns, start, end)).iterator();
+        }
+        Set<Instant> excluded = exdatesOf(event);
+        Duration length = Duration.between(start, end);
+        Iterator<ZonedDateTime> occurrences = new RecurrenceIterator(rule, start, horizon);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(occurrences, Spliterator.ORDERED),
+                        false)
+                .filter(occurrence -> !excluded.contains(occurrence.toInstant()))
+                .map(occurrence -> occurrenceRow(uid, columns, occurrence, length))
+                .filter(Objects::nonNull)
+                .iterator();
+    }
+
+    /**
+     * Builds the row of one occurrence of a recurring event.
+     *
+     * @param uid the event UID
+     * @param columns the columns shared by all occurrences
+     * @param start the occurrence start
+     * @param length the event duration
+     * @return the row, or {@code null} if another event overrides this occurrence
+     */
+    private BatchRow occurrenceRow(
+            String uid, Map<String, String> columns, ZonedDateTime start, Duration length) {
+        String instant = toUtcText(start);
+        String key = uid + KEY_SEPARATOR + instant;
+        if (overridden.contains(key)) {
+            return null;
+        }
+        Map<String, String> occurrence = new HashMap<>(columns);
+        occurrence.put("meetUId", uid + "-" + instant);
+        return toRow(key, occurrence, start, start.plus(length));
+    }
+
+    /**
+     * Builds a MEET row.
+     *
+     * @param key the row key
+     * @param columns the non-date columns
+     * @param start the start
+     * @param end the end
+     * @return the row
+     */
+    private BatchRow toRow(
+            String key, Map<String, String> columns, ZonedDateTime start, ZonedDateTime end) {
+        Map<String, String> row = new HashMap<>(columns);
+        row.put("meetBeginDateTime", toUtcText(start));
+        row.put("meetEndDateTime", toUtcText(end));
+        return new BatchRow(
+                key,
+                BatchRowMapper.INSTANCE.toWholeFields(
+                        Mode.MEET, name -> row.getOrDefault(name, ""), style));
+    }
+
+    /**
+     * Returns the MEET columns that do not depend on the occurrence.
+     *
+     * @param byName the event properties by name
+     * @param uid the event UID
+     * @return the title, UID, organizer and coordinates
+     */
+    private static Map<String, String> commonColumns(Map<String, ContentLine> byName, String uid) {
+        Map<String, String> columns = new HashMap<>();
+        columns.put("meetTitle", ContentLineReader.text(byName.get("SUMMARY")));
+        columns.put("meetUId", uid);
+        columns.put("meetName", organizer(byName.get("ORGANIZER")));
+        String[] geo = StringUtils.split(ContentLineReader.text(byName.get("GEO")), ";,");
+        if (geo != null && geo.length == 2) {
+            columns.put("meetLat", geo[0].trim());
+            columns.put("meetLong", geo[1].trim());
+        }
+        return columns;
+    }
+
+    /**
+     * Indexes event properties by name, keeping the first of each.
+     *
+     * @param event the event properties
+     * @return the properties by name
+     */
+    private static Map<String, ContentLine> byName(List<ContentLine> event) {
+        Map<String, ContentLine> byName = new HashMap<>();
+        for (ContentLine property : event) {
+            byName.putIfAbsent(property.name(), property);
+        }
+        return byName;
+    }
+
+    /**
+     * Returns the event UID, derived from the title as the UI does when absent.
+     *
+     * @param byName the event properties by name
+     * @return the UID, or {@code ""} if the event has neither UID nor title
+     */
+    private static String uidOf(Map<String, ContentLine> byName) {
+        String uid = ContentLineReader.text(byName.get("UID"));
+        String title = ContentLineReader.text(byName.get("SUMMARY"));
+        if (StringUtils.isBlank(uid) && StringUtils.isNotBlank(title)) {
+            return ValidationFieldHelper.INSTANCE.validateAndGetMeetUID(title);
+        }
+        return uid;
+    }
+
+    /**
+     * Collects the instants listed by the {@code EXDATE} properties of an event.
+     *
+     * @param event the event properties
+     * @return the excluded occurrence starts
+     * @throws DateTimeException if a date cannot be parsed
+     */
+    private static Set<Instant> exdatesOf(List<ContentLine> event) {
+        Set<Instant> excluded = new HashSet<>();
+        for (ContentLine property : event) {
+            if ("EXDATE".equals(property.name())) {
+                for (String value : property.value().split(",")) {
+                    ContentLine single = new ContentLine("EXDATE", property.params(), value);
+                    excluded.add(parseDateTime(single).toInstant());
+                }
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * Resolves the end of an event from {@code DTEND}, {@code DURATION} or the RFC 5545 defaults
+     * (one day for all-day events, zero length otherwise).
+     *
+     * @param start the parsed start
+     * @param startProperty the {@code DTSTART} property
+     * @param byName the event properties by name
+     * @return the end
+     * @throws DateTimeException if a date or duration cannot be parsed
+     */
+    private static ZonedDateTime endOf(
+            ZonedDateTime start, ContentLine startProperty, Map<String, ContentLine> byName) {
+        ContentLine endProperty = byName.get("DTEND");
+        if (endProperty != null) {
+            return parseDateTime(endProperty);
+        }
+        ContentLine duration = byName.get("DURATION");
+        if (duration != null) {
+            return start.plus(parseDuration(duration.value()));
+        }
+        return isDateOnly(startProperty) ? start.plusDays(1) : start;
+    }
+
+    /**
+     * Parses a {@code DATE} or {@code DATE-TIME} property.
+     *
+     * @param property the property
+     * @return the instant with its zone; floating times and dates are placed in UTC
+     * @throws DateTimeException if the value or its {@code TZID} is invalid
+     */
+    static ZonedDateTime parseDateTime(ContentLine property) {
+        String value = property.value().trim();
+        if (isDateOnly(property)) {
+            return LocalDate.parse(value.substring(0, DATE_LENGTH), DATE)
+                    .atStartOfDay(ZoneOffset.UTC);
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), LOCAL_DATE_TIME)
+                    .atZone(ZoneOffset.UTC);
+        }
+        String tzid = property.param("TZID");
+        ZoneId zone = tzid.isBlank() ? ZoneOffset.UTC : ZoneId.of(tzid);
+        return LocalDateTime.parse(value, LOCAL_DATE_TIME).atZone(zone);
+    }
+
+    /**
+     * Tells whether a property holds a date without time.
+     *
+     * @param property the property
+     * @return {@code true} for {@code VALUE=DATE} or an 8-character value
+     */
+    static boolean isDateOnly(ContentLine property) {
+        return "DATE".equalsIgnoreCase(property.param("VALUE"))
+                || property.value().trim().length() == DATE_LENGTH;
+    }
+
+    /**
+     * Parses an RFC 5545 duration ({@code PT1H30M}, {@code P1D}, {@code P2W}).
+     *
+     * @param value the duration text
+     * @return the duration
+     * @throws DateTimeException if the value is invalid
+     */
+    static Duration parseDuration(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        try {
+            if (normalized.endsWith("W")) {
+                int sign = normalized.startsWith("-") ? -1 : 1;
+                String weeks = normalized.replaceAll("[^0-9]", "");
+                return Duration.ofDays(sign * 7L * Long.parseLong(weeks));
+            }
+            return Duration.parse(normalized);
+        } catch (RuntimeException e) {
+            throw new DateTimeException("DURATION invalide : " + value, e);
+        }
+    }
+
+    /**
+     * Formats an instant as the UTC timestamp the MEET payload expects.
+     *
+     * @param dateTime the instant
+     * @return the timestamp ({@code yyyyMMdd'T'HHmmss'Z'})
+     */
+    static String toUtcText(ZonedDateTime dateTime) {
+        ZonedDateTime utc = dateTime.withZoneSameInstant(ZoneOffset.UTC);
+        return DateHelper.INSTANCE.validateAndGetDateAndTime(utc.toLocalDate(), utc.toLocalTime());
+    }
+
+    /**
+     * Returns the organizer name: the {@code CN} parameter, else the address without {@code
+     * mailto:}.
+     *
+     * @param organizer the property, or {@code null}
+     * @return the name, or {@code ""}
+     */
+    private static String organizer(ContentLine organizer) {
+        if (organizer == null) {
+            return "";
+        }
+        String cn = organizer.param("CN").trim();
+        if (StringUtils.isNotBlank(cn)) {
+            return cn;
+        }
+        String value = organizer.value().trim();
+        return Strings.CI.startsWith(value, MAILTO) ? value.substring(MAILTO.length()) : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
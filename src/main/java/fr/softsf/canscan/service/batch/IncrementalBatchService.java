@@ -0,0 +1,407 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.zxing.WriterException;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.ManifestEntry;
+import fr.softsf.canscan.service.DataBuilderService;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Headless generator turning a stream of rows into one PNG per row, with incremental rebuilds.
+ *
+ * <p>Each row goes through {@link DataBuilderService#buildData} and {@link
+ * EncodedImage#generateImage}, exactly like the interactive preview. A {@link BatchManifest} in the
+ * output directory records, per row key, the digest of the row's {@link EncodedData} and {@link
+ * CommonFields} and the file produced. In incremental mode, rows whose digest is unchanged and
+ * whose output still exists are skipped without rendering, and outputs of rows that disappeared
+ * from the input are deleted. A rerun on an unchanged input therefore costs little more than
+ * reading and hashing it.
+ *
+ * <p>Rows sharing a digest produce the same image, so within a run only the first one is rendered;
+ * the others receive a hard link to (or a copy of) its file.
+ *
+ * <p>Completed rows are also appended to a {@link CheckpointJournal}, so a run interrupted by a
+ * crash resumes where it stopped: the next run skips every row whose PNG was fully written and
+ * whose digest is unchanged, even when it renders every row.
+ */
+public class IncrementalBatchService {
+
+    private static final System.Logger LOGGER =
+            System.getLogger(IncrementalBatchService.class.getName());
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+    private static final int JOURNAL_GROUP_SIZE = 256;
+    private static final long JOURNAL_MAX_DELAY_MILLIS = 1000;
+    private final RowRenderer renderer;
+    private final int threads;
+
+    /**
+     * Creates the service.
+     *
+     * @param encodedImage the QR code image generator; must not be {@code null}
+     * @param threads number of render threads (at least 1)
+     */
+    public IncrementalBatchService(EncodedImage encodedImage, int threads) {
+        this.renderer = new RowRenderer(encodedImage);
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Renders the rows of {@code source} into {@code outputDir}.
+     *
+     * <p>The source is consumed but not closed. Rows sharing a key with an earlier row are reported
+     * as failed and ignored.
+     *
+     * @param source the input rows
+     * @param outputDir the directory receiving the PNG files and the manifest
+     * @param incremental {@code true} to skip unchanged rows, {@code false} to render every row
+     *     except those an interrupted run already completed
+     * @return the run summary
+     * @throws IOException if the input, the manifest or the output directory cannot be accessed
+     * @throws InterruptedException if interrupted while waiting for render threads
+     */
+    public BatchReport run(BatchRowSource source, Path outputDir, boolean incremental)
+            throws IOException, InterruptedException {
+        return run(source, outputDir, incremental, "");
+    }
+
+    /**
+     * Renders the rows of {@code source} into {@code outputDir}, as one partition of a job shared
+     * by several processes.
+     *
+     * <p>The partition has its own manifest and journal, so processes never write the same file.
+     * Outputs of rows missing from this partition's input are dropped from its manifest but not
+     * deleted, since another partition may have produced the same file since.
+     *
+     * @param source the input rows of this partition
+     * @param outputDir the directory receiving the PNG files and the manifests
+     * @param incremental {@code true} to skip unchanged rows, {@code false} to render every row
+     *     except those an interrupted run already completed
+     * @param partition the partition name, or an empty string for a run owning the directory
+     * @return the run summary
+     * @throws IOException if the input, the manifest or the output directory cannot be accessed
+     * @throws InterruptedException if interrupted while waiting for render threads
+     */
+    public BatchReport run(
+            BatchRowSource source, Path outputDir, boolean incremental, String partition)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Files.createDirectories(outputDir);
+        boolean ownsDirectory = partition.isEmpty();
+        Path journalFile = outputDir.resolve(CheckpointJournal.fileNameFor(partition));
+        BatchManifest manifest =
+                BatchManifest.load(outputDir.resolve(BatchManifest.fileNameFor(partition)));
+        Set<String> resumed = resume(manifest, journalFile, outputDir, ownsDirectory);
+        Set<String> seen = new HashSet<>();
+        Map<String, CompletableFuture<Path>> firstOutputs = new HashMap<>();
+        AtomicInteger rendered = new AtomicInteger();
+        AtomicInteger deduplicated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        LongAdder renderNanos = new LongAdder();
+        int total = 0;
+        int unchanged = 0;
+        try (CheckpointJournal journal =
+                        new CheckpointJournal(
+                                journalFile, JOURNAL_GROUP_SIZE, JOURNAL_MAX_DELAY_MILLIS);
+                BoundedExecutor executor =
+                        new BoundedExecutor(
+                                threads, threads * IN_FLIGHT_PER_THREAD, "BatchRender")) {
+            BatchRow row;
+            while ((row = source.nextRow()) != null) {
+                total++;
+                PendingRender pending = prepare(row, seen);
+                if (pending == null) {
+                    failed.incrementAndGet();
+                    continue;
+                }
+                if (canSkip(pending, incremental, resumed, manifest, outputDir)) {
+                    firstOutputs.putIfAbsent(
+                            pending.hash(),
+                            CompletableFuture.completedFuture(
+                                    outputDir.resolve(pending.fileName())));
+                    unchanged++;
+                    continue;
+                }
+                CompletableFuture<Path> output = new CompletableFuture<>();
+                CompletableFuture<Path> first = firstOutputs.putIfAbsent(pending.hash(), output);
+                executor.submit(
+                        () -> {
+                            long renderStart = System.nanoTime();
+                            Path written =
+                                    first == null
+                                            ? render(pending, outputDir, manifest, journal)
+                                            : fanOut(first, pending, outputDir, manifest, journal);
+                            output.complete(written);
+                            if (written == null) {
+                                failed.incrementAndGet();
+                            } else {
+                                rendered.incrementAndGet();
+                            }
+                            if (first == null) {
+                                renderNanos.add(System.nanoTime() - renderStart);
+                            } else if (written != null) {
+                                deduplicated.incrementAndGet();
+                            }
+                        });
+            }
+            executor.awaitCompletion();
+        }
+        int deleted = deleteRemovedRows(manifest, seen, ownsDirectory ? outputDir : null);
+        manifest.save();
+        Files.deleteIfExists(journalFile);
+        return new BatchReport(
+                total,
+                rendered.get(),
+                unchanged,
+                deleted,
+                failed.get(),
+                deduplicated.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(renderNanos.sum()));
+    }
+
+    /**
+     * Completes the manifest of a run with the journal of an interrupted one.
+     *
+     * @param manifest the manifest of the last completed run
+     * @param journalFile the journal file
+     * @param outputDir the output directory
+     * @param ownsDirectory whether no other process writes to the directory
+     * @return the keys of the rows the interrupted run completed
+     * @throws IOException if a file cannot be read
+     */
+    private static Set<String> resume(
+            BatchManifest manifest, Path journalFile, Path outputDir, boolean ownsDirectory)
+            throws IOException {
+        Set<String> recovered =
+                CheckpointJournal.replay(journalFile, manifest, outputDir, ownsDirectory);
+        if (recovered.isEmpty()) {
+            return recovered;
+        }
+        LOGGER.log(
+                System.Logger.Level.INFO,
+                "Reprise d''une exécution interrompue : {0} lignes déjà générées",
+                recovered.size());
+        return recovered;
+    }
+
+    /**
+     * Builds the payload of a row and computes its digest and output name.
+     *
+     * @param row the input row
+     * @param seen keys of the rows read so far, completed with this one
+     * @return the pending render, or {@code null} if the key was already seen or the row has
+     *     nothing to encode
+     */
+    private PendingRender prepare(BatchRow row, Set<String> seen) {
+        boolean duplicate = !seen.add(row.key());
+        if (duplicate) {
+            LOGGER.log(System.Logger.Level.WARNING, "Clé en double ignorée : {0}", row.key());
+            return null;
+        }
+        EncodedData data = renderer.data(row.key(), row.fields());
+        if (data == null) {
+            return null;
+        }
+        CommonFields config = RowRenderer.toCommonFields(row.fields());
+        return new PendingRender(
+                row.key(),
+                data,
+                config,
+                PayloadHasher.INSTANCE.hash(data, config),
+                OutputNaming.INSTANCE.fileNameFor(row.key()));
+    }
+
+    /**
+     * Tells whether a row can be skipped: in incremental mode, or when an interrupted run already
+     * completed it, if its previous output is up to date.
+     *
+     * @param pending the row about to be rendered
+     * @param incremental whether unchanged rows are skipped
+     * @param resumed the keys of the rows the interrupted run completed
+     * @param manifest the manifest, completed with the journal
+     * @param outputDir the output directory
+     * @return {@code true} to keep the previous output
+     */
+    private boolean canSkip(
+            PendingRender pending,
+            boolean incremental,
+            Set<String> resumed,
+            BatchManifest manifest,
+            Path outputDir) {
+        boolean checked = incremental || resumed.contains(pending.key());
+        return checked && isUpToDate(manifest.get(pending.key()), pending, outputDir);
+    }
+
+    /**
+     * Tells whether a row's previous output can be kept as-is.
+     *
+     * @param previous the manifest entry from the last run, or {@code null}
+     * @param pending the row about to be rendered
+     * @param outputDir the output directory
+     * @return {@code true} if digest and file name match and the file still exists
+     */
+    private boolean isUpToDate(ManifestEntry previous, PendingRender pending, Path outputDir) {
+        return previous != null
+                && previous.hash().equals(pending.hash())
+                && previous.fileName().equals(pending.fileName())
+                && Files.isRegularFile(outputDir.resolve(pending.fileName()));
+    }
+
+    /**
+     * Renders one row, writes its PNG and records it in the manifest.
+     *
+     * <p>On failure the row is dropped from the manifest so the next run retries it.
+     *
+     * @param pending the row to render
+     * @param outputDir the output directory
+     * @param manifest the manifest to update
+     * @param journal the checkpoint journal
+     * @return the written file, or {@code null} on failure
+     */
+    private Path render(
+            PendingRender pending,
+            Path outputDir,
+            BatchManifest manifest,
+            CheckpointJournal journal) {
+        BufferedImage image = null;
+        try {
+            image = renderer.render(pending.data(), pending.config());
+            if (image == null) {
+                manifest.remove(pending.key());
+                return null;
+            }
+            Path target = outputDir.resolve(pending.fileName());
+            PngOutput.INSTANCE.writeAtomically(image, target);
+            complete(pending, manifest, journal);
+            return target;
+        } catch (WriterException | IOException | RuntimeException | OutOfMemoryError e) {
+            LOGGER.log(
+                    System.Logger.Level.ERROR,
+                    "Échec du rendu de " + pending.key() + " : " + e.getMessage());
+            manifest.remove(pending.key());
+            return null;
+        } finally {
+            if (image != null) {
+                image.flush();
+            }
+        }
+    }
+
+    /**
+     * Gives a row the output of an earlier row with the same digest, rendering it only if that row
+     * failed.
+     *
+     * <p>The earlier row was submitted first, so it is already running or done when this task waits
+     * for it.
+     *
+     * @param first the output of the earlier row, {@code null} if it failed
+     * @param pending the duplicate row
+     * @param outputDir the output directory
+     * @param manifest the manifest to update
+     * @param journal the checkpoint journal
+     * @return the written file, or {@code null} on failure
+     */
+    private Path fanOut(
+            CompletableFuture<Path> first,
+            PendingRender pending,
+            Path outputDir,
+            BatchManifest manifest,
+            CheckpointJournal journal) {
+        Path source = first.join();
+        if (source == null) {
+            return render(pending, outputDir, manifest, journal);
+        }
+        Path target = outputDir.resolve(pending.fileName());
+        if (source.equals(target)) {
+            return target;
+        }
+        try {
+            PngOutput.INSTANCE.linkOrCopy(source, target);
+            complete(pending, manifest, journal);
+            return target;
+        } catch (IOException e) {
+            LOGGER.log(
+                    System.Logger.Level.WARNING,
+                    "Copie impossible pour "
+                            + pending.key()
+                            + ", nouveau rendu : "
+                            + e.getMessage());
+            return render(pending, outputDir, manifest, journal);
+        }
+    }
+
+    /**
+     * Records a written row in the manifest and the checkpoint journal.
+     *
+     * @param pending the written row
+     * @param manifest the manifest to update
+     * @param journal the checkpoint journal
+     * @throws IOException if the journal cannot be written
+     */
+    private static void complete(
+            PendingRender pending, BatchManifest manifest, CheckpointJournal journal)
+            throws IOException {
+        ManifestEntry entry = new ManifestEntry(pending.key(), pending.hash(), pending.fileName());
+        manifest.put(entry);
+        journal.record(entry);
+    }
+
+    /**
+     * Deletes the outputs of manifest entries whose key was not seen in this run.
+     *
+     * @param manifest the manifest to prune
+     * @param seen keys present in the current input
+     * @param outputDir the output directory, or {@code null} to only prune the manifest
+     * @return the number of entries removed
+     * @throws IOException if an output file cannot be deleted
+     */
+    private int deleteRemovedRows(BatchManifest manifest, Set<String> seen, Path outputDir)
+            throws IOException {
+        int deleted = 0;
+        for (ManifestEntry entry : manifest.entries()) {
+            if (seen.contains(entry.key())) {
+                continue;
+            }
+            if (outputDir != null) {
+                Files.deleteIfExists(outputDir.resolve(entry.fileName()));
+            }
+            manifest.remove(entry.key());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * A row ready to be rendered.
+     *
+     * @param key row key
+     * @param data encoded data
+     * @param config render configuration
+     * @param hash digest of {@code data} and {@code config}
+     * @param fileName output file name
+     */
+    private record PendingRender(
+            String key, EncodedData data, CommonFields config, String hash, String fileName) {}
+}
@@ -0,0 +1,313 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.LabelSheet;
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Headless generator imposing one code per label on multi-up sheets, written as a vector PDF.
+ *
+ * <p>Each row is encoded to a {@link BitMatrix} and its dark modules are drawn as filled
+ * rectangles, one per horizontal run, so codes stay sharp at any print resolution and no raster is
+ * embedded. Labels are filled left to right, top to bottom; rows with nothing to encode are
+ * reported as failed and do not take a label. Rows identical to a recent one reuse its matrix. Each
+ * page is compressed and written as soon as it is full, so memory does not depend on the number of
+ * pages.
+ *
+ * <p>Logos and rounded modules are raster-only features of {@link EncodedImage} and are not
+ * reproduced. The document is written to a temporary file and moved over the target once complete.
+ */
+public class LabelSheetExportService {
+
+    private static final System.Logger LOGGER =
+            System.getLogger(LabelSheetExportService.class.getName());
+    private static final double CROP_MARK_GAP = 2;
+    private static final double CROP_MARK_MAX_LENGTH = 6 * LabelSheet.POINTS_PER_MM;
+    private static final double CROP_MARK_WIDTH = 0.25;
+    private static final int RECENT_MATRICES = 256;
+    private final RowRenderer renderer;
+    private final LabelSheet sheet;
+
+    /**
+     * Creates the service.
+     *
+     * @param encodedImage the QR code matrix encoder; must not be {@code null}
+     * @param sheet the page layout; must not be {@code null}
+     * @throws IllegalArgumentException if the layout leaves no room for labels
+     */
+    public LabelSheetExportService(EncodedImage encodedImage, LabelSheet sheet) {
+        this.renderer =
+                new RowRenderer(
+                        Objects.requireNonNull(encodedImage, "encodedImage must not be null"));
+        this.sheet = Objects.requireNonNull(sheet, "sheet must not be null");
+        if (sheet.columns() < 1
+                || sheet.rows() < 1
+                || sheet.labelWidth() <= 0
+                || sheet.labelHeight() <= 0) {
+            throw new IllegalArgumentException(
+                    "Planche invalide : aucune place pour les étiquettes");
+        }
+    }
+
+    /**
+     * Imposes the rows of {@code source} into the document {@code pdfFile}.
+     *
+     * <p>The source is consumed but not closed.
+     *
+     * @param source the input rows
+     * @param pdfFile the document to create or replace
+     * @return the run summary
+     * @throws IOException if the input or the document cannot be accessed
+     */
+    public BatchReport export(BatchRowSource source, Path pdfFile) throws IOException {
+        long start = System.nanoTime();
+        Path parent = pdfFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, pdfFile.getFileName().toString(), ".part");
+        PdfContent page = new PdfContent();
+        int total = 0;
+        int placed = 0;
+        int failed = 0;
+        int deduplicated = 0;
+        long renderNanos = 0;
+        RecentResults<BitMatrix> recent =
+                new RecentResults<>(RECENT_MATRICES, RenderCache.LABEL_MATRICES);
+        try {
+            try (PdfStreamWriter pdf =
+                    new PdfStreamWriter(
+                            Files.newOutputStream(tmp), sheet.pageWidth(), sheet.pageHeight())) {
+                int perPage = sheet.labelsPerPage();
+                BatchRow row;
+                while ((row = source.nextRow()) != null) {
+                    total++;
+                    long begin = System.nanoTime();
+                    Outcome outcome = drawLabel(page, row, placed % perPage, recent);
+                    if (outcome == Outcome.FAILED) {
+                        failed++;
+                        continue;
+                    }
+                    if (outcome == Outcome.REUSED) {
+                        deduplicated++;
+                    } else {
+                        renderNanos += System.nanoTime() - begin;
+                    }
+                    placed++;
+                    if (placed % perPage == 0) {
+                        flushPage(pdf, page);
+                    }
+                }
+                if (placed % perPage > 0) {
+                    flushPage(pdf, page);
+                }
+                LOGGER.log(
+                        System.Logger.Level.INFO,
+                        "{0} étiquettes sur {1} pages",
+                        placed,
+                        pdf.pageCount());
+            }
+            Files.move(
+                    tmp,
+                    pdfFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new BatchReport(
+                total,
+                placed,
+                0,
+                0,
+                failed,
+                deduplicated,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(renderNanos));
+    }
+
+    /**
+     * Draws one row in the given label slot of the current page.
+     *
+     * @param page the page content
+     * @param row the row
+     * @param slot the label index on the page, row-major
+     * @param recent matrices of recent rows, by digest
+     * @return how the label was obtained
+     */
+    private Outcome drawLabel(
+            PdfContent page, BatchRow row, int slot, RecentResults<BitMatrix> recent) {
+        EncodedData data = renderer.data(row.key(), row.fields());
+        if (data == null) {
+            return Outcome.FAILED;
+        }
+        CommonFields config = RowRenderer.toCommonFields(row.fields());
+        String hash = PayloadHasher.INSTANCE.hash(data, config);
+        BitMatrix matrix = recent.get(hash);
+        Outcome outcome = Outcome.REUSED;
+        if (matrix == null) {
+            matrix = encode(row, data, config);
+            outcome = Outcome.DRAWN;
+        }
+        if (matrix == null) {
+            return Outcome.FAILED;
+        }
+        recent.put(hash, matrix);
+        double width = sheet.labelWidth();
+        double height = sheet.labelHeight();
+        double left = sheet.margin() + (slot % sheet.columns()) * (width + sheet.gutter());
+        double top =
+                sheet.pageHeight()
+                        - sheet.margin()
+                        - (slot / sheet.columns()) * (height + sheet.gutter());
+        double bleed = sheet.bleed();
+        page.fillColor(config.bgColor())
+                .rect(left - bleed, top - height - bleed, left + width + bleed, top + bleed)
+                .fill();
+        double module = Math.min(width / matrix.getWidth(), height / matrix.getHeight());
+        drawModules(
+                page,
+                matrix,
+                left + (width - module * matrix.getWidth()) / 2,
+                top - (height - module * matrix.getHeight()) / 2,
+                module,
+                config.qrColor());
+        return outcome;
+    }
+
+    /**
+     * Encodes the payload of a row into a module matrix.
+     *
+     * @param row the row, for log messages
+     * @param data the payload
+     * @param config the render configuration
+     * @return the matrix, or {@code null} if the payload cannot be encoded
+     */
+    private BitMatrix encode(BatchRow row, EncodedData data, CommonFields config) {
+        try {
+            return renderer.encode(data, config);
+        } catch (WriterException | RuntimeException e) {
+            LOGGER.log(
+                    System.Logger.Level.ERROR,
+                    "Échec de l'encodage de " + row.key() + " : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Draws the dark modules of a matrix, merging each horizontal run into one rectangle.
+     *
+     * @param page the page content
+     * @param matrix the modules
+     * @param left left edge of the code
+     * @param top top edge of the code
+     * @param module module side
+     * @param color module color
+     */
+    private static void drawModules(
+            PdfContent page,
+            BitMatrix matrix,
+            double left,
+            double top,
+            double module,
+            Color color) {
+        page.fillColor(color);
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int x = 0;
+            while (x < matrix.getWidth()) {
+                int runStart = x;
+                while (x < matrix.getWidth() && matrix.get(x, y)) {
+                    x++;
+                }
+                if (x > runStart) {
+                    page.rect(
+                            left + runStart * module,
+                            top - (y + 1) * module,
+                            left + x * module,
+                            top - y * module);
+                }
+                x++;
+            }
+        }
+        page.fill();
+    }
+
+    /**
+     * Adds the crop marks, writes the page and clears the content for the next one.
+     *
+     * @param pdf the document
+     * @param page the page content
+     * @throws IOException if writing fails
+     */
+    private void flushPage(PdfStreamWriter pdf, PdfContent page) throws IOException {
+        if (sheet.cropMarks()) {
+            drawCropMarks(page);
+        }
+        pdf.addPage(page.toBytes());
+        page.reset();
+    }
+
+    /**
+     * Draws cut marks in the page margins, in line with every label edge.
+     *
+     * <p>Marks start just outside the bleed and stop before the page edge; nothing is drawn when
+     * the margin is too narrow.
+     *
+     * @param page the page content
+     */
+    private void drawCropMarks(PdfContent page) {
+        double gap = sheet.bleed() + CROP_MARK_GAP;
+        double length = Math.min(sheet.margin() - gap - CROP_MARK_GAP, CROP_MARK_MAX_LENGTH);
+        if (length <= 0) {
+            return;
+        }
+        double inner = sheet.margin() - gap;
+        page.strokeColor(Color.BLACK).lineWidth(CROP_MARK_WIDTH);
+        for (int c = 0; c < sheet.columns(); c++) {
+            double left = sheet.margin() + c * (sheet.labelWidth() + sheet.gutter());
+            for (double x : new double[] {left, left + sheet.labelWidth()}) {
+                page.line(x, inner - length, x, inner);
+                page.line(x, sheet.pageHeight() - inner, x, sheet.pageHeight() - inner + length);
+            }
+        }
+        for (int r = 0; r < sheet.rows(); r++) {
+            double top =
+                    sheet.pageHeight()
+                            - sheet.margin()
+                            - r * (sheet.labelHeight() + sheet.gutter());
+            for (double y : new double[] {top, top - sheet.labelHeight()}) {
+                page.line(inner - length, y, inner, y);
+                page.line(sheet.pageWidth() - inner, y, sheet.pageWidth() - inner + length, y);
+            }
+        }
+        page.stroke();
+    }
+
+    /** How a label was obtained. */
+    private enum Outcome {
+        /** Encoded from the row. */
+        DRAWN,
+        /** Drawn from the matrix of an identical recent row. */
+        REUSED,
+        /** Nothing drawn. */
+        FAILED
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.zxing.WriterException;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StreamReport;
+import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.ui.EncodedImage;
+import fr.softsf.canscan.util.JsonObjectParser;
+import fr.softsf.canscan.util.LatencyHistogram;
+
+/**
+ * Long-running generator answering newline-delimited JSON requests, for shell pipelines that would
+ * otherwise start a JVM per code.
+ *
+ * <p>Each input line is an object such as {@code
+ * {"id":"42","mode":"MECARD","fields":{"name":"Jane",
+ * "tel":"0102"},"style":{"size":300,"qrColor":"#003366"}}}. {@code fields} members are named after
+ * the {@link WholeFields} components and {@code style} members after the {@link CommonFields} ones;
+ * both are optional and fall back to the session defaults. Every request gets exactly one response,
+ * in request order: a 4-byte big-endian length followed by the PNG bytes, or a line of base64.
+ * Failed requests get an empty response (length 0 or an empty line) and are logged.
+ *
+ * <p>The reading thread parses the lines, render threads build the images, encoding threads turn
+ * them into PNG bytes and a single writer thread emits the responses in order. A bounded queue
+ * between the reader and the writer keeps at most a few requests per thread in flight, so a slow
+ * consumer slows the reading down instead of filling the heap. The output is flushed whenever no
+ * response is ready, so interactive callers get each answer immediately.
+ */
+public class NdjsonStreamService {
+
+    /** Response framing. */
+    public enum Format {
+        /** A 4-byte big-endian length followed by the PNG bytes. */
+        PNG,
+        /** The PNG bytes in base64, on one line. */
+        BASE64
+    }
+
+    private static final System.Logger LOGGER =
+            System.getLogger(NdjsonStreamService.class.getName());
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final double P50 = 50;
+    private static final double P90 = 90;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+    private static final Future<Response> END = CompletableFuture.completedFuture(null);
+    private static final byte[] EMPTY = new byte[0];
+    private final RowRenderer renderer;
+    private final int threads;
+    private final Mode defaultMode;
+    private final CommonFields defaultStyle;
+    private final Format format;
+
+    /**
+     * Creates the service.
+     *
+     * @param encodedImage the QR code image generator; must not be {@code null}
+     * @param threads number of render threads, and of encoding threads (at least 1)
+     * @param defaultMode the mode of requests without a {@code mode} member
+     * @param defaultStyle the style completed by each request's {@code style} member
+     * @param format the response framing
+     */
+    public NdjsonStreamService(
+            EncodedImage encodedImage,
+            int threads,
+            Mode defaultMode,
+            CommonFields defaultStyle,
+            Format format) {
+        this.renderer =
+                new RowRenderer(
+                        Objects.requireNonNull(encodedImage, "encodedImage must not be null"));
+        this.threads = Math.max(1, threads);
+        this.defaultMode = Objects.requireNonNull(defaultMode, "defaultMode must not be null");
+        this.defaultStyle = Objects.requireNonNull(defaultStyle, "defaultStyle must not be null");
+        this.format = Objects.requireNonNull(format, "format must not be null");
+    }
+
+    /**
+     * Answers the requests of {@code in} on {@code out} until the end of the input.
+     *
+     * <p>Blank lines are ignored. Neither stream is closed.
+     *
+     * @param in the request lines, in UTF-8
+     * @param out the responses
+     * @return the session summary
+     * @throws IOException if the input cannot be read or the output cannot be written
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    public StreamReport serve(InputStream in, OutputStream out)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<Future<Response>> queue =
+                new ArrayBlockingQueue<>(threads * IN_FLIGHT_PER_THREAD);
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService renderPool =
+                Executors.newFixedThreadPool(
+                        threads, Thread.ofPlatform().name("StreamRender-", 0).factory());
+        ExecutorService encodePool =
+                Executors.newFixedThreadPool(
+                        threads, Thread.ofPlatform().name("StreamEncode-", 0).factory());
+        ExecutorService writerThread =
+                Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("StreamWriter").factory());
+        int requests;
+        try {
+            Future<Void> writer = writerThread.submit(() -> write(queue, out, latencies, failed));
+            requests = read(in, queue, writer, renderPool, encodePool);
+            await(writer);
+        } finally {
+            renderPool.shutdownNow();
+            encodePool.shutdownNow();
+            writerThread.shutdownNow();
+        }
+        return new StreamReport(
+                requests,
+                failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                latencies.valueAtPercentile(P50) / NANOS_PER_MICRO,
+                latencies.valueAtPercentile(P90) / NANOS_PER_MICRO,
+                latencies.valueAtPercentile(P99) / NANOS_PER_MICRO,
+                latencies.valueAtPercentile(P999) / NANOS_PER_MICRO,
+                latencies.max() / NANOS_PER_MICRO);
+    }
+
+    /**
+     * Reads and parses the request lines, chains their render and encoding stages and queues the
+     * pending responses in request order, then queues the end marker.
+     *
+     * @param in the request lines
+     * @param queue the bounded queue read by the writer
+     * @param writer the writer task, watched so a failed writer does not block the reader forever
+     * @param renderPool the render threads
+     * @param encodePool the encoding threads
+     * @return the number of requests read
+     * @throws IOException if the input cannot be read
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    private int read(
+            InputStream in,
+            BlockingQueue<Future<Response>> queue,
+            Future<?> writer,
+            ExecutorService renderPool,
+            ExecutorService encodePool)
+            throws IOException, InterruptedException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int requests = 0;
+        String line;
+        while ((line = reader.readLine()) != null && isRunning(writer)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long arrival = System.nanoTime();
+            requests++;
+            CompletableFuture<Response> pending;
+            try {
+                BatchRow row = parse(line, requests);
+                CommonFields config = RowRenderer.toCommonFields(row.fields());
+                pending =
+                        CompletableFuture.supplyAsync(() -> render(row, config), renderPool)
+                                .thenApplyAsync(
+                                        image -> new Response(row.key(), arrival, encode(image)),
+                                        encodePool);
+            } catch (IllegalArgumentException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            int number = requests;
+            offer(queue, pending.exceptionally(e -> failure(number, arrival, e)), writer);
+        }
+        offer(queue, END, writer);
+        return requests;
+    }
+
+    /**
+     * Turns a request line into a row.
+     *
+     * @param line the request line
+     * @param number the request number, used as key when the request has no {@code id}
+     * @return the row
+     * @throws IllegalArgumentException if the line is malformed or holds invalid values
+     */
+    private BatchRow parse(String line, int number) {
+        Map<String, Object> request = JsonObjectParser.parseObject(line);
+        Map<String, Object> fields = objectMember(request, "fields");
+        Map<String, Object> style = objectMember(request, "style");
+        String key = text(request, "id", "#" + number);
+        Mode mode = BatchRowMapper.INSTANCE.parseMode(text(request, "mode", ""), defaultMode);
+        WholeFields wholeFields =
+                BatchRowMapper.INSTANCE.toWholeFields(
+                        mode,
+                        name -> text(fields.isEmpty() ? request : fields, name, "").trim(),
+                        styleOf(style));
+        return new BatchRow(key, wholeFields);
+    }
+
+    /**
+     * Completes the session style with the members of a request's {@code style} object.
+     *
+     * @param style the {@code style} members
+     * @return the request style
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    private CommonFields styleOf(Map<String, Object> style) {
+        if (style.isEmpty()) {
+            return defaultStyle;
+        }
+        String logo = text(style, "logoFile", "");
+        return new CommonFields(
+                logo.isBlank() ? defaultStyle.logoFile() : new File(logo),
+                Integer.parseInt(text(style, "size", String.valueOf(defaultStyle.size()))),
+                Double.parseDouble(
+                        text(style, "imageRatio", String.valueOf(defaultStyle.imageRatio()))),
+                color(style, "qrColor", defaultStyle.qrColor()),
+                color(style, "bgColor", defaultStyle.bgColor()),
+                Boolean.parseBoolean(
+                        text(
+                                style,
+                                "roundedModules",
+                                String.valueOf(defaultStyle.roundedModules()))),
+                Integer.parseInt(text(style, "margin", String.valueOf(defaultStyle.margin()))),
+                EccLevel.parse(text(style, "eccLevel", defaultStyle.eccLevel().name())),
+                Boolean.parseBoolean(
+                        text(style, "compact", String.valueOf(defaultStyle.compact()))),
+                Boolean.parseBoolean(
+                        text(style, "microQr", String.valueOf(defaultStyle.microQr()))));
+    }
+
+    /**
+     * Returns a color member in {@code #RRGGBB} form.
+     *
+     * @param members the object members
+     * @param name the member name
+     * @param fallback the color if absent
+     * @return the color
+     * @throws IllegalArgumentException if the value is not a color
+     */
+    private static Color color(Map<String, Object> members, String name, Color fallback) {
+        String value = text(members, name, "");
+        return value.isBlank() ? fallback : Color.decode(value.trim());
+    }
+
+    /**
+     * Returns a member as text.
+     *
+     * @param members the object members
+     * @param name the member name
+     * @param fallback the value if absent or {@code null}
+     * @return the text
+     */
+    private static String text(Map<String, Object> members, String name, String fallback) {
+        Object value = members.get(name);
+        return value == null ? fallback : value.toString();
+    }
+
+    /**
+     * Returns an object member.
+     *
+     * @param members the object members
+     * @param name the member name
+     * @return the nested members, empty if absent
+     * @throws IllegalArgumentException if the member is not an object
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objectMember(Map<String, Object> members, String name) {
+        Object value = members.get(name);
+        if (value == null) {
+            return Map.of();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+        throw new IllegalArgumentException("« " + name + " » doit être un objet JSON");
+    }
+
+    /**
+     * Renders a row.
+     *
+     * @param row the row
+     * @param config the render configuration
+     * @return the image
+     * @throws CompletionException if the row has nothing to encode or cannot be encoded
+     */
+    private BufferedImage render(BatchRow row, CommonFields config) {
+        try {
+            BufferedImage image = renderer.render(row.key(), row.fields(), config);
+            if (image == null) {
+                throw new IllegalArgumentException("Aucune donnée à encoder");
+            }
+            return image;
+        } catch (WriterException | IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Encodes an image into the response bytes.
+     *
+     * @param image the image, released afterwards
+     * @return the PNG bytes, or their base64 form
+     * @throws CompletionException if the image cannot be encoded
+     */
+    private byte[] encode(BufferedImage image) {
+        try {
+            byte[] png = PngOutput.INSTANCE.encode(image);
+            return format == Format.BASE64 ? Base64.getEncoder().encode(png) : png;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            image.flush();
+        }
+    }
+
+    /**
+     * Logs a failed request and builds its empty response.
+     *
+     * @param number the request number
+     * @param arrival the time the request was read
+     * @param error the failure
+     * @return the empty response
+     */
+    private static Response failure(int number, long arrival, Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        LOGGER.log(
+                System.Logger.Level.WARNING,
+                "Requête n° {0} en échec : {1}",
+                number,
+                cause.getMessage());
+        return new Response(null, arrival, EMPTY);
+    }
+
+    /**
+     * Queues a pending response, giving up if the writer has stopped.
+     *
+     * @param queue the bounded queue
+     * @param pending the pending response
+     * @param writer the writer task
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    private static void offer(
+            BlockingQueue<Future<Response>> queue, Future<Response> pending, Future<?> writer)
+            throws InterruptedException {
+        while (isRunning(writer)
+                && !queue.offer(pending, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            LOGGER.log(System.Logger.Level.TRACE, "File de réponses pleine");
+        }
+    }
+
+    /**
+     * Tells whether the writer is still consuming the queue.
+     *
+     * @param writer the writer task
+     * @return {@code true} while the writer runs
+     */
+    private static boolean isRunning(Future<?> writer) {
+        return writer.state() == Future.State.RUNNING;
+    }
+
+    /**
+     * Waits for the writer and unwraps its failure.
+     *
+     * @param writer the writer task
+     * @throws IOException if the output could not be written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void await(Future<Void> writer) throws IOException, InterruptedException {
+        try {
+            writer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Échec de l'écriture des réponses", e.getCause());
+        }
+    }
+
+    /**
+     * Writer loop: takes the pending responses in order and writes them until the end marker,
+     * recording the latency of each one.
+     *
+     * @param queue the bounded queue
+     * @param out the output
+     * @param latencies the latency histogram, in nanoseconds
+     * @param failed failure counter
+     * @return {@code null}
+     * @throws IOException if the output cannot be written
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    private Void write(
+            BlockingQueue<Future<Response>> queue,
+            OutputStream out,
+            LatencyHistogram latencies,
+            AtomicInteger failed)
+            throws IOException, InterruptedException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        Future<Response> pending;
+        while ((pending = queue.take()) != END) {
+            Response response = resultOf(pending);
+            if (response.key() == null) {
+                failed.incrementAndGet();
+            }
+            if (format == Format.PNG) {
+                data.writeInt(response.bytes().length);
+                data.write(response.bytes());
+            } else {
+                data.write(response.bytes());
+                data.write('\n');
+            }
+            if (queue.isEmpty()) {
+                data.flush();
+            }
+            latencies.record(System.nanoTime() - response.arrival());
+        }
+        data.flush();
+        return null;
+    }
+
+    /**
+     * Waits for a response. Stage failures are turned into empty responses before being queued, so
+     * this wait only fails if a stage itself breaks down.
+     *
+     * @param pending the pending response
+     * @return the response
+     * @throws IOException if the response could not be computed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static Response resultOf(Future<Response> pending)
+            throws IOException, InterruptedException {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Échec du traitement d'une requête", e.getCause());
+        }
+    }
+
+    /**
+     * A response ready to be written.
+     *
+     * @param key the request key, or {@code null} for a failed request
+     * @param arrival the time the request was read, from {@link System#nanoTime()}
+     * @param bytes the response body
+     */
+    private record Response(String key, long arrival, byte[] bytes) {}
+}
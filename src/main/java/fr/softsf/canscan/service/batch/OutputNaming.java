@@ -0,0 +1,55 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Derives deterministic, filesystem-safe output file names from row keys.
+ *
+ * <p>Keys made only of lowercase letters, digits, dots, underscores and hyphens are used as-is.
+ * Other keys have unsafe characters replaced and a short digest of the original key appended, so
+ * two distinct keys never share a file name, even on the case-insensitive file systems of Windows
+ * and macOS: {@code Row1} and {@code row1} name different files.
+ */
+public enum OutputNaming {
+    INSTANCE;
+
+    private static final Pattern UNSAFE = Pattern.compile("[^A-Za-z0-9._-]");
+    private static final int MAX_BASE_LENGTH = 100;
+    private static final int SUFFIX_LENGTH = 8;
+    private static final String PNG_EXTENSION = ".png";
+
+    /**
+     * Returns the PNG file name for a row key.
+     *
+     * @param key the row key; must not be blank
+     * @return the file name, including the {@code .png} extension
+     */
+    public String fileNameFor(String key) {
+        return baseNameFor(key) + PNG_EXTENSION;
+    }
+
+    /**
+     * Returns the extension-less base name for a row key.
+     *
+     * @param key the row key; must not be blank
+     * @return the base name
+     */
+    public String baseNameFor(String key) {
+        String safe = UNSAFE.matcher(key).replaceAll("_");
+        boolean reserved = safe.startsWith(".");
+        boolean caseFolded = safe.equals(safe.toLowerCase(Locale.ROOT));
+        if (safe.equals(key) && caseFolded && !reserved && safe.length() <= MAX_BASE_LENGTH) {
+            return safe;
+        }
+        if (safe.length() > MAX_BASE_LENGTH) {
+            safe = safe.substring(0, MAX_BASE_LENGTH);
+        }
+        return safe + "-" + PayloadHasher.INSTANCE.sha256Hex(key).substring(0, SUFFIX_LENGTH);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EncodedData;
+
+/**
+ * Computes stable digests of what a render depends on, so unchanged rows can be detected without
+ * rendering them.
+ *
+ * <p>The digest covers the {@link EncodedData} and every {@link CommonFields} value. For the logo,
+ * the file size and modification time are included so that replacing the logo invalidates outputs.
+ * The {@code DTSTAMP} line of MEET payloads is excluded: it holds the generation time and would
+ * otherwise make every calendar row look modified.
+ */
+public enum PayloadHasher {
+    INSTANCE;
+
+    private static final Pattern DTSTAMP_LINE = Pattern.compile("(?m)^DTSTAMP:[^\\r\\n]*\\R?");
+    private static final char SEPARATOR = '\u001F';
+    private static final int CONFIG_CAPACITY = 128;
+
+    /**
+     * Returns the hex SHA-256 digest of a payload and its visual configuration.
+     *
+     * @param data the encoded data; must not be {@code null}
+     * @param config the visual configuration; must not be {@code null}
+     * @return a 64-character lowercase hex digest
+     */
+    public String hash(EncodedData data, CommonFields config) {
+        StringBuilder sb = new StringBuilder(data.data().length() + CONFIG_CAPACITY);
+        sb.append(DTSTAMP_LINE.matcher(data.data()).replaceAll(""))
+                .append(SEPARATOR)
+                .append(data.defaultFileName())
+                .append(SEPARATOR)
+                .append(config.size())
+                .append(SEPARATOR)
+                .append(config.margin())
+                .append(SEPARATOR)
+                .append(Double.doubleToLongBits(config.imageRatio()))
+                .append(SEPARATOR)
+                .append(config.qrColor().getRGB())
+                .append(SEPARATOR)
+                .append(config.bgColor().getRGB())
+                .append(SEPARATOR)
+                .append(config.roundedModules())
+                .append(SEPARATOR)
+                .append(config.eccLevel())
+                .append(SEPARATOR)
+                .append(config.compact())
+                .append(SEPARATOR)
+                .append(config.microQr());
+        File logo = config.logoFile();
+        if (logo != null) {
+            sb.append(SEPARATOR)
+                    .append(logo.getAbsolutePath())
+                    .append(SEPARATOR)
+                    .append(logo.length())
+                    .append(SEPARATOR)
+                    .append(logo.lastModified());
+        }
+        return sha256Hex(sb.toString());
+    }
+
+    /**
+     * Returns the hex SHA-256 digest of a UTF-8 string.
+     *
+     * @param text the text to digest
+     * @return a 64-character lowercase hex digest
+     */
+    public String sha256Hex(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
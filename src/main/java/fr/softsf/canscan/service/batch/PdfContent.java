@@ -0,0 +1,187 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builder for a PDF page content stream limited to rectangles, lines and RGB colors.
+ *
+ * <p>Coordinates are written with three decimals without going through {@link String#format}, and
+ * rectangles are given by their edges so that adjacent shapes share exactly the same rounded edge.
+ * The builder is reused from page to page through {@link #reset()}.
+ */
+final class PdfContent {
+
+    private static final int MILLI = 1000;
+    private static final double MAX_COLOR = 255.0;
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * Sets the fill color.
+     *
+     * @param color the color
+     * @return this builder
+     */
+    PdfContent fillColor(Color color) {
+        return rgb(color).append(" rg\n");
+    }
+
+    /**
+     * Sets the stroke color.
+     *
+     * @param color the color
+     * @return this builder
+     */
+    PdfContent strokeColor(Color color) {
+        return rgb(color).append(" RG\n");
+    }
+
+    /**
+     * Sets the stroke width.
+     *
+     * @param width the width, in points
+     * @return this builder
+     */
+    PdfContent lineWidth(double width) {
+        return num(width).append(" w\n");
+    }
+
+    /**
+     * Appends a rectangle to the current path.
+     *
+     * @param left left edge
+     * @param bottom bottom edge
+     * @param right right edge
+     * @param top top edge
+     * @return this builder
+     */
+    PdfContent rect(double left, double bottom, double right, double top) {
+        long x0 = Math.round(left * MILLI);
+        long y0 = Math.round(bottom * MILLI);
+        milli(x0).append(" ");
+        milli(y0).append(" ");
+        milli(Math.round(right * MILLI) - x0).append(" ");
+        return milli(Math.round(top * MILLI) - y0).append(" re\n");
+    }
+
+    /**
+     * Appends a straight segment to the current path.
+     *
+     * @param x0 start abscissa
+     * @param y0 start ordinate
+     * @param x1 end abscissa
+     * @param y1 end ordinate
+     * @return this builder
+     */
+    PdfContent line(double x0, double y0, double x1, double y1) {
+        num(x0).append(" ");
+        num(y0).append(" m ");
+        num(x1).append(" ");
+        return num(y1).append(" l\n");
+    }
+
+    /**
+     * Fills the current path.
+     *
+     * @return this builder
+     */
+    PdfContent fill() {
+        return append("f\n");
+    }
+
+    /**
+     * Strokes the current path.
+     *
+     * @return this builder
+     */
+    PdfContent stroke() {
+        return append("S\n");
+    }
+
+    /**
+     * Returns the content stream bytes.
+     *
+     * @return the content
+     */
+    byte[] toBytes() {
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /** Clears the content for the next page. */
+    void reset() {
+        sb.setLength(0);
+    }
+
+    /**
+     * Formats a number the way {@link #rect} does.
+     *
+     * @param value the value
+     * @return the PDF number
+     */
+    static String number(double value) {
+        return new PdfContent().num(value).sb.toString();
+    }
+
+    /**
+     * Appends three color components between 0 and 1.
+     *
+     * @param color the color
+     * @return this builder
+     */
+    private PdfContent rgb(Color color) {
+        num(color.getRed() / MAX_COLOR).append(" ");
+        num(color.getGreen() / MAX_COLOR).append(" ");
+        return num(color.getBlue() / MAX_COLOR);
+    }
+
+    /**
+     * Appends a number rounded to three decimals.
+     *
+     * @param value the value
+     * @return this builder
+     */
+    private PdfContent num(double value) {
+        return milli(Math.round(value * MILLI));
+    }
+
+    /**
+     * Appends a number expressed in thousandths, without trailing zeros.
+     *
+     * @param milli the value times 1000
+     * @return this builder
+     */
+    private PdfContent milli(long milli) {
+        long abs = Math.abs(milli);
+        if (milli < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / MILLI);
+        long fraction = abs % MILLI;
+        if (fraction > 0) {
+            sb.append('.');
+            String digits = Long.toString(MILLI + fraction).substring(1);
+            int end = digits.length();
+            while (digits.charAt(end - 1) == '0') {
+                end--;
+            }
+            sb.append(digits, 0, end);
+        }
+        return this;
+    }
+
+    /**
+     * Appends raw text.
+     *
+     * @param text the text
+     * @return this builder
+     */
+    private PdfContent append(String text) {
+        sb.append(text);
+        return this;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal PDF 1.4 writer emitting one page at a time.
+ *
+ * <p>Each {@link #addPage(byte[])} compresses the page content and writes the page to the stream
+ * immediately; only the byte offset of each object is kept, so memory does not grow with the page
+ * content. The page tree, catalog and cross-reference table are written by {@link #close()}. Pages
+ * have no resources: content must only use path and color operators.
+ */
+final class PdfStreamWriter implements Closeable {
+
+    private static final int FIRST_PAGE_OBJECT = 3;
+    private static final int OBJECTS_PER_PAGE = 2;
+    private static final int INITIAL_CAPACITY = 64;
+    private final OutputStream out;
+    private final String mediaBox;
+    private long position;
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int objectCount = FIRST_PAGE_OBJECT - 1;
+    private int pageCount;
+
+    /**
+     * Starts a document whose pages all share the same size.
+     *
+     * @param out the target stream, closed by {@link #close()}
+     * @param width page width, in points
+     * @param height page height, in points
+     * @throws IOException if the header cannot be written
+     */
+    PdfStreamWriter(OutputStream out, double width, double height) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        this.mediaBox =
+                String.format(
+                        Locale.ROOT,
+                        "[0 0 %s %s]",
+                        PdfContent.number(width),
+                        PdfContent.number(height));
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+    }
+
+    /**
+     * Compresses and writes one page.
+     *
+     * @param content the page content stream, uncompressed
+     * @throws IOException if writing fails
+     */
+    void addPage(byte[] content) throws IOException {
+        ByteArrayOutputStream deflated =
+                new ByteArrayOutputStream(INITIAL_CAPACITY + content.length / 4);
+        try (DeflaterOutputStream zip = new DeflaterOutputStream(deflated)) {
+            zip.write(content);
+        }
+        int pageObject = FIRST_PAGE_OBJECT + OBJECTS_PER_PAGE * pageCount;
+        beginObject(pageObject);
+        write(
+                "<< /Type /Page /Parent 2 0 R /MediaBox "
+                        + mediaBox
+                        + " /Resources << >> /Contents "
+                        + (pageObject + 1)
+                        + " 0 R >>\nendobj\n");
+        beginObject(pageObject + 1);
+        write("<< /Length " + deflated.size() + " /Filter /FlateDecode >>\nstream\n");
+        deflated.writeTo(out);
+        position += deflated.size();
+        write("\nendstream\nendobj\n");
+        pageCount++;
+    }
+
+    /**
+     * Returns the number of pages written so far.
+     *
+     * @return the page count
+     */
+    int pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Writes the page tree, catalog and cross-reference table, then closes the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            beginObject(1);
+            write("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+            beginObject(2);
+            StringBuilder kids = new StringBuilder("<< /Type /Pages /Count ");
+            kids.append(pageCount).append(" /Kids [");
+            for (int i = 0; i < pageCount; i++) {
+                kids.append(FIRST_PAGE_OBJECT + OBJECTS_PER_PAGE * i).append(" 0 R ");
+            }
+            write(kids.append("] >>\nendobj\n").toString());
+            long xref = position;
+            StringBuilder table = new StringBuilder("xref\n0 ").append(objectCount + 1);
+            table.append("\n0000000000 65535 f \n");
+            for (int i = 1; i <= objectCount; i++) {
+                table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offsets[i]));
+            }
+            table.append("trailer\n<< /Size ")
+                    .append(objectCount + 1)
+                    .append(" /Root 1 0 R >>\nstartxref\n")
+                    .append(xref)
+                    .append("\n%%EOF\n");
+            write(table.toString());
+        }
+    }
+
+    /**
+     * Records the offset of an object and writes its header.
+     *
+     * @param number the object number
+     * @throws IOException if writing fails
+     */
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = position;
+        objectCount = Math.max(objectCount, number);
+        write(number + " 0 obj\n");
+    }
+
+    /**
+     * Writes Latin-1 text and advances the offset.
+     *
+     * @param text the text
+     * @throws IOException if writing fails
+     */
+    private void write(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes);
+        position += bytes.length;
+    }
+}
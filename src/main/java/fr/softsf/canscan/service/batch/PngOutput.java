@@ -0,0 +1,156 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes rendered codes as PNG for headless runs.
+ *
+ * <p>Each image is written to a temporary sibling file and then moved over the target, so readers
+ * never observe a half-written PNG and a crash leaves the previous output intact.
+ */
+public enum PngOutput {
+    INSTANCE;
+
+    private static final System.Logger LOGGER = System.getLogger(PngOutput.class.getName());
+    private static final String PNG = "png";
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IEND = {
+        0, 0, 0, 0, 'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82
+    };
+
+    /**
+     * Writes an image as PNG, replacing the target atomically.
+     *
+     * @param image the image to write
+     * @param target the destination file; its parent directory must exist
+     * @throws IOException if encoding or writing fails
+     */
+    public void writeAtomically(BufferedImage image, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+        try {
+            boolean written;
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                written = ImageIO.write(image, PNG, os);
+            }
+            if (written) {
+                Files.move(
+                        tmp,
+                        target,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                throw new IOException("Aucun encodeur PNG disponible");
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Encodes an image as PNG in memory.
+     *
+     * @param image the image to encode
+     * @return the PNG bytes
+     * @throws IOException if no PNG encoder is available
+     */
+    public byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (ImageIO.write(image, PNG, bytes)) {
+            return bytes.toByteArray();
+        }
+        throw new IOException("Aucun encodeur PNG disponible");
+    }
+
+    /**
+     * Makes {@code target} a copy of an existing output, replacing it atomically.
+     *
+     * <p>A hard link is used when the file system supports it, so identical outputs share their
+     * storage; otherwise the file is copied. Sharing is safe because outputs are never rewritten in
+     * place: {@link #writeAtomically} always moves a new file over the old one.
+     *
+     * @param source the existing output
+     * @param target the destination file; its parent directory must exist
+     * @throws IOException if neither linking nor copying succeeds
+     */
+    public void linkOrCopy(Path source, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+        try {
+            Files.delete(tmp);
+            try {
+                Files.createLink(tmp, source);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                LOGGER.log(System.Logger.Level.DEBUG, "Lien impossible, copie : " + e);
+                Files.copy(source, tmp);
+            }
+            Files.move(
+                    tmp,
+                    target,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Tells whether a file is a complete PNG: it starts with the PNG signature and ends with the
+     * {@code IEND} chunk. Only the first and last bytes are read.
+     *
+     * @param file the file to check
+     * @return {@code true} if the file exists and is complete
+     * @throws IOException if the file exists but cannot be read
+     */
+    public boolean isComplete(Path file) throws IOException {
+        if (Files.isRegularFile(file)) {
+            try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+                long size = channel.size();
+                if (size < SIGNATURE.length + IEND.length) {
+                    return false;
+                }
+                ByteBuffer head = ByteBuffer.allocate(SIGNATURE.length);
+                ByteBuffer tail = ByteBuffer.allocate(IEND.length);
+                readFully(channel, head);
+                channel.position(size - IEND.length);
+                readFully(channel, tail);
+                return Arrays.equals(head.array(), SIGNATURE) && Arrays.equals(tail.array(), IEND);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills a buffer from the current channel position.
+     *
+     * @param channel the channel
+     * @param buffer the buffer to fill
+     * @throws IOException if the end of the file is reached first
+     */
+    private static void readFully(SeekableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Fin de fichier inattendue");
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+
+/**
+ * Small least-recently-used map from payload digest to a render result, used to reuse the result of
+ * a recent identical row without keeping every result of a large input. Lookups and size are
+ * reported to {@link CanScanMetrics}. Not thread-safe.
+ *
+ * @param <V> the result type
+ */
+final class RecentResults<V> extends LinkedHashMap<String, V> {
+
+    private static final long serialVersionUID = 1L;
+    private static final float LOAD_FACTOR = 0.75f;
+    private final int capacity;
+    private final RenderCache cache;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param capacity maximum number of results kept
+     * @param cache the cache reported to {@link CanScanMetrics}
+     */
+    RecentResults(int capacity, RenderCache cache) {
+        super(capacity, LOAD_FACTOR, true);
+        this.capacity = capacity;
+        this.cache = cache;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = super.get(key);
+        CanScanMetrics.INSTANCE.cacheLookup(cache, value != null);
+        return value;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        V previous = super.put(key, value);
+        CanScanMetrics.INSTANCE.cacheSize(cache, size());
+        return previous;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+        return size() > capacity;
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import fr.softsf.canscan.model.ContentLine;
+import fr.softsf.canscan.model.RecurrenceRule;
+import fr.softsf.canscan.model.RecurrenceRule.WeekdayNum;
+
+/**
+ * Lazily enumerates the occurrence starts of a recurring event, in chronological order.
+ *
+ * <p>Occurrences are computed one period (day, week, month or year) at a time, so at most one
+ * period's worth of dates is held in memory whatever the rule. Enumeration stops at the rule's
+ * {@code COUNT} or {@code UNTIL}, or at the horizon, which bounds rules without either. Dates are
+ * computed in the zone of {@code DTSTART}, so the local time of day survives daylight saving
+ * changes.
+ *
+ * <p>Supported: {@code FREQ} (DAILY, WEEKLY, MONTHLY, YEARLY), {@code INTERVAL}, {@code COUNT},
+ * {@code UNTIL}, {@code BYDAY}, {@code BYMONTHDAY}, {@code BYMONTH} and {@code WKST}. Other parts
+ * are rejected by {@link #parseRule(String, ZonedDateTime)}.
+ */
+public final class RecurrenceIterator implements Iterator<ZonedDateTime> {
+
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int MAX_MONTH_DAY = 31;
+    private static final Set<String> SUPPORTED_PARTS =
+            Set.of("FREQ", "INTERVAL", "COUNT", "UNTIL", "BYDAY", "BYMONTHDAY", "BYMONTH", "WKST");
+    private final RecurrenceRule rule;
+    private final ZonedDateTime start;
+    private final ZonedDateTime limit;
+    private final Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    private final Deque<ZonedDateTime> buffer = new ArrayDeque<>();
+    private long period;
+    private int generated;
+    private boolean exhausted;
+
+    /**
+     * Creates the iterator.
+     *
+     * @param rule the recurrence rule
+     * @param start the first occurrence ({@code DTSTART})
+     * @param horizon exclusive upper bound on occurrence starts
+     */
+    public RecurrenceIterator(RecurrenceRule rule, ZonedDateTime start, ZonedDateTime horizon) {
+        this.rule = Objects.requireNonNull(rule, "rule must not be null");
+        this.start = Objects.requireNonNull(start, "start must not be null");
+        Objects.requireNonNull(horizon, "horizon must not be null");
+        ZonedDateTime afterUntil = rule.until() == null ? null : rule.until().plusSeconds(1);
+        this.limit = afterUntil != null && afterUntil.isBefore(horizon) ? afterUntil : horizon;
+        rule.byDay().forEach(entry -> weekdays.add(entry.day()));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty() && !exhausted) {
+            fillNextPeriod();
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public ZonedDateTime next() {
+        if (hasNext()) {
+            return buffer.poll();
+        }
+        throw new NoSuchElementException();
+    }
+
+    /** Queues the occurrences of the next period, or marks the iteration as finished. */
+    private void fillNextPeriod() {
+        LocalDate anchor = periodStart(period++);
+        if (isAtOrAfterLimit(anchor.atStartOfDay(start.getZone()))) {
+            exhausted = true;
+            return;
+        }
+        for (LocalDate date : candidates(anchor)) {
+            ZonedDateTime occurrence = ZonedDateTime.of(date, start.toLocalTime(), start.getZone());
+            if (occurrence.isBefore(start)) {
+                continue;
+            }
+            if (isAtOrAfterLimit(occurrence) || rule.count() > 0 && generated >= rule.count()) {
+                exhausted = true;
+                return;
+            }
+            generated++;
+            buffer.add(occurrence);
+        }
+    }
+
+    /**
+     * Tells whether an instant is past the enumeration bound.
+     *
+     * @param dateTime the instant
+     * @return {@code true} if not strictly before the limit
+     */
+    private boolean isAtOrAfterLimit(ZonedDateTime dateTime) {
+        return dateTime.toInstant().compareTo(limit.toInstant()) >= 0;
+    }
+
+    /**
+     * Returns the first day of a period.
+     *
+     * @param index the period index, {@code 0} being the period of {@code DTSTART}
+     * @return the first day
+     */
+    private LocalDate periodStart(long index) {
+        LocalDate first = start.toLocalDate();
+        long step = index * rule.interval();
+        return switch (rule.frequency()) {
+            case WEEKS ->
+                    first.with(TemporalAdjusters.previousOrSame(rule.weekStart())).plusWeeks(step);
+            case MONTHS -> first.withDayOfMonth(1).plusMonths(step);
+            case YEARS -> first.withDayOfYear(1).plusYears(step);
+            default -> first.plusDays(step);
+        };
+    }
+
+    /**
+     * Returns the candidate dates of a period, sorted and without duplicates.
+     *
+     * @param anchor the first day of the period
+     * @return the candidate dates
+     */
+    private SortedSet<LocalDate> candidates(LocalDate anchor) {
+        SortedSet<LocalDate> dates = new TreeSet<>();
+        switch (rule.frequency()) {
+            case WEEKS -> {
+                DayOfWeek startDay = start.getDayOfWeek();
+                for (int i = 0; i < DayOfWeek.values().length; i++) {
+                    LocalDate date = anchor.plusDays(i);
+                    boolean wanted =
+                            weekdays.isEmpty()
+                                    ? date.getDayOfWeek() == startDay
+                                    : weekdays.contains(date.getDayOfWeek());
+                    addIfInMonths(dates, date, wanted);
+                }
+            }
+            case MONTHS -> {
+                if (rule.byMonth().isEmpty() || rule.byMonth().contains(anchor.getMonthValue())) {
+                    dates.addAll(monthDays(YearMonth.from(anchor)));
+                }
+            }
+            case YEARS -> {
+                List<Integer> months =
+                        rule.byMonth().isEmpty() ? List.of(start.getMonthValue()) : rule.byMonth();
+                for (int month : months) {
+                    dates.addAll(monthDays(YearMonth.of(anchor.getYear(), month)));
+                }
+            }
+            default -> addIfInMonths(dates, anchor, matchesDailyFilters(anchor));
+        }
+        return dates;
+    }
+
+    /**
+     * Adds a date if it is wanted and its month passes {@code BYMONTH}.
+     *
+     * @param dates the target set
+     * @param date the date
+     * @param wanted whether the other filters accepted the date
+     */
+    private void addIfInMonths(SortedSet<LocalDate> dates, LocalDate date, boolean wanted) {
+        if (wanted && (rule.byMonth().isEmpty() || rule.byMonth().contains(date.getMonthValue()))) {
+            dates.add(date);
+        }
+    }
+
+    /**
+     * Applies {@code BYDAY} and {@code BYMONTHDAY} to a daily candidate.
+     *
+     * @param date the candidate
+     * @return {@code true} if the date is kept
+     */
+    private boolean matchesDailyFilters(LocalDate date) {
+        boolean dayOk = weekdays.isEmpty() || weekdays.contains(date.getDayOfWeek());
+        boolean monthDayOk =
+                rule.byMonthDay().isEmpty()
+                        || monthDaysOf(YearMonth.from(date)).contains(date.getDayOfMonth());
+        return dayOk && monthDayOk;
+    }
+
+    /**
+     * Returns the dates of a month selected by {@code BYMONTHDAY}, else {@code BYDAY}, else the day
+     * of month of {@code DTSTART} (months too short for it are skipped).
+     *
+     * @param month the month
+     * @return the selected dates
+     */
+    private List<LocalDate> monthDays(YearMonth month) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (rule.byMonthDay().isEmpty() && rule.byDay().isEmpty()) {
+            if (start.getDayOfMonth() <= month.lengthOfMonth()) {
+                dates.add(month.atDay(start.getDayOfMonth()));
+            }
+        } else if (rule.byMonthDay().isEmpty()) {
+            for (WeekdayNum entry : rule.byDay()) {
+                dates.addAll(weekdaysOf(month, entry));
+            }
+        } else {
+            for (int day : monthDaysOf(month)) {
+                LocalDate date = month.atDay(day);
+                if (weekdays.isEmpty() || weekdays.contains(date.getDayOfWeek())) {
+                    dates.add(date);
+                }
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Resolves {@code BYMONTHDAY} values for a month, dropping days the month does not have.
+     *
+     * @param month the month
+     * @return the days of month, from 1
+     */
+    private List<Integer> monthDaysOf(YearMonth month) {
+        List<Integer> days = new ArrayList<>();
+        int length = month.lengthOfMonth();
+        for (int value : rule.byMonthDay()) {
+            int day = value > 0 ? value : length + value + 1;
+            if (day >= 1 && day <= length) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Resolves one {@code BYDAY} entry within a month.
+     *
+     * @param month the month
+     * @param entry the entry
+     * @return every matching weekday if the entry has no ordinal, else the designated one (or none
+     *     if the month does not have it)
+     */
+    private static List<LocalDate> weekdaysOf(YearMonth month, WeekdayNum entry) {
+        LocalDate first = month.atDay(1).with(TemporalAdjusters.firstInMonth(entry.day()));
+        List<LocalDate> all = new ArrayList<>();
+        for (LocalDate date = first;
+                date.getMonth() == first.getMonth();
+                date = date.plusWeeks(1)) {
+            all.add(date);
+        }
+        if (entry.ordinal() == 0) {
+            return all;
+        }
+        int index = entry.ordinal() > 0 ? entry.ordinal() - 1 : all.size() + entry.ordinal();
+        return index >= 0 && index < all.size() ? List.of(all.get(index)) : List.of();
+    }
+
+    /**
+     * Parses an {@code RRULE} value.
+     *
+     * @param value the rule, e.g. {@code FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20251231T235959Z}
+     * @param start the event start, whose zone is used for a floating {@code UNTIL}
+     * @return the rule
+     * @throws DateTimeException if the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parseRule(String value, ZonedDateTime start) {
+        Map<String, String> parts = new HashMap<>();
+        try {
+            for (String part : value.trim().split(";")) {
+                int eq = part.indexOf('=');
+                String name = part.substring(0, Math.max(eq, 0)).trim().toUpperCase(Locale.ROOT);
+                if (SUPPORTED_PARTS.contains(name)) {
+                    parts.put(name, part.substring(eq + 1).trim().toUpperCase(Locale.ROOT));
+                } else {
+                    throw new DateTimeException("partie non prise en charge " + name);
+                }
+            }
+            return validated(
+                    new RecurrenceRule(
+                            frequencyOf(parts.getOrDefault("FREQ", "")),
+                            Integer.parseInt(parts.getOrDefault("INTERVAL", "1")),
+                            Integer.parseInt(parts.getOrDefault("COUNT", "0")),
+                            parts.containsKey("UNTIL") ? untilOf(parts.get("UNTIL"), start) : null,
+                            parseList(
+                                    parts.getOrDefault("BYDAY", ""),
+                                    RecurrenceIterator::weekdayNumOf),
+                            parseList(parts.getOrDefault("BYMONTHDAY", ""), Integer::valueOf),
+                            parseList(parts.getOrDefault("BYMONTH", ""), Integer::valueOf),
+                            dayOf(parts.getOrDefault("WKST", "MO"))));
+        } catch (RuntimeException e) {
+            throw new DateTimeException("RRULE invalide « " + value + " » : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks the consistency of a parsed rule.
+     *
+     * @param rule the rule
+     * @return the same rule
+     * @throws DateTimeException if the rule cannot be expanded
+     */
+    private static RecurrenceRule validated(RecurrenceRule rule) {
+        boolean yearlyByDayWithoutMonth =
+                rule.frequency() == ChronoUnit.YEARS
+                        && rule.byMonth().isEmpty()
+                        && !(rule.byDay().isEmpty() && rule.byMonthDay().isEmpty());
+        if (hasOutOfRangeValues(rule) || yearlyByDayWithoutMonth) {
+            throw new DateTimeException("RRULE invalide ou non prise en charge");
+        }
+        return rule;
+    }
+
+    /**
+     * Tells whether a rule holds a numeric value outside its allowed range.
+     *
+     * @param rule the rule
+     * @return {@code true} if a value is out of range
+     */
+    private static boolean hasOutOfRangeValues(RecurrenceRule rule) {
+        return rule.interval() < 1
+                || rule.count() < 0
+                || rule.byMonth().stream().anyMatch(m -> m < 1 || m > MONTHS_PER_YEAR)
+                || rule.byMonthDay().stream().anyMatch(d -> d == 0 || Math.abs(d) > MAX_MONTH_DAY);
+    }
+
+    /**
+     * Maps a {@code FREQ} value to its period unit.
+     *
+     * @param text the uppercased value
+     * @return the unit
+     * @throws DateTimeException if the frequency is not supported
+     */
+    private static ChronoUnit frequencyOf(String text) {
+        return switch (text) {
+            case "DAILY" -> ChronoUnit.DAYS;
+            case "WEEKLY" -> ChronoUnit.WEEKS;
+            case "MONTHLY" -> ChronoUnit.MONTHS;
+            case "YEARLY" -> ChronoUnit.YEARS;
+            default -> throw new DateTimeException("fréquence non prise en charge " + text);
+        };
+    }
+
+    /**
+     * Parses {@code UNTIL}, a date (whole day included) or a date-time.
+     *
+     * @param text the uppercased value
+     * @param start the event start, providing the zone of floating values
+     * @return the last allowed occurrence start
+     */
+    private static ZonedDateTime untilOf(String text, ZonedDateTime start) {
+        ContentLine line = new ContentLine("UNTIL", Map.of(), text);
+        ZonedDateTime until = IcsRowSource.parseDateTime(line);
+        if (IcsRowSource.isDateOnly(line)) {
+            return until.toLocalDate().atStartOfDay(start.getZone()).plusDays(1).minusSeconds(1);
+        }
+        return text.endsWith("Z") ? until : until.toLocalDateTime().atZone(start.getZone());
+    }
+
+    /**
+     * Parses a comma-separated list.
+     *
+     * @param text the list, possibly empty
+     * @param parser the element parser
+     * @param <T> the element type
+     * @return the parsed elements
+     */
+    private static <T> List<T> parseList(String text, Function<String, T> parser) {
+        List<T> values = new ArrayList<>();
+        if (text.isEmpty()) {
+            return values;
+        }
+        for (String item : text.split(",")) {
+            values.add(parser.apply(item.trim()));
+        }
+        return values;
+    }
+
+    /**
+     * Parses a {@code BYDAY} entry such as {@code MO}, {@code 2TU} or {@code -1FR}.
+     *
+     * @param text the uppercased entry
+     * @return the entry
+     */
+    private static WeekdayNum weekdayNumOf(String text) {
+        int split = text.length() - 2;
+        int ordinal = split > 0 ? Integer.parseInt(text.substring(0, split).replace("+", "")) : 0;
+        return new WeekdayNum(ordinal, dayOf(text.substring(split)));
+    }
+
+    /**
+     * Maps a two-letter iCalendar weekday to a {@link DayOfWeek}.
+     *
+     * @param text {@code MO} to {@code SU}
+     * @return the weekday
+     * @throws DateTimeException if the text is not a weekday
+     */
+    private static DayOfWeek dayOf(String text) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(text) && text.length() == 2) {
+                return day;
+            }
+        }
+        throw new DateTimeException("jour invalide " + text);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.service.DataBuilderService;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Renders one headless row the way the preview does: {@link DataBuilderService#buildData}, then
+ * {@link EncodedImage#generateImage}. Shared by the directory, archive and label sheet outputs.
+ */
+public final class RowRenderer {
+
+    private static final System.Logger LOGGER = System.getLogger(RowRenderer.class.getName());
+    private final EncodedImage encodedImage;
+
+    /**
+     * Creates the renderer.
+     *
+     * @param encodedImage the QR code image generator; must not be {@code null}
+     */
+    public RowRenderer(EncodedImage encodedImage) {
+        this.encodedImage = Objects.requireNonNull(encodedImage, "encodedImage must not be null");
+    }
+
+    /**
+     * Builds the payload of a row and renders it.
+     *
+     * @param key the row key, for log messages
+     * @param fields the row fields
+     * @param config the render configuration
+     * @return the image, or {@code null} if the row has nothing to encode
+     * @throws WriterException if encoding the payload fails
+     * @throws IOException if reading the logo fails
+     */
+    public BufferedImage render(String key, WholeFields fields, CommonFields config)
+            throws WriterException, IOException {
+        EncodedData data = data(key, fields);
+        return data == null ? null : render(data, config);
+    }
+
+    /**
+     * Renders a payload already built.
+     *
+     * @param data the payload
+     * @param config the render configuration
+     * @return the image
+     * @throws WriterException if encoding the payload fails
+     * @throws IOException if reading the logo fails
+     */
+    public BufferedImage render(EncodedData data, CommonFields config)
+            throws WriterException, IOException {
+        return encodedImage.generateImage(data.data(), config);
+    }
+
+    /**
+     * Encodes a payload already built into a module matrix, without rasterizing it.
+     *
+     * @param data the payload
+     * @param config the render configuration: quiet zone, error correction and logo ratio
+     * @return the matrix
+     * @throws WriterException if encoding the payload fails
+     */
+    public BitMatrix encode(EncodedData data, CommonFields config) throws WriterException {
+        return encodedImage.createMatrix(data.data(), config);
+    }
+
+    /**
+     * Builds the payload of a row.
+     *
+     * @param key the row key, for log messages
+     * @param fields the row fields
+     * @return the payload, or {@code null} if the row has nothing to encode
+     */
+    public EncodedData data(String key, WholeFields fields) {
+        EncodedData data = DataBuilderService.INSTANCE.buildData(fields.currentMode(), fields);
+        if (data == null || StringUtils.isBlank(data.data())) {
+            LOGGER.log(System.Logger.Level.WARNING, "Aucune donnée à encoder : {0}", key);
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Derives the render configuration from a row's fields, as the preview worker does.
+     *
+     * @param fields the row fields
+     * @return the render configuration
+     */
+    public static CommonFields toCommonFields(WholeFields fields) {
+        File logoFile = fields.logoPath().isBlank() ? null : new File(fields.logoPath());
+        return new CommonFields(
+                logoFile,
+                fields.size(),
+                fields.ratio(),
+                fields.qrColor(),
+                fields.bgColor(),
+                fields.isRoundedModules(),
+                fields.margin(),
+                fields.eccLevel(),
+                fields.isCompact(),
+                fields.isMicroQr());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Objects;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+
+/**
+ * Opens the {@link BatchRowSource} matching an input file's extension: {@code .csv} files through
+ * {@link CsvRowSource}, {@code .ics} files through {@link IcsRowSource} and {@code .vcf} files
+ * through {@link VcfRowSource}.
+ */
+public final class RowSourceFactory {
+
+    private static final String CSV = ".csv";
+    private static final String ICS = ".ics";
+    private static final String VCF = ".vcf";
+    private final char delimiter;
+    private final String keyColumn;
+    private final Mode defaultMode;
+    private final CommonFields style;
+    private final Period horizon;
+
+    /**
+     * Creates the factory.
+     *
+     * @param delimiter the CSV field delimiter
+     * @param keyColumn the CSV key column
+     * @param defaultMode the mode of CSV rows without a {@code mode} value
+     * @param style the visual configuration applied to every row
+     * @param horizon how far after opening recurring iCalendar events are expanded
+     */
+    public RowSourceFactory(
+            char delimiter,
+            String keyColumn,
+            Mode defaultMode,
+            CommonFields style,
+            Period horizon) {
+        this.delimiter = delimiter;
+        this.keyColumn = Objects.requireNonNull(keyColumn, "keyColumn must not be null");
+        this.defaultMode = Objects.requireNonNull(defaultMode, "defaultMode must not be null");
+        this.style = Objects.requireNonNull(style, "style must not be null");
+        this.horizon = Objects.requireNonNull(horizon, "horizon must not be null");
+    }
+
+    /**
+     * Tells whether a file has a supported extension.
+     *
+     * @param file the file
+     * @return {@code true} for {@code .csv}, {@code .ics} and {@code .vcf} files
+     */
+    public boolean supports(Path file) {
+        String name = extensionOf(file);
+        return CSV.equals(name) || ICS.equals(name) || VCF.equals(name);
+    }
+
+    /**
+     * Opens a file.
+     *
+     * @param file a supported file
+     * @return the row source
+     * @throws IOException if the file cannot be opened or its header is invalid
+     * @throws IllegalArgumentException if the extension is not supported
+     */
+    public BatchRowSource open(Path file) throws IOException {
+        return switch (extensionOf(file)) {
+            case CSV -> new CsvRowSource(file, delimiter, keyColumn, defaultMode, style);
+            case ICS ->
+                    new IcsRowSource(file, style, ZonedDateTime.now(ZoneOffset.UTC).plus(horizon));
+            case VCF -> new VcfRowSource(file, style);
+            default -> throw new IllegalArgumentException("Format non pris en charge : " + file);
+        };
+    }
+
+    /**
+     * Returns the lowercase extension of a file name, with its dot.
+     *
+     * @param file the file
+     * @return the extension, or {@code ""}
+     */
+    private static String extensionOf(Path file) {
+        Path name = file.getFileName();
+        String text = name == null ? "" : name.toString().toLowerCase(Locale.ROOT);
+        int dot = text.lastIndexOf('.');
+        return dot < 0 ? "" : text.substring(dot);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.ManifestEntry;
+import fr.softsf.canscan.model.ShardMergeReport;
+
+/**
+ * Verifies and merges the partitions of a batch split across several processes.
+ *
+ * <p>Each process started with a shard or a queue writes its own manifest next to the shared
+ * outputs. Once they have all finished, this service checks the partition manifests against the
+ * full input: every input key must have been produced by exactly one partition, and its output must
+ * be a complete PNG file. When the check passes, the partitions are merged into the default
+ * manifest, so that later runs of the whole input stay incremental.
+ */
+public enum ShardMergeService {
+    INSTANCE;
+
+    private static final System.Logger LOGGER = System.getLogger(ShardMergeService.class.getName());
+    private static final String PARTITION_GLOB = BatchManifest.PARTITION_PREFIX + "*.tsv";
+    private static final int MAX_LOGGED_KEYS = 10;
+
+    /**
+     * Verifies the partitions of {@code outputDir} against the input, and merges them if every row
+     * was produced exactly once.
+     *
+     * <p>Entries left in the journal of a partition that was interrupted are taken into account.
+     * Partition manifests and journals are deleted only after a successful merge.
+     *
+     * @param input the full input, read once
+     * @param outputDir the output directory shared by the partitions
+     * @return the verification summary
+     * @throws IOException if the input or the output directory cannot be read
+     */
+    public ShardMergeReport merge(BatchRowSource input, Path outputDir) throws IOException {
+        List<Path> manifests = partitionManifests(outputDir);
+        Map<String, ManifestEntry> produced = new HashMap<>();
+        Set<String> duplicates = collect(manifests, outputDir, produced);
+        Set<String> expected = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        List<String> incomplete = new ArrayList<>();
+        BatchRow row;
+        while ((row = input.nextRow()) != null) {
+            String key = row.key();
+            if (expected.add(key)) {
+                ManifestEntry entry = produced.get(key);
+                if (entry == null) {
+                    missing.add(key);
+                } else if (!PngOutput.INSTANCE.isComplete(outputDir.resolve(entry.fileName()))) {
+                    incomplete.add(key);
+                }
+            }
+        }
+        int orphaned = (int) produced.keySet().stream().filter(k -> !expected.contains(k)).count();
+        duplicates.retainAll(expected);
+        ShardMergeReport report =
+                new ShardMergeReport(
+                        manifests.size(),
+                        expected.size(),
+                        expected.size() - missing.size() - duplicates.size() - incomplete.size(),
+                        missing.size(),
+                        duplicates.size(),
+                        incomplete.size(),
+                        orphaned);
+        logKeys("Lignes manquantes", missing);
+        logKeys("Lignes produites plusieurs fois", new ArrayList<>(duplicates));
+        logKeys("Fichiers incomplets", incomplete);
+        if (report.isComplete()) {
+            write(produced, expected, outputDir, manifests);
+        }
+        return report;
+    }
+
+    /**
+     * Lists the partition manifests of an output directory.
+     *
+     * @param outputDir the output directory
+     * @return the manifest files, sorted by name
+     * @throws IOException if the directory cannot be read
+     */
+    private static List<Path> partitionManifests(Path outputDir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputDir, PARTITION_GLOB)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Gathers the entries of every partition, keeping the first one of each key.
+     *
+     * @param manifests the partition manifests
+     * @param outputDir the output directory
+     * @param produced receives the entries by key
+     * @return the keys found in more than one partition
+     * @throws IOException if a file cannot be read
+     */
+    private static Set<String> collect(
+            List<Path> manifests, Path outputDir, Map<String, ManifestEntry> produced)
+            throws IOException {
+        Set<String> duplicates = new HashSet<>();
+        for (Path file : manifests) {
+            for (ManifestEntry entry : load(file, outputDir).entries()) {
+                if (produced.putIfAbsent(entry.key(), entry) != null) {
+                    duplicates.add(entry.key());
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Loads a partition manifest together with the entries of its journal, if any.
+     *
+     * @param file the partition manifest
+     * @param outputDir the output directory
+     * @return the manifest
+     * @throws IOException if a file cannot be read
+     */
+    private static BatchManifest load(Path file, Path outputDir) throws IOException {
+        BatchManifest manifest = BatchManifest.load(file);
+        CheckpointJournal.replay(journalOf(file), manifest, outputDir, false);
+        return manifest;
+    }
+
+    /**
+     * Writes the merged manifest, then removes the partition manifests and journals.
+     *
+     * @param produced the entries of every partition
+     * @param expected the input keys
+     * @param outputDir the output directory
+     * @param manifests the partition manifests
+     * @throws IOException if a file cannot be written or deleted
+     */
+    private static void write(
+            Map<String, ManifestEntry> produced,
+            Set<String> expected,
+            Path outputDir,
+            List<Path> manifests)
+            throws IOException {
+        Path target = outputDir.resolve(BatchManifest.DEFAULT_FILE_NAME);
+        Files.deleteIfExists(target);
+        BatchManifest merged = BatchManifest.load(target);
+        for (String key : expected) {
+            merged.put(produced.get(key));
+        }
+        merged.save();
+        for (Path file : manifests) {
+            Files.deleteIfExists(journalOf(file));
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Returns the journal matching a partition manifest.
+     *
+     * @param manifest the partition manifest
+     * @return the journal path
+     */
+    private static Path journalOf(Path manifest) {
+        String name = manifest.getFileName().toString();
+        String partition =
+                name.substring(
+                        BatchManifest.PARTITION_PREFIX.length(), name.length() - ".tsv".length());
+        return manifest.resolveSibling(CheckpointJournal.fileNameFor(partition));
+    }
+
+    /**
+     * Logs the first keys of a failed check.
+     *
+     * @param label the check description
+     * @param keys the offending keys
+     */
+    private static void logKeys(String label, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        LOGGER.log(
+                System.Logger.Level.WARNING,
+                "{0} ({1}) : {2}",
+                label,
+                keys.size(),
+                String.join(", ", keys.subList(0, Math.min(MAX_LOGGED_KEYS, keys.size()))));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import fr.softsf.canscan.model.BatchRow;
+
+/**
+ * Keeps the rows of one static partition of an input.
+ *
+ * <p>A row belongs to shard {@code floorMod(key.hashCode(), count)}. {@link String#hashCode()} is
+ * specified, so processes started on different machines agree on the partition without talking to
+ * each other, and every row falls in exactly one shard.
+ */
+public final class ShardRowSource implements BatchRowSource {
+
+    private final BatchRowSource delegate;
+    private final int index;
+    private final int count;
+
+    /**
+     * Wraps a source.
+     *
+     * @param delegate the full input
+     * @param index the shard to keep, from {@code 0} to {@code count - 1}
+     * @param count the number of shards
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public ShardRowSource(BatchRowSource delegate, int index, int count) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Partition invalide : " + index + "/" + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Returns the shard of a row key.
+     *
+     * @param key the row key
+     * @param count the number of shards
+     * @return the shard index
+     */
+    public static int shardOf(String key, int count) {
+        return Math.floorMod(key.hashCode(), count);
+    }
+
+    /**
+     * Returns the partition name used for the manifest and journal of this shard.
+     *
+     * @param index the shard index
+     * @param count the number of shards
+     * @return the partition name
+     */
+    public static String partitionName(int index, int count) {
+        return "shard-" + index + "-of-" + count;
+    }
+
+    @Override
+    public BatchRow nextRow() throws IOException {
+        BatchRow row = delegate.nextRow();
+        while (row != null && shardOf(row.key(), count) != index) {
+            row = delegate.nextRow();
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.ContentLine;
+import fr.softsf.canscan.model.Mode;
+
+/**
+ * {@link BatchRowSource} turning each contact of a vCard file (2.1, 3.0 or 4.0) into a MECARD row.
+ *
+ * <p>{@code FN} (or {@code N} when absent), {@code TEL}, {@code EMAIL}, {@code ORG}, {@code ADR}
+ * and {@code URL} fill the MECARD fields of the UI, which {@link
+ * fr.softsf.canscan.service.DataBuilderService#buildMecard} then encodes. When a property repeats,
+ * the first preferred one ({@code TYPE=pref} or {@code PREF}) is used, else the first one. The file
+ * is read in a single pass, one contact at a time.
+ *
+ * <p>The row key is the {@code UID}, else the name, suffixed with {@code -2}, {@code -3}... for
+ * homonyms so that each contact keeps its own output.
+ */
+public final class VcfRowSource implements BatchRowSource {
+
+    private static final System.Logger LOGGER = System.getLogger(VcfRowSource.class.getName());
+    private static final String VCARD = "VCARD";
+    private static final String TEL_SCHEME = "tel:";
+    private static final String MAILTO_SCHEME = "mailto:";
+    private static final String COMPONENT_SEPARATOR = ", ";
+    private static final Set<String> MAPPED =
+            Set.of("FN", "N", "TEL", "EMAIL", "ORG", "ADR", "URL", "UID");
+    private final ContentLineReader reader;
+    private final CommonFields style;
+    private final Map<String, Integer> keyCounts = new HashMap<>();
+
+    /**
+     * Opens a vCard file.
+     *
+     * @param vcf the input file, UTF-8 encoded (quoted-printable values may declare a charset)
+     * @param style the visual configuration applied to every contact
+     * @throws IOException if the file cannot be opened
+     */
+    public VcfRowSource(Path vcf, CommonFields style) throws IOException {
+        Objects.requireNonNull(vcf, "vcf must not be null");
+        this.style = Objects.requireNonNull(style, "style must not be null");
+        this.reader = new ContentLineReader(Files.newBufferedReader(vcf, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public BatchRow nextRow() throws IOException {
+        List<ContentLine> card;
+        while ((card = reader.nextComponent(VCARD)) != null) {
+            BatchRow row = toRow(card);
+            if (row != null) {
+                return row;
+            }
+            LOGGER.log(
+                    System.Logger.Level.WARNING,
+                    "Contact vide ignoré avant la ligne {0}",
+                    reader.getLineNumber());
+        }
+        return null;
+    }
+
+    /**
+     * Maps one contact onto a MECARD row.
+     *
+     * @param card the contact properties
+     * @return the row, or {@code null} if the contact has nothing to encode
+     */
+    private BatchRow toRow(List<ContentLine> card) {
+        Map<String, ContentLine> chosen = new HashMap<>();
+        for (ContentLine line : card) {
+            if (MAPPED.contains(line.name()) && replaces(chosen.get(line.name()), line)) {
+                chosen.put(line.name(), line);
+            }
+        }
+        Map<String, String> columns = new HashMap<>();
+        columns.put("name", nameOf(chosen));
+        columns.put("tel", withoutScheme(ContentLineReader.text(chosen.get("TEL")), TEL_SCHEME));
+        columns.put(
+                "email", withoutScheme(ContentLineReader.text(chosen.get("EMAIL")), MAILTO_SCHEME));
+        columns.put("org", joinComponents(chosen.get("ORG")));
+        columns.put("adr", joinComponents(chosen.get("ADR")));
+        columns.put("url", ContentLineReader.text(chosen.get("URL")));
+        if (columns.values().stream().allMatch(StringUtils::isBlank)) {
+            return null;
+        }
+        String uid = ContentLineReader.text(chosen.get("UID"));
+        String key =
+                StringUtils.firstNonBlank(
+                        uid, columns.get("name"), columns.get("email"), columns.get("tel"));
+        return new BatchRow(
+                uniqueKey(Objects.toString(key, VCARD.toLowerCase(Locale.ROOT))),
+                BatchRowMapper.INSTANCE.toWholeFields(
+                        Mode.MECARD, name -> columns.getOrDefault(name, ""), style));
+    }
+
+    /**
+     * Tells whether a candidate property should replace the one kept so far.
+     *
+     * @param current the property kept so far, or {@code null}
+     * @param candidate the next property of the same name
+     * @return {@code true} if nothing is kept yet, or if only the candidate is preferred
+     */
+    private static boolean replaces(ContentLine current, ContentLine candidate) {
+        return current == null || isPreferred(candidate) && !isPreferred(current);
+    }
+
+    /**
+     * Tells whether a property is marked as preferred ({@code TYPE=pref} up to vCard 3.0, {@code
+     * PREF=n} in vCard 4.0).
+     *
+     * @param line the property
+     * @return {@code true} if preferred
+     */
+    private static boolean isPreferred(ContentLine line) {
+        return StringUtils.isNotBlank(line.param("PREF"))
+                || Strings.CI.contains(line.param("TYPE"), "pref");
+    }
+
+    /**
+     * Returns the display name: {@code FN}, else the given and family names of {@code N}.
+     *
+     * @param chosen the kept properties
+     * @return the name, or {@code ""}
+     */
+    private static String nameOf(Map<String, ContentLine> chosen) {
+        String formatted = ContentLineReader.text(chosen.get("FN"));
+        if (StringUtils.isNotBlank(formatted)) {
+            return formatted;
+        }
+        List<String> parts = ContentLineReader.components(chosen.get("N"));
+        String family = parts.isEmpty() ? "" : parts.get(0);
+        String given = parts.size() > 1 ? parts.get(1) : "";
+        return (given + " " + family).trim();
+    }
+
+    /**
+     * Joins the non-blank components of a structured value.
+     *
+     * @param line the property, or {@code null}
+     * @return the joined text, or {@code ""}
+     */
+    private static String joinComponents(ContentLine line) {
+        return String.join(
+                COMPONENT_SEPARATOR,
+                ContentLineReader.components(line).stream()
+                        .filter(StringUtils::isNotBlank)
+                        .toList());
+    }
+
+    /**
+     * Removes a URI scheme used by vCard 4.0 values ({@code tel:}, {@code mailto:}).
+     *
+     * @param value the value
+     * @param scheme the scheme, lowercase
+     * @return the value without scheme
+     */
+    private static String withoutScheme(String value, String scheme) {
+        return Strings.CI.startsWith(value, scheme)
+                ? value.substring(scheme.length()).trim()
+                : value;
+    }
+
+    /**
+     * Makes a key unique within the file by numbering repeated keys.
+     *
+     * @param key the natural key
+     * @return the key, suffixed with its occurrence number from the second occurrence on
+     */
+    private String uniqueKey(String key) {
+        int count = keyCounts.merge(key, 1, Integer::sum);
+        return count == 1 ? key : key + "-" + count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
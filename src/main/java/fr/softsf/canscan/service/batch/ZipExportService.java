@@ -0,0 +1,484 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.google.zxing.WriterException;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Headless generator streaming one PNG per row into a single ZIP archive.
+ *
+ * <p>Render threads encode each row to PNG bytes and compute their CRC. The pending results are
+ * handed, in input order, to a single writer thread through a bounded queue; the writer appends
+ * them as {@link ZipEntry#STORED} entries, since PNG data is already deflated and compressing it
+ * again only costs CPU. When the writer falls behind, the queue fills up and the reading thread
+ * blocks, so at most a few rows per render thread are held in memory whatever the input size. Rows
+ * identical to one of the last few hundred rendered are not rendered again: only the position of
+ * the earlier entry in the archive is remembered, and the writer copies its bytes from there.
+ *
+ * <p>The archive is written to a temporary file and moved over the target once complete. Unlike
+ * {@link IncrementalBatchService}, every run rebuilds the whole archive.
+ */
+public class ZipExportService {
+
+    private static final System.Logger LOGGER = System.getLogger(ZipExportService.class.getName());
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final int RECENT_RENDERS = 256;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final Future<PngEntry> END = CompletableFuture.completedFuture(null);
+    private final RowRenderer renderer;
+    private final int threads;
+
+    /**
+     * Creates the service.
+     *
+     * @param encodedImage the QR code image generator; must not be {@code null}
+     * @param threads number of render threads (at least 1)
+     */
+    public ZipExportService(EncodedImage encodedImage, int threads) {
+        this.renderer =
+                new RowRenderer(
+                        Objects.requireNonNull(encodedImage, "encodedImage must not be null"));
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Renders the rows of {@code source} into the archive {@code zipFile}.
+     *
+     * <p>The source is consumed but not closed. Rows whose file name repeats an earlier one are
+     * reported as failed and ignored.
+     *
+     * @param source the input rows
+     * @param zipFile the archive to create or replace
+     * @return the run summary
+     * @throws IOException if the input or the archive cannot be accessed
+     * @throws InterruptedException if interrupted while waiting for render threads
+     */
+    public BatchReport export(BatchRowSource source, Path zipFile)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path parent = zipFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, zipFile.getFileName().toString(), ".part");
+        BlockingQueue<Future<PngEntry>> queue =
+                new ArrayBlockingQueue<>(threads * IN_FLIGHT_PER_THREAD);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger deduplicated = new AtomicInteger();
+        LongAdder renderNanos = new LongAdder();
+        ExecutorService pool =
+                Executors.newFixedThreadPool(
+                        threads, Thread.ofPlatform().name("ZipRender-", 0).factory());
+        ExecutorService writerThread =
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("ZipWriter").factory());
+        int total;
+        int written;
+        try {
+            Future<Integer> writer =
+                    writerThread.submit(() -> write(queue, tmp, failed, deduplicated));
+            total = enqueue(source, queue, writer, pool, failed, renderNanos);
+            written = await(writer);
+            Files.move(
+                    tmp,
+                    zipFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            pool.shutdownNow();
+            writerThread.shutdownNow();
+            Files.deleteIfExists(tmp);
+        }
+        return new BatchReport(
+                total,
+                written,
+                0,
+                0,
+                failed.get(),
+                deduplicated.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(renderNanos.sum()));
+    }
+
+    /**
+     * Reads the rows, submits their renders and queues the pending results in input order, then
+     * queues the end marker.
+     *
+     * @param source the input rows
+     * @param queue the bounded queue read by the writer
+     * @param writer the writer task, watched so a failed writer does not block the reader forever
+     * @param pool the render threads
+     * @param failed failure counter
+     * @param renderNanos accumulator of render time
+     * @return the number of rows read
+     * @throws IOException if the input cannot be read
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    private int enqueue(
+            BatchRowSource source,
+            BlockingQueue<Future<PngEntry>> queue,
+            Future<Integer> writer,
+            ExecutorService pool,
+            AtomicInteger failed,
+            LongAdder renderNanos)
+            throws IOException, InterruptedException {
+        Set<String> names = new HashSet<>();
+        RecentResults<CompletableFuture<StoredEntry>> recent =
+                new RecentResults<>(RECENT_RENDERS, RenderCache.ZIP_RENDERS);
+        int total = 0;
+        BatchRow row;
+        while ((row = source.nextRow()) != null && isRunning(writer)) {
+            total++;
+            String name = OutputNaming.INSTANCE.fileNameFor(row.key());
+            if (names.add(name)) {
+                offer(queue, submit(row, name, recent, pool, renderNanos), writer);
+            } else {
+                LOGGER.log(System.Logger.Level.WARNING, "Clé en double ignorée : {0}", row.key());
+                failed.incrementAndGet();
+            }
+        }
+        offer(queue, END, writer);
+        return total;
+    }
+
+    /**
+     * Builds the payload of a row and starts its render, or reuses the render of an identical
+     * recent row.
+     *
+     * @param row the row
+     * @param name the entry name
+     * @param recent archive positions of the entries of recent rows, by digest
+     * @param pool the render pool
+     * @param renderNanos accumulator of render time
+     * @return the pending entry, completed with {@code null} if the row has nothing to encode
+     */
+    private CompletableFuture<PngEntry> submit(
+            BatchRow row,
+            String name,
+            RecentResults<CompletableFuture<StoredEntry>> recent,
+            ExecutorService pool,
+            LongAdder renderNanos) {
+        EncodedData data = renderer.data(row.key(), row.fields());
+        if (data == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CommonFields config = RowRenderer.toCommonFields(row.fields());
+        String hash = PayloadHasher.INSTANCE.hash(data, config);
+        CompletableFuture<StoredEntry> same = recent.get(hash);
+        if (same != null) {
+            return same.thenApply(source -> source == null ? null : PngEntry.copyOf(name, source));
+        }
+        CompletableFuture<StoredEntry> stored = new CompletableFuture<>();
+        CompletableFuture<PngEntry> pending =
+                CompletableFuture.supplyAsync(
+                        () -> renderPng(data, config, name, stored, renderNanos), pool);
+        pending.whenComplete(
+                (entry, failure) -> {
+                    if (entry == null) {
+                        stored.complete(null);
+                    }
+                });
+        recent.put(hash, stored);
+        return pending;
+    }
+
+    /**
+     * Queues a pending result, giving up if the writer has stopped.
+     *
+     * @param queue the bounded queue
+     * @param pending the pending result
+     * @param writer the writer task
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    private static void offer(
+            BlockingQueue<Future<PngEntry>> queue, Future<PngEntry> pending, Future<?> writer)
+            throws InterruptedException {
+        while (isRunning(writer)
+                && !queue.offer(pending, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            LOGGER.log(System.Logger.Level.TRACE, "File d'écriture pleine");
+        }
+    }
+
+    /**
+     * Tells whether the writer is still consuming the queue.
+     *
+     * @param writer the writer task
+     * @return {@code true} while the writer runs
+     */
+    private static boolean isRunning(Future<?> writer) {
+        return writer.state() == Future.State.RUNNING;
+    }
+
+    /**
+     * Waits for the writer and unwraps its failure.
+     *
+     * @param writer the writer task
+     * @return the number of entries written
+     * @throws IOException if the archive could not be written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static int await(Future<Integer> writer) throws IOException, InterruptedException {
+        try {
+            return writer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Échec de l'écriture de l'archive", e.getCause());
+        }
+    }
+
+    /**
+     * Writer loop: takes pending results in order and appends them as stored entries until the end
+     * marker. The entry of a row identical to an earlier one is copied from the archive being
+     * written, and the position of each rendered entry is published for such copies.
+     *
+     * @param queue the bounded queue
+     * @param zipFile the archive file
+     * @param failed failure counter
+     * @param deduplicated counter of entries copied from an identical earlier row
+     * @return the number of entries written
+     * @throws IOException if the archive cannot be written
+     * @throws InterruptedException if interrupted while waiting for a render
+     */
+    private int write(
+            BlockingQueue<Future<PngEntry>> queue,
+            Path zipFile,
+            AtomicInteger failed,
+            AtomicInteger deduplicated)
+            throws IOException, InterruptedException {
+        int written = 0;
+        CountingOutputStream counter =
+                new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(zipFile)));
+        try (ZipOutputStream zip = new ZipOutputStream(counter);
+                FileChannel archive = FileChannel.open(zipFile, StandardOpenOption.READ)) {
+            zip.setMethod(ZipOutputStream.STORED);
+            Future<PngEntry> pending;
+            while ((pending = queue.take()) != END) {
+                PngEntry entry = resultOf(pending);
+                if (entry == null) {
+                    failed.incrementAndGet();
+                    continue;
+                }
+                zip.putNextEntry(entry.toZipEntry());
+                long offset = counter.count();
+                if (entry.source() == null) {
+                    zip.write(entry.png());
+                    entry.stored()
+                            .complete(new StoredEntry(offset, entry.png().length, entry.crc()));
+                } else {
+                    zip.flush();
+                    copy(archive, entry.source(), zip);
+                    deduplicated.incrementAndGet();
+                }
+                zip.closeEntry();
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Copies the bytes of an entry already written to the archive into the current entry.
+     *
+     * @param archive the archive being written, open for reading
+     * @param source the position of the entry bytes
+     * @param zip the archive stream, positioned in the current entry
+     * @throws IOException if the archive cannot be read or written
+     */
+    private static void copy(FileChannel archive, StoredEntry source, ZipOutputStream zip)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, source.size()));
+        long position = source.offset();
+        long end = source.offset() + source.size();
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = archive.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Archive tronquée");
+            }
+            zip.write(buffer.array(), 0, read);
+            position += read;
+        }
+    }
+
+    /**
+     * Waits for a render and logs its failure.
+     *
+     * @param pending the pending render
+     * @return the entry, or {@code null} if the row failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static PngEntry resultOf(Future<PngEntry> pending) throws InterruptedException {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Échec du rendu : " + e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Renders one payload to PNG bytes and computes their CRC.
+     *
+     * @param data the payload
+     * @param config the render configuration
+     * @param name the entry name
+     * @param stored completed by the writer with the position of the entry
+     * @param renderNanos accumulator of render time
+     * @return the entry, or {@code null} if nothing was rendered
+     * @throws CompletionException wrapping the encoding or I/O failure
+     */
+    private PngEntry renderPng(
+            EncodedData data,
+            CommonFields config,
+            String name,
+            CompletableFuture<StoredEntry> stored,
+            LongAdder renderNanos) {
+        long begin = System.nanoTime();
+        BufferedImage image = null;
+        try {
+            image = renderer.render(data, config);
+            if (image == null) {
+                return null;
+            }
+            byte[] png = PngOutput.INSTANCE.encode(image);
+            CRC32 crc = new CRC32();
+            crc.update(png);
+            return new PngEntry(name, png, crc.getValue(), stored, null);
+        } catch (WriterException | IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            if (image != null) {
+                image.flush();
+            }
+            renderNanos.add(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * A PNG ready to be stored: rendered bytes, or a copy of an entry already in the archive.
+     *
+     * @param name entry name
+     * @param png PNG bytes, or {@code null} for a copy
+     * @param crc CRC-32 of the bytes, required up front by stored entries
+     * @param stored completed by the writer with the position of rendered bytes, or {@code null}
+     *     for a copy
+     * @param source position of the copied entry, or {@code null} for rendered bytes
+     */
+    private record PngEntry(
+            String name,
+            byte[] png,
+            long crc,
+            CompletableFuture<StoredEntry> stored,
+            StoredEntry source) {
+
+        /**
+         * Copies an entry of an identical earlier row under another name.
+         *
+         * @param name the entry name
+         * @param source the position of the earlier entry
+         * @return the copy
+         */
+        static PngEntry copyOf(String name, StoredEntry source) {
+            return new PngEntry(name, null, source.crc(), null, source);
+        }
+
+        /**
+         * Builds the stored entry header.
+         *
+         * @return the entry
+         */
+        ZipEntry toZipEntry() {
+            long size = source == null ? png.length : source.size();
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc);
+            return entry;
+        }
+    }
+
+    /**
+     * The position of an entry's bytes in the archive being written.
+     *
+     * @param offset offset of the first byte from the start of the file
+     * @param size number of bytes
+     * @param crc CRC-32 of the bytes
+     */
+    private record StoredEntry(long offset, long size, long crc) {}
+
+    /** Counts the bytes written through it, to locate entry data in the archive. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        /**
+         * Wraps a stream.
+         *
+         * @param out the underlying stream
+         */
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        /**
+         * Returns the number of bytes written so far.
+         *
+         * @return the byte count
+         */
+        long count() {
+            return count;
+        }
+    }
+}
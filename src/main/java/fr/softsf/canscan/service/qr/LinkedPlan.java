@@ -0,0 +1,163 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Mode;
+import com.google.zxing.qrcode.decoder.Version;
+
+/**
+ * Splits a text too long for one QR code into structured append parts: the fewest parts of about
+ * the same UTF-8 length, cut at character boundaries, each behind the 20-bit header that gives its
+ * position, the part count and the parity of the whole text, so that readers can reassemble it.
+ */
+final class LinkedPlan {
+
+    private static final int MODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 4;
+    private static final int PARITY_MASK = 0xFF;
+    private static final int MAX_VERSION = 40;
+    private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+    private static final int UTF8_TWO_BYTES_LIMIT = 0x800;
+    private static final int UTF8_BMP_BYTES = 3;
+    private static final int UTF8_SUPPLEMENTARY_BYTES = 4;
+
+    private LinkedPlan() {}
+
+    /**
+     * Returns the versions of the linked symbols a text needs.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @return the versions, in sequence order
+     * @throws WriterException if the text does not fit in {@value QrEncoder#MAX_LINKED_SYMBOLS}
+     *     symbols
+     */
+    static List<Version> versions(String contents, ErrorCorrectionLevel level)
+            throws WriterException {
+        List<Version> versions = new ArrayList<>();
+        for (Payload part : parts(contents, level)) {
+            versions.add(part.version(level));
+        }
+        return versions;
+    }
+
+    /**
+     * Splits a text into the fewest structured append parts that each fit in a symbol, starting
+     * from the count the whole text would need in version 40 symbols.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @return the single plain payload if the text fits in one symbol, otherwise the linked parts
+     * @throws WriterException if {@value QrEncoder#MAX_LINKED_SYMBOLS} parts are not enough
+     * @throws IllegalArgumentException if the text is empty
+     */
+    static List<Payload> parts(String contents, ErrorCorrectionLevel level) throws WriterException {
+        Payload whole = QrEncoder.payload(contents, false);
+        if (fits(whole, level)) {
+            return List.of(whole);
+        }
+        byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+        int parity = 0;
+        for (byte b : bytes) {
+            parity ^= b;
+        }
+        Version largest = Version.getVersionForNumber(MAX_VERSION);
+        int capacityBits =
+                (largest.getTotalCodewords()
+                                - largest.getECBlocksForLevel(level).getTotalECCodewords())
+                        * Byte.SIZE;
+        int first = Math.max(2, (whole.size(largest) + capacityBits - 1) / capacityBits);
+        int limit =
+                Math.min(
+                        QrEncoder.MAX_LINKED_SYMBOLS,
+                        contents.codePointCount(0, contents.length()));
+        for (int count = first; count <= limit; count++) {
+            List<Payload> parts = cut(contents, bytes.length, count, parity & PARITY_MASK);
+            if (parts.stream().allMatch(part -> fits(part, level))) {
+                return parts;
+            }
+        }
+        throw new WriterException("Data too big");
+    }
+
+    /**
+     * Cuts a text into structured append parts of about the same UTF-8 length.
+     *
+     * @param contents the text
+     * @param totalBytes the UTF-8 length of the text
+     * @param count the number of parts
+     * @param parity the parity of the whole text
+     * @return the parts, or an empty list if a part would be empty
+     */
+    private static List<Payload> cut(String contents, int totalBytes, int count, int parity) {
+        List<Payload> parts = new ArrayList<>(count);
+        int start = 0;
+        long bytes = 0;
+        for (int part = 0; part < count; part++) {
+            long target = (long) totalBytes * (part + 1) / count;
+            int end = start;
+            while (end < contents.length() && (bytes < target || end == start)) {
+                int codePoint = contents.codePointAt(end);
+                bytes += utf8Length(codePoint);
+                end += Character.charCount(codePoint);
+            }
+            if (end == start) {
+                return List.of();
+            }
+            BitArray header = new BitArray();
+            header.appendBits(Mode.STRUCTURED_APPEND.getBits(), MODE_BITS);
+            header.appendBits(part, SEQUENCE_BITS);
+            header.appendBits(count - 1, SEQUENCE_BITS);
+            header.appendBits(parity, Byte.SIZE);
+            parts.add(new QrEncoder.SingleSegment(contents.substring(start, end), header));
+            start = end;
+        }
+        return start == contents.length() ? parts : List.of();
+    }
+
+    /**
+     * Tells whether a payload fits in a symbol.
+     *
+     * @param payload the payload
+     * @param level the error correction level
+     * @return {@code true} if some version holds it
+     */
+    private static boolean fits(Payload payload, ErrorCorrectionLevel level) {
+        try {
+            payload.version(level);
+            return true;
+        } catch (WriterException tooBig) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the UTF-8 length of a code point; an unpaired surrogate counts as the single
+     * replacement byte {@link String#getBytes} writes for it.
+     *
+     * @param codePoint the code point
+     * @return the number of bytes
+     */
+    private static int utf8Length(int codePoint) {
+        if (codePoint < UTF8_ONE_BYTE_LIMIT) {
+            return 1;
+        }
+        if (codePoint < UTF8_TWO_BYTES_LIMIT) {
+            return 2;
+        }
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+            return UTF8_SUPPLEMENTARY_BYTES;
+        }
+        return Character.isSurrogate((char) codePoint) ? 1 : UTF8_BMP_BYTES;
+    }
+}
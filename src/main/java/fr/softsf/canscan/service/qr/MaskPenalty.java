@@ -0,0 +1,192 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+/**
+ * Mask penalty of a packed QR matrix, equal to ZXing's {@code MaskUtil} score.
+ *
+ * <p>ZXing reads the matrix one module at a time. Here every rule works on 64 modules per
+ * operation: runs are found from the bits where a module differs from its neighbour, 2×2 blocks and
+ * finder-like patterns from shifted copies of a line, and the dark module balance from bit counts.
+ * Columns are scored on the column-major copy, so no transposition is needed.
+ */
+final class MaskPenalty {
+
+    private static final int N1 = 3;
+    private static final int N2 = 3;
+    private static final int N3 = 40;
+    private static final int N4 = 10;
+    private static final int MIN_RUN = 5;
+    private static final int FINDER_LENGTH = 7;
+    private static final int QUIET_LENGTH = 4;
+    private static final int BALANCE_STEPS = 10;
+
+    private MaskPenalty() {}
+
+    /**
+     * Scores a matrix.
+     *
+     * @param rows the row-major matrix
+     * @param cols the column-major matrix
+     * @param dimension the number of modules per side
+     * @param words the number of words per line
+     * @return the penalty
+     */
+    static int of(long[] rows, long[] cols, int dimension, int words) {
+        int penalty = 0;
+        int finders = 0;
+        int blocks = 0;
+        long dark = 0;
+        for (int line = 0; line < dimension; line++) {
+            int base = line * words;
+            penalty += runs(rows, base, dimension, words) + runs(cols, base, dimension, words);
+            finders +=
+                    finders(rows, base, dimension, words) + finders(cols, base, dimension, words);
+            if (line < dimension - 1) {
+                blocks += blocks(rows, base, dimension, words);
+            }
+            for (int w = 0; w < words; w++) {
+                dark += Long.bitCount(rows[base + w]);
+            }
+        }
+        long total = (long) dimension * dimension;
+        long balance = Math.abs(dark * 2 - total) * BALANCE_STEPS / total;
+        return penalty + N2 * blocks + N3 * finders + (int) balance * N4;
+    }
+
+    /**
+     * Scores runs of five or more modules of the same color in a line (rule 1).
+     *
+     * @param lines the packed lines
+     * @param base the index of the line's first word
+     * @param dimension the line length
+     * @param words the number of words per line
+     * @return the penalty of the line
+     */
+    private static int runs(long[] lines, int base, int dimension, int words) {
+        int penalty = 0;
+        int previous = -1;
+        for (int w = 0; w < words; w++) {
+            int start = w * Long.SIZE;
+            long changes =
+                    (window(lines, base, words, start) ^ window(lines, base, words, start + 1))
+                            & below(w, dimension - 1);
+            while (changes != 0) {
+                int position = start + Long.numberOfTrailingZeros(changes);
+                penalty += runPenalty(position - previous);
+                previous = position;
+                changes &= changes - 1;
+            }
+        }
+        return penalty + runPenalty(dimension - 1 - previous);
+    }
+
+    /**
+     * Returns the penalty of one run.
+     *
+     * @param length the run length
+     * @return the penalty
+     */
+    private static int runPenalty(int length) {
+        return length >= MIN_RUN ? N1 + length - MIN_RUN : 0;
+    }
+
+    /**
+     * Counts the same-colored 2×2 blocks whose top-left module is in a row (rule 2).
+     *
+     * @param rows the row-major matrix
+     * @param base the index of the row's first word
+     * @param dimension the matrix dimension
+     * @param words the number of words per row
+     * @return the number of blocks
+     */
+    private static int blocks(long[] rows, int base, int dimension, int words) {
+        int count = 0;
+        int next = base + words;
+        for (int w = 0; w < words; w++) {
+            int start = w * Long.SIZE;
+            long a = window(rows, base, words, start);
+            long right = window(rows, base, words, start + 1);
+            long below = window(rows, next, words, start);
+            long diagonal = window(rows, next, words, start + 1);
+            long same = ~(a ^ right) & ~(a ^ below) & ~(a ^ diagonal);
+            count += Long.bitCount(same & below(w, dimension - 1));
+        }
+        return count;
+    }
+
+    /**
+     * Counts the 1:1:3:1:1 finder-like patterns of a line with four light modules on either side
+     * (rule 3). As in ZXing, four light modules must fit inside the matrix: the border does not
+     * count as light.
+     *
+     * @param lines the packed lines
+     * @param base the index of the line's first word
+     * @param dimension the line length
+     * @param words the number of words per line
+     * @return the number of patterns
+     */
+    private static int finders(long[] lines, int base, int dimension, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            int start = w * Long.SIZE;
+            long pattern = window(lines, base, words, start);
+            pattern &= ~window(lines, base, words, start + 1);
+            pattern &= window(lines, base, words, start + 2);
+            pattern &= window(lines, base, words, start + 3);
+            pattern &= window(lines, base, words, start + 4);
+            pattern &= ~window(lines, base, words, start + 5);
+            pattern &= window(lines, base, words, start + FINDER_LENGTH - 1);
+            if (pattern != 0) {
+                long before = 0;
+                long after = 0;
+                for (int i = 1; i <= QUIET_LENGTH; i++) {
+                    before |= window(lines, base, words, start - i);
+                    after |= window(lines, base, words, start + FINDER_LENGTH - 1 + i);
+                }
+                long lightBefore = ~before & ~below(w, QUIET_LENGTH);
+                long lightAfter = ~after & below(w, dimension - FINDER_LENGTH - QUIET_LENGTH + 1);
+                count += Long.bitCount(pattern & (lightBefore | lightAfter));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the 64 modules of a line starting at a position; modules outside the line are light.
+     *
+     * @param lines the packed lines
+     * @param base the index of the line's first word
+     * @param words the number of words per line
+     * @param start the position of the first module, possibly negative
+     * @return the modules, the first one in the lowest bit
+     */
+    private static long window(long[] lines, int base, int words, int start) {
+        int word = Math.floorDiv(start, Long.SIZE);
+        int shift = Math.floorMod(start, Long.SIZE);
+        long low = word >= 0 && word < words ? lines[base + word] : 0;
+        if (shift == 0) {
+            return low;
+        }
+        long high = word + 1 >= 0 && word + 1 < words ? lines[base + word + 1] : 0;
+        return low >>> shift | high << (Long.SIZE - shift);
+    }
+
+    /**
+     * Returns the bits of a word whose position is below a limit.
+     *
+     * @param word the word index
+     * @param limit the first excluded position
+     * @return the mask
+     */
+    private static long below(int word, int limit) {
+        int count = limit - word * Long.SIZE;
+        if (count >= Long.SIZE) {
+            return -1L;
+        }
+        return count <= 0 ? 0 : (1L << count) - 1;
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Mode;
+
+/**
+ * Micro QR code encoder (ISO/IEC 18004, versions M1 to M4), for payloads short enough to fit in 11
+ * to 17 modules per side instead of the 21 of a version 1 QR code.
+ *
+ * <p>A Micro QR symbol has a single finder pattern, a two-module quiet zone, no ECI and a single
+ * Reed–Solomon block. M1 only detects errors and is therefore reserved to level L; level Q is only
+ * available in M4, and level H not at all. Byte mode is limited to ISO-8859-1 text, since Micro QR
+ * cannot announce UTF-8.
+ */
+public enum MicroQrEncoder {
+    INSTANCE;
+
+    /** The largest Micro QR version, M4. */
+    public static final int MAX_VERSION = 4;
+
+    /** The recommended quiet zone of a Micro QR symbol, in modules. */
+    public static final int QUIET_ZONE = 2;
+
+    private static final int BASE_DIMENSION = 9;
+    private static final int FINDER_SIZE = 7;
+    private static final int SEPARATOR = 7;
+    private static final int FORMAT_LINE = 8;
+    private static final int FORMAT_POLY = 0x537;
+    private static final int FORMAT_MASK = 0x4445;
+    private static final int FORMAT_DATA_BITS = 10;
+    private static final int FORMAT_BITS = 15;
+    private static final int MASK_BITS = 2;
+    private static final int MASK_COUNT = 4;
+    private static final int MASK_SCORE_WEIGHT = 16;
+    private static final int PAD_FIRST = 0xEC;
+    private static final int PAD_SECOND = 0x11;
+    private static final int HALF_CODEWORD = 4;
+    private static final int BYTE_MODE_LIMIT = 0xFF;
+    private static final int THIRD = 3;
+
+    /** Data capacity in bits, by symbol number (M1, M2-L, M2-M, M3-L, M3-M, M4-L, M4-M, M4-Q). */
+    private static final int[] DATA_BITS = {20, 40, 32, 84, 68, 128, 112, 80};
+
+    /** Error correction codewords, by symbol number. */
+    private static final int[] EC_CODEWORDS = {2, 5, 6, 6, 8, 8, 10, 14};
+
+    /**
+     * Returns the number of modules per side of a version, quiet zone excluded.
+     *
+     * @param version the version, from 1 to {@value #MAX_VERSION}
+     * @return 11, 13, 15 or 17
+     */
+    public static int dimension(int version) {
+        return BASE_DIMENSION + 2 * version;
+    }
+
+    /**
+     * Returns the smallest Micro QR version holding a text at an error correction level.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @return the version, from 1 to {@value #MAX_VERSION}, or 0 if no Micro QR symbol fits
+     */
+    public int version(String contents, ErrorCorrectionLevel level) {
+        Mode mode = modeOf(contents);
+        if (mode == null) {
+            return 0;
+        }
+        for (int version = minimumVersion(mode); version <= MAX_VERSION; version++) {
+            int symbol = symbolNumber(version, level);
+            if (symbol >= 0 && fits(contents, mode, version, symbol)) {
+                return version;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Encodes a text in the smallest fitting Micro QR symbol.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @param margin the quiet zone, in modules
+     * @return the module matrix, quiet zone included
+     * @throws WriterException if no Micro QR symbol holds the text at this level
+     */
+    public BitMatrix encode(String contents, ErrorCorrectionLevel level, int margin)
+            throws WriterException {
+        int version = version(contents, level);
+        if (version == 0) {
+            throw new WriterException("Data too big or unsupported for a Micro QR code");
+        }
+        int symbol = symbolNumber(version, level);
+        byte[] data = dataCodewords(contents, modeOf(contents), version, symbol);
+        byte[] ec = ReedSolomon.encode(data, 0, data.length, EC_CODEWORDS[symbol]);
+        int size = dimension(version);
+        boolean[] reserved = new boolean[size * size];
+        boolean[] dark = new boolean[size * size];
+        drawFunctionPatterns(size, reserved, dark);
+        boolean halfLast = DATA_BITS[symbol] % Byte.SIZE != 0;
+        placeCodewords(size, codewordBits(data, ec, halfLast), reserved, dark);
+        int mask = bestMask(size, reserved, dark);
+        applyMask(size, mask, reserved, dark);
+        drawFormat(size, symbol << MASK_BITS | mask, dark);
+        BitMatrix matrix = new BitMatrix(size + 2 * margin);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (dark[y * size + x]) {
+                    matrix.set(x + margin, y + margin);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the format information of a symbol: the symbol number and mask, BCH protected and
+     * masked.
+     *
+     * @param symbol the symbol number, from 0 (M1) to 7 (M4-Q)
+     * @param mask the data mask, from 0 to 3
+     * @return the 15 format bits
+     */
+    static int formatInformation(int symbol, int mask) {
+        int value = symbol << MASK_BITS | mask;
+        return (value << FORMAT_DATA_BITS | QrLayout.bchCode(value, FORMAT_POLY)) ^ FORMAT_MASK;
+    }
+
+    /**
+     * Returns the symbol number of a version and level, as written in the format information.
+     *
+     * @param version the version
+     * @param level the error correction level
+     * @return the symbol number, or -1 if the version does not offer this level
+     */
+    static int symbolNumber(int version, ErrorCorrectionLevel level) {
+        if (version == 1) {
+            return level == ErrorCorrectionLevel.L ? 0 : -1;
+        }
+        int base = 2 * version - THIRD;
+        return switch (level) {
+            case L -> base;
+            case M -> base + 1;
+            case Q -> version == MAX_VERSION ? base + 2 : -1;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Returns the data codewords of a symbol number, the last one holding only 4 bits in M1 and M3.
+     *
+     * @param symbol the symbol number
+     * @return the number of data codewords
+     */
+    static int dataCodewordCount(int symbol) {
+        return (DATA_BITS[symbol] + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /**
+     * Chooses the single segment mode, as {@link QrEncoder#chooseMode} but without byte mode for
+     * characters outside ISO-8859-1.
+     *
+     * @param contents the text
+     * @return numeric, alphanumeric or byte, or {@code null} if the text cannot be encoded
+     */
+    private static Mode modeOf(String contents) {
+        Mode mode = QrEncoder.chooseMode(contents);
+        if (mode == Mode.BYTE && contents.chars().anyMatch(c -> c > BYTE_MODE_LIMIT)) {
+            return null;
+        }
+        return mode;
+    }
+
+    /**
+     * Returns the smallest version supporting a mode: M1 is numeric only, M2 adds alphanumeric.
+     *
+     * @param mode the segment mode
+     * @return the version
+     */
+    private static int minimumVersion(Mode mode) {
+        return switch (mode) {
+            case NUMERIC -> 1;
+            case ALPHANUMERIC -> 2;
+            default -> THIRD;
+        };
+    }
+
+    /**
+     * Returns the character count length of a mode in a version.
+     *
+     * @param mode the segment mode
+     * @param version the version
+     * @return the number of bits
+     */
+    private static int countBits(Mode mode, int version) {
+        return mode == Mode.NUMERIC ? version + 2 : version + 1;
+    }
+
+    /**
+     * Returns the mode indicator value, written on {@code version - 1} bits.
+     *
+     * @param mode the segment mode
+     * @return 0 for numeric, 1 for alphanumeric, 2 for byte
+     */
+    private static int modeIndicator(Mode mode) {
+        return switch (mode) {
+            case NUMERIC -> 0;
+            case ALPHANUMERIC -> 1;
+            default -> 2;
+        };
+    }
+
+    /**
+     * Tells whether a text fits in a symbol.
+     *
+     * @param contents the text
+     * @param mode the segment mode
+     * @param version the version
+     * @param symbol the symbol number
+     * @return {@code true} if the header and data bits fit in the data capacity
+     */
+    private static boolean fits(String contents, Mode mode, int version, int symbol) {
+        int count = contents.length();
+        if (count >= 1 << countBits(mode, version)) {
+            return false;
+        }
+        int dataBits =
+                switch (mode) {
+                    case NUMERIC -> QrEncoder.numericBits(count);
+                    case ALPHANUMERIC -> QrEncoder.alphanumericBits(count);
+                    default -> count * Byte.SIZE;
+                };
+        return version - 1 + countBits(mode, version) + dataBits <= DATA_BITS[symbol];
+    }
+
+    /**
+     * Builds the data codewords: header, data, terminator, then pad codewords. In M1 and M3 the
+     * last data codeword only holds 4 bits, stored in its high nibble.
+     *
+     * @param contents the text
+     * @param mode the segment mode
+     * @param version the version
+     * @param symbol the symbol number
+     * @return the data codewords
+     */
+    private static byte[] dataCodewords(String contents, Mode mode, int version, int symbol) {
+        BitArray bits = new BitArray();
+        bits.appendBits(modeIndicator(mode), version - 1);
+        bits.appendBits(contents.length(), countBits(mode, version));
+        if (mode == Mode.BYTE) {
+            for (byte b : contents.getBytes(StandardCharsets.ISO_8859_1)) {
+                bits.appendBits(b, Byte.SIZE);
+            }
+        } else {
+            QrEncoder.appendData(contents, mode, bits);
+        }
+        int capacity = DATA_BITS[symbol];
+        int terminator = THIRD + 2 * (version - 1);
+        bits.appendBits(0, Math.min(terminator, capacity - bits.getSize()));
+        int fullCodewords = capacity / Byte.SIZE * Byte.SIZE;
+        if (bits.getSize() < fullCodewords) {
+            bits.appendBits(0, (Byte.SIZE - bits.getSize() % Byte.SIZE) % Byte.SIZE);
+        }
+        for (int i = 0; bits.getSize() < fullCodewords; i++) {
+            bits.appendBits(i % 2 == 0 ? PAD_FIRST : PAD_SECOND, Byte.SIZE);
+        }
+        bits.appendBits(0, capacity - bits.getSize());
+        bits.appendBits(0, (Byte.SIZE - capacity % Byte.SIZE) % Byte.SIZE);
+        byte[] codewords = new byte[dataCodewordCount(symbol)];
+        bits.toBytes(0, codewords, 0, codewords.length);
+        return codewords;
+    }
+
+    /**
+     * Draws the finder pattern, its separator and the two timing patterns, and reserves the format
+     * information area.
+     *
+     * @param size the number of modules per side
+     * @param reserved receives the function modules
+     * @param dark receives the dark modules
+     */
+    private static void drawFunctionPatterns(int size, boolean[] reserved, boolean[] dark) {
+        for (int y = 0; y <= FORMAT_LINE; y++) {
+            for (int x = 0; x <= FORMAT_LINE; x++) {
+                reserved[y * size + x] = true;
+                int ring = Math.max(Math.abs(x - THIRD), Math.abs(y - THIRD));
+                dark[y * size + x] = x < FINDER_SIZE && y < FINDER_SIZE && ring != 2;
+            }
+        }
+        for (int i = SEPARATOR + 1; i < size; i++) {
+            reserved[i] = true;
+            reserved[i * size] = true;
+            dark[i] = i % 2 == 0;
+            dark[i * size] = i % 2 == 0;
+        }
+    }
+
+    /**
+     * Places the codewords in a zigzag from the bottom-right corner, two columns at a time,
+     * skipping the function modules.
+     *
+     * @param size the number of modules per side
+     * @param stream the codeword bits, as built by {@link #codewordBits}
+     * @param reserved the function modules
+     * @param dark receives the dark modules
+     */
+    private static void placeCodewords(
+            int size, BitArray stream, boolean[] reserved, boolean[] dark) {
+        int next = 0;
+        boolean upward = true;
+        for (int right = size - 1; right > 0; right -= 2, upward = !upward) {
+            for (int step = 0; step < size; step++) {
+                int y = upward ? size - 1 - step : step;
+                for (int x = right; x >= right - 1; x--) {
+                    int index = y * size + x;
+                    if (reserved[index]) {
+                        continue;
+                    }
+                    dark[index] = next < stream.getSize() && stream.get(next);
+                    next++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Chains the data then error correction codewords, keeping only the high nibble of a 4-bit last
+     * data codeword.
+     *
+     * @param data the data codewords
+     * @param ec the error correction codewords
+     * @param halfLast whether the last data codeword only holds 4 bits
+     * @return the bits to place
+     */
+    private static BitArray codewordBits(byte[] data, byte[] ec, boolean halfLast) {
+        BitArray stream = new BitArray();
+        for (int i = 0; i < data.length; i++) {
+            boolean half = halfLast && i == data.length - 1;
+            stream.appendBits(
+                    (data[i] & BYTE_MODE_LIMIT) >> (half ? HALF_CODEWORD : 0),
+                    half ? HALF_CODEWORD : Byte.SIZE);
+        }
+        for (byte b : ec) {
+            stream.appendBits(b & BYTE_MODE_LIMIT, Byte.SIZE);
+        }
+        return stream;
+    }
+
+    /**
+     * Tells whether a data mask inverts a module.
+     *
+     * @param mask the mask, from 0 to 3
+     * @param x the column
+     * @param y the row
+     * @return {@code true} if the module is inverted
+     */
+    private static boolean masked(int mask, int x, int y) {
+        return switch (mask) {
+            case 0 -> y % 2 == 0;
+            case 1 -> (y / 2 + x / THIRD) % 2 == 0;
+            case 2 -> (y * x % 2 + y * x % THIRD) % 2 == 0;
+            default -> ((y + x) % 2 + y * x % THIRD) % 2 == 0;
+        };
+    }
+
+    /**
+     * Chooses the mask maximizing the Micro QR score: with {@code SUM1} and {@code SUM2} the dark
+     * modules of the right column and of the bottom row, {@code 16 × min + max}.
+     *
+     * @param size the number of modules per side
+     * @param reserved the function modules
+     * @param dark the unmasked modules
+     * @return the mask, the lowest one on ties
+     */
+    private static int bestMask(int size, boolean[] reserved, boolean[] dark) {
+        int best = 0;
+        int bestScore = -1;
+        int edge = size - 1;
+        for (int mask = 0; mask < MASK_COUNT; mask++) {
+            int right = 0;
+            int bottom = 0;
+            for (int i = 1; i < size; i++) {
+                right += dark[i * size + edge] ^ masked(mask, edge, i) ? 1 : 0;
+                bottom += dark[edge * size + i] ^ masked(mask, i, edge) ? 1 : 0;
+            }
+            int score = Math.min(right, bottom) * MASK_SCORE_WEIGHT + Math.max(right, bottom);
+            if (score > bestScore) {
+                best = mask;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Inverts the data modules selected by a mask.
+     *
+     * @param size the number of modules per side
+     * @param mask the mask
+     * @param reserved the function modules
+     * @param dark the modules to mask
+     */
+    private static void applyMask(int size, int mask, boolean[] reserved, boolean[] dark) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int index = y * size + x;
+                dark[index] ^= !reserved[index] && masked(mask, x, y);
+            }
+        }
+    }
+
+    /**
+     * Writes the format information: bits 0 to 7 down column 8 from row 1, bits 8 to 14 leftwards
+     * along row 8 from column 7.
+     *
+     * @param size the number of modules per side
+     * @param value the symbol number and mask
+     * @param dark receives the dark modules
+     */
+    private static void drawFormat(int size, int value, boolean[] dark) {
+        int format = formatInformation(value >> MASK_BITS, value & (MASK_COUNT - 1));
+        for (int i = 0; i < FORMAT_BITS; i++) {
+            boolean bit = (format >> i & 1) != 0;
+            if (i < Byte.SIZE) {
+                dark[(i + 1) * size + FORMAT_LINE] = bit;
+            } else {
+                dark[FORMAT_LINE * size + FORMAT_BITS - i] = bit;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+
+/** The data bits of a text, before termination and padding, and the version they need. */
+interface Payload {
+
+    /**
+     * Returns the smallest version holding the data.
+     *
+     * @param level the error correction level
+     * @return the version
+     * @throws WriterException if the data does not fit in version 40
+     */
+    Version version(ErrorCorrectionLevel level) throws WriterException;
+
+    /**
+     * Returns the number of bits {@link #bits} would write for a version, without writing them.
+     *
+     * @param version the version
+     * @return the bit count, before termination and padding
+     */
+    int size(Version version);
+
+    /**
+     * Returns the ECI, mode, character count and data bits of all segments.
+     *
+     * @param version the version chosen by {@link #version}
+     * @return the bits
+     * @throws WriterException if a character count overflows its field
+     */
+    BitArray bits(Version version) throws WriterException;
+}
@@ -0,0 +1,800 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Mode;
+import com.google.zxing.qrcode.decoder.Version;
+
+import fr.softsf.canscan.model.CapacityEstimate;
+
+/**
+ * QR code encoder producing the same {@link BitMatrix} as ZXing's {@code MultiFormatWriter} with
+ * the {@code UTF-8} character set, for any error correction level and quiet zone.
+ *
+ * <p>ZXing's generic path dispatches on the barcode format, rebuilds the Reed–Solomon generator and
+ * the whole module matrix for each of the 8 masks, and scores them one module at a time. This
+ * encoder keeps the same segment, version, codeword and mask choices, but shares the Reed–Solomon
+ * tables and the per-version layout across calls, derives the 8 masked matrices from one packed
+ * template by XOR, and scores them on 64-module words, concurrently for larger versions.
+ *
+ * <p>Texts too long for one symbol can be split across up to {@value #MAX_LINKED_SYMBOLS} linked
+ * symbols in structured append mode, which readers reassemble in sequence order.
+ */
+public enum QrEncoder {
+    INSTANCE;
+
+    /** The largest number of symbols a structured append sequence can link. */
+    public static final int MAX_LINKED_SYMBOLS = 16;
+
+    private static final int UTF8_ECI = 26;
+    private static final int ECI_VALUE_BITS = 8;
+    private static final int MODE_BITS = 4;
+    private static final int MAX_VERSION = 40;
+    private static final int TERMINATOR_BITS = 4;
+    private static final int PAD_FIRST = 0xEC;
+    private static final int PAD_SECOND = 0x11;
+    private static final int FORMAT_POLY = 0x537;
+    private static final int FORMAT_MASK = 0x5412;
+    private static final int FORMAT_DATA_BITS = 10;
+    private static final int MASK_BITS = 3;
+    private static final int NUMERIC_GROUP = 3;
+    private static final int DECIMAL_RADIX = 10;
+    private static final int NUMERIC_TRIPLE_BITS = 10;
+    private static final int NUMERIC_PAIR_BITS = 7;
+    private static final int NUMERIC_SINGLE_BITS = 4;
+    private static final int ALPHANUMERIC_RADIX = 45;
+    private static final int ALPHANUMERIC_PAIR_BITS = 11;
+    private static final int ALPHANUMERIC_SINGLE_BITS = 6;
+    private static final int PARALLEL_MIN_VERSION = 10;
+    private static final int BASE_DIMENSION = 17;
+    private static final int MODULES_PER_VERSION = 4;
+    private static final double LOGO_SAFETY_FACTOR = 1.5;
+    private static final ErrorCorrectionLevel[] LEVELS_BY_STRENGTH = {
+        ErrorCorrectionLevel.L,
+        ErrorCorrectionLevel.M,
+        ErrorCorrectionLevel.Q,
+        ErrorCorrectionLevel.H
+    };
+    private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+    private static final int UTF8_TWO_BYTES_LIMIT = 0x800;
+    private static final int UTF8_BMP_BYTES = 3;
+    private static final int UTF8_SUPPLEMENTARY_BYTES = 4;
+
+    /**
+     * The alphanumeric mode characters, each at the index of its value; shared with {@link
+     * SegmentPlan}.
+     */
+    static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+
+    /**
+     * Encodes a text.
+     *
+     * @param contents the text, encoded as numeric, alphanumeric or UTF-8 bytes as ZXing would
+     * @param level the error correction level
+     * @param margin the quiet zone, in modules
+     * @return the module matrix, one pixel per module, quiet zone included
+     * @throws WriterException if the text does not fit in a version 40 symbol
+     * @throws IllegalArgumentException if the text is empty or the margin is negative
+     */
+    public BitMatrix encode(String contents, ErrorCorrectionLevel level, int margin)
+            throws WriterException {
+        return encode(contents, level, margin, false);
+    }
+
+    /**
+     * Encodes a text, optionally with the compact data layout of {@link SegmentPlan}.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @param margin the quiet zone, in modules
+     * @param compact {@code true} for minimal segments and the smallest character set, {@code
+     *     false} for the single UTF-8 segment ZXing produces
+     * @return the module matrix, one pixel per module, quiet zone included
+     * @throws WriterException if the text does not fit in a version 40 symbol
+     * @throws IllegalArgumentException if the text is empty or the margin is negative
+     */
+    public BitMatrix encode(
+            String contents, ErrorCorrectionLevel level, int margin, boolean compact)
+            throws WriterException {
+        Objects.requireNonNull(level, "level must not be null");
+        if (margin < 0) {
+            throw new IllegalArgumentException("Marge négative : " + margin);
+        }
+        Payload payload = payload(contents, compact);
+        Version version = payload.version(level);
+        return symbol(version, dataCodewords(payload, version, level), level, margin);
+    }
+
+    /**
+     * Encodes a text in as few linked symbols as it needs, in structured append mode.
+     *
+     * <p>A text that fits in one symbol gives that single plain symbol. Otherwise the text is cut
+     * at character boundaries into parts of about the same UTF-8 length, each with the standard
+     * single segment layout, behind the structured append header: its position, the symbol count
+     * and the parity of the whole text, the XOR of its UTF-8 bytes. Data layouts are built in
+     * sequence; the error correction and masks of the symbols are computed in parallel.
+     *
+     * @param contents the text
+     * @param level the error correction level of every symbol
+     * @param margin the quiet zone, in modules
+     * @return the module matrices, in sequence order
+     * @throws WriterException if the text does not fit in {@value #MAX_LINKED_SYMBOLS} version 40
+     *     symbols
+     * @throws IllegalArgumentException if the text is empty or the margin is negative
+     */
+    public List<BitMatrix> encodeLinked(String contents, ErrorCorrectionLevel level, int margin)
+            throws WriterException {
+        Objects.requireNonNull(level, "level must not be null");
+        if (margin < 0) {
+            throw new IllegalArgumentException("Marge négative : " + margin);
+        }
+        List<Payload> parts = LinkedPlan.parts(contents, level);
+        Version[] versions = new Version[parts.size()];
+        byte[][] data = new byte[parts.size()][];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = parts.get(i).version(level);
+            data[i] = dataCodewords(parts.get(i), versions[i], level);
+        }
+        BitMatrix[] matrices = new BitMatrix[versions.length];
+        IntStream.range(0, versions.length)
+                .parallel()
+                .forEach(i -> matrices[i] = symbol(versions[i], data[i], level, margin));
+        return List.of(matrices);
+    }
+
+    /**
+     * Chooses the lowest error correction level whose recovery capacity covers the modules hidden
+     * by a centered square logo area.
+     *
+     * <p>The hidden area spans {@code imageRatio} of the symbol side, quiet zone included, plus one
+     * module for the partially covered edges. Every hidden module is counted as a data bit and the
+     * resulting codeword count, multiplied by a safety factor of 1.5 for codewords straddling the
+     * area boundary, must not exceed half of the error correction codewords. Only the data layout
+     * is computed for each level, not the masks.
+     *
+     * @param contents the text
+     * @param imageRatio the logo area side, as a fraction of the symbol side; 0 selects L
+     * @param margin the quiet zone, in modules
+     * @return the lowest sufficient level, or the strongest level the text fits in if none is
+     * @throws WriterException if the text does not fit in a version 40 symbol even at level L
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public ErrorCorrectionLevel selectLevel(String contents, double imageRatio, int margin)
+            throws WriterException {
+        return selectLevel(contents, imageRatio, margin, false);
+    }
+
+    /**
+     * Chooses the lowest sufficient error correction level as {@link #selectLevel(String, double,
+     * int)} does, for either data layout.
+     *
+     * @param contents the text
+     * @param imageRatio the logo area side, as a fraction of the symbol side; 0 selects L
+     * @param margin the quiet zone, in modules
+     * @param compact {@code true} for the compact data layout
+     * @return the lowest sufficient level, or the strongest level the text fits in if none is
+     * @throws WriterException if the text does not fit in a version 40 symbol even at level L
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public ErrorCorrectionLevel selectLevel(
+            String contents, double imageRatio, int margin, boolean compact)
+            throws WriterException {
+        Payload payload = payload(contents, compact);
+        return selectLevel(level -> List.of(payload.version(level)), imageRatio, margin);
+    }
+
+    /**
+     * Chooses the lowest sufficient error correction level as {@link #selectLevel(String, double,
+     * int)} does, for the linked symbols of {@link #encodeLinked}: the logo area is drawn on each
+     * of them, so each must recover it.
+     *
+     * @param contents the text
+     * @param imageRatio the logo area side, as a fraction of the symbol side; 0 selects L
+     * @param margin the quiet zone, in modules
+     * @return the lowest sufficient level, or the strongest level the text fits in if none is
+     * @throws WriterException if the text does not fit in {@value #MAX_LINKED_SYMBOLS} symbols even
+     *     at level L
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public ErrorCorrectionLevel selectLinkedLevel(String contents, double imageRatio, int margin)
+            throws WriterException {
+        return selectLevel(level -> LinkedPlan.versions(contents, level), imageRatio, margin);
+    }
+
+    /**
+     * Returns the lowest level whose symbols all recover the logo area, or the strongest level the
+     * data fits in.
+     *
+     * @param probe the versions the data needs at a level
+     * @param imageRatio the logo area side, as a fraction of the symbol side
+     * @param margin the quiet zone, in modules
+     * @return the level
+     * @throws WriterException if the data does not fit even at level L
+     */
+    private static ErrorCorrectionLevel selectLevel(
+            VersionProbe probe, double imageRatio, int margin) throws WriterException {
+        ErrorCorrectionLevel fitting = null;
+        for (ErrorCorrectionLevel level : LEVELS_BY_STRENGTH) {
+            List<Version> versions;
+            try {
+                versions = probe.versions(level);
+            } catch (WriterException tooBig) {
+                break;
+            }
+            fitting = level;
+            if (versions.stream().allMatch(v -> recovers(v, level, imageRatio, margin))) {
+                return level;
+            }
+        }
+        if (fitting == null) {
+            throw new WriterException("Data too big");
+        }
+        return fitting;
+    }
+
+    /**
+     * Returns the version a text needs, without building its matrix.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @param compact {@code true} for the compact data layout
+     * @return the version number, from 1 to 40
+     * @throws WriterException if the text does not fit in a version 40 symbol
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public int version(String contents, ErrorCorrectionLevel level, boolean compact)
+            throws WriterException {
+        Objects.requireNonNull(level, "level must not be null");
+        return payload(contents, compact).version(level).getVersionNumber();
+    }
+
+    /**
+     * Estimates the space a text takes from its segment lengths, without building codewords or
+     * masks: a few microseconds for typical payloads, suited to updates on every keystroke.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @param compact {@code true} for the compact data layout
+     * @return the version and used share, or the overflow of version 40 if the text does not fit
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public CapacityEstimate estimate(String contents, ErrorCorrectionLevel level, boolean compact) {
+        Objects.requireNonNull(level, "level must not be null");
+        Payload payload = payload(contents, compact);
+        Version version;
+        try {
+            version = payload.version(level);
+        } catch (WriterException tooBig) {
+            version = Version.getVersionForNumber(MAX_VERSION);
+        }
+        int dataBytes =
+                version.getTotalCodewords()
+                        - version.getECBlocksForLevel(level).getTotalECCodewords();
+        return new CapacityEstimate(
+                level, version.getVersionNumber(), payload.size(version), dataBytes * Byte.SIZE, 1);
+    }
+
+    /**
+     * Estimates the linked symbols a text needs, as {@link #estimate} does for one symbol: the
+     * estimate of the largest symbol, with the symbol count.
+     *
+     * @param contents the text
+     * @param level the error correction level
+     * @return the estimate, or the overflow of a single version 40 symbol if the text does not fit
+     *     in {@value #MAX_LINKED_SYMBOLS} symbols
+     * @throws IllegalArgumentException if the text is empty
+     */
+    public CapacityEstimate estimateLinked(String contents, ErrorCorrectionLevel level) {
+        Objects.requireNonNull(level, "level must not be null");
+        List<Payload> parts;
+        try {
+            parts = LinkedPlan.parts(contents, level);
+        } catch (WriterException tooBig) {
+            return estimate(contents, level, false);
+        }
+        CapacityEstimate largest = null;
+        for (Payload part : parts) {
+            Version version;
+            try {
+                version = part.version(level);
+            } catch (WriterException tooBig) {
+                return estimate(contents, level, false);
+            }
+            if (largest == null || version.getVersionNumber() > largest.version()) {
+                int dataBytes =
+                        version.getTotalCodewords()
+                                - version.getECBlocksForLevel(level).getTotalECCodewords();
+                largest =
+                        new CapacityEstimate(
+                                level,
+                                version.getVersionNumber(),
+                                part.size(version),
+                                dataBytes * Byte.SIZE,
+                                parts.size());
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Prepares the data layout of a text.
+     *
+     * @param contents the text
+     * @param compact {@code true} for {@link SegmentPlan}, {@code false} for the ZXing layout
+     * @return the payload
+     * @throws IllegalArgumentException if the text is empty
+     */
+    static Payload payload(String contents, boolean compact) {
+        Objects.requireNonNull(contents, "contents must not be null");
+        if (contents.isEmpty()) {
+            throw new IllegalArgumentException("Found empty contents");
+        }
+        return compact ? new SegmentPlan(contents) : new SingleSegment(contents);
+    }
+
+    /**
+     * Tells whether a symbol can recover the codewords hidden by a centered logo area.
+     *
+     * @param version the symbol version
+     * @param level the error correction level
+     * @param imageRatio the logo area side, as a fraction of the symbol side
+     * @param margin the quiet zone, in modules
+     * @return {@code true} if the estimated damage is within the correction capacity
+     */
+    private static boolean recovers(
+            Version version, ErrorCorrectionLevel level, double imageRatio, int margin) {
+        if (imageRatio <= 0) {
+            return true;
+        }
+        int width = BASE_DIMENSION + MODULES_PER_VERSION * version.getVersionNumber() + 2 * margin;
+        double hiddenSide = Math.ceil(imageRatio * width) + 1;
+        double damagedCodewords = hiddenSide * hiddenSide / Byte.SIZE * LOGO_SAFETY_FACTOR;
+        return damagedCodewords <= version.getECBlocksForLevel(level).getTotalECCodewords() / 2.0;
+    }
+
+    /**
+     * Returns the segment header: the UTF-8 ECI in byte mode, then the mode indicator.
+     *
+     * @param mode the segment mode
+     * @return the header bits
+     */
+    private static BitArray header(Mode mode) {
+        BitArray header = new BitArray();
+        if (mode == Mode.BYTE) {
+            header.appendBits(Mode.ECI.getBits(), MODE_BITS);
+            header.appendBits(UTF8_ECI, ECI_VALUE_BITS);
+        }
+        header.appendBits(mode.getBits(), MODE_BITS);
+        return header;
+    }
+
+    /**
+     * Chooses the most compact single segment mode, as ZXing's {@code Encoder.chooseMode}.
+     *
+     * @param contents the text
+     * @return numeric, alphanumeric or byte
+     */
+    static Mode chooseMode(String contents) {
+        boolean hasNumeric = false;
+        boolean hasAlphanumeric = false;
+        for (int i = 0; i < contents.length(); i++) {
+            char c = contents.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasNumeric = true;
+            } else if (ALPHANUMERIC.indexOf(c) >= 0) {
+                hasAlphanumeric = true;
+            } else {
+                return Mode.BYTE;
+            }
+        }
+        if (hasAlphanumeric) {
+            return Mode.ALPHANUMERIC;
+        }
+        return hasNumeric ? Mode.NUMERIC : Mode.BYTE;
+    }
+
+    /**
+     * Appends the segment data.
+     *
+     * @param contents the text
+     * @param mode the segment mode
+     * @param bits receives the data bits
+     * @return the character count written in the segment header
+     */
+    static int appendData(String contents, Mode mode, BitArray bits) {
+        int length = contents.length();
+        if (mode == Mode.NUMERIC) {
+            for (int i = 0; i < length; i += NUMERIC_GROUP) {
+                int digits = Math.min(NUMERIC_GROUP, length - i);
+                int value = Integer.parseInt(contents, i, i + digits, DECIMAL_RADIX);
+                bits.appendBits(
+                        value,
+                        switch (digits) {
+                            case NUMERIC_GROUP -> NUMERIC_TRIPLE_BITS;
+                            case 2 -> NUMERIC_PAIR_BITS;
+                            default -> NUMERIC_SINGLE_BITS;
+                        });
+            }
+            return length;
+        }
+        if (mode == Mode.ALPHANUMERIC) {
+            for (int i = 0; i < length; i += 2) {
+                int first = ALPHANUMERIC.indexOf(contents.charAt(i));
+                if (i + 1 < length) {
+                    int second = ALPHANUMERIC.indexOf(contents.charAt(i + 1));
+                    bits.appendBits(first * ALPHANUMERIC_RADIX + second, ALPHANUMERIC_PAIR_BITS);
+                } else {
+                    bits.appendBits(first, ALPHANUMERIC_SINGLE_BITS);
+                }
+            }
+            return length;
+        }
+        byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            bits.appendBits(b, Byte.SIZE);
+        }
+        return bytes.length;
+    }
+
+    /**
+     * Returns the data length of a numeric segment.
+     *
+     * @param digits the number of digits
+     * @return the number of bits
+     */
+    static int numericBits(int digits) {
+        int rest =
+                switch (digits % NUMERIC_GROUP) {
+                    case 2 -> NUMERIC_PAIR_BITS;
+                    case 1 -> NUMERIC_SINGLE_BITS;
+                    default -> 0;
+                };
+        return digits / NUMERIC_GROUP * NUMERIC_TRIPLE_BITS + rest;
+    }
+
+    /**
+     * Returns the data length of an alphanumeric segment.
+     *
+     * @param characters the number of characters
+     * @return the number of bits
+     */
+    static int alphanumericBits(int characters) {
+        return characters / 2 * ALPHANUMERIC_PAIR_BITS + characters % 2 * ALPHANUMERIC_SINGLE_BITS;
+    }
+
+    /**
+     * Chooses the smallest version holding the data, as ZXing's {@code Encoder.recommendVersion}:
+     * first with the character count length of version 1, then with that of the provisional
+     * version.
+     *
+     * @param level the error correction level
+     * @param mode the segment mode
+     * @param fixedBits the ECI, mode and data bit count
+     * @return the version
+     * @throws WriterException if the data does not fit in version 40
+     */
+    private static Version recommendVersion(ErrorCorrectionLevel level, Mode mode, int fixedBits)
+            throws WriterException {
+        Version provisional =
+                chooseVersion(
+                        fixedBits + mode.getCharacterCountBits(Version.getVersionForNumber(1)),
+                        level);
+        return chooseVersion(fixedBits + mode.getCharacterCountBits(provisional), level);
+    }
+
+    /**
+     * Returns the smallest version whose data capacity holds a number of bits.
+     *
+     * @param bits the number of bits
+     * @param level the error correction level
+     * @return the version
+     * @throws WriterException if no version is large enough
+     */
+    private static Version chooseVersion(int bits, ErrorCorrectionLevel level)
+            throws WriterException {
+        int bytes = (bits + Byte.SIZE - 1) / Byte.SIZE;
+        for (int number = 1; number <= MAX_VERSION; number++) {
+            Version version = Version.getVersionForNumber(number);
+            int capacity =
+                    version.getTotalCodewords()
+                            - version.getECBlocksForLevel(level).getTotalECCodewords();
+            if (capacity >= bytes) {
+                return version;
+            }
+        }
+        throw new WriterException("Data too big");
+    }
+
+    /**
+     * Builds the data codewords of a payload in a version.
+     *
+     * @param payload the payload
+     * @param version the version
+     * @param level the error correction level
+     * @return the data codewords, padded to the version capacity
+     * @throws WriterException if the payload exceeds the capacity
+     */
+    private static byte[] dataCodewords(
+            Payload payload, Version version, ErrorCorrectionLevel level) throws WriterException {
+        int dataBytes =
+                version.getTotalCodewords()
+                        - version.getECBlocksForLevel(level).getTotalECCodewords();
+        return terminate(payload.bits(version), dataBytes);
+    }
+
+    /**
+     * Adds the error correction codewords to data codewords and draws the symbol.
+     *
+     * @param version the version
+     * @param data the data codewords
+     * @param level the error correction level
+     * @param margin the quiet zone
+     * @return the matrix
+     */
+    private static BitMatrix symbol(
+            Version version, byte[] data, ErrorCorrectionLevel level, int margin) {
+        byte[] codewords =
+                interleave(
+                        data,
+                        version.getTotalCodewords(),
+                        version.getECBlocksForLevel(level).getNumBlocks());
+        return render(QrLayout.of(version.getVersionNumber()), codewords, level, margin);
+    }
+
+    /**
+     * Adds the terminator, the bit padding and the pad codewords.
+     *
+     * @param bits the header and data bits
+     * @param dataBytes the data capacity of the version
+     * @return the data codewords
+     * @throws WriterException if the bits exceed the capacity
+     */
+    private static byte[] terminate(BitArray bits, int dataBytes) throws WriterException {
+        int capacity = dataBytes * Byte.SIZE;
+        if (bits.getSize() > capacity) {
+            throw new WriterException(
+                    "data bits cannot fit in the QR Code" + bits.getSize() + " > " + capacity);
+        }
+        for (int i = 0; i < TERMINATOR_BITS && bits.getSize() < capacity; i++) {
+            bits.appendBit(false);
+        }
+        int partial = bits.getSize() % Byte.SIZE;
+        if (partial > 0) {
+            bits.appendBits(0, Byte.SIZE - partial);
+        }
+        byte[] codewords = new byte[dataBytes];
+        int used = bits.getSizeInBytes();
+        bits.toBytes(0, codewords, 0, used);
+        for (int i = used; i < dataBytes; i++) {
+            codewords[i] = (byte) ((i - used) % 2 == 0 ? PAD_FIRST : PAD_SECOND);
+        }
+        return codewords;
+    }
+
+    /**
+     * Splits the data codewords into blocks, computes their error correction codewords and
+     * interleaves both, as ZXing's {@code Encoder.interleaveWithECBytes}.
+     *
+     * @param data the data codewords
+     * @param totalBytes the total number of codewords of the version
+     * @param blockCount the number of blocks
+     * @return the final codeword sequence
+     */
+    private static byte[] interleave(byte[] data, int totalBytes, int blockCount) {
+        int longBlocks = totalBytes % blockCount;
+        int shortBlocks = blockCount - longBlocks;
+        int shortTotal = totalBytes / blockCount;
+        int shortData = data.length / blockCount;
+        int ecLength = shortTotal - shortData;
+        byte[][] ec = new byte[blockCount][];
+        int[] offsets = new int[blockCount];
+        int[] lengths = new int[blockCount];
+        int offset = 0;
+        for (int block = 0; block < blockCount; block++) {
+            lengths[block] = block < shortBlocks ? shortData : shortData + 1;
+            offsets[block] = offset;
+            ec[block] = ReedSolomon.encode(data, offset, lengths[block], ecLength);
+            offset += lengths[block];
+        }
+        byte[] result = new byte[totalBytes];
+        int index = 0;
+        for (int i = 0; i <= shortData; i++) {
+            for (int block = 0; block < blockCount; block++) {
+                if (i < lengths[block]) {
+                    result[index++] = data[offsets[block] + i];
+                }
+            }
+        }
+        for (int i = 0; i < ecLength; i++) {
+            for (int block = 0; block < blockCount; block++) {
+                result[index++] = ec[block][i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the 8 masked matrices, keeps the one with the lowest penalty (the first on ties, as
+     * ZXing) and draws it with its quiet zone.
+     *
+     * @param layout the version layout
+     * @param codewords the final codeword sequence
+     * @param level the error correction level
+     * @param margin the quiet zone
+     * @return the matrix
+     */
+    private static BitMatrix render(
+            QrLayout layout, byte[] codewords, ErrorCorrectionLevel level, int margin) {
+        int dimension = layout.dimension();
+        int words = layout.words();
+        long[][] rows = new long[QrLayout.MASKS][dimension * words];
+        int[] penalties = new int[QrLayout.MASKS];
+        IntStream masks = IntStream.range(0, QrLayout.MASKS);
+        if (dimension >= QrLayout.of(PARALLEL_MIN_VERSION).dimension()) {
+            masks = masks.parallel();
+        }
+        masks.forEach(
+                mask -> {
+                    long[] cols = new long[dimension * words];
+                    layout.fill(codewords, formatInformation(level, mask), mask, rows[mask], cols);
+                    penalties[mask] = MaskPenalty.of(rows[mask], cols, dimension, words);
+                });
+        int best = 0;
+        for (int mask = 1; mask < QrLayout.MASKS; mask++) {
+            if (penalties[mask] < penalties[best]) {
+                best = mask;
+            }
+        }
+        BitMatrix matrix = new BitMatrix(dimension + 2 * margin);
+        long[] chosen = rows[best];
+        for (int y = 0; y < dimension; y++) {
+            for (int w = 0; w < words; w++) {
+                long bits = chosen[y * words + w];
+                while (bits != 0) {
+                    matrix.set(
+                            w * Long.SIZE + Long.numberOfTrailingZeros(bits) + margin, y + margin);
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Computes the 15-bit format information of an error correction level and a mask.
+     *
+     * @param level the error correction level
+     * @param mask the mask pattern
+     * @return the masked BCH-protected format information
+     */
+    static int formatInformation(ErrorCorrectionLevel level, int mask) {
+        int value = level.getBits() << MASK_BITS | mask;
+        return (value << FORMAT_DATA_BITS | QrLayout.bchCode(value, FORMAT_POLY)) ^ FORMAT_MASK;
+    }
+
+    /** The versions some data needs at an error correction level. */
+    @FunctionalInterface
+    private interface VersionProbe {
+
+        /**
+         * Returns the versions of the symbols holding the data.
+         *
+         * @param level the error correction level
+         * @return one version per symbol
+         * @throws WriterException if the data does not fit
+         */
+        List<Version> versions(ErrorCorrectionLevel level) throws WriterException;
+    }
+
+    /**
+     * The single segment layout of ZXing: one mode for the whole text, bytes in UTF-8.
+     *
+     * <p>Sizes are computed from the character counts alone; the data bits are only built by {@link
+     * #bits}, so that capacity estimates stay cheap. A prefix, such as a structured append header,
+     * can precede the segment.
+     */
+    static final class SingleSegment implements Payload {
+
+        private final String contents;
+        private final BitArray prefix;
+        private final Mode mode;
+        private final int letters;
+        private final int fixedBits;
+
+        /**
+         * Measures the segment of a text.
+         *
+         * @param contents the text, not empty
+         */
+        SingleSegment(String contents) {
+            this(contents, new BitArray());
+        }
+
+        /**
+         * Measures the segment of a text behind a prefix.
+         *
+         * @param contents the text, not empty
+         * @param prefix the bits written before the segment header
+         */
+        SingleSegment(String contents, BitArray prefix) {
+            this.contents = contents;
+            this.prefix = prefix;
+            mode = chooseMode(contents);
+            int headerBits =
+                    prefix.getSize()
+                            + (mode == Mode.BYTE ? 2 * MODE_BITS + ECI_VALUE_BITS : MODE_BITS);
+            if (mode == Mode.NUMERIC) {
+                letters = contents.length();
+                fixedBits = headerBits + numericBits(letters);
+            } else if (mode == Mode.ALPHANUMERIC) {
+                letters = contents.length();
+                fixedBits = headerBits + alphanumericBits(letters);
+            } else {
+                letters = utf8Length(contents);
+                fixedBits = headerBits + letters * Byte.SIZE;
+            }
+        }
+
+        @Override
+        public Version version(ErrorCorrectionLevel level) throws WriterException {
+            return recommendVersion(level, mode, fixedBits);
+        }
+
+        @Override
+        public int size(Version version) {
+            return fixedBits + mode.getCharacterCountBits(version);
+        }
+
+        @Override
+        public BitArray bits(Version version) throws WriterException {
+            BitArray bits = prefix.clone();
+            bits.appendBitArray(header(mode));
+            int countBits = mode.getCharacterCountBits(version);
+            if (letters >= 1 << countBits) {
+                throw new WriterException(letters + " is bigger than " + ((1 << countBits) - 1));
+            }
+            bits.appendBits(letters, countBits);
+            appendData(contents, mode, bits);
+            return bits;
+        }
+
+        /**
+         * Returns the UTF-8 length of a text without encoding it; unpaired surrogates count as the
+         * single replacement byte {@link String#getBytes} writes for them.
+         *
+         * @param text the text
+         * @return the number of bytes
+         */
+        private static int utf8Length(String text) {
+            int bytes = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < UTF8_ONE_BYTE_LIMIT) {
+                    bytes += 1;
+                } else if (c < UTF8_TWO_BYTES_LIMIT) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c)
+                        && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    bytes += UTF8_SUPPLEMENTARY_BYTES;
+                    i++;
+                } else {
+                    bytes += Character.isSurrogate(c) ? 1 : UTF8_BMP_BYTES;
+                }
+            }
+            return bytes;
+        }
+    }
+}
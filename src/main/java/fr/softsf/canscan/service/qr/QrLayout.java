@@ -0,0 +1,433 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.zxing.qrcode.decoder.Version;
+
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+
+/**
+ * Module layout of one QR code version, built once and shared by every encoding of that version.
+ *
+ * <p>The layout follows ZXing's {@code MatrixUtil} step by step, so the encoder produces the same
+ * matrix: finder patterns and separators, the dark module, alignment patterns, timing patterns, the
+ * reserved format information cells, the version information and finally the zigzag order of the
+ * data cells. Matrices are packed one bit per module, row by row ({@code rows[y * words + x / 64]})
+ * and column by column ({@code cols[x * words + y / 64]}), so masks and penalties work on 64
+ * modules at a time in both directions.
+ */
+final class QrLayout {
+
+    /** Number of data mask patterns. */
+    static final int MASKS = 8;
+
+    private static final int MIN_VERSION = 1;
+    private static final int MAX_VERSION = 40;
+    private static final int FINDER_SIZE = 7;
+    private static final int SEPARATOR_SIZE = 8;
+    private static final int ALIGNMENT_SIZE = 5;
+    private static final int TIMING_INDEX = 6;
+    private static final int FORMAT_INDEX = 8;
+    private static final int FORMAT_BITS = 15;
+    private static final int FORMAT_FIRST_COPY_SPLIT = 8;
+    private static final int VERSION_INFO_MIN_VERSION = 7;
+    private static final int VERSION_INFO_POLY = 0x1f25;
+    private static final int VERSION_INFO_ROWS = 6;
+    private static final int VERSION_INFO_COLUMNS = 3;
+    private static final int VERSION_INFO_OFFSET = 11;
+    private static final int VERSION_NUMBER_BITS = 12;
+    private static final int BASE_DIMENSION = 17;
+    private static final int MODULES_PER_VERSION = 4;
+    private static final byte EMPTY = -1;
+    private static final int HIGH_BIT = 0x80;
+    private static final int[][] FORMAT_COORDINATES = {
+        {8, 0}, {8, 1}, {8, 2}, {8, 3}, {8, 4}, {8, 5}, {8, 7}, {8, 8}, {7, 8}, {5, 8}, {4, 8},
+        {3, 8}, {2, 8}, {1, 8}, {0, 8},
+    };
+    private static final AtomicReferenceArray<QrLayout> CACHE =
+            new AtomicReferenceArray<>(MAX_VERSION + 1);
+
+    private final int dimension;
+    private final int words;
+    private final long[] functionRows;
+    private final long[] functionCols;
+    private final int[] dataCells;
+    private final int[] formatCells;
+    private final long[][] maskRows = new long[MASKS][];
+    private final long[][] maskCols = new long[MASKS][];
+
+    /**
+     * Builds the layout of a version.
+     *
+     * @param version the version number
+     */
+    private QrLayout(int version) {
+        dimension = BASE_DIMENSION + MODULES_PER_VERSION * version;
+        words = (dimension + Long.SIZE - 1) / Long.SIZE;
+        byte[] cells = new byte[dimension * dimension];
+        Arrays.fill(cells, EMPTY);
+        embedFinderPatterns(cells);
+        set(cells, FORMAT_INDEX, dimension - FORMAT_INDEX, 1);
+        embedAlignmentPatterns(cells, Version.getVersionForNumber(version));
+        embedTimingPatterns(cells);
+        formatCells = reserveFormatCells(cells);
+        if (version >= VERSION_INFO_MIN_VERSION) {
+            embedVersionInformation(cells, version);
+        }
+        dataCells = zigzag(cells);
+        functionRows = new long[dimension * words];
+        functionCols = new long[dimension * words];
+        for (int y = 0; y < dimension; y++) {
+            for (int x = 0; x < dimension; x++) {
+                if (cells[y * dimension + x] == 1) {
+                    setBit(functionRows, functionCols, x, y);
+                }
+            }
+        }
+        for (int mask = 0; mask < MASKS; mask++) {
+            maskRows[mask] = new long[dimension * words];
+            maskCols[mask] = new long[dimension * words];
+            for (int cell : dataCells) {
+                int x = cell % dimension;
+                int y = cell / dimension;
+                if (isMasked(mask, x, y)) {
+                    setBit(maskRows[mask], maskCols[mask], x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared layout of a version.
+     *
+     * @param version the version number, from 1 to 40
+     * @return the layout
+     */
+    static QrLayout of(int version) {
+        if (version < MIN_VERSION || version > MAX_VERSION) {
+            throw new IllegalArgumentException("Version invalide : " + version);
+        }
+        QrLayout layout = CACHE.get(version);
+        CanScanMetrics.INSTANCE.cacheLookup(RenderCache.QR_LAYOUT, layout != null);
+        if (layout != null) {
+            return layout;
+        }
+        layout = new QrLayout(version);
+        if (CACHE.compareAndSet(version, null, layout)) {
+            CanScanMetrics.INSTANCE.cacheSize(RenderCache.QR_LAYOUT, cachedVersions());
+            return layout;
+        }
+        return CACHE.get(version);
+    }
+
+    /**
+     * Counts the versions whose layout is cached.
+     *
+     * @return the count
+     */
+    private static int cachedVersions() {
+        int count = 0;
+        for (int version = MIN_VERSION; version <= MAX_VERSION; version++) {
+            if (CACHE.get(version) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of modules per side.
+     *
+     * @return the dimension
+     */
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of 64-bit words per packed row or column.
+     *
+     * @return the word count
+     */
+    int words() {
+        return words;
+    }
+
+    /**
+     * Builds the packed matrix of a codeword sequence under a mask, in both orientations.
+     *
+     * @param codewords the interleaved data and error correction codewords
+     * @param formatInformation the 15-bit format information of the error correction level and mask
+     * @param mask the mask pattern
+     * @param rows receives the row-major matrix
+     * @param cols receives the column-major matrix
+     */
+    void fill(byte[] codewords, int formatInformation, int mask, long[] rows, long[] cols) {
+        long[] maskRow = maskRows[mask];
+        long[] maskCol = maskCols[mask];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = functionRows[i] ^ maskRow[i];
+            cols[i] = functionCols[i] ^ maskCol[i];
+        }
+        int bits = Math.min(codewords.length * Byte.SIZE, dataCells.length);
+        for (int i = 0; i < bits; i++) {
+            if ((codewords[i >>> 3] & (HIGH_BIT >>> (i & (Byte.SIZE - 1)))) != 0) {
+                int cell = dataCells[i];
+                flipBit(rows, cols, cell % dimension, cell / dimension);
+            }
+        }
+        for (int i = 0; i < FORMAT_BITS; i++) {
+            if ((formatInformation >>> i & 1) != 0) {
+                int first = formatCells[i];
+                int second = formatCells[FORMAT_BITS + i];
+                flipBit(rows, cols, first % dimension, first / dimension);
+                flipBit(rows, cols, second % dimension, second / dimension);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of data cells, data and remainder bits included.
+     *
+     * @return the cell count
+     */
+    int dataCellCount() {
+        return dataCells.length;
+    }
+
+    /**
+     * Tells whether a mask pattern inverts a module, as ZXing's {@code MaskUtil.getDataMaskBit}.
+     *
+     * @param mask the mask pattern
+     * @param x the column
+     * @param y the row
+     * @return {@code true} if the module is inverted
+     */
+    static boolean isMasked(int mask, int x, int y) {
+        int value =
+                switch (mask) {
+                    case 0 -> (y + x) & 1;
+                    case 1 -> y & 1;
+                    case 2 -> x % 3;
+                    case 3 -> (y + x) % 3;
+                    case 4 -> ((y / 2) + (x / 3)) & 1;
+                    case 5 -> ((y * x) & 1) + ((y * x) % 3);
+                    case 6 -> (((y * x) & 1) + ((y * x) % 3)) & 1;
+                    case 7 -> (((y * x) % 3) + ((y + x) & 1)) & 1;
+                    default -> throw new IllegalArgumentException("Masque invalide : " + mask);
+                };
+        return value == 0;
+    }
+
+    /**
+     * Computes the BCH code of a value, as ZXing's {@code MatrixUtil.calculateBCHCode}.
+     *
+     * @param value the value
+     * @param poly the generator polynomial
+     * @return the remainder
+     */
+    static int bchCode(int value, int poly) {
+        int msbSetInPoly = Integer.SIZE - Integer.numberOfLeadingZeros(poly);
+        int remainder = value << (msbSetInPoly - 1);
+        while (Integer.SIZE - Integer.numberOfLeadingZeros(remainder) >= msbSetInPoly) {
+            remainder ^=
+                    poly << (Integer.SIZE - Integer.numberOfLeadingZeros(remainder) - msbSetInPoly);
+        }
+        return remainder;
+    }
+
+    /**
+     * Draws the three finder patterns and their separators.
+     *
+     * @param cells the matrix
+     */
+    private void embedFinderPatterns(byte[] cells) {
+        embedSquare(cells, 0, 0, FINDER_SIZE);
+        embedSquare(cells, dimension - FINDER_SIZE, 0, FINDER_SIZE);
+        embedSquare(cells, 0, dimension - FINDER_SIZE, FINDER_SIZE);
+        for (int i = 0; i < SEPARATOR_SIZE; i++) {
+            set(cells, i, FINDER_SIZE, 0);
+            set(cells, dimension - SEPARATOR_SIZE + i, FINDER_SIZE, 0);
+            set(cells, i, dimension - SEPARATOR_SIZE, 0);
+        }
+        for (int i = 0; i < FINDER_SIZE; i++) {
+            set(cells, FINDER_SIZE, i, 0);
+            set(cells, dimension - SEPARATOR_SIZE, i, 0);
+            set(cells, FINDER_SIZE, dimension - FINDER_SIZE + i, 0);
+        }
+    }
+
+    /**
+     * Draws the alignment patterns whose center is still free.
+     *
+     * @param cells the matrix
+     * @param version the version
+     */
+    private void embedAlignmentPatterns(byte[] cells, Version version) {
+        int[] centers = version.getAlignmentPatternCenters();
+        for (int y : centers) {
+            for (int x : centers) {
+                if (cells[y * dimension + x] == EMPTY) {
+                    embedSquare(cells, x - 2, y - 2, ALIGNMENT_SIZE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a finder or alignment pattern: concentric dark, light and dark squares.
+     *
+     * @param cells the matrix
+     * @param left the left column
+     * @param top the top row
+     * @param size 7 for a finder pattern, 5 for an alignment pattern
+     */
+    private void embedSquare(byte[] cells, int left, int top, int size) {
+        int last = size - 1;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int ring = Math.min(Math.min(x, y), Math.min(last - x, last - y));
+                boolean dark = ring != 1;
+                set(cells, left + x, top + y, dark ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Draws the timing patterns in the free cells of row and column 6.
+     *
+     * @param cells the matrix
+     */
+    private void embedTimingPatterns(byte[] cells) {
+        for (int i = SEPARATOR_SIZE; i < dimension - SEPARATOR_SIZE; i++) {
+            int bit = (i + 1) % 2;
+            if (cells[TIMING_INDEX * dimension + i] == EMPTY) {
+                set(cells, i, TIMING_INDEX, bit);
+            }
+            if (cells[i * dimension + TIMING_INDEX] == EMPTY) {
+                set(cells, TIMING_INDEX, i, bit);
+            }
+        }
+    }
+
+    /**
+     * Reserves the two copies of the format information, left light in the template.
+     *
+     * @param cells the matrix
+     * @return the cell of each format bit, first copy then second copy, least significant first
+     */
+    private int[] reserveFormatCells(byte[] cells) {
+        int[] positions = new int[FORMAT_BITS * 2];
+        for (int i = 0; i < FORMAT_BITS; i++) {
+            int x1 = FORMAT_COORDINATES[i][0];
+            int y1 = FORMAT_COORDINATES[i][1];
+            int x2 = i < FORMAT_FIRST_COPY_SPLIT ? dimension - i - 1 : FORMAT_INDEX;
+            int y2 =
+                    i < FORMAT_FIRST_COPY_SPLIT
+                            ? FORMAT_INDEX
+                            : dimension - FINDER_SIZE + (i - FORMAT_FIRST_COPY_SPLIT);
+            set(cells, x1, y1, 0);
+            set(cells, x2, y2, 0);
+            positions[i] = y1 * dimension + x1;
+            positions[FORMAT_BITS + i] = y2 * dimension + x2;
+        }
+        return positions;
+    }
+
+    /**
+     * Draws the two copies of the version information.
+     *
+     * @param cells the matrix
+     * @param version the version number, at least 7
+     */
+    private void embedVersionInformation(byte[] cells, int version) {
+        int bits = version << VERSION_NUMBER_BITS | bchCode(version, VERSION_INFO_POLY);
+        int bit = 0;
+        for (int i = 0; i < VERSION_INFO_ROWS; i++) {
+            for (int j = 0; j < VERSION_INFO_COLUMNS; j++) {
+                int value = bits >>> bit & 1;
+                bit++;
+                set(cells, i, dimension - VERSION_INFO_OFFSET + j, value);
+                set(cells, dimension - VERSION_INFO_OFFSET + j, i, value);
+            }
+        }
+    }
+
+    /**
+     * Lists the free cells in data placement order: two-column strips from the right, moving up and
+     * down alternately, skipping the vertical timing pattern.
+     *
+     * @param cells the matrix
+     * @return the cell indexes
+     */
+    private int[] zigzag(byte[] cells) {
+        int[] order = new int[cells.length];
+        int count = 0;
+        int direction = -1;
+        int y = dimension - 1;
+        int x = dimension - 1;
+        while (x > 0) {
+            if (x == TIMING_INDEX) {
+                x--;
+            }
+            while (y >= 0 && y < dimension) {
+                for (int i = 0; i < 2; i++) {
+                    int cell = y * dimension + x - i;
+                    if (cells[cell] == EMPTY) {
+                        order[count++] = cell;
+                    }
+                }
+                y += direction;
+            }
+            direction = -direction;
+            y += direction;
+            x -= 2;
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Sets a module of the template.
+     *
+     * @param cells the matrix
+     * @param x the column
+     * @param y the row
+     * @param value 0 or 1
+     */
+    private void set(byte[] cells, int x, int y, int value) {
+        cells[y * dimension + x] = (byte) value;
+    }
+
+    /**
+     * Sets a module in both packed orientations.
+     *
+     * @param rows the row-major matrix
+     * @param cols the column-major matrix
+     * @param x the column
+     * @param y the row
+     */
+    private void setBit(long[] rows, long[] cols, int x, int y) {
+        rows[y * words + (x >>> 6)] |= 1L << x;
+        cols[x * words + (y >>> 6)] |= 1L << y;
+    }
+
+    /**
+     * Inverts a module in both packed orientations.
+     *
+     * @param rows the row-major matrix
+     * @param cols the column-major matrix
+     * @param x the column
+     * @param y the row
+     */
+    private void flipBit(long[] rows, long[] cols, int x, int y) {
+        rows[y * words + (x >>> 6)] ^= 1L << x;
+        cols[x * words + (y >>> 6)] ^= 1L << y;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+/**
+ * Reed–Solomon error correction over GF(256) with the QR code polynomial {@code 0x11D}.
+ *
+ * <p>Log and antilog tables and the generator polynomial of every degree a QR code uses are built
+ * once, so encoding a block is a table-driven shift register without allocation beyond the result.
+ */
+final class ReedSolomon {
+
+    private static final int FIELD_SIZE = 256;
+    private static final int PRIMITIVE = 0x11D;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MAX_DEGREE = 30;
+    private static final int[] EXP = new int[FIELD_SIZE * 2];
+    private static final int[] LOG = new int[FIELD_SIZE];
+    private static final int[][] GENERATORS = new int[MAX_DEGREE + 1][];
+
+    static {
+        int x = 1;
+        for (int i = 0; i < FIELD_SIZE - 1; i++) {
+            EXP[i] = x;
+            LOG[x] = i;
+            x <<= 1;
+            if (x >= FIELD_SIZE) {
+                x ^= PRIMITIVE;
+            }
+        }
+        for (int i = FIELD_SIZE - 1; i < EXP.length; i++) {
+            EXP[i] = EXP[i - (FIELD_SIZE - 1)];
+        }
+        int[] generator = {1};
+        GENERATORS[0] = generator;
+        for (int degree = 1; degree <= MAX_DEGREE; degree++) {
+            int[] next = new int[degree + 1];
+            int root = EXP[degree - 1];
+            for (int i = 0; i < generator.length; i++) {
+                next[i] ^= generator[i];
+                next[i + 1] ^= multiply(generator[i], root);
+            }
+            generator = next;
+            GENERATORS[degree] = generator;
+        }
+    }
+
+    private ReedSolomon() {}
+
+    /**
+     * Multiplies two field elements.
+     *
+     * @param a the first element
+     * @param b the second element
+     * @return the product
+     */
+    static int multiply(int a, int b) {
+        return a == 0 || b == 0 ? 0 : EXP[LOG[a] + LOG[b]];
+    }
+
+    /**
+     * Computes the error correction codewords of a block.
+     *
+     * @param data the codewords array
+     * @param offset the index of the first data codeword of the block
+     * @param length the number of data codewords of the block
+     * @param ecLength the number of error correction codewords, at most 30
+     * @return the error correction codewords
+     */
+    static byte[] encode(byte[] data, int offset, int length, int ecLength) {
+        int[] generator = GENERATORS[ecLength];
+        int[] remainder = new int[ecLength];
+        for (int i = 0; i < length; i++) {
+            int factor = (data[offset + i] & BYTE_MASK) ^ remainder[0];
+            System.arraycopy(remainder, 1, remainder, 0, ecLength - 1);
+            remainder[ecLength - 1] = 0;
+            if (factor != 0) {
+                int logFactor = LOG[factor];
+                for (int j = 0; j < ecLength; j++) {
+                    int coefficient = generator[j + 1];
+                    if (coefficient != 0) {
+                        remainder[j] ^= EXP[LOG[coefficient] + logFactor];
+                    }
+                }
+            }
+        }
+        byte[] ec = new byte[ecLength];
+        for (int i = 0; i < ecLength; i++) {
+            ec[i] = (byte) remainder[i];
+        }
+        return ec;
+    }
+}
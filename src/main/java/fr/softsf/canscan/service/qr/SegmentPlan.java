@@ -0,0 +1,470 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.CharacterSetECI;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Mode;
+import com.google.zxing.qrcode.decoder.Version;
+
+/**
+ * Compact data layout: the text is split into numeric, alphanumeric and byte segments so that the
+ * total bit count is minimal, and byte segments use the character set that makes them smallest.
+ *
+ * <p>Pure ASCII text needs no ECI. Otherwise every character set with an ECI designator that can
+ * encode the whole text is tried, as ZXing's compact mode does, and the ECI is written only when a
+ * byte segment needs it. Segmentation is a dynamic program over the three modes, counting costs in
+ * sixths of a bit so that the 10/3 bits of a digit and the 11/2 bits of an alphanumeric character
+ * stay exact, as in the segmentation of the QR specification annex J. Because the character count
+ * field grows with the version, the plan is computed once for each of the three version ranges.
+ */
+final class SegmentPlan implements Payload {
+
+    private static final int MODE_BITS = 4;
+    private static final int ECI_VALUE_BITS = 8;
+    private static final int SIXTHS = 6;
+    private static final int NUMERIC_SIXTHS = 20;
+    private static final int ALPHANUMERIC_SIXTHS = 33;
+    private static final int MAX_ASCII = 0x7F;
+    private static final Mode[] MODES = {Mode.NUMERIC, Mode.ALPHANUMERIC, Mode.BYTE};
+    private static final int BYTE = 2;
+    private static final int[] RANGE_LAST_VERSIONS = {9, 26, 40};
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+    private static final List<CharacterSetECI> ECI_CHARSETS = eciCharsets();
+
+    private final String contents;
+    private final int[] codePoints;
+    private final int[] charIndexes;
+    private final List<Layout> layouts = new ArrayList<>(RANGE_LAST_VERSIONS.length);
+
+    /**
+     * Plans the segments of a text for the three version ranges.
+     *
+     * @param contents the text, not empty
+     */
+    SegmentPlan(String contents) {
+        this.contents = contents;
+        codePoints = contents.codePoints().toArray();
+        charIndexes = new int[codePoints.length + 1];
+        for (int i = 0; i < codePoints.length; i++) {
+            charIndexes[i + 1] = charIndexes[i] + Character.charCount(codePoints[i]);
+        }
+        List<Encoding> encodings = encodings();
+        for (int lastVersion : RANGE_LAST_VERSIONS) {
+            Version sample = Version.getVersionForNumber(lastVersion);
+            Layout best = null;
+            for (Encoding encoding : encodings) {
+                int[] byteLengths = encoding.byteLengths();
+                List<Segment> segments = split(segments(sample, byteLengths), sample, byteLengths);
+                Layout layout =
+                        new Layout(
+                                encoding.charset(),
+                                encoding.eci(),
+                                byteLengths,
+                                segments,
+                                size(segments, sample, byteLengths, encoding.eci()));
+                if (best == null || layout.size() < best.size()) {
+                    best = layout;
+                }
+            }
+            layouts.add(best);
+        }
+    }
+
+    @Override
+    public Version version(ErrorCorrectionLevel level) throws WriterException {
+        int first = 1;
+        for (int range = 0; range < RANGE_LAST_VERSIONS.length; range++) {
+            int bytes = (layouts.get(range).size() + Byte.SIZE - 1) / Byte.SIZE;
+            for (int number = first; number <= RANGE_LAST_VERSIONS[range]; number++) {
+                Version version = Version.getVersionForNumber(number);
+                int capacity =
+                        version.getTotalCodewords()
+                                - version.getECBlocksForLevel(level).getTotalECCodewords();
+                if (capacity >= bytes) {
+                    return version;
+                }
+            }
+            first = RANGE_LAST_VERSIONS[range] + 1;
+        }
+        throw new WriterException("Data too big");
+    }
+
+    @Override
+    public int size(Version version) {
+        return layouts.get(rangeOf(version)).size();
+    }
+
+    @Override
+    public BitArray bits(Version version) {
+        Layout layout = layouts.get(rangeOf(version));
+        BitArray bits = new BitArray();
+        if (layout.eci() != null
+                && layout.segments().stream().anyMatch(s -> s.mode() == Mode.BYTE)) {
+            bits.appendBits(Mode.ECI.getBits(), MODE_BITS);
+            bits.appendBits(layout.eci().getValue(), ECI_VALUE_BITS);
+        }
+        for (Segment segment : layout.segments()) {
+            bits.appendBits(segment.mode().getBits(), MODE_BITS);
+            bits.appendBits(
+                    count(segment, layout.byteLengths()),
+                    segment.mode().getCharacterCountBits(version));
+            String text =
+                    contents.substring(charIndexes[segment.start()], charIndexes[segment.end()]);
+            if (segment.mode() == Mode.BYTE) {
+                for (byte b : text.getBytes(layout.charset())) {
+                    bits.appendBits(b, Byte.SIZE);
+                }
+            } else {
+                QrEncoder.appendData(text, segment.mode(), bits);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the character sets worth planning: US-ASCII without ECI for ASCII text, otherwise the
+     * ECI character sets able to encode the text, minus those whose byte length is never smaller
+     * than another's for any character, which cannot give a shorter plan. A single-byte character
+     * set holding the whole text ends the search, since nothing is shorter.
+     *
+     * @return the candidate encodings
+     */
+    private List<Encoding> encodings() {
+        List<Encoding> encodings = new ArrayList<>();
+        if (Arrays.stream(codePoints).allMatch(c -> c <= MAX_ASCII)) {
+            int[] ones = new int[codePoints.length];
+            Arrays.fill(ones, 1);
+            encodings.add(new Encoding(StandardCharsets.US_ASCII, null, ones));
+            return encodings;
+        }
+        for (CharacterSetECI eci : ECI_CHARSETS) {
+            Charset charset = eci.getCharset();
+            int[] lengths =
+                    charset.newEncoder().canEncode(contents) ? byteLengths(charset) : new int[0];
+            if (lengths.length > 0
+                    && encodings.stream().noneMatch(e -> dominates(e.byteLengths(), lengths))) {
+                encodings.removeIf(e -> dominates(lengths, e.byteLengths()));
+                encodings.add(new Encoding(charset, eci, lengths));
+            }
+            if (lengths.length > 0 && Arrays.stream(lengths).allMatch(length -> length == 1)) {
+                return encodings;
+            }
+        }
+        return encodings;
+    }
+
+    /**
+     * Tells whether an encoding is at least as short as another for every character.
+     *
+     * @param shorter the candidate shorter lengths
+     * @param longer the other lengths
+     * @return {@code true} if no length of {@code shorter} exceeds its counterpart
+     */
+    private static boolean dominates(int[] shorter, int[] longer) {
+        for (int i = 0; i < shorter.length; i++) {
+            if (shorter[i] > longer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ECI designators whose character set this runtime provides, one per character set.
+     *
+     * @return the designators, ISO-8859-1 and UTF-8 first as the most widely decoded, then in
+     *     ZXing's declaration order
+     */
+    private static List<CharacterSetECI> eciCharsets() {
+        List<CharacterSetECI> available = new ArrayList<>();
+        Set<Charset> charsets = new HashSet<>();
+        List<CharacterSetECI> ordered = new ArrayList<>(List.of(CharacterSetECI.values()));
+        ordered.removeAll(List.of(CharacterSetECI.ISO8859_1, CharacterSetECI.UTF8));
+        ordered.addAll(0, List.of(CharacterSetECI.ISO8859_1, CharacterSetECI.UTF8));
+        for (CharacterSetECI eci : ordered) {
+            try {
+                Charset charset = eci.getCharset();
+                if (charset.canEncode() && charsets.add(charset)) {
+                    available.add(eci);
+                }
+            } catch (UnsupportedCharsetException missing) {
+                // Optional character sets such as ISO-8859-10 may be absent from the runtime.
+            }
+        }
+        return List.copyOf(available);
+    }
+
+    /**
+     * Returns the encoded length of each code point in a character set.
+     *
+     * @param charset the character set
+     * @return the lengths, or an empty array if they do not add up to the length of the whole text,
+     *     as with stateful encodings
+     */
+    private int[] byteLengths(Charset charset) {
+        int[] lengths = new int[codePoints.length];
+        int asciiLength = "a".getBytes(charset).length;
+        int total = 0;
+        for (int i = 0; i < codePoints.length; i++) {
+            lengths[i] =
+                    codePoints[i] <= MAX_ASCII
+                            ? asciiLength
+                            : new String(Character.toChars(codePoints[i])).getBytes(charset).length;
+            total += lengths[i];
+        }
+        return total == contents.getBytes(charset).length ? lengths : new int[0];
+    }
+
+    /**
+     * Returns the modes chosen for a version range, as one segment per run of equal modes.
+     *
+     * @param version a version of the range, for the character count field lengths
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @return the segments, in text order
+     */
+    private List<Segment> segments(Version version, int[] byteLengths) {
+        int[] modes = modes(version, byteLengths);
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= modes.length; i++) {
+            if (i == modes.length || modes[i] != modes[start]) {
+                segments.add(new Segment(MODES[modes[start]], start, i));
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Chooses the mode of each code point by dynamic programming: for each mode, the cheapest way
+     * to encode the text so far with a segment of that mode open, then a backward walk from the
+     * cheapest final state.
+     *
+     * @param version a version of the range, for the character count field lengths
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @return the mode index of each code point
+     */
+    private int[] modes(Version version, int[] byteLengths) {
+        int n = codePoints.length;
+        int[] heads = new int[MODES.length];
+        for (int m = 0; m < MODES.length; m++) {
+            heads[m] = (MODE_BITS + MODES[m].getCharacterCountBits(version)) * SIXTHS;
+        }
+        byte[][] previousModes = new byte[n][MODES.length];
+        int[] open = heads.clone();
+        int[] extended = new int[MODES.length];
+        for (int i = 0; i < n; i++) {
+            for (int m = 0; m < MODES.length; m++) {
+                int cost = sixths(m, i, byteLengths);
+                extended[m] = cost == UNREACHABLE ? UNREACHABLE : open[m] + cost;
+            }
+            if (i < n - 1) {
+                switchModes(extended, heads, open, previousModes[i + 1]);
+            }
+        }
+        int last = 0;
+        for (int m = 1; m < MODES.length; m++) {
+            if (roundUp(extended[m]) < roundUp(extended[last])) {
+                last = m;
+            }
+        }
+        int[] modes = new int[n];
+        modes[n - 1] = last;
+        for (int i = n - 1; i > 0; i--) {
+            modes[i - 1] = previousModes[i][modes[i]];
+        }
+        return modes;
+    }
+
+    /**
+     * Computes, for each mode, the cheapest state with a segment of that mode open before the next
+     * code point: either the current segment goes on, or another one ends and a new one starts.
+     *
+     * @param extended the cost of each state after the current code point
+     * @param heads the mode indicator and character count cost of each mode
+     * @param open receives the cost of each state before the next code point
+     * @param previousModes receives the mode of the current code point in each state
+     */
+    private static void switchModes(int[] extended, int[] heads, int[] open, byte[] previousModes) {
+        for (int m = 0; m < MODES.length; m++) {
+            open[m] = extended[m];
+            previousModes[m] = (byte) m;
+            for (int k = 0; k < MODES.length; k++) {
+                int switched = roundUp(extended[k]) + heads[m];
+                if (k != m && switched < open[m]) {
+                    open[m] = switched;
+                    previousModes[m] = (byte) k;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cost of a character in a mode.
+     *
+     * @param mode the mode index
+     * @param index the code point index
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @return the cost in sixths of a bit, or {@link #UNREACHABLE} if the mode cannot hold it
+     */
+    private int sixths(int mode, int index, int[] byteLengths) {
+        int codePoint = codePoints[index];
+        if (mode == BYTE) {
+            return byteLengths[index] * Byte.SIZE * SIXTHS;
+        }
+        if (codePoint >= '0' && codePoint <= '9') {
+            return mode == 0 ? NUMERIC_SIXTHS : ALPHANUMERIC_SIXTHS;
+        }
+        return mode == 1 && codePoint <= MAX_ASCII && QrEncoder.ALPHANUMERIC.indexOf(codePoint) >= 0
+                ? ALPHANUMERIC_SIXTHS
+                : UNREACHABLE;
+    }
+
+    /**
+     * Splits the segments whose character count overflows the count field of their range.
+     *
+     * @param segments the segments
+     * @param version a version of the range, for the character count field lengths
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @return the segments, each within its count limit
+     */
+    private static List<Segment> split(List<Segment> segments, Version version, int[] byteLengths) {
+        List<Segment> result = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            int limit = (1 << segment.mode().getCharacterCountBits(version)) - 1;
+            int start = segment.start();
+            int units = 0;
+            for (int i = segment.start(); i < segment.end(); i++) {
+                int length = segment.mode() == Mode.BYTE ? byteLengths[i] : 1;
+                if (units + length > limit) {
+                    result.add(new Segment(segment.mode(), start, i));
+                    start = i;
+                    units = 0;
+                }
+                units += length;
+            }
+            result.add(new Segment(segment.mode(), start, segment.end()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the exact bit count of a plan for a version.
+     *
+     * @param plan the segments
+     * @param version the version, for the character count field lengths
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @param eci the ECI written before byte segments, or {@code null}
+     * @return the number of bits, ECI included
+     */
+    private static int size(
+            List<Segment> plan, Version version, int[] byteLengths, CharacterSetECI eci) {
+        int bits = 0;
+        boolean hasBytes = false;
+        for (Segment segment : plan) {
+            int count = count(segment, byteLengths);
+            bits += MODE_BITS + segment.mode().getCharacterCountBits(version);
+            if (segment.mode() == Mode.NUMERIC) {
+                bits += QrEncoder.numericBits(count);
+            } else if (segment.mode() == Mode.ALPHANUMERIC) {
+                bits += QrEncoder.alphanumericBits(count);
+            } else {
+                bits += count * Byte.SIZE;
+                hasBytes = true;
+            }
+        }
+        return hasBytes && eci != null ? bits + MODE_BITS + ECI_VALUE_BITS : bits;
+    }
+
+    /**
+     * Returns the character count written in a segment header: bytes in byte mode, characters
+     * otherwise.
+     *
+     * @param segment the segment
+     * @param byteLengths the encoded length of each code point in byte mode
+     * @return the count
+     */
+    private static int count(Segment segment, int[] byteLengths) {
+        if (segment.mode() != Mode.BYTE) {
+            return segment.end() - segment.start();
+        }
+        int bytes = 0;
+        for (int i = segment.start(); i < segment.end(); i++) {
+            bytes += byteLengths[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the index of the version range holding a version.
+     *
+     * @param version the version
+     * @return 0, 1 or 2
+     */
+    private static int rangeOf(Version version) {
+        int range = 0;
+        while (version.getVersionNumber() > RANGE_LAST_VERSIONS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    /**
+     * Rounds a cost in sixths of a bit up to a whole number of bits.
+     *
+     * @param sixths the cost
+     * @return the rounded cost, in sixths
+     */
+    private static int roundUp(int sixths) {
+        return sixths >= UNREACHABLE ? UNREACHABLE : (sixths + SIXTHS - 1) / SIXTHS * SIXTHS;
+    }
+
+    /**
+     * A run of code points encoded in one mode.
+     *
+     * @param mode the segment mode
+     * @param start the first code point index
+     * @param end the index after the last code point
+     */
+    private record Segment(Mode mode, int start, int end) {}
+
+    /**
+     * A candidate character set for byte segments.
+     *
+     * @param charset the character set
+     * @param eci its ECI designator, or {@code null} for ASCII
+     * @param byteLengths the encoded length of each code point
+     */
+    private record Encoding(Charset charset, CharacterSetECI eci, int[] byteLengths) {}
+
+    /**
+     * The best plan of a version range.
+     *
+     * @param charset the character set of byte segments
+     * @param eci its ECI designator, or {@code null} for ASCII
+     * @param byteLengths the encoded length of each code point
+     * @param segments the segments
+     * @param size the total number of bits
+     */
+    private record Layout(
+            Charset charset,
+            CharacterSetECI eci,
+            int[] byteLengths,
+            List<Segment> segments,
+            int size) {}
+}
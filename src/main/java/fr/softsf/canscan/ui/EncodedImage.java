@@ -9,25 +9,37 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import javax.imageio.ImageIO;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
-import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 
+import fr.softsf.canscan.model.CapacityEstimate;
 import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.CompactionReport;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.EncodedSymbol;
 import fr.softsf.canscan.model.ModuleContext;
+import fr.softsf.canscan.model.QrSymbolInfo;
+import fr.softsf.canscan.model.RenderedSymbol;
+import fr.softsf.canscan.model.RenderedSymbols;
+import fr.softsf.canscan.model.SymbolType;
+import fr.softsf.canscan.monitoring.DrawFinderPatternsEvent;
+import fr.softsf.canscan.monitoring.DrawLogoEvent;
+import fr.softsf.canscan.monitoring.DrawModulesEvent;
+import fr.softsf.canscan.monitoring.EncodeEvent;
+import fr.softsf.canscan.service.qr.MicroQrEncoder;
+import fr.softsf.canscan.service.qr.QrEncoder;
 import fr.softsf.canscan.util.Checker;
+import fr.softsf.canscan.util.MemoryHelper;
 
 /**
  * Thread-safe singleton to hold a shared QR code {@link BufferedImage}. All access is synchronized
@@ -37,17 +49,14 @@ public class EncodedImage {
 
     private static final double DEFAULT_GAP_BETWEEN_LOGO_AND_MODULES = 0.9;
     private static final String CONFIG = "config";
-    private static final String DRAW_SQUARE_FINDER_PATTERN_AT_PIXEL =
-            "drawSquareFinderPatternAtPixel";
     private static final String BG_COLOR = "bgColor";
-    private static final String DRAW_ROUNDED_FINDER_PATTERN_AT_PIXEL =
-            "drawRoundedFinderPatternAtPixel";
     private static final String SHOULD_SKIP_MODULE = "shouldSkipModule";
     private static final String DRAW_MODULES = "drawModules";
     private static final String MATRIX = "matrix";
     private static final String GENERATE_QR_CODE_IMAGE = "generateQrCodeImage";
-    private static final int AVAILABLE_MEMORY_TO_GENERATE_IMAGE = 50;
     private static final int BYTES_PER_KILOBYTE = 1024;
+    private static final int BASE_DIMENSION = 17;
+    private static final int MODULES_PER_VERSION = 4;
     private BufferedImage qrOriginal;
     private final Object imageLock = new Object();
 
@@ -101,9 +110,9 @@ public class EncodedImage {
     /**
      * Generates a QR code image with optional logo and styling.
      *
-     * <p>Uses ZXing with high error correction to ensure scanability even when a logo is embedded.
-     * Visual properties such as size, colors, margin, and module style are applied from the given
-     * configuration.
+     * <p>The error correction level comes from the configuration; in automatic mode it is the
+     * lowest one that still recovers the modules hidden by the logo area. Visual properties such as
+     * size, colors, margin, and module style are applied from the given configuration.
      *
      * @param data the string to encode in the QR code
      * @param config configuration including size, colors, margin, module style, and optional logo
@@ -114,27 +123,128 @@ public class EncodedImage {
      */
     public BufferedImage generateImage(String data, CommonFields config)
             throws WriterException, IOException {
+        RenderedSymbol symbol = generateSymbol(data, config);
+        return symbol == null ? null : symbol.image();
+    }
+
+    /**
+     * Generates a QR code image as {@link #generateImage} does, along with the description of the
+     * symbol drawn, so that concurrent renders cannot mix them up.
+     *
+     * @param data the string to encode in the QR code
+     * @param config configuration including size, colors, margin, module style, and optional logo
+     * @return the image and its symbol, or {@code null} if an argument is {@code null}
+     * @throws WriterException if encoding the data fails
+     * @throws IOException if reading the logo file fails
+     * @throws OutOfMemoryError if the requested size exceeds available memory
+     */
+    public RenderedSymbol generateSymbol(String data, CommonFields config)
+            throws WriterException, IOException {
         if (Checker.INSTANCE.checkNPE(config, GENERATE_QR_CODE_IMAGE, CONFIG)
                 || Checker.INSTANCE.checkNPE(data, GENERATE_QR_CODE_IMAGE, "data")) {
             return null;
         }
-        final int size = config.size();
-        validateMemoryForImageSize(size);
-        BitMatrix matrix = createMatrix(data, config.margin());
-        if (Checker.INSTANCE.checkNPE(matrix, GENERATE_QR_CODE_IMAGE, MATRIX)) {
-            return null;
+        validateMemoryForImageSize(config.size(), config.size());
+        EncodeEvent encodeEvent = new EncodeEvent();
+        encodeEvent.start();
+        EncodedSymbol symbol = encode(data, config);
+        encodeEvent.finish(config, symbol.matrix().getWidth());
+        return new RenderedSymbol(
+                render(symbol.matrix(), symbol.info().type(), config), symbol.info());
+    }
+
+    /**
+     * Generates the images of the linked symbols a payload needs in structured append mode, styled
+     * as {@link #generateImage} styles one symbol: each at the configured size, with the logo if
+     * any.
+     *
+     * <p>With {@link fr.softsf.canscan.model.EccLevel#AUTO}, the level is chosen by {@link
+     * QrEncoder#selectLinkedLevel} so that every symbol recovers the logo area. Compaction does not
+     * apply: each symbol uses the UTF-8 layout.
+     *
+     * @param data the string to encode
+     * @param config configuration including size, colors, margin, module style, and optional logo
+     * @return the images in sequence order; a single image if the payload fits in one symbol
+     * @throws WriterException if the payload does not fit in 16 symbols
+     * @throws IOException if reading the logo file fails
+     * @throws OutOfMemoryError if the requested size exceeds available memory
+     */
+    public List<BufferedImage> generateLinkedImages(String data, CommonFields config)
+            throws WriterException, IOException {
+        return generateLinkedSymbols(data, config).images();
+    }
+
+    /**
+     * Generates the images of the linked symbols as {@link #generateLinkedImages} does, along with
+     * the description of the largest symbol.
+     *
+     * @param data the string to encode
+     * @param config configuration including size, colors, margin, module style, and optional logo
+     * @return the images in sequence order and the largest symbol
+     * @throws WriterException if the payload does not fit in 16 symbols
+     * @throws IOException if reading the logo file fails
+     * @throws OutOfMemoryError if the requested size exceeds available memory
+     */
+    public RenderedSymbols generateLinkedSymbols(String data, CommonFields config)
+            throws WriterException, IOException {
+        Objects.requireNonNull(data, "data must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        EncodeEvent encodeEvent = new EncodeEvent();
+        encodeEvent.start();
+        ErrorCorrectionLevel level = linkedLevelOf(data, config);
+        List<BitMatrix> matrices = QrEncoder.INSTANCE.encodeLinked(data, level, config.margin());
+        int width = matrices.stream().mapToInt(BitMatrix::getWidth).max().orElseThrow();
+        encodeEvent.finish(config, width);
+        int modules = width - 2 * config.margin();
+        QrSymbolInfo largest =
+                new QrSymbolInfo(
+                        SymbolType.QR,
+                        level,
+                        (modules - BASE_DIMENSION) / MODULES_PER_VERSION,
+                        modules);
+        List<BufferedImage> images = new ArrayList<>(matrices.size());
+        for (BitMatrix matrix : matrices) {
+            images.add(render(matrix, SymbolType.QR, config));
         }
+        return new RenderedSymbols(images, largest);
+    }
+
+    /**
+     * Draws a symbol matrix with the configured style. The image is as wide as the configured size
+     * and as high as the matrix proportions require, so that modules stay square.
+     *
+     * @param matrix the matrix, quiet zone included
+     * @param type the symbol type, which decides the position patterns
+     * @param config configuration including size, colors, margin, module style, and optional logo
+     * @return the image
+     * @throws IOException if reading the logo file fails
+     * @throws OutOfMemoryError if the image cannot be allocated
+     */
+    private BufferedImage render(BitMatrix matrix, SymbolType type, CommonFields config)
+            throws IOException {
+        final int width = config.size();
+        final int height =
+                (int) Math.round((double) width * matrix.getHeight() / matrix.getWidth());
+        validateMemoryForImageSize(width, height);
         BufferedImage qrImage = null;
         Graphics2D g = null;
         try {
-            qrImage = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            qrImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
             g = qrImage.createGraphics();
             g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
-            fillBackground(g, size, config.bgColor());
-            drawModules(g, matrix, config);
-            Objects.requireNonNull(matrix, "Dans generateQrCodeImage matrix ne doit pas être null");
-            drawFinderPatterns(g, matrix.getWidth(), config);
-            drawLogoIfPresent(g, config);
+            fillBackground(g, width, height, config.bgColor());
+            DrawModulesEvent modulesEvent = new DrawModulesEvent();
+            modulesEvent.start();
+            drawModules(g, matrix, type, config);
+            modulesEvent.finish(config, matrix.getWidth());
+            DrawFinderPatternsEvent finderEvent = new DrawFinderPatternsEvent();
+            finderEvent.start();
+            drawFinderPatterns(g, matrix.getWidth(), matrix.getHeight(), type, config);
+            finderEvent.finish(config, matrix.getWidth());
+            DrawLogoEvent logoEvent = new DrawLogoEvent();
+            logoEvent.start();
+            drawLogoIfPresent(g, config, height);
+            logoEvent.finish(config, matrix.getWidth());
         } catch (OutOfMemoryError oom) {
             if (g != null) {
                 g.dispose();
@@ -146,7 +256,10 @@ public class EncodedImage {
                     String.format(
                             "Mémoire insuffisante pour générer une image de %dx%d pixels.%nTaille"
                                     + " estimée %d Mo.%nMémoire disponible %d Mo.",
-                            size, size, estimateImageMemoryMB(size), getAvailableMemoryMB()));
+                            width,
+                            height,
+                            estimateImageMemoryMB(width, height),
+                            MemoryHelper.INSTANCE.getAvailableMemoryMB()));
         } finally {
             if (g != null) {
                 g.dispose();
@@ -156,105 +269,232 @@ public class EncodedImage {
     }
 
     /**
-     * Validates that sufficient memory is available to generate a square image of the given size.
-     * Applies a hard limit of 200M px and ensures a minimum memory margin before allocation.
+     * Validates that sufficient memory is available to generate an image of the given size. Applies
+     * a hard limit of 200M px and ensures a minimum memory margin before allocation.
      *
-     * @param size the width and height of the square image in pixels
+     * @param width the width of the image in pixels
+     * @param height the height of the image in pixels
      * @throws OutOfMemoryError if the image exceeds pixel limits or available memory is
      *     insufficient
      */
-    private void validateMemoryForImageSize(int size) {
+    private void validateMemoryForImageSize(int width, int height) {
         final long MAX_PIXELS = 200_000_000L;
-        long totalPixels = (long) size * size;
+        long totalPixels = (long) width * height;
         if (totalPixels > MAX_PIXELS) {
             throw new OutOfMemoryError(
                     String.format(
                             "%n%nDimension trop grande:%n%dx%d pixels (%,d pixels).%nMaximum"
                                     + " autorisé: %,d pixels.",
-                            size, size, totalPixels, MAX_PIXELS));
+                            width, height, totalPixels, MAX_PIXELS));
         }
-        long estimatedMB = estimateImageMemoryMB(size);
-        long availableMB = getAvailableMemoryMB();
+        long estimatedMB = estimateImageMemoryMB(width, height);
+        long availableMB = MemoryHelper.INSTANCE.getAvailableMemoryMB();
         if (estimatedMB > availableMB) {
             throw new OutOfMemoryError(
                     String.format(
                             "Mémoire insuffisante pour générer une image de %dx%d pixels.%nMémoire"
                                     + " nécessaire %d Mo.%nMémoire disponible %d Mo.%nRéduire la"
                                     + " dimension souhaitée.",
-                            size, size, estimatedMB, availableMB));
+                            width, height, estimatedMB, availableMB));
         }
     }
 
     /**
      * Estimates the memory required to create a BufferedImage.
      *
-     * @param size The width and height of the square image.
+     * @param width The width of the image.
+     * @param height The height of the image.
      * @return Estimated memory in megabytes.
      */
-    private long estimateImageMemoryMB(int size) {
-        long totalPixels = (long) size * size;
+    private long estimateImageMemoryMB(int width, int height) {
+        long totalPixels = (long) width * height;
         long bytesRequired = totalPixels * 4;
         return bytesRequired / (BYTES_PER_KILOBYTE * BYTES_PER_KILOBYTE);
     }
 
     /**
-     * Gets the available memory in the JVM with safety margin for image generation.
+     * Creates a QR code matrix for the given text: UTF-8, the configured error correction level and
+     * quiet zone, bit for bit what ZXing's {@code MultiFormatWriter} produces with these hints, or
+     * the compact layout of minimal segments and smallest character set when configured.
      *
-     * @return Available memory in megabytes, minus the reserved safety margin. Returns 0 if not
-     *     enough memory is available.
+     * <p>With {@link fr.softsf.canscan.model.EccLevel#AUTO}, the level is chosen by {@link
+     * QrEncoder#selectLevel} from the logo ratio. When {@link CommonFields#microQr()} is set and no
+     * logo is embedded, the smallest fitting Micro QR symbol is used instead, at the fixed level or
+     * M in automatic mode. Used as-is by vector exports, which draw the modules themselves; {@link
+     * #encodeSymbol} also describes the symbol.
+     *
+     * @param text The string to encode in the QR code.
+     * @param config The configuration providing the margin, error correction and logo ratio.
+     * @return A BitMatrix representing the encoded QR code.
+     * @throws WriterException If encoding fails.
      */
-    private long getAvailableMemoryMB() {
-        Runtime runtime = Runtime.getRuntime();
-        long maxMemory = runtime.maxMemory();
-        long allocatedMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = allocatedMemory - freeMemory;
-        long availableMemory = maxMemory - usedMemory;
-        long safeAvailableMemory =
-                availableMemory
-                        - (AVAILABLE_MEMORY_TO_GENERATE_IMAGE
-                                * BYTES_PER_KILOBYTE
-                                * BYTES_PER_KILOBYTE);
-        return Math.max(0, safeAvailableMemory) / (BYTES_PER_KILOBYTE * BYTES_PER_KILOBYTE);
+    public BitMatrix createMatrix(String text, CommonFields config) throws WriterException {
+        if (Checker.INSTANCE.checkNPE(text, "createMatrix", "text")
+                || Checker.INSTANCE.checkNPE(config, "createMatrix", CONFIG)) {
+            return null;
+        }
+        return encode(text, config).matrix();
     }
 
     /**
-     * Creates a QR code matrix for the given text.
+     * Creates the matrix {@link #createMatrix} creates, along with the description of the symbol.
      *
-     * @param text The string to encode in the QR code.
-     * @param margin The outer margin of the QR code in modules.
-     * @return A BitMatrix representing the encoded QR code.
-     * @throws WriterException If encoding fails.
+     * @param text the string to encode
+     * @param config the configuration providing the margin, error correction and logo ratio
+     * @return the matrix and its symbol
+     * @throws WriterException if encoding fails
+     */
+    public EncodedSymbol encodeSymbol(String text, CommonFields config) throws WriterException {
+        Objects.requireNonNull(text, "text must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return encode(text, config);
+    }
+
+    /**
+     * Encodes a text into the symbol {@link #createMatrix} describes, along with its type.
+     *
+     * @param text the string to encode
+     * @param config the configuration providing the margin, error correction and logo ratio
+     * @return the matrix and its description
+     * @throws WriterException if encoding fails
+     */
+    private EncodedSymbol encode(String text, CommonFields config) throws WriterException {
+        if (config.microQr() && config.logoFile() == null) {
+            EccLevel ecc = config.eccLevel();
+            ErrorCorrectionLevel level =
+                    ecc == EccLevel.AUTO ? ErrorCorrectionLevel.M : ecc.level();
+            int version = MicroQrEncoder.INSTANCE.version(text, level);
+            if (version > 0) {
+                return new EncodedSymbol(
+                        MicroQrEncoder.INSTANCE.encode(text, level, config.margin()),
+                        new QrSymbolInfo(
+                                SymbolType.MICRO_QR,
+                                level,
+                                version,
+                                MicroQrEncoder.dimension(version)));
+            }
+        }
+        ErrorCorrectionLevel level = levelOf(text, config, config.compact());
+        BitMatrix matrix =
+                QrEncoder.INSTANCE.encode(text, level, config.margin(), config.compact());
+        int modules = matrix.getWidth() - 2 * config.margin();
+        return new EncodedSymbol(
+                matrix,
+                new QrSymbolInfo(
+                        SymbolType.QR,
+                        level,
+                        (modules - BASE_DIMENSION) / MODULES_PER_VERSION,
+                        modules));
+    }
+
+    /**
+     * Resolves the error correction level of a configuration for linked symbols.
+     *
+     * @param text the payload
+     * @param config the configuration
+     * @return the fixed level, or the automatic choice for the logo ratio
+     * @throws WriterException if the payload does not fit in 16 symbols at any level
      */
-    private BitMatrix createMatrix(String text, int margin) throws WriterException {
-        if (Checker.INSTANCE.checkNPE(text, "createMatrix", "text")) {
+    private ErrorCorrectionLevel linkedLevelOf(String text, CommonFields config)
+            throws WriterException {
+        ErrorCorrectionLevel level = config.eccLevel().level();
+        return level != null
+                ? level
+                : QrEncoder.INSTANCE.selectLinkedLevel(text, config.imageRatio(), config.margin());
+    }
+
+    /**
+     * Compares the symbols a payload needs with and without compaction, without rendering them.
+     *
+     * <p>Each layout gets its own level when the configuration asks for automatic correction.
+     *
+     * @param text the payload
+     * @param config the configuration providing the margin, error correction and logo ratio
+     * @return both symbols, side by side
+     */
+    public CompactionReport compareLayouts(String text, CommonFields config) {
+        Objects.requireNonNull(text, "text must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        return new CompactionReport(describe(text, config, false), describe(text, config, true));
+    }
+
+    /**
+     * Estimates the space a payload takes with a configuration, without encoding it.
+     *
+     * <p>In automatic correction mode, the level is the one {@link #createMatrix} or {@link
+     * #generateLinkedImages} would use, or L when the payload is too long for any level.
+     *
+     * @param text the payload, not empty
+     * @param config the configuration providing the error correction, logo ratio and compaction
+     * @param linked {@code true} to estimate the linked symbols of a payload too long for one
+     * @return the estimate, of the largest symbol when linked
+     */
+    public CapacityEstimate estimateCapacity(String text, CommonFields config, boolean linked) {
+        Objects.requireNonNull(text, "text must not be null");
+        Objects.requireNonNull(config, "config must not be null");
+        ErrorCorrectionLevel level;
+        try {
+            level = linked ? linkedLevelOf(text, config) : levelOf(text, config, config.compact());
+        } catch (WriterException tooBig) {
+            level = ErrorCorrectionLevel.L;
+        }
+        return linked
+                ? QrEncoder.INSTANCE.estimateLinked(text, level)
+                : QrEncoder.INSTANCE.estimate(text, level, config.compact());
+    }
+
+    /**
+     * Describes the symbol of a payload for one data layout.
+     *
+     * @param text the payload
+     * @param config the configuration
+     * @param compact {@code true} for the compact layout
+     * @return the symbol, or {@code null} if the payload does not fit
+     */
+    private QrSymbolInfo describe(String text, CommonFields config, boolean compact) {
+        try {
+            ErrorCorrectionLevel level = levelOf(text, config, compact);
+            int version = QrEncoder.INSTANCE.version(text, level, compact);
+            return new QrSymbolInfo(
+                    SymbolType.QR, level, version, BASE_DIMENSION + MODULES_PER_VERSION * version);
+        } catch (WriterException tooBig) {
             return null;
         }
-        Map<EncodeHintType, Object> hints =
-                Map.of(
-                        EncodeHintType.CHARACTER_SET,
-                        "UTF-8",
-                        EncodeHintType.ERROR_CORRECTION,
-                        ErrorCorrectionLevel.H,
-                        EncodeHintType.MARGIN,
-                        margin);
-        return new MultiFormatWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    /**
+     * Resolves the error correction level of a configuration.
+     *
+     * @param text the payload
+     * @param config the configuration
+     * @param compact {@code true} for the compact layout
+     * @return the fixed level, or the automatic choice for the logo ratio
+     * @throws WriterException if the payload does not fit at any level
+     */
+    private ErrorCorrectionLevel levelOf(String text, CommonFields config, boolean compact)
+            throws WriterException {
+        ErrorCorrectionLevel level = config.eccLevel().level();
+        return level != null
+                ? level
+                : QrEncoder.INSTANCE.selectLevel(
+                        text, config.imageRatio(), config.margin(), compact);
     }
 
     /**
      * Fills the entire QR code area with the specified background color.
      *
      * @param g The graphics context used for drawing.
-     * @param size The width and height of the QR code area in pixels.
+     * @param width The width of the QR code area in pixels.
+     * @param height The height of the QR code area in pixels.
      * @param bgColor The background color to fill.
      */
-    private void fillBackground(Graphics2D g, int size, Color bgColor) {
+    private void fillBackground(Graphics2D g, int width, int height, Color bgColor) {
         if (Checker.INSTANCE.checkNPE(g, "fillBackground", "g")
                 || Checker.INSTANCE.checkNPE(bgColor, "fillBackground", BG_COLOR)) {
             return;
         }
         g.setColor(bgColor);
-        g.fillRect(0, 0, size, size);
+        g.fillRect(0, 0, width, height);
     }
 
     /**
@@ -265,10 +505,11 @@ public class EncodedImage {
      *
      * @param g the graphics context used for drawing
      * @param matrix the QR code bit matrix representing module positions
+     * @param type the symbol type, which decides the position patterns and logo area
      * @param config the QR code configuration including size, colors, module shape, margin, and
      *     logo ratio
      */
-    private void drawModules(Graphics2D g, BitMatrix matrix, CommonFields config) {
+    private void drawModules(Graphics2D g, BitMatrix matrix, SymbolType type, CommonFields config) {
         if (Checker.INSTANCE.checkNPE(g, DRAW_MODULES, "g")
                 || Checker.INSTANCE.checkNPE(matrix, DRAW_MODULES, MATRIX)
                 || Checker.INSTANCE.checkNPE(config, DRAW_MODULES, CONFIG)) {
@@ -276,21 +517,27 @@ public class EncodedImage {
         }
         int matrixWidth = matrix.getWidth();
         int matrixHeight = matrix.getHeight();
-        double moduleSizeX = (double) config.size() / matrixWidth;
-        double moduleSizeY = (double) config.size() / matrixHeight;
-        int whiteBoxSize = (int) (config.size() * config.imageRatio());
+        double moduleSize = (double) config.size() / matrixWidth;
+        int whiteBoxSize =
+                type == SymbolType.MICRO_QR ? 0 : (int) (config.size() * config.imageRatio());
         int whiteBoxX = (config.size() - whiteBoxSize) / 2;
-        int whiteBoxY = (config.size() - whiteBoxSize) / 2;
+        int whiteBoxY = ((int) Math.round(moduleSize * matrixHeight) - whiteBoxSize) / 2;
         g.setColor(config.qrColor());
         ModuleContext ctx =
                 new ModuleContext(
-                        config, matrixWidth, matrixHeight, whiteBoxX, whiteBoxY, whiteBoxSize);
+                        config,
+                        type,
+                        matrixWidth,
+                        matrixHeight,
+                        whiteBoxX,
+                        whiteBoxY,
+                        whiteBoxSize);
         for (int y = 0; y < matrixHeight; y++) {
             for (int x = 0; x < matrixWidth; x++) {
                 if (shouldSkipModule(x, y, matrix, ctx)) {
                     continue;
                 }
-                drawModule(g, x, y, moduleSizeX, moduleSizeY, config);
+                drawModule(g, x, y, moduleSize, moduleSize, config);
             }
         }
     }
@@ -314,17 +561,15 @@ public class EncodedImage {
             return true;
         }
         if (matrix.get(x, y)) {
-            double scaleX = (double) ctx.config().size() / ctx.matrixWidth();
-            double scaleY = (double) ctx.config().size() / ctx.matrixHeight();
-            double cx = x * scaleX;
-            double cy = y * scaleY;
-            if (isInPositionPattern(
-                    x, y, ctx.matrixWidth(), ctx.matrixHeight(), ctx.config().margin())) {
+            double scale = (double) ctx.config().size() / ctx.matrixWidth();
+            double cx = x * scale;
+            double cy = y * scale;
+            if (isInPositionPattern(x, y, ctx)) {
                 return true;
             }
-            return cx + scaleX > ctx.whiteBoxX()
+            return cx + scale > ctx.whiteBoxX()
                     && cx < ctx.whiteBoxX() + ctx.whiteBoxSize()
-                    && cy + scaleY > ctx.whiteBoxY()
+                    && cy + scale > ctx.whiteBoxY()
                     && cy < ctx.whiteBoxY() + ctx.whiteBoxSize();
         }
         return true;
@@ -366,116 +611,80 @@ public class EncodedImage {
     }
 
     /**
-     * Determines whether the given coordinates fall within any of the three QR code position
-     * patterns.
+     * Determines whether the given coordinates fall within any of the QR code position patterns:
+     * three for a regular symbol, the top-left one for a Micro QR symbol.
      *
      * @param x X-coordinate in the QR matrix.
      * @param y Y-coordinate in the QR matrix.
-     * @param matrixWidth Width of the QR matrix.
-     * @param matrixHeight Height of the QR matrix.
-     * @param margin QR code margin in modules.
+     * @param ctx Context providing the symbol type, the matrix dimensions and the margin.
      * @return {@code true} if the coordinate is inside a position pattern; {@code false} otherwise.
      */
-    private boolean isInPositionPattern(
-            int x, int y, int matrixWidth, int matrixHeight, int margin) {
-        return isInTopLeftPattern(x, y, margin)
-                || isInTopRightPattern(x, y, matrixWidth, margin)
-                || isInBottomLeftPattern(x, y, matrixHeight, margin);
-    }
-
-    /**
-     * Checks if coordinates are within the top-left position pattern.
-     *
-     * @param x X-coordinate
-     * @param y Y-coordinate
-     * @param margin QR code margin
-     * @return {@code true} if inside top-left pattern; {@code false} otherwise
-     */
-    private boolean isInTopLeftPattern(int x, int y, int margin) {
-        return x >= margin && x < margin + 7 && y >= margin && y < margin + 7;
+    private boolean isInPositionPattern(int x, int y, ModuleContext ctx) {
+        int margin = ctx.config().margin();
+        return isInPattern(x, y, margin, margin)
+                || ctx.type() == SymbolType.QR
+                        && (isInPattern(x, y, ctx.matrixWidth() - margin - 7, margin)
+                                || isInPattern(x, y, margin, ctx.matrixHeight() - margin - 7));
     }
 
     /**
-     * Checks if coordinates are within the top-right position pattern.
+     * Checks if coordinates are within the 7×7 position pattern starting at the given module.
      *
      * @param x X-coordinate
      * @param y Y-coordinate
-     * @param matrixWidth Width of the QR matrix
-     * @param margin QR code margin
-     * @return {@code true} if inside top-right pattern; {@code false} otherwise
+     * @param left X-coordinate of the pattern's first column
+     * @param top Y-coordinate of the pattern's first row
+     * @return {@code true} if inside the pattern; {@code false} otherwise
      */
-    private boolean isInTopRightPattern(int x, int y, int matrixWidth, int margin) {
-        return x >= matrixWidth - margin - 7
-                && x < matrixWidth - margin
-                && y >= margin
-                && y < margin + 7;
+    private boolean isInPattern(int x, int y, int left, int top) {
+        return x >= left && x < left + 7 && y >= top && y < top + 7;
     }
 
     /**
-     * Checks if coordinates are within the bottom-left position pattern.
+     * Renders the finder patterns of a regular, square QR code using the specified style.
      *
-     * @param x X-coordinate
-     * @param y Y-coordinate
-     * @param matrixHeight Height of the QR matrix
-     * @param margin QR code margin
-     * @return {@code true} if inside bottom-left pattern; {@code false} otherwise
+     * @param g The graphics context for rendering.
+     * @param matrixWidth Width of the QR code matrix.
+     * @param config Configuration containing size, colors, module shape, and margin.
      */
-    private boolean isInBottomLeftPattern(int x, int y, int matrixHeight, int margin) {
-        return x >= margin
-                && x < margin + 7
-                && y >= matrixHeight - margin - 7
-                && y < matrixHeight - margin;
+    public void drawFinderPatterns(Graphics2D g, int matrixWidth, CommonFields config) {
+        drawFinderPatterns(g, matrixWidth, matrixWidth, SymbolType.QR, config);
     }
 
     /**
-     * Renders the three QR code finder patterns at the corners using the specified style.
+     * Renders the finder patterns using the specified style: at three corners, or only at the
+     * top-left one for a Micro QR symbol. Modules are square, as wide as the configured size
+     * divided by the matrix width.
      *
      * @param g The graphics context for rendering.
-     * @param matrixWidth Width of the QR code matrix.
+     * @param matrixWidth Width of the matrix, quiet zone included.
+     * @param matrixHeight Height of the matrix, quiet zone included.
+     * @param type The symbol type.
      * @param config Configuration containing size, colors, module shape, and margin.
      */
-    public void drawFinderPatterns(Graphics2D g, int matrixWidth, CommonFields config) {
+    private void drawFinderPatterns(
+            Graphics2D g, int matrixWidth, int matrixHeight, SymbolType type, CommonFields config) {
         if (Checker.INSTANCE.checkNPE(g, "drawFinderPatterns", "g")
                 || Checker.INSTANCE.checkNPE(config, "drawFinderPatterns", CONFIG)) {
             return;
         }
-        double moduleSizeX = (double) config.size() / matrixWidth;
-        double marginPixels = config.margin() * moduleSizeX;
-        double diameter = 7 * moduleSizeX;
-        if (config.roundedModules()) {
-            drawRoundedFinderPatternAtPixel(
-                    g, marginPixels, marginPixels, diameter, config.qrColor(), config.bgColor());
-            drawRoundedFinderPatternAtPixel(
-                    g,
-                    marginPixels,
-                    config.size() - marginPixels - diameter,
-                    diameter,
-                    config.qrColor(),
-                    config.bgColor());
-            drawRoundedFinderPatternAtPixel(
-                    g,
-                    config.size() - marginPixels - diameter,
-                    marginPixels,
-                    diameter,
-                    config.qrColor(),
-                    config.bgColor());
-        } else {
-            drawSquareFinderPatternAtPixel(
-                    g, marginPixels, marginPixels, diameter, config.qrColor(), config.bgColor());
-            drawSquareFinderPatternAtPixel(
-                    g,
-                    marginPixels,
-                    config.size() - marginPixels - diameter,
-                    diameter,
-                    config.qrColor(),
-                    config.bgColor());
-            drawSquareFinderPatternAtPixel(
-                    g,
-                    config.size() - marginPixels - diameter,
-                    marginPixels,
-                    diameter,
-                    config.qrColor(),
-                    config.bgColor());
+        double moduleSize = (double) config.size() / matrixWidth;
+        double near = config.margin() * moduleSize;
+        double diameter = 7 * moduleSize;
+        double right = config.size() - near - diameter;
+        double bottom = moduleSize * matrixHeight - near - diameter;
+        double[][] corners =
+                type == SymbolType.MICRO_QR
+                        ? new double[][] {{near, near}}
+                        : new double[][] {{near, near}, {near, bottom}, {right, near}};
+        for (double[] corner : corners) {
+            if (config.roundedModules()) {
+                FinderPatternUtil.INSTANCE.drawRounded(
+                        g, corner[0], corner[1], diameter, config.qrColor(), config.bgColor());
+            } else {
+                FinderPatternUtil.INSTANCE.drawSquare(
+                        g, corner[0], corner[1], diameter, config.qrColor(), config.bgColor());
+            }
         }
     }
 
@@ -490,6 +699,19 @@ public class EncodedImage {
      * @throws IOException If reading the logo file fails or the file is not a valid image.
      */
     public void drawLogoIfPresent(Graphics2D g, CommonFields config) throws IOException {
+        drawLogoIfPresent(g, config, config == null ? 0 : config.size());
+    }
+
+    /**
+     * Draws the logo at the center of an image as wide as the configured size.
+     *
+     * @param g The Graphics2D context used for rendering the QR code.
+     * @param config QR code configuration containing size, logo file, and image ratio.
+     * @param height The image height in pixels.
+     * @throws IOException If reading the logo file fails or the file is not a valid image.
+     */
+    private void drawLogoIfPresent(Graphics2D g, CommonFields config, int height)
+            throws IOException {
         if (Checker.INSTANCE.checkNPE(g, "drawLogoIfPresent", "g")
                 || Checker.INSTANCE.checkNPE(config, "drawLogoIfPresent", CONFIG)
                 || config.logoFile() == null
@@ -500,7 +722,7 @@ public class EncodedImage {
         final int size = config.size();
         final int whiteBoxSize = (int) (size * config.imageRatio());
         final int whiteBoxX = (size - whiteBoxSize) / 2;
-        final int whiteBoxY = (size - whiteBoxSize) / 2;
+        final int whiteBoxY = (height - whiteBoxSize) / 2;
         final int logoMaxSize = (int) (whiteBoxSize * DEFAULT_GAP_BETWEEN_LOGO_AND_MODULES);
         final int logoX = whiteBoxX + (whiteBoxSize - logoMaxSize) / 2;
         final int logoY = whiteBoxY + (whiteBoxSize - logoMaxSize) / 2;
@@ -510,11 +732,10 @@ public class EncodedImage {
         try (InputStream in = new FileInputStream(config.logoFile())) {
             logo = ImageIO.read(in);
             if (logo == null) {
-                MyPopup.INSTANCE.showDialog(
-                        "Ce format de logo n'est pas pris en charge (seulement PNG, JPG, ou JPEG).",
-                        "Choisir un logo au format PNG, JPG, ou JPEG",
-                        "Information");
-                return;
+                throw new IOException(
+                        "Ce format de logo n'est pas pris en charge (seulement PNG, JPG, ou JPEG) :"
+                                + " "
+                                + config.logoFile().getName());
             }
             scaledLogo = new BufferedImage(logoMaxSize, logoMaxSize, BufferedImage.TYPE_INT_ARGB);
             gLogo = scaledLogo.createGraphics();
@@ -535,50 +756,6 @@ public class EncodedImage {
         }
     }
 
-    /**
-     * Draws a QR code finder pattern with rounded corners at the specified pixel coordinates.
-     *
-     * @param g Graphics2D context to draw on.
-     * @param x X-coordinate of the top-left corner.
-     * @param y Y-coordinate of the top-left corner.
-     * @param diameter Diameter of the finder pattern.
-     * @param qrColor Color of the QR modules.
-     * @param bgColor Background color inside the pattern.
-     */
-    private void drawRoundedFinderPatternAtPixel(
-            Graphics2D g, double x, double y, double diameter, Color qrColor, Color bgColor) {
-        if (Checker.INSTANCE.checkNPE(g, DRAW_ROUNDED_FINDER_PATTERN_AT_PIXEL, "g")
-                || Checker.INSTANCE.checkNPE(
-                        qrColor, DRAW_ROUNDED_FINDER_PATTERN_AT_PIXEL, "qrColor")
-                || Checker.INSTANCE.checkNPE(
-                        bgColor, DRAW_ROUNDED_FINDER_PATTERN_AT_PIXEL, BG_COLOR)) {
-            return;
-        }
-        double arc = diameter / 4.0;
-        g.setColor(qrColor);
-        g.fill(new RoundRectangle2D.Double(x, y, diameter, diameter, arc, arc));
-        double innerMargin = diameter / 7.0;
-        g.setColor(bgColor);
-        g.fill(
-                new RoundRectangle2D.Double(
-                        x + innerMargin,
-                        y + innerMargin,
-                        diameter - 2 * innerMargin,
-                        diameter - 2 * innerMargin,
-                        arc,
-                        arc));
-        double centerMargin = diameter / 7.0 * 2;
-        g.setColor(qrColor);
-        g.fill(
-                new RoundRectangle2D.Double(
-                        x + centerMargin,
-                        y + centerMargin,
-                        diameter - 2 * centerMargin,
-                        diameter - 2 * centerMargin,
-                        arc,
-                        arc));
-    }
-
     /**
      * Draws a standard square QR code finder pattern at the specified pixel coordinates.
      *
@@ -591,29 +768,7 @@ public class EncodedImage {
      */
     public void drawSquareFinderPatternAtPixel(
             Graphics2D g, double x, double y, double diameter, Color qrColor, Color bgColor) {
-        if (Checker.INSTANCE.checkNPE(g, DRAW_SQUARE_FINDER_PATTERN_AT_PIXEL, "g")
-                || Checker.INSTANCE.checkNPE(
-                        qrColor, DRAW_SQUARE_FINDER_PATTERN_AT_PIXEL, "qrColor")
-                || Checker.INSTANCE.checkNPE(
-                        bgColor, DRAW_SQUARE_FINDER_PATTERN_AT_PIXEL, BG_COLOR)) {
-            return;
-        }
-        g.setColor(qrColor);
-        g.fillRect((int) x, (int) y, (int) diameter, (int) diameter);
-        double innerMargin = diameter / 7.0;
-        g.setColor(bgColor);
-        g.fillRect(
-                (int) (x + innerMargin),
-                (int) (y + innerMargin),
-                (int) (diameter - 2 * innerMargin),
-                (int) (diameter - 2 * innerMargin));
-        double centerMargin = diameter / 7.0 * 2;
-        g.setColor(qrColor);
-        g.fillRect(
-                (int) (x + centerMargin),
-                (int) (y + centerMargin),
-                (int) (diameter - 2 * centerMargin),
-                (int) (diameter - 2 * centerMargin));
+        FinderPatternUtil.INSTANCE.drawSquare(g, x, y, diameter, qrColor, bgColor);
     }
 
     /**
@@ -0,0 +1,98 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.ui;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.RoundRectangle2D;
+
+import fr.softsf.canscan.util.Checker;
+
+/** Utility for drawing QR code finder patterns, square or rounded, at pixel coordinates. */
+public enum FinderPatternUtil {
+    INSTANCE;
+
+    private static final String DRAW_ROUNDED = "drawRounded";
+    private static final String DRAW_SQUARE = "drawSquare";
+    private static final String BG_COLOR = "bgColor";
+
+    /**
+     * Draws a QR code finder pattern with rounded corners at the specified pixel coordinates.
+     *
+     * @param g Graphics2D context to draw on.
+     * @param x X-coordinate of the top-left corner.
+     * @param y Y-coordinate of the top-left corner.
+     * @param diameter Diameter of the finder pattern.
+     * @param qrColor Color of the QR modules.
+     * @param bgColor Background color inside the pattern.
+     */
+    public void drawRounded(
+            Graphics2D g, double x, double y, double diameter, Color qrColor, Color bgColor) {
+        if (Checker.INSTANCE.checkNPE(g, DRAW_ROUNDED, "g")
+                || Checker.INSTANCE.checkNPE(qrColor, DRAW_ROUNDED, "qrColor")
+                || Checker.INSTANCE.checkNPE(bgColor, DRAW_ROUNDED, BG_COLOR)) {
+            return;
+        }
+        double arc = diameter / 4.0;
+        g.setColor(qrColor);
+        g.fill(new RoundRectangle2D.Double(x, y, diameter, diameter, arc, arc));
+        double innerMargin = diameter / 7.0;
+        g.setColor(bgColor);
+        g.fill(
+                new RoundRectangle2D.Double(
+                        x + innerMargin,
+                        y + innerMargin,
+                        diameter - 2 * innerMargin,
+                        diameter - 2 * innerMargin,
+                        arc,
+                        arc));
+        double centerMargin = diameter / 7.0 * 2;
+        g.setColor(qrColor);
+        g.fill(
+                new RoundRectangle2D.Double(
+                        x + centerMargin,
+                        y + centerMargin,
+                        diameter - 2 * centerMargin,
+                        diameter - 2 * centerMargin,
+                        arc,
+                        arc));
+    }
+
+    /**
+     * Draws a standard square QR code finder pattern at the specified pixel coordinates.
+     *
+     * @param g Graphics2D context to draw on.
+     * @param x X-coordinate of the top-left corner.
+     * @param y Y-coordinate of the top-left corner.
+     * @param diameter Diameter of the finder pattern.
+     * @param qrColor Color of the QR modules.
+     * @param bgColor Background color inside the pattern.
+     */
+    public void drawSquare(
+            Graphics2D g, double x, double y, double diameter, Color qrColor, Color bgColor) {
+        if (Checker.INSTANCE.checkNPE(g, DRAW_SQUARE, "g")
+                || Checker.INSTANCE.checkNPE(qrColor, DRAW_SQUARE, "qrColor")
+                || Checker.INSTANCE.checkNPE(bgColor, DRAW_SQUARE, BG_COLOR)) {
+            return;
+        }
+        g.setColor(qrColor);
+        g.fillRect((int) x, (int) y, (int) diameter, (int) diameter);
+        double innerMargin = diameter / 7.0;
+        g.setColor(bgColor);
+        g.fillRect(
+                (int) (x + innerMargin),
+                (int) (y + innerMargin),
+                (int) (diameter - 2 * innerMargin),
+                (int) (diameter - 2 * innerMargin));
+        double centerMargin = diameter / 7.0 * 2;
+        g.setColor(qrColor);
+        g.fillRect(
+                (int) (x + centerMargin),
+                (int) (y + centerMargin),
+                (int) (diameter - 2 * centerMargin),
+                (int) (diameter - 2 * centerMargin));
+    }
+}
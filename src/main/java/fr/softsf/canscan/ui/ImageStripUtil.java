@@ -0,0 +1,41 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.ui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/** Utility for laying the images of linked QR codes side by side. */
+public enum ImageStripUtil {
+    INSTANCE;
+
+    /**
+     * Lays images of the same height side by side, in order, into one image.
+     *
+     * @param images the images, at least one
+     * @return the strip, or the only image itself
+     */
+    public BufferedImage join(List<BufferedImage> images) {
+        if (images.size() == 1) {
+            return images.getFirst();
+        }
+        int width = images.stream().mapToInt(BufferedImage::getWidth).sum();
+        BufferedImage strip =
+                new BufferedImage(width, images.getFirst().getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = strip.createGraphics();
+        try {
+            int x = 0;
+            for (BufferedImage image : images) {
+                g.drawImage(image, x, 0, null);
+                x += image.getWidth();
+            }
+        } finally {
+            g.dispose();
+        }
+        return strip;
+    }
+}
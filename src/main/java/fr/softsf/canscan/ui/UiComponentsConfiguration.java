@@ -24,6 +24,7 @@ import javax.swing.JSlider;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.OverlayLayout;
+import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.AbstractDocument;
@@ -38,9 +39,11 @@ import com.github.lgooddatepicker.components.TimePicker;
 
 import fr.softsf.canscan.constant.FloatConstants;
 import fr.softsf.canscan.constant.IntConstants;
+import fr.softsf.canscan.constant.StringConstants;
 import fr.softsf.canscan.model.MecardJFields;
 import fr.softsf.canscan.model.MeetJFields;
 import fr.softsf.canscan.model.NativeImageUiComponents;
+import fr.softsf.canscan.monitoring.PreviewLatencyTracer;
 import fr.softsf.canscan.util.Checker;
 import fr.softsf.canscan.util.FontManager;
 
@@ -257,7 +260,9 @@ public enum UiComponentsConfiguration {
      *
      * <p>The loader is configured with a flat style, no border, transparent background, and set to
      * indeterminate mode. Both the loader and the QR code label are added to a {@link JPanel} using
-     * {@link OverlayLayout}, allowing the loader to appear over the label.
+     * {@link OverlayLayout}, allowing the loader to appear over the label. With {@code
+     * -Dcanscan.latencyOverlay=true}, the input-to-pixels latency percentiles of the {@link
+     * PreviewLatencyTracer} are drawn in the top left corner.
      *
      * @param loader the {@link JProgressBar} used as a loader; must not be null
      * @param qrCodeLabel the {@link JLabel} displaying the QR code; must not be null
@@ -278,11 +283,32 @@ public enum UiComponentsConfiguration {
         JPanel overlayPanel = new JPanel();
         overlayPanel.setLayout(new OverlayLayout(overlayPanel));
         overlayPanel.setOpaque(false);
+        if (Boolean.getBoolean(StringConstants.LATENCY_OVERLAY_PROPERTY.getValue())) {
+            overlayPanel.add(createLatencyOverlay());
+        }
         overlayPanel.add(loader);
         overlayPanel.add(qrCodeLabel);
         return overlayPanel;
     }
 
+    /**
+     * Creates the debug label showing the latency percentiles, refreshed after each measure. It
+     * spans the whole overlay panel, with its text in the top left corner.
+     *
+     * @return the label
+     */
+    private JLabel createLatencyOverlay() {
+        JLabel overlay = new JLabel(PreviewLatencyTracer.INSTANCE.summary());
+        overlay.setVerticalAlignment(SwingConstants.TOP);
+        overlay.setHorizontalAlignment(SwingConstants.LEFT);
+        overlay.setMaximumSize(new Dimension(Short.MAX_VALUE, Short.MAX_VALUE));
+        overlay.setAlignmentX(FloatConstants.OVERLAY_PANEL_ALIGNMENT.getValue());
+        overlay.setAlignmentY(FloatConstants.OVERLAY_PANEL_ALIGNMENT.getValue());
+        PreviewLatencyTracer.INSTANCE.onRecorded(
+                () -> overlay.setText(PreviewLatencyTracer.INSTANCE.summary()));
+        return overlay;
+    }
+
     /**
      * Creates and populates a MECARD input panel with labeled input fields.
      *
@@ -516,7 +542,8 @@ public enum UiComponentsConfiguration {
      * document.
      *
      * <p>The action is invoked asynchronously on the Swing event dispatch thread using {@link
-     * SwingUtilities#invokeLater(Runnable)} to ensure thread safety.
+     * SwingUtilities#invokeLater(Runnable)} to ensure thread safety. Each event is stamped for the
+     * {@link PreviewLatencyTracer}.
      *
      * @param action the {@link Runnable} to execute when the document changes; must not be null
      * @return a {@link DocumentListener} that triggers the action on insert, remove, or change
@@ -527,23 +554,24 @@ public enum UiComponentsConfiguration {
             return null;
         }
         return new DocumentListener() {
-            private void update() {
+            private void update(javax.swing.event.DocumentEvent e) {
+                PreviewLatencyTracer.INSTANCE.stamp(e);
                 SwingUtilities.invokeLater(action);
             }
 
             @Override
             public void insertUpdate(javax.swing.event.DocumentEvent e) {
-                update();
+                update(e);
             }
 
             @Override
             public void removeUpdate(javax.swing.event.DocumentEvent e) {
-                update();
+                update(e);
             }
 
             @Override
             public void changedUpdate(javax.swing.event.DocumentEvent e) {
-                update();
+                update(e);
             }
         };
     }
@@ -12,6 +12,7 @@ import javax.swing.SwingWorker;
 import javax.swing.Timer;
 
 import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
 import fr.softsf.canscan.ui.MyPopup;
 import fr.softsf.canscan.util.Checker;
 
@@ -40,19 +41,23 @@ public abstract class AbstractDynamicWorker<T> {
         this.loader = loader;
     }
 
-    /** Stops and clears the debounce timer. */
+    /** Stops and clears the debounce timer, counting the render it drops if still pending. */
     protected void stopDebounceTimer() {
         if (debounceTimer != null) {
+            if (debounceTimer.isRunning()) {
+                CanScanMetrics.INSTANCE.renderDropped();
+            }
             debounceTimer.stop();
             debounceTimer = null;
         }
     }
 
-    /** Cancels the current SwingWorker and clears its reference safely. */
+    /** Cancels the current SwingWorker, counting it if still running, and clears its reference. */
     protected void cancelWorker() {
         if (worker == null || worker.isDone()) {
             return;
         }
+        CanScanMetrics.INSTANCE.renderCancelled();
         worker.cancel(true);
         try {
             worker.get();
@@ -129,7 +134,7 @@ public abstract class AbstractDynamicWorker<T> {
      * resources, and stops the {@link JProgressBar} indicator. Prepares the worker for a new task
      * or handles failure cleanup.
      */
-    private void resetWorker() {
+    protected void resetWorker() {
         stopLoader();
         stopDebounceTimer();
         cancelWorker();
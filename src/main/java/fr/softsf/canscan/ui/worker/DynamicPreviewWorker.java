@@ -7,6 +7,7 @@ package fr.softsf.canscan.ui.worker;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import java.util.Objects;
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
@@ -15,13 +16,26 @@ import javax.swing.SwingWorker;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.zxing.WriterException;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.softsf.canscan.constant.StringConstants;
+import fr.softsf.canscan.model.CapacityEstimate;
 import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.CompactionReport;
 import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.QrSymbolInfo;
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.model.RenderedSymbol;
+import fr.softsf.canscan.model.RenderedSymbols;
 import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+import fr.softsf.canscan.monitoring.EditEvent;
+import fr.softsf.canscan.monitoring.PreviewLatencyTracer;
+import fr.softsf.canscan.monitoring.RenderCorrelation;
 import fr.softsf.canscan.service.DataBuilderService;
 import fr.softsf.canscan.ui.EncodedImage;
+import fr.softsf.canscan.ui.ImageStripUtil;
 import fr.softsf.canscan.ui.LabelIconUtil;
 import fr.softsf.canscan.ui.MyPopup;
 import fr.softsf.canscan.util.Checker;
@@ -37,6 +51,12 @@ import fr.softsf.canscan.util.Checker;
  * collaborates with a {@link DynamicResizeWorker} instance for dynamic resizing. The optional
  * {@link JProgressBar} can show a wait/progress indicator during background processing.
  *
+ * <p>Free text too long for one symbol can be previewed as a strip of linked symbols, each rendered
+ * at the resolution it is displayed at rather than at the export size.
+ *
+ * <p>The last generated image is kept with the payload and configuration it was built from; a
+ * request identical to it, such as a repeated UI event, reuses it instead of rendering again.
+ *
  * <p>Resources are properly managed: previous images are freed, background workers are cancelled,
  * and the loader is stopped to prevent memory leaks and ensure smooth UI updates.
  */
@@ -47,6 +67,13 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
     private final EncodedImage encodedImage;
     private final DynamicResizeWorker qrCodeResize;
     private final JLabel qrCodeLabel;
+    private final JLabel compactionLabel;
+    private final JLabel capacityLabel;
+    private volatile LastPreview lastPreview;
+    private volatile QrSymbolInfo previewSymbol;
+    private volatile CompactionReport compactionReport;
+    private volatile int linkedSymbolSize;
+    private volatile long correlationId;
 
     /**
      * Constructs the asynchronous QR code preview manager.
@@ -59,6 +86,8 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
      *     resizing; must not be {@code null}
      * @param qrCodeLabel the label where the generated QR code preview will be displayed; must not
      *     be {@code null}
+     * @param compactionLabel the label showing the symbol sizes with and without compaction
+     * @param capacityLabel the label showing the estimated version and used capacity
      * @param loader loader to indicate background processing
      */
     @SuppressFBWarnings("EI_EXPOSE_REP2")
@@ -66,24 +95,75 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
             EncodedImage encodedImage,
             DynamicResizeWorker qrCodeResize,
             JLabel qrCodeLabel,
+            JLabel compactionLabel,
+            JLabel capacityLabel,
             JProgressBar loader) {
         super(loader);
         this.encodedImage = encodedImage;
         this.qrCodeResize = qrCodeResize;
         this.qrCodeLabel = qrCodeLabel;
+        this.compactionLabel = compactionLabel;
+        this.capacityLabel = capacityLabel;
     }
 
     /**
      * Updates and schedules a debounced QR code preview refresh.
      *
-     * <p>Uses the unified workflow: cancel → stop → clear → start new worker.
+     * <p>Uses the unified workflow: cancel → stop → clear → start new worker. The capacity
+     * indicator is updated immediately from the payload's segment lengths; when the payload cannot
+     * fit, the preview is cleared and no encoding is scheduled. When it needs linked symbols, each
+     * is previewed at its share of the available width, but never below one pixel per module.
+     *
+     * <p>Each call is an edit of the form: it gets a new {@link RenderCorrelation} identifier,
+     * carried by the JFR events of the preview and of the resize that follows, and assigned to the
+     * keystrokes the {@link PreviewLatencyTracer} is timing.
      *
      * @param wholeFields the latest QR code configuration
      */
     public void updateQrCodePreview(WholeFields wholeFields) {
         Checker.INSTANCE.checkNPE(wholeFields, "updateQrCodePreview", "wholeFields");
         this.wholeFields = wholeFields;
-        resetAndStartWorker(PREVIEW_DEBOUNCE_DELAY_MS);
+        correlationId = RenderCorrelation.INSTANCE.next();
+        EditEvent.emit(correlationId, String.valueOf(wholeFields.currentMode()));
+        PreviewLatencyTracer.INSTANCE.assign(correlationId);
+        CapacityEstimate estimate = estimateCapacity();
+        capacityLabel.setText(estimate == null ? "" : estimate.text());
+        linkedSymbolSize =
+                estimate == null || estimate.symbols() == 1
+                        ? 0
+                        : Math.max(
+                                wholeFields.availableHeightForQrCode().getAsInt()
+                                        / estimate.symbols(),
+                                estimate.modules() + 2 * wholeFields.margin());
+        if (estimate == null || estimate.fits()) {
+            resetAndStartWorker(PREVIEW_DEBOUNCE_DELAY_MS);
+            return;
+        }
+        resetWorker();
+        qrCodeLabel.setToolTipText(null);
+        compactionLabel.setText("");
+        PreviewLatencyTracer.INSTANCE.complete(correlationId);
+    }
+
+    /**
+     * Estimates the capacity the current payload needs, without encoding it.
+     *
+     * @return the estimate, or {@code null} if there is nothing to encode or the payload cannot be
+     *     built, in which case the worker reports the problem
+     */
+    private CapacityEstimate estimateCapacity() {
+        try {
+            EncodedData qrData =
+                    DataBuilderService.INSTANCE.buildData(wholeFields.currentMode(), wholeFields);
+            if (qrData == null || StringUtils.isBlank(qrData.data())) {
+                return null;
+            }
+            CommonFields config = getCommonFields(wholeFields.size());
+            return encodedImage.estimateCapacity(
+                    qrData.data(), config, wholeFields.activeStructuredAppend().splits());
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     /**
@@ -106,11 +186,17 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
      */
     @Override
     protected SwingWorker<BufferedImage, Void> createWorker() {
+        long edit = correlationId;
         return new SwingWorker<>() {
             @Override
             protected BufferedImage doInBackground() {
                 Thread.currentThread().setName("PreviewWorker");
-                return buildPreviewImage();
+                RenderCorrelation.INSTANCE.bind(edit);
+                try {
+                    return buildPreviewImage();
+                } finally {
+                    RenderCorrelation.INSTANCE.unbind();
+                }
             }
 
             @Override
@@ -123,7 +209,9 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
     /**
      * Updates the preview image after successful worker completion.
      *
-     * <p>If the generated image is valid, it updates the source image and triggers resizing.
+     * <p>If the generated image is valid, it updates the source image, reports the chosen version,
+     * module count and error correction level in the preview tooltip, shows the symbol sizes with
+     * and without compaction, and triggers resizing.
      *
      * @param img the generated QR code preview, or {@code null} if cancelled or invalid
      */
@@ -131,10 +219,17 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
     protected void onWorkerSuccess(BufferedImage img) {
         if (img == null) {
             qrCodeLabel.setIcon(null);
+            qrCodeLabel.setToolTipText(null);
+            compactionLabel.setText("");
+            PreviewLatencyTracer.INSTANCE.complete(correlationId);
             return;
         }
+        QrSymbolInfo symbol = previewSymbol;
+        qrCodeLabel.setToolTipText(symbol == null ? null : symbol.text());
+        CompactionReport report = compactionReport;
+        compactionLabel.setText(report == null ? "" : report.text());
         encodedImage.updateQrOriginal(img);
-        qrCodeResize.updateQrCodeResize(wholeFields);
+        qrCodeResize.updateQrCodeResize(wholeFields, correlationId);
     }
 
     /**
@@ -165,11 +260,7 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
             if (StringUtils.isBlank(data)) {
                 return null;
             }
-            CommonFields config = getCommonFields();
-            if (Thread.currentThread().isInterrupted()) {
-                return null;
-            }
-            return encodedImage.generateImage(data, config);
+            return previewOf(data);
         } catch (Exception ex) {
             if (Thread.currentThread().isInterrupted()) {
                 return null;
@@ -179,23 +270,88 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
         }
     }
 
+    /**
+     * Renders the preview of a payload: one symbol at the configured size, or the strip of linked
+     * symbols, each at its display size.
+     *
+     * @param data the payload
+     * @return the image, or {@code null} if cancelled
+     * @throws WriterException if encoding the payload fails
+     * @throws IOException if reading the logo fails
+     */
+    private BufferedImage previewOf(String data) throws WriterException, IOException {
+        int symbolSize = linkedSymbolSize;
+        CommonFields config = getCommonFields(symbolSize > 0 ? symbolSize : wholeFields.size());
+        if (Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        compactionReport = symbolSize > 0 ? null : encodedImage.compareLayouts(data, config);
+        return generateOrReuse(data, config, symbolSize > 0);
+    }
+
+    /**
+     * Generates the preview image, or returns the last one if it was built from the same payload
+     * and configuration. A generated image counts as a render in {@link CanScanMetrics}, a reused
+     * one as a hit of {@link RenderCache#LAST_PREVIEW}.
+     *
+     * @param data the payload
+     * @param config the render configuration
+     * @param linked {@code true} for the strip of linked symbols
+     * @return the image
+     * @throws WriterException if encoding the payload fails
+     * @throws IOException if reading the logo fails
+     */
+    private BufferedImage generateOrReuse(String data, CommonFields config, boolean linked)
+            throws WriterException, IOException {
+        long logoModified = config.logoFile() == null ? 0 : config.logoFile().lastModified();
+        LastPreview last = lastPreview;
+        boolean reusable = last != null && last.matches(data, config, logoModified, linked);
+        CanScanMetrics.INSTANCE.cacheLookup(RenderCache.LAST_PREVIEW, reusable);
+        if (reusable) {
+            previewSymbol = last.symbol();
+            return last.image();
+        }
+        long allocated = CanScanMetrics.INSTANCE.allocatedBytes();
+        RenderedSymbol rendered;
+        if (linked) {
+            RenderedSymbols symbols = encodedImage.generateLinkedSymbols(data, config);
+            rendered =
+                    new RenderedSymbol(
+                            ImageStripUtil.INSTANCE.join(symbols.images()), symbols.info());
+        } else {
+            rendered = encodedImage.generateSymbol(data, config);
+        }
+        BufferedImage image = rendered == null ? null : rendered.image();
+        if (image != null) {
+            previewSymbol = rendered.info();
+            lastPreview = new LastPreview(data, config, logoModified, linked, image, previewSymbol);
+            CanScanMetrics.INSTANCE.cacheSize(RenderCache.LAST_PREVIEW, 1);
+            CanScanMetrics.INSTANCE.recordRender(allocated);
+        }
+        return image;
+    }
+
     /**
      * Creates and returns the shared QR generation settings derived from the current {@link
      * WholeFields}.
      *
+     * @param size the side of each symbol, in pixels
      * @return a {@link CommonFields} instance populated with size, ratio, colors, margin, and
      *     optional logo
      */
-    private CommonFields getCommonFields() {
+    private CommonFields getCommonFields(int size) {
         File logoFile = wholeFields.logoPath().isBlank() ? null : new File(wholeFields.logoPath());
         return new CommonFields(
                 logoFile,
-                wholeFields.size(),
+                size,
                 wholeFields.ratio(),
                 wholeFields.qrColor(),
                 wholeFields.bgColor(),
                 wholeFields.isRoundedModules(),
-                wholeFields.margin());
+                wholeFields.margin(),
+                wholeFields.eccLevel(),
+                wholeFields.isCompact(),
+                wholeFields.isMicroQr());
     }
 
     /**
@@ -216,4 +372,45 @@ public class DynamicPreviewWorker extends AbstractDynamicWorker<BufferedImage> {
                                 ex.getMessage(),
                                 StringConstants.ERREUR.getValue()));
     }
+
+    /**
+     * The last generated preview and what it was built from.
+     *
+     * <p>The image is never modified: {@link EncodedImage#updateQrOriginal} stores a copy.
+     *
+     * @param data encoded payload
+     * @param config render configuration
+     * @param logoModified last modification time of the logo file, {@code 0} without logo
+     * @param linked {@code true} for a strip of linked symbols
+     * @param image the generated image
+     * @param symbol the encoded symbol, the largest one for a strip
+     */
+    private record LastPreview(
+            String data,
+            CommonFields config,
+            long logoModified,
+            boolean linked,
+            BufferedImage image,
+            QrSymbolInfo symbol) {
+
+        /**
+         * Tells whether a request would produce this preview again.
+         *
+         * @param otherData requested payload
+         * @param otherConfig requested configuration
+         * @param otherLogoModified modification time of the requested logo
+         * @param otherLinked {@code true} for a requested strip of linked symbols
+         * @return {@code true} if the request is identical
+         */
+        boolean matches(
+                String otherData,
+                CommonFields otherConfig,
+                long otherLogoModified,
+                boolean otherLinked) {
+            return data.equals(otherData)
+                    && config.equals(otherConfig)
+                    && logoModified == otherLogoModified
+                    && linked == otherLinked;
+        }
+    }
 }
@@ -17,6 +17,9 @@ import javax.swing.SwingWorker;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.monitoring.PreviewLatencyTracer;
+import fr.softsf.canscan.monitoring.RenderCorrelation;
+import fr.softsf.canscan.monitoring.ResizeEvent;
 import fr.softsf.canscan.ui.EncodedImage;
 import fr.softsf.canscan.ui.LabelIconUtil;
 import fr.softsf.canscan.util.Checker;
@@ -42,6 +45,8 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
 
     private final EncodedImage encodedImage;
     private final JLabel qrCodeLabel;
+    private volatile long correlationId;
+    private volatile long previewCorrelationId;
 
     /**
      * Constructs a new QR code resize manager for a specific label.
@@ -62,15 +67,40 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
     }
 
     /**
-     * Updates the current QR input, resize the loader, and schedules a debounced resize operation.
+     * Updates the current QR input, resize the loader, and schedules a debounced resize operation,
+     * as a new action, such as a resize of the window.
      *
      * <p>Any ongoing resize worker is cancelled and a new one is started after a short delay.
      *
      * @param wholeFields the latest QR code configuration
      */
     public void updateQrCodeResize(WholeFields wholeFields) {
+        scheduleResize(wholeFields, RenderCorrelation.INSTANCE.next());
+    }
+
+    /**
+     * Updates the current QR input, resize the loader, and schedules a debounced resize operation
+     * for a new preview: showing it completes the keystrokes the {@link PreviewLatencyTracer} is
+     * timing for that edit.
+     *
+     * @param wholeFields the latest QR code configuration
+     * @param correlationId the {@link RenderCorrelation} identifier of the edit of the preview
+     */
+    public void updateQrCodeResize(WholeFields wholeFields, long correlationId) {
+        previewCorrelationId = correlationId;
+        scheduleResize(wholeFields, correlationId);
+    }
+
+    /**
+     * Schedules a debounced resize operation.
+     *
+     * @param wholeFields the latest QR code configuration
+     * @param correlationId the {@link RenderCorrelation} identifier of the action
+     */
+    private void scheduleResize(WholeFields wholeFields, long correlationId) {
         Checker.INSTANCE.checkNPE(wholeFields, "updateQrCodeResize", "wholeFields");
         this.wholeFields = wholeFields;
+        this.correlationId = correlationId;
         updateLoaderSize();
         resetAndStartWorker(RESIZE_DEBOUNCE_DELAY_MS);
     }
@@ -88,7 +118,8 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
     /**
      * Creates a background {@link SwingWorker} that scales the QR code image to the target size.
      *
-     * <p>Uses bilinear interpolation for smooth resizing. Cancels promptly if the thread is
+     * <p>Uses bilinear interpolation for smooth resizing. The image keeps its aspect ratio, so a
+     * strip of linked symbols fits the width of the square area. Cancels promptly if the thread is
      * interrupted.
      *
      * @return a configured {@link SwingWorker} that produces an {@link ImageIcon} for display
@@ -96,6 +127,7 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
     @Override
     protected SwingWorker<ImageIcon, Void> createWorker() {
         int size = Math.max(wholeFields.availableHeightForQrCode().getAsInt(), DEFAULT_SIZE);
+        long action = correlationId;
         return new SwingWorker<>() {
             @Override
             protected ImageIcon doInBackground() {
@@ -103,16 +135,10 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
                 if (src == null) {
                     return null;
                 }
-                BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D g = scaled.createGraphics();
-                try {
-                    g.setRenderingHint(
-                            RenderingHints.KEY_INTERPOLATION,
-                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                    g.drawImage(src, 0, 0, size, size, null);
-                } finally {
-                    g.dispose();
-                }
+                ResizeEvent event = new ResizeEvent();
+                event.start();
+                BufferedImage scaled = scale(src, size);
+                event.finish(action, src.getWidth(), src.getHeight(), size, scaled.getHeight());
                 return new ImageIcon(scaled);
             }
 
@@ -123,9 +149,31 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
         };
     }
 
+    /**
+     * Scales an image to a given width with bilinear interpolation, keeping its aspect ratio.
+     *
+     * @param src the generated image
+     * @param width the target width, in pixels
+     * @return the scaled image
+     */
+    static BufferedImage scale(BufferedImage src, int width) {
+        int height = Math.max(1, width * src.getHeight() / src.getWidth());
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(
+                    RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(src, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
     /**
      * Updates the QR code label with the generated icon and adjusts the loader size to maintain
-     * visual alignment once the worker completes successfully.
+     * visual alignment once the worker completes successfully. The keystrokes shown by the preview
+     * are then on screen, which ends their latency.
      *
      * @param result the resized {@link ImageIcon}, or {@code null} if the task was cancelled
      */
@@ -136,6 +184,7 @@ public class DynamicResizeWorker extends AbstractDynamicWorker<ImageIcon> {
         }
         qrCodeLabel.setIcon(result);
         updateLoaderSize();
+        PreviewLatencyTracer.INSTANCE.complete(previewCorrelationId);
     }
 
     /**
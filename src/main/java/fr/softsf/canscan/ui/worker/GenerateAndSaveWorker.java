@@ -13,6 +13,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import javax.imageio.ImageIO;
 import javax.swing.JProgressBar;
@@ -24,7 +25,12 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.softsf.canscan.constant.StringConstants;
 import fr.softsf.canscan.model.CommonFields;
 import fr.softsf.canscan.model.EncodedData;
+import fr.softsf.canscan.model.StructuredAppend;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+import fr.softsf.canscan.monitoring.RenderCorrelation;
+import fr.softsf.canscan.monitoring.SaveEvent;
 import fr.softsf.canscan.ui.EncodedImage;
+import fr.softsf.canscan.ui.ImageStripUtil;
 import fr.softsf.canscan.ui.MyPopup;
 import fr.softsf.canscan.util.Checker;
 
@@ -39,6 +45,9 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
     private final JProgressBar loader;
     private final File outputFile;
     private final EncodedImage encodedImage;
+    private final StructuredAppend structuredAppend;
+    private final long correlationId = RenderCorrelation.INSTANCE.next();
+    private volatile String savedLocation;
     private String errorTitle = null;
     private String errorMessage = null;
 
@@ -53,6 +62,7 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
      * @param loader the progress bar to hide after completion
      * @param outputFile the target file for saving the QR code
      * @param encodedImage the service to generate QR code images
+     * @param structuredAppend how a payload too long for one symbol is split and saved
      */
     @SuppressFBWarnings("EI_EXPOSE_REP2")
     public GenerateAndSaveWorker(
@@ -60,7 +70,8 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
             CommonFields config,
             JProgressBar loader,
             File outputFile,
-            EncodedImage encodedImage) {
+            EncodedImage encodedImage,
+            StructuredAppend structuredAppend) {
         Checker.INSTANCE.checkNPE(qrData, GENERATE_AND_SAVE_WORKER, "qrData");
         Checker.INSTANCE.checkNPE(config, GENERATE_AND_SAVE_WORKER, "config");
         Checker.INSTANCE.checkNPE(loader, GENERATE_AND_SAVE_WORKER, "loader");
@@ -71,17 +82,39 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
         this.loader = loader;
         this.outputFile = outputFile;
         this.encodedImage = encodedImage;
+        this.structuredAppend = structuredAppend == null ? StructuredAppend.OFF : structuredAppend;
+        savedLocation = outputFile == null ? null : outputFile.getAbsolutePath();
     }
 
     /**
      * Generates the QR code, saves it, and copies data to the clipboard. Runs in a background
-     * thread; clipboard errors do not block export.
+     * thread, bound to the {@link RenderCorrelation} identifier of this export; clipboard errors do
+     * not block export.
      *
      * @return the generated QR code image
      * @throws Exception if generation or saving fails
      */
     @Override
     protected BufferedImage doInBackground() throws Exception {
+        RenderCorrelation.INSTANCE.bind(correlationId);
+        long allocated = CanScanMetrics.INSTANCE.allocatedBytes();
+        try {
+            BufferedImage image = generateAndSave();
+            CanScanMetrics.INSTANCE.recordRender(allocated);
+            return image;
+        } finally {
+            RenderCorrelation.INSTANCE.unbind();
+        }
+    }
+
+    /**
+     * Copies the payload to the clipboard, then generates and saves the QR code.
+     *
+     * @return the generated QR code image
+     * @throws WriterException if encoding fails
+     * @throws IOException if reading the logo or writing the file fails
+     */
+    private BufferedImage generateAndSave() throws WriterException, IOException {
         String data = qrData.data();
         try {
             Toolkit.getDefaultToolkit()
@@ -94,6 +127,9 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
                     StringConstants.ERREUR.getValue());
         }
         try {
+            if (structuredAppend.splits()) {
+                return saveLinkedSymbols(data);
+            }
             BufferedImage qr = encodedImage.generateImage(data, config);
             saveQrCodeToFile(qr, outputFile);
             return qr;
@@ -103,6 +139,42 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
         }
     }
 
+    /**
+     * Generates the linked symbols of the payload and saves them side by side in the output file,
+     * or as numbered files next to it ({@code name-1.png}, {@code name-2.png}…), which replace
+     * existing files of the same names. A payload that fits in one symbol is saved as one file.
+     *
+     * @param data the payload
+     * @return the symbols side by side
+     * @throws WriterException if the payload does not fit in 16 symbols
+     * @throws IOException if reading the logo or writing a file fails
+     */
+    private BufferedImage saveLinkedSymbols(String data) throws WriterException, IOException {
+        List<BufferedImage> images = encodedImage.generateLinkedImages(data, config);
+        BufferedImage strip = ImageStripUtil.INSTANCE.join(images);
+        if (images.size() == 1 || structuredAppend == StructuredAppend.STRIP) {
+            saveQrCodeToFile(strip, outputFile);
+            return strip;
+        }
+        for (int i = 0; i < images.size(); i++) {
+            saveQrCodeToFile(images.get(i), numberedFile(i + 1));
+        }
+        savedLocation =
+                numberedFile(1).getAbsolutePath() + "\n… " + numberedFile(images.size()).getName();
+        return strip;
+    }
+
+    /**
+     * Returns the numbered file of a linked symbol, next to the output file.
+     *
+     * @param number the position of the symbol, from 1
+     * @return the file {@code name-number.png}
+     */
+    private File numberedFile(int number) {
+        String baseName = outputFile.getName().replaceFirst("\\.png$", "");
+        return new File(outputFile.getParentFile(), baseName + "-" + number + ".png");
+    }
+
     /**
      * Saves the QR code image to a PNG file.
      *
@@ -110,10 +182,13 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
      * @param file the target file
      * @throws IOException if file writing fails
      */
-    private void saveQrCodeToFile(BufferedImage qr, File file) throws IOException {
+    static void saveQrCodeToFile(BufferedImage qr, File file) throws IOException {
+        SaveEvent event = new SaveEvent();
+        event.start();
         try (OutputStream os = new FileOutputStream(file)) {
             ImageIO.write(qr, "png", os);
         }
+        event.finish(qr.getWidth(), qr.getHeight(), file);
     }
 
     /**
@@ -165,8 +240,7 @@ public class GenerateAndSaveWorker extends SwingWorker<BufferedImage, Void> {
         }
         BufferedImage qr = get();
         encodedImage.updateQrOriginal(qr);
-        MyPopup.INSTANCE.showDialog(
-                "Code QR enregistré dans\n", outputFile.getAbsolutePath(), "Confirmation");
+        MyPopup.INSTANCE.showDialog("Code QR enregistré dans\n", savedLocation, "Confirmation");
     }
 
     /**
@@ -0,0 +1,237 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+import java.awt.Color;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.softsf.canscan.constant.DoubleConstants;
+import fr.softsf.canscan.constant.StringConstants;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+
+/**
+ * Minimal parser for {@code --name value} and {@code --flag} command-line options of the headless
+ * commands.
+ *
+ * <p>Option names listed as flags take no value; every other {@code --name} consumes the next
+ * argument. Remaining arguments are kept as positionals. Invalid values raise {@link
+ * IllegalArgumentException} with a user-facing message.
+ */
+public final class CliArguments {
+
+    private static final String PREFIX = "--";
+    private static final int DEFAULT_MARGIN = 3;
+    private final Map<String, String> options = new HashMap<>();
+    private final Set<String> flags = new HashSet<>();
+    private final List<String> positionals;
+
+    /**
+     * Parses the arguments.
+     *
+     * @param args the raw arguments, without the command name
+     * @param flagNames option names that take no value
+     * @throws IllegalArgumentException if an option is missing its value
+     */
+    public CliArguments(List<String> args, Set<String> flagNames) {
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            String name = arg.startsWith(PREFIX) ? arg.substring(PREFIX.length()) : "";
+            if (name.isEmpty()) {
+                rest.add(arg);
+            } else if (flagNames.contains(name)) {
+                flags.add(name);
+            } else if (i + 1 < args.size()) {
+                options.put(name, args.get(++i));
+            } else {
+                throw new IllegalArgumentException("Valeur manquante pour --" + name);
+            }
+        }
+        this.positionals = List.copyOf(rest);
+    }
+
+    /**
+     * Returns an option value.
+     *
+     * @param name the option name, without {@code --}
+     * @param defaultValue the value if absent
+     * @return the value
+     */
+    public String get(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Returns a required option value.
+     *
+     * @param name the option name, without {@code --}
+     * @return the value
+     * @throws IllegalArgumentException if the option is absent
+     */
+    public String require(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Option obligatoire manquante : --" + name);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a required option as a path.
+     *
+     * @param name the option name, without {@code --}
+     * @return the path
+     * @throws IllegalArgumentException if the option is absent
+     */
+    public Path requirePath(String name) {
+        return Path.of(require(name));
+    }
+
+    /**
+     * Returns an integer option.
+     *
+     * @param name the option name, without {@code --}
+     * @param defaultValue the value if absent
+     * @return the value
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    public int getInt(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Entier attendu pour --" + name + " : " + value, e);
+        }
+    }
+
+    /**
+     * Returns a decimal option.
+     *
+     * @param name the option name, without {@code --}
+     * @param defaultValue the value if absent
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    public double getDouble(String name, double defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre attendu pour --" + name + " : " + value, e);
+        }
+    }
+
+    /**
+     * Returns a color option in {@code #RRGGBB} form.
+     *
+     * @param name the option name, without {@code --}
+     * @param defaultValue the value if absent
+     * @return the color
+     * @throws IllegalArgumentException if the value is not a valid color
+     */
+    public Color getColor(String name, Color defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Color.decode(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Couleur attendue pour --" + name + " : " + value, e);
+        }
+    }
+
+    /**
+     * Tells whether a flag is present.
+     *
+     * @param name the flag name, without {@code --}
+     * @return {@code true} if present
+     */
+    public boolean has(String name) {
+        return flags.contains(name);
+    }
+
+    /**
+     * Returns the arguments that are neither options nor option values.
+     *
+     * @return the positional arguments
+     */
+    public List<String> positionals() {
+        return positionals;
+    }
+
+    /**
+     * Builds the visual configuration from the style options shared by all headless commands.
+     *
+     * <p>Options: {@code --logo}, {@code --size}, {@code --ratio}, {@code --qr-color}, {@code
+     * --bg-color}, {@code --rounded} (flag), {@code --margin}, {@code --ecc} ({@code auto}, {@code
+     * L}, {@code M}, {@code Q} or {@code H}), {@code --compact} (flag) and {@code --micro} (flag).
+     * Defaults match the UI.
+     *
+     * @return the configuration
+     * @throws IllegalArgumentException if a value is invalid or out of range, or if the logo is not
+     *     a readable file
+     */
+    public CommonFields toCommonFields() {
+        File logo = logoFile(get("logo", ""));
+        int size =
+                getInt(
+                        "size",
+                        Integer.parseInt(
+                                StringConstants.DEFAULT_QR_CODE_DIMENSION_FIELD.getValue()));
+        double ratio = getDouble("ratio", DoubleConstants.DEFAULT_IMAGE_RATIO.getValue());
+        int margin = getInt("margin", DEFAULT_MARGIN);
+        if (size <= 0 || ratio < 0 || ratio > 1 || margin < 0) {
+            throw new IllegalArgumentException(
+                    "Style invalide : --size > 0, 0 <= --ratio <= 1, --margin >= 0");
+        }
+        return new CommonFields(
+                logo,
+                size,
+                ratio,
+                getColor("qr-color", Color.BLACK),
+                getColor("bg-color", Color.WHITE),
+                has("rounded"),
+                margin,
+                EccLevel.parse(get("ecc", EccLevel.AUTO.name())),
+                has("compact"),
+                has("micro"));
+    }
+
+    /**
+     * Returns the {@code --logo} file, which must exist and be readable: a misspelled path would
+     * otherwise silently produce codes without a logo.
+     *
+     * @param path the option value
+     * @return the file, or {@code null} if the option is blank
+     * @throws IllegalArgumentException if the file is missing or unreadable
+     */
+    private static File logoFile(String path) {
+        if (path.isBlank()) {
+            return null;
+        }
+        File logo = new File(path);
+        if (logo.isFile() && logo.canRead()) {
+            return logo;
+        }
+        throw new IllegalArgumentException("Logo introuvable ou illisible pour --logo : " + path);
+    }
+}
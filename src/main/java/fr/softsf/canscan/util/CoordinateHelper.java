@@ -19,13 +19,12 @@ public enum CoordinateHelper {
     INSTANCE;
 
     private static final String EMPTY = "";
-    private static final int LATITUDE_PRECISION = 8;
-    private static final int LONGITUDE_PRECISION = 7;
     private static final int MAXIMUM_LATITUDE = 90;
     private static final int MINIMUMU_LATITUDE = -MAXIMUM_LATITUDE;
     private static final int MAXIMUM_LONGITUDE = 180;
     private static final int MINIMUM_LONGITUDE = -MAXIMUM_LONGITUDE;
-    private static final int DECIMAL_BASE = 10;
+    private static final double LATITUDE_FACTOR = 1e8;
+    private static final double LONGITUDE_FACTOR = 1e7;
 
     /**
      * Validates and truncates a coordinate from a JTextField for QR code generation.
@@ -45,12 +44,35 @@ public enum CoordinateHelper {
         if (text.equals("-")) {
             return "-0";
         }
-        if (text.matches("^-?\\d*(\\.\\d*)?$")) {
+        if (isDecimal(text)) {
             return parseAndTruncate(field, text, isLatitude);
         }
         return clearAndReturnEmpty(field);
     }
 
+    /**
+     * Tells whether a text has the format {@code -?\\d*(\\.\\d*)?}: an optional minus sign, ASCII
+     * digits and at most one decimal point. Scanned by hand, as it runs on every keystroke.
+     *
+     * @param text the trimmed field text
+     * @return {@code true} if the text has the coordinate format, possibly empty
+     */
+    private boolean isDecimal(String text) {
+        boolean point = false;
+        for (int i = text.startsWith("-") ? 1 : 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (point) {
+                    return false;
+                }
+                point = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Clears the field and returns empty string.
      *
@@ -103,8 +125,7 @@ public enum CoordinateHelper {
      * @return truncated coordinate as string
      */
     private String truncate(double value, boolean isLatitude) {
-        int precision = isLatitude ? LATITUDE_PRECISION : LONGITUDE_PRECISION;
-        double factor = Math.pow(DECIMAL_BASE, precision);
+        double factor = isLatitude ? LATITUDE_FACTOR : LONGITUDE_FACTOR;
         value =
                 value >= 0
                         ? Math.floor(value * factor) / factor
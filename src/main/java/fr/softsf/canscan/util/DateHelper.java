@@ -6,29 +6,39 @@
 package fr.softsf.canscan.util;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Produces iCalendar-compliant UTC timestamps (RFC 5545).
  *
  * <p>All inputs are treated as UTC; no system timezone conversion is applied. Format: {@code
- * yyyyMMdd'T'HHmmss'Z'}.
+ * yyyyMMdd'T'HHmmss'Z'}. Years 1 to 9999 are formatted by hand, since the form formats dates on
+ * every keystroke; other years go through the equivalent {@link DateTimeFormatter}.
  */
 public enum DateHelper {
     INSTANCE;
 
     private static final DateTimeFormatter ICALENDAR_COMPLIANT_UTC_FORMATTER =
             DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int TIMESTAMP_LENGTH = 16;
+    private static final int MAX_PLAIN_YEAR = 9999;
+    private static final int YEAR_DIGITS = 4;
+    private static final int MONTH_OFFSET = 4;
+    private static final int DAY_OFFSET = 6;
+    private static final int TIME_SEPARATOR_OFFSET = 8;
+    private static final int HOUR_OFFSET = 9;
+    private static final int MINUTE_OFFSET = 11;
+    private static final int SECOND_OFFSET = 13;
+    private static final int DECIMAL_BASE = 10;
 
     /**
      * Returns the current local date/time formatted as an iCalendar-compliant UTC timestamp
      * (yyyyMMdd'T'HHmmss'Z').
      */
     public String nowUtc() {
-        return ICALENDAR_COMPLIANT_UTC_FORMATTER.format(ZonedDateTime.now());
+        return format(LocalDateTime.now());
     }
 
     /**
@@ -42,7 +52,45 @@ public enum DateHelper {
         if (date == null || time == null) {
             return "";
         }
-        return ICALENDAR_COMPLIANT_UTC_FORMATTER.format(
-                ZonedDateTime.of(date, time, ZoneOffset.UTC));
+        return format(LocalDateTime.of(date, time));
+    }
+
+    /**
+     * Formats a date/time as {@code yyyyMMdd'T'HHmmss'Z'}.
+     *
+     * @param dateTime the date/time, taken as UTC
+     * @return the timestamp
+     */
+    private static String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > MAX_PLAIN_YEAR) {
+            return ICALENDAR_COMPLIANT_UTC_FORMATTER.format(dateTime);
+        }
+        char[] out = new char[TIMESTAMP_LENGTH];
+        digits(out, 0, year, YEAR_DIGITS);
+        digits(out, MONTH_OFFSET, dateTime.getMonthValue(), 2);
+        digits(out, DAY_OFFSET, dateTime.getDayOfMonth(), 2);
+        out[TIME_SEPARATOR_OFFSET] = 'T';
+        digits(out, HOUR_OFFSET, dateTime.getHour(), 2);
+        digits(out, MINUTE_OFFSET, dateTime.getMinute(), 2);
+        digits(out, SECOND_OFFSET, dateTime.getSecond(), 2);
+        out[TIMESTAMP_LENGTH - 1] = 'Z';
+        return new String(out);
+    }
+
+    /**
+     * Writes a zero-padded decimal number.
+     *
+     * @param out the target characters
+     * @param offset the index of the first digit
+     * @param value the non-negative value
+     * @param width the number of digits
+     */
+    private static void digits(char[] out, int offset, int value, int width) {
+        int rest = value;
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + rest % DECIMAL_BASE);
+            rest /= DECIMAL_BASE;
+        }
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal parser for the single-line JSON objects of the {@code stream} command.
+ *
+ * <p>Objects become {@link Map}s, arrays {@link List}s, strings and numbers {@link String}s
+ * (numbers keep their source text, converted by the caller), {@code true} and {@code false} {@link
+ * Boolean}s and {@code null} {@code null}. Malformed input raises {@link IllegalArgumentException}
+ * with a user-facing message.
+ */
+public final class JsonObjectParser {
+
+    private static final int HEX_DIGITS = 4;
+    private static final int HEX_RADIX = 16;
+    private final String text;
+    private int position;
+
+    /**
+     * Creates a parser over one JSON document.
+     *
+     * @param text the document
+     */
+    private JsonObjectParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON object.
+     *
+     * @param text the document, a single object optionally surrounded by white space
+     * @return the object members, in document order
+     * @throws IllegalArgumentException if the document is not a well-formed object
+     */
+    public static Map<String, Object> parseObject(String text) {
+        JsonObjectParser parser = new JsonObjectParser(text);
+        parser.skipWhitespace();
+        Map<String, Object> object = parser.object();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("fin de ligne attendue");
+        }
+        return object;
+    }
+
+    /**
+     * Parses a value at the current position.
+     *
+     * @return the value
+     */
+    private Object value() {
+        skipWhitespace();
+        char c = peek();
+        return switch (c) {
+            case '{' -> object();
+            case '[' -> array();
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> number();
+        };
+    }
+
+    /**
+     * Parses an object at the current position.
+     *
+     * @return the members
+     */
+    private Map<String, Object> object() {
+        expect('{');
+        Map<String, Object> members = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return members;
+        }
+        do {
+            skipWhitespace();
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            members.put(name, value());
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return members;
+    }
+
+    /**
+     * Parses an array at the current position.
+     *
+     * @return the elements
+     */
+    private List<Object> array() {
+        expect('[');
+        List<Object> elements = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return elements;
+        }
+        do {
+            elements.add(value());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return elements;
+    }
+
+    /**
+     * Parses a string at the current position, decoding its escapes.
+     *
+     * @return the string
+     */
+    private String string() {
+        expect('"');
+        StringBuilder out = new StringBuilder();
+        char c;
+        while ((c = next()) != '"') {
+            out.append(c == '\\' ? escape() : c);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decodes the escape sequence following a backslash.
+     *
+     * @return the decoded character
+     */
+    private char escape() {
+        char c = next();
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> unicode();
+            default -> throw error("échappement invalide \\" + c);
+        };
+    }
+
+    /**
+     * Decodes the four hexadecimal digits of a {@code \}{@code u} escape.
+     *
+     * @return the decoded character
+     */
+    private char unicode() {
+        if (position + HEX_DIGITS > text.length()) {
+            throw error("échappement unicode tronqué");
+        }
+        try {
+            char c =
+                    (char)
+                            Integer.parseInt(
+                                    text.substring(position, position + HEX_DIGITS), HEX_RADIX);
+            position += HEX_DIGITS;
+            return c;
+        } catch (NumberFormatException e) {
+            throw error("échappement unicode invalide");
+        }
+    }
+
+    /**
+     * Parses a number at the current position, keeping its source text.
+     *
+     * @return the number text
+     */
+    private String number() {
+        int start = position;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        if (start == position) {
+            throw error("valeur attendue");
+        }
+        return text.substring(start, position);
+    }
+
+    /**
+     * Parses a keyword.
+     *
+     * @param word the expected keyword
+     * @param result the value it stands for
+     * @return {@code result}
+     */
+    private Object literal(String word, Object result) {
+        if (text.startsWith(word, position)) {
+            position += word.length();
+            return result;
+        }
+        throw error(word + " attendu");
+    }
+
+    /** Skips JSON white space. */
+    private void skipWhitespace() {
+        while (position < text.length() && " \t\r\n".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+    }
+
+    /**
+     * Skips a character if present.
+     *
+     * @param c the character
+     * @return {@code true} if it was present
+     */
+    private boolean consume(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Requires a character.
+     *
+     * @param c the character
+     */
+    private void expect(char c) {
+        if (next() != c) {
+            position--;
+            throw error("'" + c + "' attendu");
+        }
+    }
+
+    /**
+     * Returns the current character without consuming it.
+     *
+     * @return the character
+     */
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("fin de ligne inattendue");
+        }
+        return text.charAt(position);
+    }
+
+    /**
+     * Consumes the current character.
+     *
+     * @return the character
+     */
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    /**
+     * Builds a parse error at the current position.
+     *
+     * @param message the description
+     * @return the exception
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(
+                "JSON invalide (colonne " + (position + 1) + ") : " + message);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of durations, in the manner of HdrHistogram.
+ *
+ * <p>Values below 64 get one bucket each; above, every power of two is split into 32 buckets, so
+ * any recorded value is reported within about 3 % whatever its magnitude, and the histogram takes
+ * the same 15 KB after a thousand or a billion samples. Percentiles report the upper bound of their
+ * bucket, never understating a latency.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = 6;
+    private static final int MAX_SHIFT = Long.SIZE - LINEAR_BITS;
+    private static final double PERCENT = 100.0;
+    private final long[] counts = new long[LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS];
+    private long count;
+    private long max;
+    private long sum;
+
+    /**
+     * Records a duration.
+     *
+     * @param value the duration, in any unit; negative values count as zero
+     */
+    public synchronized void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        count++;
+        sum += v;
+        max = Math.max(max, v);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the exact maximum, or {@code 0} if empty
+     */
+    public synchronized long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the exact mean, or {@code 0} if empty
+     */
+    public synchronized double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value below which a given share of the recorded values falls.
+     *
+     * @param percentile the share, from 0 to 100
+     * @return the upper bound of the matching bucket, capped at the maximum, or {@code 0} if empty
+     */
+    public synchronized long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+
+    /** Forgets every recorded value. */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    static int indexOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - LINEAR_BITS;
+        int top = (int) (value >>> shift);
+        return LINEAR_BUCKETS + shift * SUB_BUCKETS + top - SUB_BUCKETS - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest value of a bucket.
+     *
+     * @param index the bucket index
+     * @return the upper bound
+     */
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long top = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+/**
+ * Measuring the JVM memory left for image generation.
+ *
+ * <p>Usage: {@code MemoryHelper.INSTANCE.getAvailableMemoryMB()}
+ */
+public enum MemoryHelper {
+    INSTANCE;
+
+    private static final int AVAILABLE_MEMORY_TO_GENERATE_IMAGE = 50;
+    private static final int BYTES_PER_KILOBYTE = 1024;
+
+    /**
+     * Gets the available memory in the JVM with safety margin for image generation.
+     *
+     * @return Available memory in megabytes, minus the reserved safety margin. Returns 0 if not
+     *     enough memory is available.
+     */
+    public long getAvailableMemoryMB() {
+        Runtime runtime = Runtime.getRuntime();
+        long maxMemory = runtime.maxMemory();
+        long allocatedMemory = runtime.totalMemory();
+        long freeMemory = runtime.freeMemory();
+        long usedMemory = allocatedMemory - freeMemory;
+        long availableMemory = maxMemory - usedMemory;
+        long safeAvailableMemory =
+                availableMemory
+                        - (AVAILABLE_MEMORY_TO_GENERATE_IMAGE
+                                * BYTES_PER_KILOBYTE
+                                * BYTES_PER_KILOBYTE);
+        return Math.max(0, safeAvailableMemory) / (BYTES_PER_KILOBYTE * BYTES_PER_KILOBYTE);
+    }
+}
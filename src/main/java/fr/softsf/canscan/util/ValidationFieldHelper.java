@@ -20,6 +20,7 @@ public enum ValidationFieldHelper {
     private static final int DEFAULT_QR_CODE_DIMENSION = 400;
     private static final int MINIMUM_QR_CODE_DIMENSION = 10;
     private static final int MARGIN_MAXIMUM_VALUE = 10;
+    private static final char ASCII_LIMIT = 0x80;
 
     /**
      * Validates and returns image-to-QR ratio from slider.
@@ -89,22 +90,55 @@ public enum ValidationFieldHelper {
      * only Unicode letters, digits, underscores, and hyphens. The resulting string is uppercased
      * and concatenated with the application domain suffix. The original title is not modified.
      *
+     * <p>Runs on every keystroke of the meeting form, so the title is scanned once by code point
+     * instead of through regular expressions, and an ASCII title, which has no accent to remove,
+     * skips the NFD normalization.
+     *
      * @param meetTitle the meeting title used as source text
      * @return a normalized and domain-qualified UID
      */
     public String validateAndGetMeetUID(String meetTitle) {
-        String normalized = Normalizer.normalize(meetTitle, Normalizer.Form.NFD);
-        StringBuilder builder = new StringBuilder(normalized.length());
-        for (int i = 0; i < normalized.length(); i++) {
-            char c = normalized.charAt(i);
-            if (Character.getType(c) != Character.NON_SPACING_MARK) {
-                builder.append(c);
+        String source =
+                isAscii(meetTitle)
+                        ? meetTitle
+                        : Normalizer.normalize(meetTitle, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); ) {
+            int codePoint = source.codePointAt(i);
+            if (isUidCodePoint(codePoint)) {
+                builder.appendCodePoint(codePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return builder.toString().toUpperCase().concat(StringConstants.DOMAIN.getValue());
+    }
+
+    /**
+     * Tells whether a UID keeps a code point: a Unicode letter, an ASCII digit, an underscore or a
+     * hyphen. Accents, split off by NFD, and white space are dropped.
+     *
+     * @param codePoint the code point
+     * @return {@code true} if the code point is kept
+     */
+    private static boolean isUidCodePoint(int codePoint) {
+        return codePoint >= '0' && codePoint <= '9'
+                || codePoint == '_'
+                || codePoint == '-'
+                || Character.isLetter(codePoint);
+    }
+
+    /**
+     * Tells whether a text only holds ASCII characters, which NFD leaves unchanged.
+     *
+     * @param text the text
+     * @return {@code true} if every character is below U+0080
+     */
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= ASCII_LIMIT) {
+                return false;
             }
         }
-        return builder.toString()
-                        .replaceAll("\\s+", "")
-                        .replaceAll("[^\\p{L}0-9_-]", "")
-                        .toUpperCase()
-                + StringConstants.DOMAIN.getValue();
+        return true;
     }
 }
@@ -4,7 +4,15 @@ module fr.softsf.canscan {
     requires com.google.zxing;
     requires org.apache.commons.lang3;
     requires java.net.http;
+    requires jdk.jfr;
+    requires java.management;
+    requires jdk.management;
     requires com.formdev.flatlaf;
     requires com.github.lgooddatepicker;
     requires com.github.spotbugs.annotations;
+
+    exports fr.softsf.canscan.monitoring to
+            java.management;
+    exports fr.softsf.canscan.model to
+            java.management;
 }
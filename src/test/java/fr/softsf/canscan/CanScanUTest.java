@@ -27,8 +27,10 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
 import fr.softsf.canscan.model.EncodedData;
 import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StructuredAppend;
 import fr.softsf.canscan.model.WholeFields;
 import fr.softsf.canscan.service.DataBuilderService;
 import fr.softsf.canscan.ui.ColorOperation;
@@ -359,7 +361,11 @@ class CanScanUTest {
                         0.25,
                         Color.BLACK,
                         Color.WHITE,
-                        false);
+                        false,
+                        EccLevel.H,
+                        false,
+                        false,
+                        StructuredAppend.OFF);
         EncodedData result = DataBuilderService.INSTANCE.buildData(Mode.MECARD, input);
         assertNotNull(result);
         String data = result.data();
@@ -394,7 +400,11 @@ class CanScanUTest {
                         0.25,
                         Color.BLACK,
                         Color.WHITE,
-                        false);
+                        false,
+                        EccLevel.H,
+                        false,
+                        false,
+                        StructuredAppend.OFF);
         EncodedData result = DataBuilderService.INSTANCE.buildData(Mode.FREE, input);
         assertNotNull(result);
         assertEquals("Test data", result.data());
@@ -426,7 +436,11 @@ class CanScanUTest {
                         0.25,
                         Color.BLACK,
                         Color.WHITE,
-                        false);
+                        false,
+                        EccLevel.H,
+                        false,
+                        false,
+                        StructuredAppend.OFF);
         EncodedData result = DataBuilderService.INSTANCE.buildData(Mode.MECARD, input);
         assertNotNull(result);
         assertEquals("", result.data());
@@ -0,0 +1,507 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.imageio.ImageIO;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StructuredAppend;
+import fr.softsf.canscan.model.WholeFields;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+import fr.softsf.canscan.ui.EncodedImage;
+import fr.softsf.canscan.ui.worker.DynamicPreviewWorker;
+import fr.softsf.canscan.ui.worker.DynamicResizeWorker;
+
+/**
+ * Soaks the preview pipeline headlessly: drives {@link DynamicPreviewWorker} and {@link
+ * DynamicResizeWorker} with synthetic edits, mode switches, logo changes and window resizes, as a
+ * user would over a day, and fails if memory, threads or image buffers keep growing.
+ *
+ * <p>Arguments: duration in minutes (default 240), sample interval in seconds (default 60) and
+ * random seed (default 49). Each sample lets the pipeline settle, forces a full GC through a class
+ * histogram, then reads the heap used after it, the native memory committed (when started with
+ * {@code -XX:NativeMemoryTracking=summary}), the live thread count and the live {@link
+ * BufferedImage} count. The first fifth of the run is the warm-up; on the rest, each series gets a
+ * least-squares slope per hour, and the run fails (exit code 1) when a slope exceeds its tolerance
+ * and the growth it implies over the run exceeds the noise floor of the series. Run it with {@code
+ * mvn test-compile exec:exec -Psoak}.
+ */
+public class PreviewSoakHarness {
+
+    private static final int DEFAULT_MINUTES = 240;
+    private static final int DEFAULT_SAMPLE_SECONDS = 60;
+    private static final long DEFAULT_SEED = 49;
+    private static final double WARMUP_SHARE = 0.2;
+    private static final int MIN_SAMPLES = 3;
+    private static final double MB = 1024.0 * 1024.0;
+    private static final double SECONDS_PER_HOUR = 3600.0;
+    private static final long SETTLE_MILLIS = 1500;
+    private static final int[] LOGO_SIDES = {64, 256, 512};
+    private static final int[] HEIGHTS = {180, 320, 480, 640, 800};
+    private static final Mode[] MODES = {Mode.MECARD, Mode.MEET, Mode.FREE};
+    private static final int MAX_TEXT = 160;
+    private static final String TYPED = "abcdefghijklmnopqrstuvwxyz éàç0123456789";
+    private static final Pattern NMT_TOTAL =
+            Pattern.compile("Total: reserved=(\\d+)KB, committed=(\\d+)KB");
+
+    /** Heap after GC: MB per hour, and MB over the run. */
+    private static final double HEAP_TOLERANCE = 8;
+
+    private static final double HEAP_FLOOR = 4;
+
+    /** Native memory committed: MB per hour, and MB over the run. */
+    private static final double NATIVE_TOLERANCE = 16;
+
+    private static final double NATIVE_FLOOR = 8;
+
+    /** Live threads: per hour, and over the run. */
+    private static final double THREAD_TOLERANCE = 1;
+
+    private static final double THREAD_FLOOR = 2;
+
+    /** Live images: per hour, and over the run. */
+    private static final double IMAGE_TOLERANCE = 1;
+
+    private static final double IMAGE_FLOOR = 2;
+
+    private final Random random;
+    private final List<File> logos = new ArrayList<>();
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final ObjectName diagnostics;
+    private DynamicPreviewWorker preview;
+    private DynamicResizeWorker resize;
+    private volatile int height = HEIGHTS[0];
+    private Mode mode = Mode.MECARD;
+    private File logo;
+    private String text = "Marie";
+    private long edits;
+    private long modeSwitches;
+    private long logoChanges;
+    private long resizes;
+
+    /**
+     * One sample of the monitored series.
+     *
+     * @param hours the elapsed time
+     * @param heapMb the heap used after a full GC
+     * @param nativeMb the native memory committed, or {@code -1} without NMT
+     * @param threads the live threads
+     * @param images the live images
+     */
+    private record Sample(double hours, double heapMb, double nativeMb, int threads, long images) {}
+
+    /**
+     * Creates the harness.
+     *
+     * @param seed the seed of the synthetic user
+     * @throws JMException if the diagnostic command MBean name is invalid
+     */
+    PreviewSoakHarness(long seed) throws JMException {
+        random = new Random(seed);
+        diagnostics = new ObjectName("com.sun.management:type=DiagnosticCommand");
+    }
+
+    /**
+     * Runs the soak.
+     *
+     * @param args optional duration in minutes, sample interval in seconds and seed
+     * @throws Exception if the harness cannot start
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int minutes = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MINUTES;
+        int sampleSeconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLE_SECONDS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        Path dir = Files.createTempDirectory("canscan-soak");
+        boolean passed;
+        try {
+            passed = new PreviewSoakHarness(seed).run(dir, minutes, sampleSeconds);
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Drives the workers and samples until the duration is over.
+     *
+     * @param dir the directory of the generated logos
+     * @param minutes the duration
+     * @param sampleSeconds the interval between samples
+     * @return {@code true} if no series grows beyond its tolerance
+     * @throws Exception if the workers cannot be created or the thread is interrupted
+     */
+    boolean run(Path dir, int minutes, int sampleSeconds) throws Exception {
+        createLogos(dir);
+        SwingUtilities.invokeAndWait(this::createWorkers);
+        System.out.printf(
+                "[Soak] %d min, un échantillon toutes les %d s, NMT %s%n",
+                minutes, sampleSeconds, nativeCommittedMb() < 0 ? "inactif" : "actif");
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MINUTES.toNanos(minutes);
+        long nextSample = start;
+        List<Sample> samples = new ArrayList<>();
+        while (System.nanoTime() < end) {
+            if (System.nanoTime() >= nextSample) {
+                Thread.sleep(SETTLE_MILLIS);
+                Sample sample = sample((System.nanoTime() - start) / 1e9 / SECONDS_PER_HOUR);
+                samples.add(sample);
+                print(sample);
+                nextSample += TimeUnit.SECONDS.toNanos(sampleSeconds);
+            }
+            act();
+            Thread.sleep(pause());
+        }
+        SwingUtilities.invokeAndWait(
+                () -> {
+                    preview.disposeAllResourcesOnExit();
+                    resize.disposeAllResourcesOnExit();
+                });
+        System.out.printf(
+                "[Soak] %d frappes, %d changements de mode, %d logos, %d redimensionnements ;"
+                        + " %d rendus, %d annulés, %d abandonnés%n",
+                edits,
+                modeSwitches,
+                logoChanges,
+                resizes,
+                CanScanMetrics.INSTANCE.getRenderCount(),
+                CanScanMetrics.INSTANCE.getCancelledRenderCount(),
+                CanScanMetrics.INSTANCE.getDroppedRenderCount());
+        return verdict(samples);
+    }
+
+    /**
+     * Writes the logos the synthetic user picks from.
+     *
+     * @param dir the target directory
+     * @throws IOException if a logo cannot be written
+     */
+    private void createLogos(Path dir) throws IOException {
+        for (int side : LOGO_SIDES) {
+            BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                g.setColor(Color.ORANGE);
+                g.fillOval(0, 0, side, side);
+            } finally {
+                g.dispose();
+            }
+            File file = dir.resolve("logo-" + side + ".png").toFile();
+            ImageIO.write(image, "png", file);
+            logos.add(file);
+        }
+    }
+
+    /** Creates the workers and their components, on the EDT. */
+    private void createWorkers() {
+        EncodedImage encodedImage = new EncodedImage();
+        JLabel qrCodeLabel = new JLabel();
+        JProgressBar loader = new JProgressBar();
+        resize = new DynamicResizeWorker(encodedImage, qrCodeLabel, loader);
+        preview =
+                new DynamicPreviewWorker(
+                        encodedImage, resize, qrCodeLabel, new JLabel(), new JLabel(), loader);
+    }
+
+    /**
+     * Performs one action of the synthetic user, on the EDT: mostly typing, sometimes a mode
+     * switch, a logo change or a window resize.
+     *
+     * @throws Exception if the EDT is interrupted or the action fails
+     */
+    private void act() throws Exception {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            type();
+            edits++;
+        } else if (roll < 80) {
+            mode = MODES[random.nextInt(MODES.length)];
+            modeSwitches++;
+        } else if (roll < 88) {
+            int choice = random.nextInt(logos.size() + 1);
+            logo = choice == logos.size() ? null : logos.get(choice);
+            logoChanges++;
+        } else {
+            height = HEIGHTS[random.nextInt(HEIGHTS.length)];
+            WholeFields fields = fields();
+            SwingUtilities.invokeAndWait(() -> resize.updateQrCodeResize(fields));
+            resizes++;
+            return;
+        }
+        WholeFields fields = fields();
+        SwingUtilities.invokeAndWait(() -> preview.updateQrCodePreview(fields));
+    }
+
+    /** Types a character, or starts over once the text is long. */
+    private void type() {
+        text =
+                text.length() >= MAX_TEXT
+                        ? "M"
+                        : text + TYPED.charAt(random.nextInt(TYPED.length()));
+    }
+
+    /**
+     * Returns the delay before the next action: mostly shorter than the debounce delay, so that
+     * renders are dropped and cancelled as when typing, sometimes long enough for them to finish.
+     *
+     * @return the delay, in milliseconds
+     */
+    private long pause() {
+        return random.nextInt(10) < 7 ? 20 + random.nextInt(150) : 300 + random.nextInt(700);
+    }
+
+    /**
+     * Builds the form of the current mode, text, logo and window height.
+     *
+     * @return the fields
+     */
+    private WholeFields fields() {
+        boolean meet = mode == Mode.MEET;
+        boolean mecard = mode == Mode.MECARD;
+        return new WholeFields(
+                () -> height,
+                mode,
+                mode == Mode.FREE ? text : "",
+                mecard ? text : "",
+                mecard ? "SOFT64" : "",
+                mecard ? "+33612345678" : "",
+                mecard ? "marie.dupont@exemple.fr" : "",
+                "",
+                "",
+                meet ? text : "",
+                meet ? "soak-" + text.length() : "",
+                meet ? "Marie Dupont" : "",
+                meet ? "20250314T093000Z" : "",
+                meet ? "20250314T104500Z" : "",
+                meet ? "45.764043" : "",
+                meet ? "4.835659" : "",
+                logo == null ? "" : logo.getAbsolutePath(),
+                height,
+                3,
+                0.27,
+                Color.BLACK,
+                Color.WHITE,
+                random.nextBoolean(),
+                EccLevel.AUTO,
+                false,
+                false,
+                StructuredAppend.OFF);
+    }
+
+    /**
+     * Takes a sample, after a full GC.
+     *
+     * @param hours the elapsed time
+     * @return the sample
+     * @throws JMException if a diagnostic command fails
+     */
+    private Sample sample(double hours) throws JMException {
+        long images = liveImages();
+        return new Sample(
+                hours,
+                heapAfterGcMb(),
+                nativeCommittedMb(),
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                images);
+    }
+
+    /**
+     * Sums the heap pools as the last GC left them, ignoring what was allocated since.
+     *
+     * @return the heap used after the last GC, in MB
+     */
+    private static double heapAfterGcMb() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used / MB;
+    }
+
+    /**
+     * Counts the live images with a class histogram, which runs a full GC first.
+     *
+     * @return the number of {@link BufferedImage} instances
+     * @throws JMException if the diagnostic command fails
+     */
+    private long liveImages() throws JMException {
+        String histogram = diagnosticCommand("gcClassHistogram");
+        for (String line : histogram.split("\\R")) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length >= 4 && BufferedImage.class.getName().equals(columns[3])) {
+                return Long.parseLong(columns[1]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reads the native memory committed by the JVM.
+     *
+     * @return the total, in MB, or {@code -1} if native memory tracking is off
+     * @throws JMException if the diagnostic command fails
+     */
+    private double nativeCommittedMb() throws JMException {
+        Matcher total = NMT_TOTAL.matcher(diagnosticCommand("vmNativeMemory", "summary"));
+        return total.find() ? Long.parseLong(total.group(2)) / 1024.0 : -1;
+    }
+
+    /**
+     * Runs a diagnostic command, as {@code jcmd} would.
+     *
+     * @param command the operation name of the command
+     * @param args its arguments
+     * @return its output
+     * @throws JMException if the command fails
+     */
+    private String diagnosticCommand(String command, String... args) throws JMException {
+        return (String)
+                server.invoke(
+                        diagnostics,
+                        command,
+                        new Object[] {args},
+                        new String[] {String[].class.getName()});
+    }
+
+    /**
+     * Prints a sample.
+     *
+     * @param sample the sample
+     */
+    private static void print(Sample sample) {
+        long minutes = Math.round(sample.hours() * 60);
+        System.out.printf(
+                "[Soak] %02d:%02d tas %.1f Mo, natif %s, %d threads, %d images%n",
+                minutes / 60,
+                minutes % 60,
+                sample.heapMb(),
+                sample.nativeMb() < 0 ? "n/d" : String.format("%.1f Mo", sample.nativeMb()),
+                sample.threads(),
+                sample.images());
+    }
+
+    /**
+     * Reports the slope of each series after the warm-up and checks it against its tolerance.
+     *
+     * @param samples the samples, in order
+     * @return {@code true} if no series grows beyond its tolerance
+     */
+    private static boolean verdict(List<Sample> samples) {
+        List<Sample> steady =
+                samples.subList((int) (samples.size() * WARMUP_SHARE), samples.size());
+        if (steady.size() < MIN_SAMPLES) {
+            System.out.printf(
+                    "[Soak] Trop peu d'échantillons (%d) pour estimer une pente%n", steady.size());
+            return true;
+        }
+        boolean passed =
+                check("Tas après GC", " Mo", steady, Sample::heapMb, HEAP_TOLERANCE, HEAP_FLOOR);
+        if (steady.get(0).nativeMb() >= 0) {
+            passed &=
+                    check(
+                            "Mémoire native",
+                            " Mo",
+                            steady,
+                            Sample::nativeMb,
+                            NATIVE_TOLERANCE,
+                            NATIVE_FLOOR);
+        }
+        passed &= check("Threads", "", steady, Sample::threads, THREAD_TOLERANCE, THREAD_FLOOR);
+        passed &= check("Images", "", steady, Sample::images, IMAGE_TOLERANCE, IMAGE_FLOOR);
+        System.out.println(passed ? "[Soak] Aucune fuite détectée" : "[Soak] ÉCHEC : croissance");
+        return passed;
+    }
+
+    /**
+     * Prints the slope of one series and checks it.
+     *
+     * @param label the series name
+     * @param unit the series unit
+     * @param samples the samples after the warm-up
+     * @param series the value of a sample
+     * @param tolerance the largest acceptable slope, per hour
+     * @param floor the largest growth over the samples attributed to noise
+     * @return {@code true} unless both the slope and the growth it implies are too large
+     */
+    private static boolean check(
+            String label,
+            String unit,
+            List<Sample> samples,
+            ToDoubleFunction<Sample> series,
+            double tolerance,
+            double floor) {
+        double slope = slope(samples, series);
+        double growth = slope * (samples.get(samples.size() - 1).hours() - samples.get(0).hours());
+        boolean ok = slope <= tolerance || growth <= floor;
+        System.out.printf(
+                "[Soak] %s : pente %+.2f%s/h, soit %+.1f%s sur la mesure (tolérance %.0f%s/h"
+                        + " au-delà de %.0f%s) %s%n",
+                label,
+                slope,
+                unit,
+                growth,
+                unit,
+                tolerance,
+                unit,
+                floor,
+                unit,
+                ok ? "OK" : "FUITE");
+        return ok;
+    }
+
+    /**
+     * Fits a line to a series by least squares.
+     *
+     * @param samples the samples
+     * @param series the value of a sample
+     * @return the slope, per hour
+     */
+    private static double slope(List<Sample> samples, ToDoubleFunction<Sample> series) {
+        double meanX = samples.stream().mapToDouble(Sample::hours).average().orElse(0);
+        double meanY = samples.stream().mapToDouble(series).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (Sample sample : samples) {
+            double dx = sample.hours() - meanX;
+            covariance += dx * (series.applyAsDouble(sample) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.awt.Window;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.AbstractButton;
+import javax.swing.JButton;
+import javax.swing.JColorChooser;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+
+import com.formdev.flatlaf.intellijthemes.FlatCobalt2IJTheme;
+
+import fr.softsf.canscan.model.SessionAction;
+import fr.softsf.canscan.model.SessionEvent;
+import fr.softsf.canscan.monitoring.CanScanMetrics;
+import fr.softsf.canscan.monitoring.EdtWatchdog;
+import fr.softsf.canscan.monitoring.PreviewLatencyTracer;
+import fr.softsf.canscan.monitoring.SessionRecorder;
+import fr.softsf.canscan.util.FontManager;
+import fr.softsf.canscan.util.LatencyHistogram;
+
+/**
+ * Replays a session recorded with {@code -Dcanscan.recordSession=<file>} in the real window, at the
+ * recorded pace, and reports what the user would have felt.
+ *
+ * <p>Arguments: session file, speed factor (default 1, 2 replays twice as fast) and an optional
+ * results file. Each action is posted to the EDT at its recorded time and applied to its component:
+ * the edits go to the document of the field, the sliders, check boxes and combo boxes get their new
+ * value, the colors are chosen in the color dialog and the window is resized. Actions are replayed
+ * on the components, not as mouse and key events, so that a replay does not depend on the layout,
+ * fonts or screen of the machine. An action that no longer applies, such as an edit beyond the end
+ * of a field, is skipped and counted.
+ *
+ * <p>The report gives the action-to-preview latency of {@link PreviewLatencyTracer} (p50, p95, p99,
+ * max), the wait and handling time of the actions on the EDT, the EDT stalls over 100 ms, the
+ * renders started, completed, cancelled and dropped before start, and the CPU time of the process
+ * and of the EDT. The results file holds the same figures as {@code key=value} lines, for
+ * comparison between two builds. A display is needed: run it under Xvfb with {@code mvn
+ * test-compile exec:exec -Preplay -Dreplay.session=<file>}.
+ */
+@SuppressWarnings("CallToPrintStackTrace")
+public class SessionReplayBenchmark {
+
+    private static final double DEFAULT_SPEED = 1;
+    private static final long SETTLE_MILLIS = 2000;
+    private static final long QUIET_MILLIS = 2000;
+    private static final long DIALOG_TIMEOUT_MILLIS = 5000;
+    private static final long POLL_MILLIS = 20;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    private static final double PERCENT = 100.0;
+    private static final double P50 = 50;
+    private static final double P95 = 95;
+    private static final double P99 = 99;
+    private final LatencyHistogram queueing = new LatencyHistogram();
+    private final LatencyHistogram handling = new LatencyHistogram();
+    private final Map<SessionAction, Integer> replayed = new EnumMap<>(SessionAction.class);
+    private final AtomicLong skipped = new AtomicLong();
+    private final Map<String, String> results = new LinkedHashMap<>();
+    private CanScan frame;
+    private Map<String, JComponent> components;
+    private Thread edt;
+
+    /**
+     * Replays the session and prints the report.
+     *
+     * @param args session file, optional speed factor and results file
+     * @throws Exception if the session cannot be read or the replay fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage : SessionReplayBenchmark <session> [vitesse] [résultats]");
+            System.exit(2);
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println(
+                    "[Replay] Un affichage est nécessaire : lancer sous Xvfb (xvfb-run)");
+            System.exit(2);
+        }
+        List<SessionEvent> events = SessionRecorder.read(Path.of(args[0]));
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_SPEED;
+        FlatCobalt2IJTheme.setup();
+        FontManager.INSTANCE.initialize();
+        SessionReplayBenchmark benchmark = new SessionReplayBenchmark();
+        try {
+            benchmark.run(args[0], events, speed);
+        } catch (Exception e) {
+            System.err.println("[Replay] Échec du rejeu : " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        if (args.length > 2) {
+            benchmark.write(Path.of(args[2]));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Opens the window, replays the actions at their recorded pace, lets the last renders finish
+     * and reports.
+     *
+     * @param name the session name, for the report
+     * @param events the recorded actions
+     * @param speed the speed factor
+     * @throws Exception if the window cannot be created or the thread is interrupted
+     */
+    void run(String name, List<SessionEvent> events, double speed) throws Exception {
+        SwingUtilities.invokeAndWait(
+                () -> {
+                    frame = new CanScan();
+                    frame.setVisible(true);
+                    components = SessionRecorder.namedComponents(frame);
+                    edt = Thread.currentThread();
+                });
+        Thread.sleep(SETTLE_MILLIS);
+        PreviewLatencyTracer.INSTANCE.reset();
+        CanScanMetrics.INSTANCE.reset();
+        EdtWatchdog.INSTANCE.reset();
+        EdtWatchdog.INSTANCE.setEnabled(true);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean)
+                        ManagementFactory.getOperatingSystemMXBean();
+        long processCpu = os.getProcessCpuTime();
+        long edtCpu = threads.getThreadCpuTime(edt.threadId());
+        long start = System.nanoTime();
+        long due = start;
+        for (SessionEvent event : events) {
+            due += (long) (event.delayMillis() * NANOS_PER_MILLI / speed);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            replay(event);
+        }
+        Thread.sleep(QUIET_MILLIS);
+        SwingUtilities.invokeAndWait(() -> {});
+        long wall = System.nanoTime() - start;
+        processCpu = os.getProcessCpuTime() - processCpu;
+        edtCpu = threads.getThreadCpuTime(edt.threadId()) - edtCpu;
+        EdtWatchdog.INSTANCE.setEnabled(false);
+        SwingUtilities.invokeAndWait(frame::dispose);
+        report(name, events.size(), speed, wall, processCpu, edtCpu);
+    }
+
+    /**
+     * Posts an action to the EDT, timing its wait in the queue and its handling.
+     *
+     * @param event the action
+     * @throws Exception if the thread is interrupted while choosing a color
+     */
+    private void replay(SessionEvent event) throws Exception {
+        JComponent target =
+                event.action() == SessionAction.RESIZE
+                        ? frame.getRootPane()
+                        : components.get(event.target());
+        if (target == null) {
+            skipped.incrementAndGet();
+            return;
+        }
+        replayed.merge(event.action(), 1, Integer::sum);
+        if (event.action() == SessionAction.COLOR && target instanceof JButton button) {
+            chooseColor(button, event);
+            return;
+        }
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(
+                () -> {
+                    long begin = System.nanoTime();
+                    queueing.record(begin - posted);
+                    if (!apply(target, event)) {
+                        skipped.incrementAndGet();
+                    }
+                    handling.record(System.nanoTime() - begin);
+                });
+    }
+
+    /**
+     * Applies an action to its component, on the EDT. Actions that update the preview without a
+     * document event are stamped for {@link PreviewLatencyTracer}; the edits are stamped by the
+     * listener of the field.
+     *
+     * @param target the component
+     * @param event the action
+     * @return {@code false} if the action no longer applies
+     */
+    private boolean apply(JComponent target, SessionEvent event) {
+        try {
+            return switch (event.action()) {
+                case INSERT -> insert(((JTextComponent) target).getDocument(), event.value());
+                case REMOVE -> remove(((JTextComponent) target).getDocument(), event.value());
+                case SLIDE -> {
+                    PreviewLatencyTracer.INSTANCE.stamp(event);
+                    ((JSlider) target).setValue(Integer.parseInt(event.value()));
+                    yield true;
+                }
+                case CLICK -> {
+                    PreviewLatencyTracer.INSTANCE.stamp(event);
+                    ((AbstractButton) target).doClick(0);
+                    yield true;
+                }
+                case SELECT -> select((JComboBox<?>) target, event);
+                case RESIZE -> resize(event.value());
+                case COLOR -> false;
+            };
+        } catch (BadLocationException | ClassCastException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Inserts recorded text into a document.
+     *
+     * @param document the document of the field
+     * @param value {@code offset:text}
+     * @return {@code true}
+     * @throws BadLocationException if the offset is beyond the text
+     */
+    private static boolean insert(Document document, String value) throws BadLocationException {
+        int colon = value.indexOf(':');
+        document.insertString(
+                Integer.parseInt(value.substring(0, colon)), value.substring(colon + 1), null);
+        return true;
+    }
+
+    /**
+     * Removes recorded text from a document.
+     *
+     * @param document the document of the field
+     * @param value {@code offset:length}
+     * @return {@code true}
+     * @throws BadLocationException if the range is beyond the text
+     */
+    private static boolean remove(Document document, String value) throws BadLocationException {
+        int colon = value.indexOf(':');
+        document.remove(
+                Integer.parseInt(value.substring(0, colon)),
+                Integer.parseInt(value.substring(colon + 1)));
+        return true;
+    }
+
+    /**
+     * Selects a combo box entry, stamped only when it changes the selection.
+     *
+     * @param combo the combo box
+     * @param event the action, whose value is the entry index
+     * @return {@code false} if the index is out of range
+     */
+    private static boolean select(JComboBox<?> combo, SessionEvent event) {
+        int index = Integer.parseInt(event.value());
+        if (index < 0 || index >= combo.getItemCount()) {
+            return false;
+        }
+        if (index != combo.getSelectedIndex()) {
+            PreviewLatencyTracer.INSTANCE.stamp(event);
+            combo.setSelectedIndex(index);
+        }
+        return true;
+    }
+
+    /**
+     * Resizes the window.
+     *
+     * @param value {@code widthxheight}
+     * @return {@code true}
+     */
+    private boolean resize(String value) {
+        int x = value.indexOf('x');
+        frame.setSize(
+                Integer.parseInt(value.substring(0, x)), Integer.parseInt(value.substring(x + 1)));
+        return true;
+    }
+
+    /**
+     * Chooses a color as the user did: clicks the button, waits for the modal color dialog, sets
+     * the color and confirms it. The click blocks the EDT in the dialog, so the dialog is driven
+     * from the replay thread.
+     *
+     * @param button the color button
+     * @param event the action, whose value is the color
+     * @throws Exception if the thread is interrupted
+     */
+    private void chooseColor(JButton button, SessionEvent event) throws Exception {
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(
+                () -> {
+                    queueing.record(System.nanoTime() - posted);
+                    button.doClick(0);
+                });
+        JDialog dialog = null;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DIALOG_TIMEOUT_MILLIS);
+        while (dialog == null && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+            dialog = findColorDialog();
+        }
+        if (dialog == null) {
+            skipped.incrementAndGet();
+            return;
+        }
+        JDialog shown = dialog;
+        SwingUtilities.invokeAndWait(
+                () -> {
+                    long begin = System.nanoTime();
+                    JColorChooser chooser = find(shown, JColorChooser.class);
+                    JButton ok = shown.getRootPane().getDefaultButton();
+                    if (chooser == null || ok == null) {
+                        skipped.incrementAndGet();
+                        shown.dispose();
+                        return;
+                    }
+                    chooser.setColor(Color.decode(event.value()));
+                    PreviewLatencyTracer.INSTANCE.stamp(event);
+                    ok.doClick(0);
+                    handling.record(System.nanoTime() - begin);
+                });
+    }
+
+    /**
+     * Returns the showing dialog that holds a color chooser.
+     *
+     * @return the dialog, or {@code null} if not shown yet
+     */
+    private static JDialog findColorDialog() {
+        for (Window window : Window.getWindows()) {
+            if (window.isShowing()
+                    && window instanceof JDialog dialog
+                    && find(dialog, JColorChooser.class) != null) {
+                return dialog;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first component of a type in a container tree.
+     *
+     * @param container the root of the tree
+     * @param type the component type
+     * @param <T> the component type
+     * @return the component, or {@code null}
+     */
+    private static <T extends Component> T find(Container container, Class<T> type) {
+        for (Component child : container.getComponents()) {
+            if (type.isInstance(child)) {
+                return type.cast(child);
+            }
+            if (child instanceof Container nested) {
+                T found = find(nested, type);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prints the report and keeps its figures for the results file.
+     *
+     * @param name the session name
+     * @param count the recorded actions
+     * @param speed the speed factor
+     * @param wall the replay duration, in nanoseconds
+     * @param processCpu the CPU time of the process, in nanoseconds
+     * @param edtCpu the CPU time of the EDT, in nanoseconds
+     */
+    private void report(
+            String name, int count, double speed, long wall, long processCpu, long edtCpu) {
+        PreviewLatencyTracer latency = PreviewLatencyTracer.INSTANCE;
+        CanScanMetrics metrics = CanScanMetrics.INSTANCE;
+        EdtWatchdog watchdog = EdtWatchdog.INSTANCE;
+        long completed = metrics.getRenderCount();
+        long cancelled = metrics.getCancelledRenderCount();
+        System.out.printf(
+                "[Replay] %s : %d actions %s, vitesse x%.1f, %d non rejouées%n",
+                name, count, replayed, speed, skipped.get());
+        System.out.printf(
+                "[Replay] Action → aperçu : p50 %.0f ms · p95 %.0f ms · p99 %.0f ms · max %.0f ms"
+                        + " (n = %d)%n",
+                latency.getP50Millis(),
+                latency.getP95Millis(),
+                latency.getP99Millis(),
+                latency.getMaxMillis(),
+                latency.getCount());
+        System.out.printf(
+                "[Replay] Attente EDT : p50 %.1f ms · p95 %.1f ms · p99 %.1f ms · max %.1f ms ;"
+                        + " traitement p95 %.1f ms · max %.1f ms%n",
+                millis(queueing, P50),
+                millis(queueing, P95),
+                millis(queueing, P99),
+                queueing.max() / NANOS_PER_MILLI,
+                millis(handling, P95),
+                handling.max() / NANOS_PER_MILLI);
+        System.out.printf(
+                "[Replay] Blocages EDT > %d ms : %d, max %d ms%n",
+                watchdog.getThresholdMillis(), watchdog.getStallCount(), watchdog.getMaxMillis());
+        System.out.printf(
+                "[Replay] Rendus : %d lancés, %d terminés, %d annulés, %d abandonnés avant"
+                        + " lancement%n",
+                completed + cancelled, completed, cancelled, metrics.getDroppedRenderCount());
+        System.out.printf(
+                "[Replay] CPU : processus %.0f ms (%.0f %% d'un cœur sur %.1f s), EDT %.0f ms%n",
+                processCpu / NANOS_PER_MILLI,
+                processCpu * PERCENT / wall,
+                wall / NANOS_PER_MILLI / MILLIS_PER_SECOND,
+                edtCpu / NANOS_PER_MILLI);
+        keep("actions", count);
+        keep("actions.skipped", skipped.get());
+        keep("latency.count", latency.getCount());
+        keep("latency.p50.ms", latency.getP50Millis());
+        keep("latency.p95.ms", latency.getP95Millis());
+        keep("latency.p99.ms", latency.getP99Millis());
+        keep("latency.max.ms", latency.getMaxMillis());
+        keep("edt.wait.p95.ms", millis(queueing, P95));
+        keep("edt.wait.max.ms", queueing.max() / NANOS_PER_MILLI);
+        keep("edt.handling.p95.ms", millis(handling, P95));
+        keep("edt.stalls", watchdog.getStallCount());
+        keep("renders.started", completed + cancelled);
+        keep("renders.completed", completed);
+        keep("renders.cancelled", cancelled);
+        keep("renders.dropped", metrics.getDroppedRenderCount());
+        keep("cpu.process.ms", processCpu / NANOS_PER_MILLI);
+        keep("cpu.edt.ms", edtCpu / NANOS_PER_MILLI);
+        keep("wall.ms", wall / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Returns a percentile of a histogram of nanoseconds, in milliseconds.
+     *
+     * @param histogram the histogram
+     * @param percentile the percentile
+     * @return the value, in milliseconds
+     */
+    private static double millis(LatencyHistogram histogram, double percentile) {
+        return histogram.valueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Keeps a figure for the results file.
+     *
+     * @param key the figure name
+     * @param value the figure
+     */
+    private void keep(String key, Number value) {
+        results.put(
+                key,
+                value instanceof Double d
+                        ? String.format(Locale.ROOT, "%.3f", d)
+                        : String.valueOf(value));
+    }
+
+    /**
+     * Writes the figures as {@code key=value} lines.
+     *
+     * @param file the results file
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        results.forEach((key, value) -> lines.add(key + "=" + value));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        System.out.println("[Replay] Résultats : " + file.toAbsolutePath());
+    }
+}
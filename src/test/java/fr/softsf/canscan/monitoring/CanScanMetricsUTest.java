@@ -0,0 +1,106 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.softsf.canscan.model.CacheStats;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.RenderCache;
+import fr.softsf.canscan.model.RenderStage;
+import fr.softsf.canscan.model.StageLatency;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** CanScan metrics tests ***")
+class CanScanMetricsUTest {
+
+    private static final CommonFields CONFIG =
+            new CommonFields(
+                    null, 300, 0.2, Color.BLACK, Color.WHITE, true, 2, EccLevel.AUTO, false, false);
+    private final CanScanMetrics metrics = CanScanMetrics.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        metrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.reset();
+    }
+
+    @Test
+    void givenRenderWhenDoneThenEachStageIsTimedWithJfrDisabled() throws Exception {
+        long allocated = metrics.allocatedBytes();
+        new EncodedImage().generateImage("MECARD:N:Doe,John;;", CONFIG);
+        metrics.recordRender(allocated);
+        StageLatency[] latencies = metrics.getStageLatencies();
+        assertEquals(RenderStage.values().length, latencies.length);
+        for (RenderStage stage :
+                new RenderStage[] {
+                    RenderStage.ENCODE,
+                    RenderStage.DRAW_MODULES,
+                    RenderStage.DRAW_FINDER_PATTERNS,
+                    RenderStage.DRAW_LOGO
+                }) {
+            StageLatency latency = latencies[stage.ordinal()];
+            assertEquals(stage.name(), latency.stage());
+            assertEquals(1, latency.count());
+            assertTrue(latency.p50Micros() <= latency.maxMicros());
+        }
+        assertEquals(0, latencies[RenderStage.SAVE.ordinal()].count());
+        assertEquals(1, metrics.getRenderCount());
+        assertTrue(metrics.getMeanAllocatedBytesPerRender() > 0);
+        CacheStats layouts = metrics.getCaches()[RenderCache.QR_LAYOUT.ordinal()];
+        assertTrue(layouts.hits() + layouts.misses() > 0);
+        assertTrue(layouts.size() > 0 || layouts.hits() > 0);
+    }
+
+    @Test
+    void givenCacheLookupsWhenReadThenHitRatioIsTheShareOfHits() {
+        metrics.cacheLookup(RenderCache.ZIP_RENDERS, true);
+        metrics.cacheLookup(RenderCache.ZIP_RENDERS, true);
+        metrics.cacheLookup(RenderCache.ZIP_RENDERS, true);
+        metrics.cacheLookup(RenderCache.ZIP_RENDERS, false);
+        metrics.cacheSize(RenderCache.ZIP_RENDERS, 7);
+        CacheStats stats = metrics.getCaches()[RenderCache.ZIP_RENDERS.ordinal()];
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.75, stats.hitRatio());
+        assertEquals(7, stats.size());
+        assertEquals(0, metrics.getCaches()[RenderCache.LABEL_MATRICES.ordinal()].hitRatio());
+    }
+
+    @Test
+    void givenRegisteredMetricsWhenReadThroughJmxThenOpenTypesAreExposed() throws Exception {
+        metrics.renderCancelled();
+        metrics.renderDropped();
+        metrics.renderDropped();
+        assertTrue(metrics.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CanScanMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "CancelledRenderCount"));
+        assertEquals(2L, server.getAttribute(name, "DroppedRenderCount"));
+        CompositeData[] stages = (CompositeData[]) server.getAttribute(name, "StageLatencies");
+        assertEquals("ENCODE", stages[0].get("stage"));
+        CompositeData[] caches = (CompositeData[]) server.getAttribute(name, "Caches");
+        assertEquals(RenderCache.values().length, caches.length);
+        assertTrue((long) server.getAttribute(name, "ImageMemoryBudgetMB") >= 0);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.awt.EventQueue;
+import java.lang.management.ManagementFactory;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** EDT watchdog tests ***")
+class EdtWatchdogUTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private final EdtWatchdog watchdog = EdtWatchdog.INSTANCE;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EventQueue.invokeAndWait(() -> {});
+        watchdog.reset();
+        watchdog.setThresholdMillis(50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.setEnabled(false);
+        watchdog.setThresholdMillis(100);
+        watchdog.reset();
+    }
+
+    @Test
+    void givenBlockedEdtWhenItDispatchesAgainThenStallIsRecordedWithItsStack() throws Exception {
+        watchdog.setEnabled(true);
+        Thread.sleep(100);
+        EventQueue.invokeAndWait(EdtWatchdogUTest::blockEdt);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (watchdog.getStallCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, watchdog.getStallCount());
+        assertTrue(watchdog.getMaxMillis() >= 200);
+        String[] stalls = watchdog.getRecentStalls();
+        assertEquals(1, stalls.length);
+        assertTrue(stalls[0].contains("blockEdt"));
+    }
+
+    @Test
+    void givenIdleEdtWhenSampledThenNoStallIsRecorded() throws Exception {
+        watchdog.setEnabled(true);
+        Thread.sleep(300);
+        assertEquals(0, watchdog.getStallCount());
+        assertEquals(0, watchdog.getRecentStalls().length);
+    }
+
+    @Test
+    void givenRegisteredWatchdogWhenSwitchedThroughJmxThenSamplerStartsAndStops() throws Exception {
+        assertTrue(watchdog.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(EdtWatchdog.OBJECT_NAME);
+        server.setAttribute(name, new Attribute("Enabled", true));
+        assertTrue(watchdog.isEnabled());
+        server.setAttribute(name, new Attribute("ThresholdMillis", 0L));
+        assertEquals(1L, server.getAttribute(name, "ThresholdMillis"));
+        server.setAttribute(name, new Attribute("Enabled", false));
+        assertFalse(watchdog.isEnabled());
+    }
+
+    /** Sleeps on the EDT, long past the threshold. */
+    private static void blockEdt() {
+        try {
+            Thread.sleep(250);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
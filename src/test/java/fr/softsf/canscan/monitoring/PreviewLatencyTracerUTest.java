@@ -0,0 +1,92 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Preview latency tracer tests ***")
+class PreviewLatencyTracerUTest {
+
+    private final PreviewLatencyTracer tracer = PreviewLatencyTracer.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        tracer.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracer.onRecorded(null);
+        tracer.reset();
+    }
+
+    @Test
+    void givenEventSeenByTwoListenersWhenCompletedThenOneLatencyIsRecorded() throws Exception {
+        Object event = new Object();
+        tracer.stamp(event);
+        tracer.stamp(event);
+        tracer.assign(7);
+        Thread.sleep(5);
+        tracer.complete(7);
+        assertEquals(1, tracer.getCount());
+        assertTrue(tracer.getMaxMillis() >= 5);
+        assertTrue(tracer.getP50Millis() <= tracer.getP99Millis());
+    }
+
+    @Test
+    void givenBurstOfKeystrokesWhenLastPreviewShownThenEveryKeystrokeIsCompleted() {
+        tracer.stamp(new Object());
+        tracer.assign(10);
+        tracer.stamp(new Object());
+        tracer.assign(11);
+        tracer.stamp(new Object());
+        tracer.complete(11);
+        assertEquals(2, tracer.getCount());
+        tracer.assign(12);
+        tracer.complete(12);
+        assertEquals(3, tracer.getCount());
+    }
+
+    @Test
+    void givenEarlierPreviewWhenShownThenLaterKeystrokesStayPending() {
+        AtomicInteger refreshes = new AtomicInteger();
+        tracer.onRecorded(refreshes::incrementAndGet);
+        tracer.stamp(new Object());
+        tracer.assign(20);
+        tracer.stamp(new Object());
+        tracer.assign(21);
+        tracer.complete(19);
+        assertEquals(0, tracer.getCount());
+        tracer.complete(20);
+        assertEquals(1, tracer.getCount());
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void givenRegisteredTracerWhenReadThroughJmxThenPercentilesAreExposed() throws Exception {
+        tracer.stamp(new Object());
+        tracer.assign(30);
+        tracer.complete(30);
+        assertTrue(tracer.register());
+        assertTrue(tracer.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PreviewLatencyTracer.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "Count"));
+        assertEquals(tracer.getP99Millis(), (double) server.getAttribute(name, "P99Millis"));
+        assertTrue(tracer.summary().contains("(n = 1)"));
+    }
+}
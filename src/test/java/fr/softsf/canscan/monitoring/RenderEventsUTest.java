@@ -0,0 +1,117 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.ui.EncodedImage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Render events tests ***")
+class RenderEventsUTest {
+
+    private static final String PREFIX = "fr.softsf.canscan.";
+    private static final CommonFields CONFIG =
+            new CommonFields(
+                    null, 300, 0.2, Color.BLACK, Color.WHITE, true, 2, EccLevel.AUTO, false, false);
+
+    @TempDir Path tempDir;
+    private final EncodedImage encodedImage = new EncodedImage();
+
+    @AfterEach
+    void tearDown() {
+        RenderCorrelation.INSTANCE.unbind();
+    }
+
+    private List<RecordedEvent> record(Recording recording) throws Exception {
+        recording.start();
+        RenderCorrelation.INSTANCE.bind(42);
+        encodedImage.generateImage("MECARD:N:Doe,John;;", CONFIG);
+        EditEvent.emit(43, "FREE");
+        recording.stop();
+        Path file = tempDir.resolve("render.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void givenEnabledEventsWhenImageGeneratedThenEachStageIsRecordedWithItsAction()
+            throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String stage :
+                    List.of("Encode", "DrawModules", "DrawFinderPatterns", "DrawLogo", "Edit")) {
+                recording.enable(PREFIX + stage).withoutThreshold();
+            }
+            events = record(recording);
+        }
+        assertEquals(
+                List.of("Encode", "DrawModules", "DrawFinderPatterns", "DrawLogo", "Edit"),
+                events.stream()
+                        .map(e -> e.getEventType().getName().substring(PREFIX.length()))
+                        .toList());
+        RecordedEvent encode = events.get(0);
+        assertEquals(42, encode.getLong("correlationId"));
+        assertEquals(300, encode.getInt("size"));
+        assertEquals(
+                encodedImage.encodeSymbol("MECARD:N:Doe,John;;", CONFIG).info().modules(),
+                encode.getInt("modules"));
+        assertTrue(encode.getBoolean("rounded"));
+        assertFalse(encode.getBoolean("logo"));
+        assertEquals(43, events.get(4).getLong("correlationId"));
+        assertEquals("FREE", events.get(4).getString("mode"));
+    }
+
+    @Test
+    void givenDefaultSettingsWhenImageGeneratedThenNothingIsRecorded() throws Exception {
+        try (Recording recording = new Recording()) {
+            assertTrue(record(recording).isEmpty());
+        }
+    }
+
+    @Test
+    void givenShippedProfileWhenParsedThenEveryEventIsEnabled() throws IOException {
+        String profile = Files.readString(Path.of(".myresources/jfr/canscan.jfc"));
+        for (String name :
+                List.of(
+                        "Edit",
+                        "Encode",
+                        "DrawModules",
+                        "DrawFinderPatterns",
+                        "DrawLogo",
+                        "Resize",
+                        "Save")) {
+            assertTrue(profile.contains("\"" + PREFIX + name + "\""), name);
+        }
+    }
+
+    @Test
+    void givenNoBoundActionWhenCurrentThenZeroAndIdentifiersIncrease() {
+        assertEquals(0, RenderCorrelation.INSTANCE.current());
+        long first = RenderCorrelation.INSTANCE.next();
+        assertTrue(RenderCorrelation.INSTANCE.next() > first);
+    }
+}
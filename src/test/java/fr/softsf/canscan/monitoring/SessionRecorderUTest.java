@@ -0,0 +1,96 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.monitoring;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import javax.swing.JComponent;
+import javax.swing.JSlider;
+import javax.swing.JTextField;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.SessionAction;
+import fr.softsf.canscan.model.SessionEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("*** Session recorder tests ***")
+class SessionRecorderUTest {
+
+    @TempDir Path dir;
+
+    /** Holds components the way the main window does. */
+    @SuppressWarnings("unused")
+    private static final class Window {
+        private final JSlider marginSlider = new JSlider();
+        private final JTextField nameField = new JTextField();
+        private final String label = "not a component";
+
+        Window() {
+            nameField.setName("name");
+        }
+    }
+
+    @Test
+    void givenEventWithTabsAndLineBreaksWhenWrittenThenReadBackIdentical() {
+        SessionEvent event =
+                new SessionEvent(125, SessionAction.INSERT, "freeField", "3:a\tb\nc\\d\r");
+        String line = event.toLine();
+        assertEquals(-1, line.indexOf('\n'));
+        assertEquals(3, line.chars().filter(c -> c == '\t').count());
+        assertEquals(event, SessionEvent.parse(line));
+    }
+
+    @Test
+    void givenCompressedSessionWhenReadThenActionsInOrder() throws IOException {
+        Path file = dir.resolve("session.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(
+                    (SessionRecorder.HEADER
+                                    + "\n0\tRESIZE\t\t800x600\n40\tSLIDE\tratioSlider\t25\n"
+                                    + "310\tCOLOR\tqrColorButton\t#FF00AA\n")
+                            .getBytes(StandardCharsets.UTF_8));
+        }
+        List<SessionEvent> events = SessionRecorder.read(file);
+        assertEquals(
+                List.of(
+                        new SessionEvent(0, SessionAction.RESIZE, "", "800x600"),
+                        new SessionEvent(40, SessionAction.SLIDE, "ratioSlider", "25"),
+                        new SessionEvent(310, SessionAction.COLOR, "qrColorButton", "#FF00AA")),
+                events);
+    }
+
+    @Test
+    void givenFileWithoutHeaderOrWithUnknownActionWhenReadThenFails() throws IOException {
+        Path noHeader = Files.writeString(dir.resolve("a.txt"), "0\tSLIDE\tratioSlider\t25\n");
+        Path unknown =
+                Files.writeString(
+                        dir.resolve("b.txt"),
+                        SessionRecorder.HEADER + "\n0\tDRAG\tratioSlider\t2\n");
+        assertThrows(IOException.class, () -> SessionRecorder.read(noHeader));
+        assertThrows(IOException.class, () -> SessionRecorder.read(unknown));
+    }
+
+    @Test
+    void givenFieldsWhenNamedThenUnnamedComponentsTakeTheFieldName() {
+        Window window = new Window();
+        Map<String, JComponent> components = SessionRecorder.namedComponents(window);
+        assertEquals(List.of("marginSlider", "name"), List.copyOf(components.keySet()));
+        assertSame(window.marginSlider, components.get("marginSlider"));
+        assertEquals("marginSlider", window.marginSlider.getName());
+    }
+}
@@ -5,9 +5,15 @@
  */
 package fr.softsf.canscan.service;
 
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import fr.softsf.canscan.constant.StringConstants;
+import fr.softsf.canscan.util.DateHelper;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -85,4 +91,97 @@ class DataBuilderServiceUTest {
         String result = DataBuilderService.INSTANCE.buildMeet("", "", "", "", "", "", "");
         assertEquals("", result);
     }
+
+    @Test
+    void givenRandomFieldsWhenBuildMecardAndMeetThenSameAsFormatImplementation() {
+        Random random = new Random(46);
+        String[] values = {null, "", " ", "\t", "Jo", "é;à", "48.8566", "-2.35"};
+        for (int i = 0; i < 20_000; i++) {
+            String[] f = new String[7];
+            for (int j = 0; j < f.length; j++) {
+                f[j] = values[random.nextInt(values.length)];
+            }
+            assertEquals(
+                    legacyMecard(f[0], f[1], f[2], f[3], f[4], f[5]),
+                    DataBuilderService.INSTANCE.buildMecard(f[0], f[1], f[2], f[3], f[4], f[5]));
+            assertEquals(
+                    withoutStamp(legacyMeet(f[0], f[1], f[2], f[3], f[4], f[5], f[6])),
+                    withoutStamp(
+                            DataBuilderService.INSTANCE.buildMeet(
+                                    f[0], f[1], f[2], f[3], f[4], f[5], f[6])));
+        }
+    }
+
+    /** Removes the {@code DTSTAMP} line, which holds the current time. */
+    private static String withoutStamp(String meet) {
+        return meet.replaceAll("DTSTAMP:[^\\r\\n]*", "DTSTAMP:");
+    }
+
+    /** The string concatenation implementation the service replaced. */
+    private static String legacyMecard(
+            String name, String tel, String email, String org, String adr, String url) {
+        if (StringUtils.isBlank(name + tel + email + org + adr + url)) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("MECARD:");
+        legacyField(sb, "N", name, ";");
+        legacyField(sb, "TEL", tel, ";");
+        legacyField(sb, "EMAIL", email, ";");
+        legacyField(sb, "ORG", org, ";");
+        legacyField(sb, "ADR", adr, ";");
+        legacyField(sb, "URL", url, ";");
+        sb.append(";");
+        return sb.toString();
+    }
+
+    /** The {@code String.format} implementation the service replaced. */
+    private static String legacyMeet(
+            String title,
+            String uid,
+            String begin,
+            String end,
+            String name,
+            String lat,
+            String lon) {
+        if (StringUtils.isBlank(title + uid + begin + end + name + lat + lat)) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        String separator = System.lineSeparator();
+        legacyField(sb, "BEGIN", "VCALENDAR", separator);
+        legacyField(sb, "VERSION", "2.0", separator);
+        legacyField(
+                sb,
+                "PRODID",
+                String.format("-//Soft64.fr//CanScan %s//FR", StringConstants.VERSION.getValue()),
+                separator);
+        legacyField(sb, "BEGIN", "VEVENT", separator);
+        legacyField(sb, "UID", uid, separator);
+        if (StringUtils.isNotBlank(name)) {
+            legacyField(sb, "ORGANIZER", name, separator);
+        }
+        legacyField(sb, "DTSTAMP", DateHelper.INSTANCE.nowUtc(), separator);
+        legacyField(sb, "DTSTART", begin, separator);
+        legacyField(sb, "DTEND", end, separator);
+        legacyField(sb, "SUMMARY", title, separator);
+        if (StringUtils.isNotBlank(lat) && StringUtils.isNotBlank(lon)) {
+            legacyField(sb, "GEO", String.format("%s;%s", lat, lon), separator);
+            legacyField(
+                    sb,
+                    "LOCATION",
+                    String.format(
+                            "https://www.openstreetmap.org/?mlat=%s&mlon=%s&zoom=15", lat, lon),
+                    separator);
+        }
+        legacyField(sb, "END", "VEVENT", separator);
+        legacyField(sb, "END", "VCALENDAR", separator);
+        return sb.toString();
+    }
+
+    /** Appends {@code name:value<separator>} when the value is not blank. */
+    private static void legacyField(StringBuilder sb, String name, String value, String separator) {
+        if (StringUtils.isNotBlank(value)) {
+            sb.append(name).append(":").append(value).append(separator);
+        }
+    }
 }
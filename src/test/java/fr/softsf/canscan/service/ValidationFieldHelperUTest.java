@@ -5,6 +5,8 @@
  */
 package fr.softsf.canscan.service;
 
+import java.text.Normalizer;
+import java.util.Random;
 import javax.swing.JSlider;
 import javax.swing.JTextField;
 
@@ -91,4 +93,38 @@ class ValidationFieldHelperUTest {
         assertTrue(result.startsWith("REUNIONSPECIALE2025"));
         assertTrue(result.endsWith(StringConstants.DOMAIN.getValue()));
     }
+
+    @Test
+    void givenRandomTitlesWhenValidateAndGetMeetUIDThenSameAsRegexImplementation() {
+        int[] alphabet = "aZ09_- \t.!'éÈçœß\u0301ǅΩж字\uD835\uDC00".codePoints().toArray();
+        Random random = new Random(45);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int length = random.nextInt(24); length > 0; length--) {
+                title.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = title.toString();
+            assertEquals(
+                    legacyMeetUid(text),
+                    ValidationFieldHelper.INSTANCE.validateAndGetMeetUID(text),
+                    text);
+        }
+    }
+
+    /** The regular expression implementation the helper replaced. */
+    private static String legacyMeetUid(String meetTitle) {
+        String normalized = Normalizer.normalize(meetTitle, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(c);
+            }
+        }
+        return builder.toString()
+                        .replaceAll("\\s+", "")
+                        .replaceAll("[^\\p{L}0-9_-]", "")
+                        .toUpperCase()
+                + StringConstants.DOMAIN.getValue();
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/** Heap sampling and cleanup shared by the batch benchmarks. */
+final class BenchmarkSupport {
+
+    private static final long SAMPLE_MILLIS = 5;
+    private static final AtomicLong PEAK_HEAP = new AtomicLong();
+
+    private BenchmarkSupport() {}
+
+    /** Starts the daemon thread recording the peak used heap. */
+    static void startHeapSampler() {
+        Thread sampler = new Thread(BenchmarkSupport::sampleHeap, "HeapSampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /** Resets the recorded heap peak before a pass. */
+    static void resetPeaks() {
+        System.gc();
+        PEAK_HEAP.set(0);
+    }
+
+    /**
+     * Returns the peak used heap since the last reset.
+     *
+     * @return the peak, in bytes
+     */
+    static long peakHeap() {
+        return PEAK_HEAP.get();
+    }
+
+    /**
+     * Prints throughput and peak heap usage of a pass.
+     *
+     * @param pass the pass name
+     * @param rows the number of rows processed
+     * @param nanos the pass duration
+     */
+    static void report(String pass, int rows, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.printf(
+                "[Bench] %s : %d lignes en %.2f s (%.0f lignes/s), pic de tas %.1f Mo%n",
+                pass, rows, seconds, rows / seconds, peakHeap() / 1e6);
+    }
+
+    /**
+     * Records the peak used heap every few milliseconds; the JMX memory pools are not readable from
+     * this module.
+     */
+    private static void sampleHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        while (true) {
+            PEAK_HEAP.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+            try {
+                Thread.sleep(SAMPLE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes the benchmark files.
+     *
+     * @param dir the temporary directory
+     * @throws IOException if a file cannot be deleted
+     */
+    static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.ManifestEntry;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Measures the checkpoint journal cost against the render cost it protects.
+ *
+ * <p>Arguments: journal entries (default 200000), rendered rows used to estimate the per-code
+ * render time (default 500) and journal group size (default 256). The journal overhead must stay
+ * under 1% of the render time.
+ */
+public class CheckpointJournalBenchmark {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 200, 0, Color.BLACK, Color.WHITE, false, 3);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional entry count, rendered row count and group size
+     * @throws Exception if the files cannot be written or rendering is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int groupSize = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        Path dir = Files.createTempDirectory("canscan-journal-bench");
+        try {
+            Path journalFile = dir.resolve(CheckpointJournal.DEFAULT_FILE_NAME);
+            long start = System.nanoTime();
+            long syncs;
+            try (CheckpointJournal journal = new CheckpointJournal(journalFile, groupSize, 1000)) {
+                for (int i = 0; i < entries; i++) {
+                    journal.record(
+                            new ManifestEntry(
+                                    "ligne-" + i,
+                                    "0123456789abcdef0123456789abcdef01234567",
+                                    "ligne-" + i + ".png"));
+                }
+                syncs = journal.syncCount();
+            }
+            double journalMicros = (System.nanoTime() - start) / 1e3 / entries;
+            Path csv = dir.resolve("codes.csv");
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                out.write("id,free\n");
+                for (int i = 0; i < rows; i++) {
+                    out.write(i + ",https://exemple.fr/" + i + "\n");
+                }
+            }
+            BatchReport report;
+            try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.FREE, STYLE)) {
+                report =
+                        new IncrementalBatchService(new EncodedImage(), 1)
+                                .run(source, dir.resolve("out"), false);
+            }
+            double renderMicros = report.elapsedMillis() * 1e3 / Math.max(report.rendered(), 1);
+            System.out.printf(
+                    "[Bench] Journal : %d entrées, %d fsync, %.2f µs/entrée ; rendu %.0f µs/code ;"
+                            + " surcoût %.3f %%%n",
+                    entries,
+                    syncs,
+                    journalMicros,
+                    renderMicros,
+                    100 * journalMicros / renderMicros);
+        } finally {
+            BenchmarkSupport.deleteRecursively(dir);
+        }
+    }
+}
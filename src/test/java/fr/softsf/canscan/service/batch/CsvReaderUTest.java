@@ -0,0 +1,48 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("*** CSV reader tests ***")
+class CsvReaderUTest {
+
+    @Test
+    void givenQuotedFieldsWhenReadRecordThenUnescapeQuotesAndKeepLineBreaks() throws IOException {
+        String csv = "id,name\r\n1,\"Doe, \"\"John\"\"\nJr\"\r\n";
+        try (CsvReader reader = new CsvReader(new StringReader(csv), ',')) {
+            assertEquals(List.of("id", "name"), reader.readRecord());
+            assertEquals(List.of("1", "Doe, \"John\"\nJr"), reader.readRecord());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void givenBomBlankLinesAndMissingFinalNewlineWhenReadRecordThenReturnRecords()
+            throws IOException {
+        String csv = "\uFEFFa;b\n\n;x";
+        try (CsvReader reader = new CsvReader(new StringReader(csv), ';')) {
+            assertEquals(List.of("a", "b"), reader.readRecord());
+            assertEquals(List.of("", "x"), reader.readRecord());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void givenUnterminatedQuoteWhenReadRecordThenThrowIOException() {
+        CsvReader reader = new CsvReader(new StringReader("\"open"), ',');
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
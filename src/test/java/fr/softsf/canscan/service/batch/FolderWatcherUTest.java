@@ -0,0 +1,106 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Period;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Folder watcher tests ***")
+class FolderWatcherUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    @TempDir Path tempDir;
+    private Path in;
+    private Path out;
+    private FolderWatcher watcher;
+    private Thread thread;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        in = Files.createDirectory(tempDir.resolve("in"));
+        out = tempDir.resolve("out");
+        Files.writeString(in.resolve("contacts.csv"), "id,name\n1,John\n", StandardCharsets.UTF_8);
+        watcher =
+                new FolderWatcher(
+                        new IncrementalBatchService(new EncodedImage(), 1),
+                        new RowSourceFactory(',', "id", Mode.MECARD, STYLE, Period.ofYears(1)),
+                        in,
+                        out,
+                        Duration.ofMillis(50));
+        thread =
+                new Thread(
+                        () -> {
+                            try {
+                                watcher.run();
+                            } catch (Exception e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        thread.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watcher.close();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void givenExistingFileWhenStartedThenRenderIt() throws Exception {
+        awaitTrue(() -> Files.isRegularFile(out.resolve("contacts.csv").resolve("1.png")));
+    }
+
+    @Test
+    void givenRowsAddedAndRemovedWhenFileChangesThenSyncOutputs() throws Exception {
+        Path outputs = out.resolve("contacts.csv");
+        awaitTrue(() -> Files.isRegularFile(outputs.resolve("1.png")));
+        Files.writeString(in.resolve("contacts.csv"), "id,name\n2,Jane\n", StandardCharsets.UTF_8);
+        awaitTrue(
+                () ->
+                        Files.isRegularFile(outputs.resolve("2.png"))
+                                && Files.notExists(outputs.resolve("1.png")));
+    }
+
+    @Test
+    void givenInputDeletedWhenWatchingThenRemoveItsOutputs() throws Exception {
+        Path outputs = out.resolve("contacts.csv");
+        awaitTrue(() -> Files.isRegularFile(outputs.resolve("1.png")));
+        Files.delete(in.resolve("contacts.csv"));
+        awaitTrue(() -> Files.notExists(outputs));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("*** iCalendar row source tests ***")
+class IcsRowSourceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+
+    private static final ZonedDateTime HORIZON =
+            ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir Path tempDir;
+
+    private IcsRowSource open(String content) throws Exception {
+        Path ics = tempDir.resolve("agenda.ics");
+        Files.writeString(ics, content, StandardCharsets.UTF_8);
+        return new IcsRowSource(ics, STYLE, HORIZON);
+    }
+
+    private List<String> beginsOf(String content) throws Exception {
+        List<String> begins = new ArrayList<>();
+        try (IcsRowSource source = open(content)) {
+            BatchRow row;
+            while ((row = source.nextRow()) != null) {
+                begins.add(row.fields().meetBeginDateTime());
+            }
+        }
+        return begins;
+    }
+
+    private static String event(String... lines) {
+        return "BEGIN:VEVENT\nUID:r\nSUMMARY:Point\n" + String.join("\n", lines) + "\nEND:VEVENT\n";
+    }
+
+    @Test
+    void givenFoldedEventWithTimeZoneWhenReadThenMapToUtcMeetFields() throws Exception {
+        String content =
+                "BEGIN:VCALENDAR\r\n"
+                        + "BEGIN:VEVENT\r\n"
+                        + "UID:42@example.org\r\n"
+                        + "SUMMARY:Revue\\, budget\r\n"
+                        + "  annuel\r\n"
+                        + "DTSTART;TZID=Europe/Paris:20250115T100000\r\n"
+                        + "DURATION:PT1H30M\r\n"
+                        + "ORGANIZER;CN=\"Dupont: Jean\":mailto:jean@example.org\r\n"
+                        + "GEO:48.85;2.35\r\n"
+                        + "BEGIN:VALARM\r\n"
+                        + "SUMMARY:Rappel\r\n"
+                        + "END:VALARM\r\n"
+                        + "END:VEVENT\r\n"
+                        + "END:VCALENDAR\r\n";
+        try (IcsRowSource source = open(content)) {
+            BatchRow row = source.nextRow();
+            assertEquals("42@example.org", row.key());
+            assertEquals(Mode.MEET, row.fields().currentMode());
+            assertEquals("Revue, budget annuel", row.fields().meetTitle());
+            assertEquals("20250115T090000Z", row.fields().meetBeginDateTime());
+            assertEquals("20250115T103000Z", row.fields().meetEndDateTime());
+            assertEquals("Dupont: Jean", row.fields().meetName());
+            assertEquals("48.85", row.fields().meetLat());
+            assertEquals("2.35", row.fields().meetLong());
+            assertNull(source.nextRow());
+        }
+    }
+
+    @Test
+    void givenAllDayOverriddenOccurrenceWhenReadThenKeyIncludesRecurrenceId() throws Exception {
+        String content =
+                "BEGIN:VEVENT\n"
+                        + "UID:u1\n"
+                        + "SUMMARY:Congé\n"
+                        + "RECURRENCE-ID;VALUE=DATE:20250301\n"
+                        + "DTSTART;VALUE=DATE:20250301\n"
+                        + "END:VEVENT\n";
+        try (IcsRowSource source = open(content)) {
+            BatchRow row = source.nextRow();
+            assertEquals("u1#20250301T000000Z", row.key());
+            assertEquals("20250302T000000Z", row.fields().meetEndDateTime());
+        }
+    }
+
+    @Test
+    void givenEventWithInvalidDateWhenReadThenSkipIt() throws Exception {
+        String content =
+                "BEGIN:VEVENT\nUID:bad\nDTSTART:nope\nEND:VEVENT\n"
+                        + "BEGIN:VEVENT\nUID:ok\nDTSTART:20250101T080000Z\nEND:VEVENT\n";
+        try (IcsRowSource source = open(content)) {
+            assertEquals("ok", source.nextRow().key());
+            assertNull(source.nextRow());
+        }
+    }
+
+    @Test
+    void givenWeeklyRuleWithCountWhenReadThenExpandEachOccurrence() throws Exception {
+        List<String> begins =
+                beginsOf(
+                        event(
+                                "DTSTART:20250106T090000Z",
+                                "DTEND:20250106T100000Z",
+                                "RRULE:FREQ=WEEKLY;BYDAY=MO,WE;COUNT=4"));
+        assertEquals(
+                List.of(
+                        "20250106T090000Z",
+                        "20250108T090000Z",
+                        "20250113T090000Z",
+                        "20250115T090000Z"),
+                begins);
+    }
+
+    @Test
+    void givenUnboundedRuleWhenReadThenStopAtHorizon() throws Exception {
+        List<String> begins = beginsOf(event("DTSTART:20250101T120000Z", "RRULE:FREQ=DAILY"));
+        assertEquals(365, begins.size());
+        assertEquals("20251231T120000Z", begins.getLast());
+    }
+
+    @Test
+    void givenExdateAndOverrideWhenReadThenEmitEachOccurrenceOnce() throws Exception {
+        String content =
+                event(
+                                "DTSTART:20250101T080000Z",
+                                "RRULE:FREQ=DAILY;COUNT=4",
+                                "EXDATE:20250102T080000Z")
+                        + event("RECURRENCE-ID:20250103T080000Z", "DTSTART:20250103T150000Z");
+        List<String> keys = new ArrayList<>();
+        try (IcsRowSource source = open(content)) {
+            BatchRow row;
+            while ((row = source.nextRow()) != null) {
+                keys.add(row.key());
+            }
+        }
+        assertEquals(
+                List.of("r#20250101T080000Z", "r#20250104T080000Z", "r#20250103T080000Z"), keys);
+    }
+
+    @Test
+    void givenZonedRuleAcrossDaylightSavingWhenReadThenKeepLocalTime() throws Exception {
+        List<String> begins =
+                beginsOf(
+                        event(
+                                "DTSTART;TZID=Europe/Paris:20250324T090000",
+                                "RRULE:FREQ=WEEKLY;COUNT=2"));
+        assertEquals(List.of("20250324T080000Z", "20250331T070000Z"), begins);
+    }
+
+    @Test
+    void givenMonthlyLastFridayRuleWhenReadThenPickLastFridays() throws Exception {
+        List<String> begins =
+                beginsOf(
+                        event(
+                                "DTSTART:20250131T100000Z",
+                                "RRULE:FREQ=MONTHLY;BYDAY=-1FR;UNTIL=20250430T000000Z"));
+        assertEquals(
+                List.of(
+                        "20250131T100000Z",
+                        "20250228T100000Z",
+                        "20250328T100000Z",
+                        "20250425T100000Z"),
+                begins);
+    }
+}
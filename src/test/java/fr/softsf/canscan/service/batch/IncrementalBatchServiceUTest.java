@@ -0,0 +1,194 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Incremental batch service tests ***")
+class IncrementalBatchServiceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+
+    @TempDir Path tempDir;
+    private Path csv;
+    private Path out;
+    private IncrementalBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        csv = tempDir.resolve("contacts.csv");
+        out = tempDir.resolve("out");
+        service = new IncrementalBatchService(new EncodedImage(), 2);
+    }
+
+    private BatchReport run(String content, boolean incremental)
+            throws IOException, InterruptedException {
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+        try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.MECARD, STYLE)) {
+            return service.run(source, out, incremental);
+        }
+    }
+
+    @Test
+    void givenUnchangedCsvWhenRerunThenNothingIsRendered() throws Exception {
+        String content = "id,name,tel\n1,John,0102\n2,Jane,0304\n";
+        BatchReport first = run(content, true);
+        BatchReport second = run(content, true);
+        assertEquals(2, first.rendered());
+        assertEquals(0, second.rendered());
+        assertEquals(2, second.unchanged());
+        assertTrue(Files.isRegularFile(out.resolve("1.png")));
+        assertTrue(Files.isRegularFile(out.resolve(BatchManifest.DEFAULT_FILE_NAME)));
+    }
+
+    @Test
+    void givenModifiedAndDeletedRowsWhenRerunThenRenderChangedAndRemoveDeleted() throws Exception {
+        run("id,name\n1,John\n2,Jane\n3,Jim\n", true);
+        BatchReport report = run("id,name\n1,John\n2,Janet\n", true);
+        assertEquals(1, report.rendered());
+        assertEquals(1, report.unchanged());
+        assertEquals(1, report.deleted());
+        assertFalse(Files.exists(out.resolve("3.png")));
+    }
+
+    @Test
+    void givenMissingOutputWhenRerunThenRenderItAgain() throws Exception {
+        String content = "id,name\n1,John\n";
+        run(content, true);
+        Files.delete(out.resolve("1.png"));
+        assertEquals(1, run(content, true).rendered());
+    }
+
+    @Test
+    void givenMeetRowsWhenRerunThenTimestampDoesNotInvalidateOutputs() throws Exception {
+        String content =
+                "id,mode,meetTitle,meetBeginDateTime,meetEndDateTime\n"
+                        + "m1,MEET,Kickoff,20250101T090000Z,20250101T100000Z\n";
+        run(content, true);
+        assertEquals(0, run(content, true).rendered());
+    }
+
+    @Test
+    void givenEditToColumnUnusedByModeWhenRerunThenNothingIsRendered() throws Exception {
+        run("id,name,free\n1,John,a\n", true);
+        assertEquals(0, run("id,name,free\n1,John,b\n", true).rendered());
+    }
+
+    @Test
+    void givenWhitespaceEditInPayloadWhenRerunThenRowIsRendered() throws Exception {
+        run("id,name\n1,John Smith\n", true);
+        assertEquals(1, run("id,name\n1,John  Smith\n", true).rendered());
+    }
+
+    @Test
+    void givenUnreadableLogoWhenRunThenRowFailsWithLogoMessage() throws Exception {
+        Path logo = Files.writeString(tempDir.resolve("logo.png"), "not an image");
+        CommonFields style =
+                new CommonFields(logo.toFile(), 100, 0.27, Color.BLACK, Color.WHITE, false, 1);
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        () -> new EncodedImage().generateImage("MECARD:N:John;;", style));
+        assertTrue(e.getMessage().startsWith("Ce format de logo n'est pas pris en charge"));
+        Files.writeString(csv, "id,name\n1,John\n", StandardCharsets.UTF_8);
+        try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.MECARD, style)) {
+            BatchReport report = service.run(source, out, true);
+            assertEquals(1, report.failed());
+        }
+        assertFalse(Files.exists(out.resolve("1.png")));
+    }
+
+    @Test
+    void givenFullModeWhenRerunThenRenderEverything() throws Exception {
+        String content = "id,name\n1,John\n";
+        run(content, true);
+        assertEquals(1, run(content, false).rendered());
+    }
+
+    @Test
+    void givenRowsWithIdenticalPayloadWhenRunThenRenderOnceAndCopyTheOthers() throws Exception {
+        BatchReport report = run("id,name,tel\na,John,0102\nb,John,0102\nc,John,0102\n", true);
+        assertEquals(3, report.rendered());
+        assertEquals(2, report.deduplicated());
+        byte[] first = Files.readAllBytes(out.resolve("a.png"));
+        assertArrayEquals(first, Files.readAllBytes(out.resolve("b.png")));
+        assertArrayEquals(first, Files.readAllBytes(out.resolve("c.png")));
+        assertEquals(
+                0, run("id,name,tel\na,John,0102\nb,John,0102\nc,John,0102\n", true).rendered());
+    }
+
+    @Test
+    void givenJournalOfInterruptedRunWhenRerunThenResumeAndRenderTruncatedOutputs()
+            throws Exception {
+        String content = "id,name\na,John\nb,Jane\nc,Jim\n";
+        run(content, true);
+        Path manifest = out.resolve(BatchManifest.DEFAULT_FILE_NAME);
+        List<String> completed =
+                Files.readAllLines(manifest).stream()
+                        .filter(line -> line.startsWith("a\t") || line.startsWith("b\t"))
+                        .toList();
+        Files.write(out.resolve(CheckpointJournal.DEFAULT_FILE_NAME), completed);
+        Files.writeString(
+                out.resolve(CheckpointJournal.DEFAULT_FILE_NAME),
+                "c\tto",
+                StandardOpenOption.APPEND);
+        Files.delete(manifest);
+        byte[] png = Files.readAllBytes(out.resolve("b.png"));
+        Files.write(out.resolve("b.png"), Arrays.copyOf(png, png.length / 2));
+        Files.writeString(out.resolve("c.png123.part"), "x");
+        BatchReport report = run(content, true);
+        assertEquals(1, report.unchanged());
+        assertEquals(2, report.rendered());
+        assertTrue(PngOutput.INSTANCE.isComplete(out.resolve("b.png")));
+        assertFalse(Files.exists(out.resolve(CheckpointJournal.DEFAULT_FILE_NAME)));
+        assertFalse(Files.exists(out.resolve("c.png123.part")));
+    }
+
+    @Test
+    void givenJournalOfInterruptedFullRunWhenRerunInFullThenSkipOnlyCompletedRows()
+            throws Exception {
+        String content = "id,name\na,John\nb,Jane\nc,Jim\n";
+        run(content, false);
+        Path manifest = out.resolve(BatchManifest.DEFAULT_FILE_NAME);
+        List<String> completed =
+                Files.readAllLines(manifest).stream()
+                        .filter(line -> line.startsWith("a\t") || line.startsWith("b\t"))
+                        .toList();
+        Files.write(out.resolve(CheckpointJournal.DEFAULT_FILE_NAME), completed);
+        byte[] png = Files.readAllBytes(out.resolve("b.png"));
+        Files.write(out.resolve("b.png"), Arrays.copyOf(png, png.length / 2));
+        BatchReport report = run(content, false);
+        assertEquals(1, report.unchanged());
+        assertEquals(2, report.rendered());
+        assertTrue(PngOutput.INSTANCE.isComplete(out.resolve("b.png")));
+        assertFalse(Files.exists(out.resolve(CheckpointJournal.DEFAULT_FILE_NAME)));
+        assertEquals(3, run(content, false).rendered());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.LabelSheet;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Measures label sheet imposition throughput on a generated badge list.
+ *
+ * <p>Arguments: page count (default 1000), columns (default 3) and rows (default 8). Reports pages
+ * per second, document size and peak heap, which must stay flat as the page count grows.
+ */
+public class LabelSheetBenchmark {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 200, 0, Color.BLACK, Color.WHITE, false, 2);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional page count, columns and rows
+     * @throws Exception if the files cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int pages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        LabelSheet sheet =
+                new LabelSheet(
+                        LabelSheet.A4_WIDTH,
+                        LabelSheet.A4_HEIGHT,
+                        columns,
+                        rows,
+                        10 * LabelSheet.POINTS_PER_MM,
+                        2 * LabelSheet.POINTS_PER_MM,
+                        LabelSheet.POINTS_PER_MM,
+                        true);
+        BenchmarkSupport.startHeapSampler();
+        Path dir = Files.createTempDirectory("canscan-sheet-bench");
+        try {
+            Path csv = dir.resolve("badges.csv");
+            generate(csv, pages * sheet.labelsPerPage());
+            LabelSheetExportService service =
+                    new LabelSheetExportService(new EncodedImage(), sheet);
+            Path pdf = dir.resolve("badges.pdf");
+            BenchmarkSupport.resetPeaks();
+            BatchReport report;
+            try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.MECARD, STYLE)) {
+                report = service.export(source, pdf);
+            }
+            BenchmarkSupport.report(
+                    "Planche PDF", report.rendered(), report.elapsedMillis() * 1_000_000L);
+            System.out.printf(
+                    "[Bench] %d pages de %d étiquettes : %.1f pages/s, %.1f Mo (%.1f ko/page)%n",
+                    pages,
+                    sheet.labelsPerPage(),
+                    pages * 1000.0 / Math.max(report.elapsedMillis(), 1),
+                    Files.size(pdf) / 1e6,
+                    Files.size(pdf) / 1e3 / pages);
+        } finally {
+            BenchmarkSupport.deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Writes a CSV of badge contacts.
+     *
+     * @param csv the target file
+     * @param count the number of badges
+     * @throws IOException if writing fails
+     */
+    private static void generate(Path csv, int count) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("id,name,tel,email,org\n");
+            for (int i = 0; i < count; i++) {
+                out.write(
+                        i
+                                + ",Participant "
+                                + i
+                                + ",06"
+                                + (10_000_000 + i)
+                                + ",p"
+                                + i
+                                + "@exemple.fr,Société "
+                                + (i % 50)
+                                + "\n");
+            }
+        }
+    }
+}
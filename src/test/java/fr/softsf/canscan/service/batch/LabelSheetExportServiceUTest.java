@@ -0,0 +1,102 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.InflaterOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.LabelSheet;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Label sheet export service tests ***")
+class LabelSheetExportServiceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+    private static final LabelSheet SHEET =
+            new LabelSheet(
+                    LabelSheet.A4_WIDTH,
+                    LabelSheet.A4_HEIGHT,
+                    3,
+                    8,
+                    10 * LabelSheet.POINTS_PER_MM,
+                    2 * LabelSheet.POINTS_PER_MM,
+                    LabelSheet.POINTS_PER_MM,
+                    true);
+
+    @TempDir Path tempDir;
+
+    @Test
+    void givenMoreRowsThanLabelsWhenExportThenWriteVectorPagesWithValidXref() throws Exception {
+        Path csv = tempDir.resolve("badges.csv");
+        StringBuilder content = new StringBuilder("id,free\nblank,\n");
+        for (int i = 0; i < 25; i++) {
+            content.append(i).append(",badge-").append(i).append('\n');
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+        Path pdf = tempDir.resolve("badges.pdf");
+        BatchReport report;
+        try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.FREE, STYLE)) {
+            report = new LabelSheetExportService(new EncodedImage(), SHEET).export(source, pdf);
+        }
+        assertEquals(26, report.total());
+        assertEquals(25, report.rendered());
+        assertEquals(1, report.failed());
+        byte[] bytes = Files.readAllBytes(pdf);
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertTrue(text.startsWith("%PDF-1.4"));
+        assertTrue(text.contains("/Type /Pages /Count 2 "));
+        assertFalse(text.contains("/Image"));
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(text);
+        assertTrue(startXref.find());
+        int xref = Integer.parseInt(startXref.group(1));
+        assertTrue(text.startsWith("xref\n0 7\n", xref));
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n \n").matcher(text.substring(xref));
+        for (int object = 1; entries.find(); object++) {
+            assertTrue(text.startsWith(object + " 0 obj\n", Integer.parseInt(entries.group(1))));
+        }
+        String firstPage = inflateFirstStream(bytes, text);
+        assertTrue(firstPage.contains(" re\n"));
+        assertTrue(firstPage.endsWith("S\n"));
+    }
+
+    @Test
+    void givenLayoutWithoutRoomWhenCreateThenThrow() {
+        LabelSheet crowded = new LabelSheet(100, 100, 3, 3, 60, 0, 0, false);
+        EncodedImage encodedImage = new EncodedImage();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new LabelSheetExportService(encodedImage, crowded));
+    }
+
+    private static String inflateFirstStream(byte[] bytes, String text) throws Exception {
+        int start = text.indexOf("stream\n") + "stream\n".length();
+        int end = text.indexOf("\nendstream", start);
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (InflaterOutputStream out = new InflaterOutputStream(inflated)) {
+            out.write(bytes, start, end - start);
+        }
+        return inflated.toString(StandardCharsets.ISO_8859_1);
+    }
+}
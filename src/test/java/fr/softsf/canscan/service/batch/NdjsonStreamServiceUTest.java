@@ -0,0 +1,109 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.StreamReport;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** NDJSON stream service tests ***")
+class NdjsonStreamServiceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 60, 0, Color.BLACK, Color.WHITE, false, 1);
+
+    private static NdjsonStreamService service(NdjsonStreamService.Format format) {
+        return new NdjsonStreamService(new EncodedImage(), 3, Mode.FREE, STYLE, format);
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    @Test
+    void givenManyRequestsWhenServedAsBase64ThenOneLinePerRequestInOrder() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            int size = 40 + i * 4;
+            input.append("{\"free\":\"code ")
+                    .append(i)
+                    .append("\",\"style\":{\"size\":")
+                    .append(size)
+                    .append("}}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamReport report =
+                service(NdjsonStreamService.Format.BASE64)
+                        .serve(
+                                new ByteArrayInputStream(
+                                        input.toString().getBytes(StandardCharsets.UTF_8)),
+                                out);
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n", -1);
+        assertEquals(30, report.requests());
+        assertEquals(0, report.failed());
+        assertEquals(31, lines.length);
+        for (int i = 0; i < 30; i++) {
+            BufferedImage image = decode(Base64.getDecoder().decode(lines[i]));
+            assertEquals(40 + i * 4, image.getWidth());
+        }
+        assertTrue(report.p50Micros() <= report.p99Micros());
+        assertTrue(report.p99Micros() <= report.maxMicros());
+    }
+
+    @Test
+    void givenInvalidRequestsWhenServedAsPngThenEmptyFramesKeepTheOrder() throws Exception {
+        String input =
+                """
+                {"mode":"MECARD","fields":{"name":"Jane","tel":"0102"}}
+                not json
+
+                {"free":""}
+                {"id":"last","free":"ok","style":{"size":80,"qrColor":"#003366"}}
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamReport report =
+                service(NdjsonStreamService.Format.PNG)
+                        .serve(
+                                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                                out);
+        DataInputStream frames = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        int[] lengths = new int[4];
+        BufferedImage last = null;
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = frames.readInt();
+            byte[] png = frames.readNBytes(lengths[i]);
+            if (i == lengths.length - 1) {
+                last = decode(png);
+            }
+        }
+        assertEquals(4, report.requests());
+        assertEquals(2, report.failed());
+        assertTrue(lengths[0] > 0);
+        assertEquals(0, lengths[1]);
+        assertEquals(0, lengths[2]);
+        assertNotNull(last);
+        assertEquals(80, last.getWidth());
+        assertEquals(-1, frames.read());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Output naming tests ***")
+class OutputNamingUTest {
+
+    private final OutputNaming naming = OutputNaming.INSTANCE;
+
+    @Test
+    void givenLowercaseSafeKeyWhenNamedThenUsedAsIs() {
+        assertEquals("row-1_a.b.png", naming.fileNameFor("row-1_a.b"));
+    }
+
+    @Test
+    void givenKeysDifferingOnlyByCaseWhenNamedThenDistinctOnCaseInsensitiveFileSystems() {
+        Set<String> folded = new HashSet<>();
+        for (String key : List.of("row1", "Row1", "ROW1", "rOw1")) {
+            assertTrue(
+                    folded.add(naming.fileNameFor(key).toLowerCase(Locale.ROOT)),
+                    () -> key + " collides");
+        }
+        assertTrue(naming.baseNameFor("Row1").startsWith("Row1-"));
+    }
+
+    @Test
+    void givenUnsafeOrReservedKeyWhenNamedThenReplacedWithDigest() {
+        assertTrue(naming.baseNameFor("a/b").matches("a_b-[0-9a-f]{8}"));
+        assertTrue(naming.baseNameFor(".hidden").matches("\\.hidden-[0-9a-f]{8}"));
+        assertEquals(109, naming.baseNameFor("x".repeat(150)).length());
+    }
+}
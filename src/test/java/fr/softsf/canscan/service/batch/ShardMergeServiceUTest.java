@@ -0,0 +1,230 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.model.ShardMergeReport;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Shard merge service tests ***")
+class ShardMergeServiceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 60, 0, Color.BLACK, Color.WHITE, false, 1);
+    private static final int ROWS = 40;
+    private static final int WORKERS = 3;
+
+    @TempDir Path tempDir;
+    private Path csv;
+    private Path out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        csv = tempDir.resolve("contacts.csv");
+        out = tempDir.resolve("out");
+        StringBuilder content = new StringBuilder("id,name\n");
+        for (int i = 0; i < ROWS; i++) {
+            content.append(i).append(",Contact ").append(i).append('\n');
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+    }
+
+    private CsvRowSource open() throws IOException {
+        return new CsvRowSource(csv, ',', "id", Mode.MECARD, STYLE);
+    }
+
+    private BatchReport runShard(int index, int count) throws Exception {
+        try (BatchRowSource source = new ShardRowSource(open(), index, count)) {
+            return new IncrementalBatchService(new EncodedImage(), 1)
+                    .run(source, out, true, ShardRowSource.partitionName(index, count));
+        }
+    }
+
+    private ShardMergeReport merge() throws IOException {
+        try (CsvRowSource source = open()) {
+            return ShardMergeService.INSTANCE.merge(source, out);
+        }
+    }
+
+    @Test
+    void givenEveryShardWhenMergedThenEachRowIsProducedOnce() throws Exception {
+        int rendered = 0;
+        for (int i = 0; i < WORKERS; i++) {
+            rendered += runShard(i, WORKERS).rendered();
+        }
+        ShardMergeReport report = merge();
+        assertEquals(ROWS, rendered);
+        assertTrue(report.isComplete());
+        assertEquals(WORKERS, report.partitions());
+        assertEquals(ROWS, report.merged());
+        assertEquals(ROWS, BatchManifest.load(out.resolve(BatchManifest.DEFAULT_FILE_NAME)).size());
+        assertFalse(Files.exists(out.resolve(BatchManifest.fileNameFor("shard-0-of-3"))));
+    }
+
+    @Test
+    void givenMissingShardWhenMergedThenReportMissingRowsAndKeepPartitions() throws Exception {
+        runShard(0, 2);
+        ShardMergeReport report = merge();
+        assertFalse(report.isComplete());
+        assertTrue(report.missing() > 0);
+        assertEquals(ROWS, report.merged() + report.missing());
+        assertFalse(Files.exists(out.resolve(BatchManifest.DEFAULT_FILE_NAME)));
+        assertTrue(Files.exists(out.resolve(BatchManifest.fileNameFor("shard-0-of-2"))));
+    }
+
+    @Test
+    void givenOverlappingPartitionsWhenMergedThenReportDuplicates() throws Exception {
+        runShard(0, 1);
+        runShard(0, 2);
+        ShardMergeReport report = merge();
+        assertFalse(report.isComplete());
+        assertTrue(report.duplicated() > 0);
+    }
+
+    @Test
+    void givenConcurrentQueueWorkersWhenMergedThenEveryChunkIsClaimedOnce() throws Exception {
+        Path queue = tempDir.resolve("queue");
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        List<Future<List<Integer>>> claims = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            String worker = "worker" + i;
+            claims.add(
+                    pool.submit(
+                            () -> {
+                                try (ChunkClaimRowSource source =
+                                        new ChunkClaimRowSource(open(), queue, 5, worker)) {
+                                    new IncrementalBatchService(new EncodedImage(), 1)
+                                            .run(
+                                                    source,
+                                                    out,
+                                                    true,
+                                                    ChunkClaimRowSource.partitionName(worker));
+                                    source.markDone();
+                                    return source.claimedChunks();
+                                }
+                            }));
+        }
+        int chunks = 0;
+        for (Future<List<Integer>> claim : claims) {
+            chunks += claim.get().size();
+        }
+        pool.shutdown();
+        assertEquals(ROWS / 5, chunks);
+        assertTrue(merge().isComplete());
+    }
+
+    @Test
+    void givenRestartedWorkerWhenChunkUnfinishedThenWorkerTakesItBack() throws Exception {
+        Path queue = tempDir.resolve("queue");
+        try (ChunkClaimRowSource crashed = new ChunkClaimRowSource(open(), queue, 10, "a")) {
+            crashed.nextRow();
+        }
+        try (ChunkClaimRowSource other = new ChunkClaimRowSource(open(), queue, 10, "b")) {
+            while (other.nextRow() != null) {
+                // Drain the input
+            }
+            assertEquals(List.of(1, 2, 3), other.claimedChunks());
+        }
+        try (ChunkClaimRowSource restarted = new ChunkClaimRowSource(open(), queue, 10, "a")) {
+            while (restarted.nextRow() != null) {
+                // Drain the input
+            }
+            assertEquals(List.of(0), restarted.claimedChunks());
+        }
+    }
+
+    @Test
+    void givenWorkerCrashedWhileCreatingLockWhenQueueDrainedThenChunkIsClaimedAgain()
+            throws Exception {
+        Path queue = tempDir.resolve("queue");
+        Files.createDirectories(queue);
+        Files.createFile(queue.resolve("chunk-00000001.lock"));
+        Files.createFile(queue.resolve("claim-123.tmp"));
+        try (ChunkClaimRowSource other = new ChunkClaimRowSource(open(), queue, 10, "b")) {
+            while (other.nextRow() != null) {
+                // Drain the input
+            }
+            assertEquals(List.of(0, 1, 2, 3), other.claimedChunks());
+        }
+        for (int chunk = 0; chunk < 4; chunk++) {
+            Path lock = queue.resolve(String.format("chunk-%08d.lock", chunk));
+            assertEquals("b", Files.readString(lock, StandardCharsets.UTF_8));
+        }
+        try (Stream<Path> files = Files.list(queue)) {
+            assertEquals(5, files.count());
+        }
+    }
+
+    @Test
+    void givenSeveralProcessesWhenSharingQueueThenMergeIsComplete() throws Exception {
+        String classPath =
+                String.join(
+                        File.pathSeparator,
+                        System.getProperty("java.class.path", ""),
+                        System.getProperty("jdk.module.path", ""));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            processes.add(
+                    new ProcessBuilder(
+                                    java,
+                                    "-cp",
+                                    classPath,
+                                    "fr.softsf.canscan.CanScanCli",
+                                    "batch",
+                                    "--input",
+                                    csv.toString(),
+                                    "--output",
+                                    out.toString(),
+                                    "--queue",
+                                    tempDir.resolve("queue").toString(),
+                                    "--chunk-size",
+                                    "4",
+                                    "--worker",
+                                    "process" + i,
+                                    "--size",
+                                    "60",
+                                    "--threads",
+                                    "1")
+                            .redirectErrorStream(true)
+                            .redirectOutput(tempDir.resolve("process" + i + ".log").toFile())
+                            .start());
+        }
+        for (Process process : processes) {
+            assertTrue(process.waitFor(2, TimeUnit.MINUTES));
+            assertEquals(0, process.exitValue());
+        }
+        ShardMergeReport report = merge();
+        assertTrue(report.isComplete());
+        assertEquals(WORKERS, report.partitions());
+        assertEquals(ROWS, report.merged());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Benchmarks the streaming vCard import on a generated file.
+ *
+ * <p>Arguments: contact count (default 100000), render threads (default: processors) and image size
+ * (default 200). Measures a parse-only pass, a full render and an incremental rerun, and reports
+ * the peak heap usage, which must stay flat as the contact count grows.
+ */
+public class VcfImportBenchmark {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 200, 0, Color.BLACK, Color.WHITE, false, 3);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional contact count, thread count and image size
+     * @throws Exception if the files cannot be written or rendering is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int contacts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads =
+                args.length > 1
+                        ? Integer.parseInt(args[1])
+                        : Runtime.getRuntime().availableProcessors();
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : STYLE.size();
+        CommonFields style =
+                new CommonFields(null, size, 0, Color.BLACK, Color.WHITE, false, STYLE.margin());
+        BenchmarkSupport.startHeapSampler();
+        Path dir = Files.createTempDirectory("canscan-vcf-bench");
+        try {
+            Path vcf = dir.resolve("contacts.vcf");
+            generate(vcf, contacts);
+            System.out.printf(
+                    "[Bench] %d contacts, %.1f Mo, %d threads, %d px%n",
+                    contacts, Files.size(vcf) / 1e6, threads, size);
+            BenchmarkSupport.resetPeaks();
+            long start = System.nanoTime();
+            int rows = 0;
+            try (VcfRowSource source = new VcfRowSource(vcf, style)) {
+                while (source.nextRow() != null) {
+                    rows++;
+                }
+            }
+            BenchmarkSupport.report("Lecture seule", rows, System.nanoTime() - start);
+            IncrementalBatchService service =
+                    new IncrementalBatchService(new EncodedImage(), threads);
+            Path out = dir.resolve("out");
+            for (String pass : new String[] {"Rendu complet", "Relance incrémentale"}) {
+                BenchmarkSupport.resetPeaks();
+                BatchReport result;
+                try (VcfRowSource source = new VcfRowSource(vcf, style)) {
+                    result = service.run(source, out, true);
+                }
+                System.out.printf(
+                        "[Bench] %s : %d générés, %d inchangés, %d échecs%n",
+                        pass, result.rendered(), result.unchanged(), result.failed());
+                BenchmarkSupport.report(pass, result.total(), result.elapsedMillis() * 1_000_000L);
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Writes a vCard file mixing 3.0 and 4.0 contacts, folded lines and quoted-printable values.
+     *
+     * @param vcf the target file
+     * @param contacts the number of contacts
+     * @throws IOException if writing fails
+     */
+    private static void generate(Path vcf, int contacts) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(vcf, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < contacts; i++) {
+                boolean v4 = i % 2 == 0;
+                out.write("BEGIN:VCARD\r\nVERSION:" + (v4 ? "4.0" : "3.0") + "\r\n");
+                out.write("UID:urn:uuid:contact-" + i + "\r\n");
+                out.write("FN:Prénom" + i + " Nom" + i + "\r\n");
+                out.write("N:Nom" + i + ";Prénom" + i + ";;;\r\n");
+                out.write(
+                        v4
+                                ? "TEL;VALUE=uri;TYPE=cell:tel:+33-6-" + i + "\r\n"
+                                : "TEL;TYPE=CELL,PREF:06" + i + "\r\n");
+                out.write("EMAIL:contact" + i + "@exemple.fr\r\n");
+                out.write("ORG:Société " + (i % 100) + ";Service " + (i % 7) + "\r\n");
+                out.write(
+                        "ADR;CHARSET=UTF-8;ENCODING=QUOTED-PRINTABLE:;;"
+                                + i
+                                + " all=C3=A9e des Tilleuls;Lyo=\r\nn;;69000;France\r\n");
+                out.write(
+                        "NOTE:Ligne longue repliée sur plusieurs lignes physiques pour tester\r\n");
+                out.write("  le dépliage du format vCard, numéro " + i + "\r\n");
+                out.write("END:VCARD\r\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchRow;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.service.DataBuilderService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("*** vCard row source tests ***")
+class VcfRowSourceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+
+    @TempDir Path tempDir;
+
+    private VcfRowSource open(String content) throws Exception {
+        Path vcf = tempDir.resolve("contacts.vcf");
+        Files.writeString(vcf, content, StandardCharsets.UTF_8);
+        return new VcfRowSource(vcf, STYLE);
+    }
+
+    @Test
+    void givenVcard3WithFoldingAndPreferenceWhenReadThenBuildMecard() throws Exception {
+        String content =
+                "BEGIN:VCARD\r\n"
+                        + "VERSION:3.0\r\n"
+                        + "FN:Jean Dupont\r\n"
+                        + "TEL;TYPE=WORK:0102030405\r\n"
+                        + "TEL;TYPE=CELL,PREF:0607080910\r\n"
+                        + "EMAIL:jean@exa\r\n"
+                        + " mple.org\r\n"
+                        + "ORG:ACME;R&D\r\n"
+                        + "ADR;TYPE=WORK:;;1 rue de la Paix;Paris;;75002;France\r\n"
+                        + "END:VCARD\r\n";
+        try (VcfRowSource source = open(content)) {
+            BatchRow row = source.nextRow();
+            assertEquals("Jean Dupont", row.key());
+            assertEquals(Mode.MECARD, row.fields().currentMode());
+            assertEquals(
+                    "MECARD:N:Jean Dupont;TEL:0607080910;EMAIL:jean@example.org;ORG:ACME, R&D;"
+                            + "ADR:1 rue de la Paix, Paris, 75002, France;;",
+                    DataBuilderService.INSTANCE.buildData(Mode.MECARD, row.fields()).data());
+            assertNull(source.nextRow());
+        }
+    }
+
+    @Test
+    void givenVcard4WithUrisAndGroupsWhenReadThenStripSchemes() throws Exception {
+        String content =
+                "BEGIN:VCARD\nVERSION:4.0\nUID:urn:uuid:1\nN:Martin;Claire;;;\n"
+                        + "item1.TEL;VALUE=uri:tel:+33-1-02-03-04-05\n"
+                        + "item2.EMAIL;PREF=1:mailto:claire@example.org\n"
+                        + "END:VCARD\n";
+        try (VcfRowSource source = open(content)) {
+            BatchRow row = source.nextRow();
+            assertEquals("urn:uuid:1", row.key());
+            assertEquals("Claire Martin", row.fields().name());
+            assertEquals("+33-1-02-03-04-05", row.fields().tel());
+            assertEquals("claire@example.org", row.fields().email());
+        }
+    }
+
+    @Test
+    void givenQuotedPrintableWithSoftBreakWhenReadThenDecodeCharset() throws Exception {
+        String content =
+                "BEGIN:VCARD\nVERSION:2.1\n"
+                        + "FN;CHARSET=ISO-8859-1;ENCODING=QUOTED-PRINTABLE:Ren=E9e Lef=\n"
+                        + "=E8vre\n"
+                        + "ADR;WORK;QUOTED-PRINTABLE:;;All=C3=A9e 2;Lyon\n"
+                        + "END:VCARD\n";
+        try (VcfRowSource source = open(content)) {
+            BatchRow row = source.nextRow();
+            assertEquals("Renée Lefèvre", row.fields().name());
+            assertEquals("Allée 2, Lyon", row.fields().adr());
+        }
+    }
+
+    @Test
+    void givenHomonymsAndEmptyCardWhenReadThenNumberKeysAndSkipEmpty() throws Exception {
+        String card = "BEGIN:VCARD\nFN:Alex\nEND:VCARD\n";
+        try (VcfRowSource source = open(card + "BEGIN:VCARD\nVERSION:3.0\nEND:VCARD\n" + card)) {
+            assertEquals("Alex", source.nextRow().key());
+            assertEquals("Alex-2", source.nextRow().key());
+            assertNull(source.nextRow());
+        }
+    }
+}
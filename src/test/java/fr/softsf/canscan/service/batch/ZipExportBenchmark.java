@@ -0,0 +1,114 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+/**
+ * Compares one-PNG-per-file output with the streaming ZIP export on a generated CSV.
+ *
+ * <p>Arguments: row count (default 5000), render threads (default: processors), image size (default
+ * 200) and target directory (default: a temporary directory; point it at a network share to measure
+ * per-file metadata costs). Reports wall time and peak heap of each pass; the ZIP peak must stay
+ * flat as the row count grows.
+ */
+public class ZipExportBenchmark {
+
+    private static final int DEFAULT_SIZE = 200;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional row count, thread count, image size and target directory
+     * @throws Exception if the files cannot be written or rendering is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int threads =
+                args.length > 1
+                        ? Integer.parseInt(args[1])
+                        : Runtime.getRuntime().availableProcessors();
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SIZE;
+        Path dir =
+                Files.createTempDirectory(
+                        args.length > 3
+                                ? Path.of(args[3])
+                                : Path.of(System.getProperty("java.io.tmpdir")),
+                        "canscan-zip-bench");
+        CommonFields style = new CommonFields(null, size, 0, Color.BLACK, Color.WHITE, false, 3);
+        BenchmarkSupport.startHeapSampler();
+        try {
+            Path csv = dir.resolve("codes.csv");
+            generate(csv, rows);
+            System.out.printf(
+                    "[Bench] %d lignes, %d threads, %d px, %s%n", rows, threads, size, dir);
+            BenchmarkSupport.resetPeaks();
+            BatchReport files;
+            try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.FREE, style)) {
+                files =
+                        new IncrementalBatchService(new EncodedImage(), threads)
+                                .run(source, dir.resolve("png"), false);
+            }
+            BenchmarkSupport.report("Un fichier par code", files.rendered(), millisToNanos(files));
+            BenchmarkSupport.resetPeaks();
+            Path zip = dir.resolve("codes.zip");
+            BatchReport archive;
+            try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.FREE, style)) {
+                archive = new ZipExportService(new EncodedImage(), threads).export(source, zip);
+            }
+            BenchmarkSupport.report("Archive ZIP", archive.rendered(), millisToNanos(archive));
+            System.out.printf(
+                    "[Bench] Archive %.1f Mo, rendu cumulé %d ms (fichiers) / %d ms (ZIP)%n",
+                    Files.size(zip) / 1e6, files.renderMillis(), archive.renderMillis());
+        } finally {
+            BenchmarkSupport.deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Converts a report duration to nanoseconds.
+     *
+     * @param report the run summary
+     * @return the elapsed time in nanoseconds
+     */
+    private static long millisToNanos(BatchReport report) {
+        return report.elapsedMillis() * 1_000_000L;
+    }
+
+    /**
+     * Writes a CSV of distinct free-text payloads.
+     *
+     * @param csv the target file
+     * @param rows the number of rows
+     * @throws IOException if writing fails
+     */
+    private static void generate(Path csv, int rows) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("id,free\n");
+            for (int i = 0; i < rows; i++) {
+                out.write(
+                        "code-"
+                                + i
+                                + ",https://exemple.fr/produit/"
+                                + i
+                                + "?lot="
+                                + (i % 97)
+                                + "\n");
+            }
+        }
+    }
+}
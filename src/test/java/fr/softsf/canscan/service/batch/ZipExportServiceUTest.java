@@ -0,0 +1,92 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.batch;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.softsf.canscan.model.BatchReport;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.Mode;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** ZIP export service tests ***")
+class ZipExportServiceUTest {
+
+    private static final CommonFields STYLE =
+            new CommonFields(null, 100, 0, Color.BLACK, Color.WHITE, false, 1);
+
+    @TempDir Path tempDir;
+
+    @Test
+    void givenRowsWhenExportThenStoreOnePngEntryPerRowInInputOrder() throws Exception {
+        Path csv = tempDir.resolve("contacts.csv");
+        Path zip = tempDir.resolve("out/codes.zip");
+        Files.writeString(csv, "id,name\n3,Jim\n1,John\n1,Dup\n2,John\n", StandardCharsets.UTF_8);
+        BatchReport report;
+        try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.MECARD, STYLE)) {
+            report = new ZipExportService(new EncodedImage(), 2).export(source, zip);
+        }
+        assertEquals(4, report.total());
+        assertEquals(3, report.rendered());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.deduplicated());
+        List<String> names = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+                assertEquals(ZipEntry.STORED, entry.getMethod());
+                byte[] png = in.readAllBytes();
+                assertNotNull(ImageIO.read(new ByteArrayInputStream(png)));
+                contents.add(png);
+            }
+        }
+        assertEquals(List.of("3.png", "1.png", "2.png"), names);
+        assertArrayEquals(contents.get(1), contents.get(2));
+    }
+
+    @Test
+    void givenUnwritableTargetWhenExportThenFailWithoutHanging() throws Exception {
+        Path csv = tempDir.resolve("contacts.csv");
+        Path target = Files.createDirectories(tempDir.resolve("codes.zip"));
+        Files.writeString(target.resolve("keep"), "x", StandardCharsets.UTF_8);
+        StringBuilder content = new StringBuilder("id,name\n");
+        for (int i = 0; i < 50; i++) {
+            content.append(i).append(",N").append(i).append('\n');
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+        try (CsvRowSource source = new CsvRowSource(csv, ',', "id", Mode.MECARD, STYLE)) {
+            ZipExportService service = new ZipExportService(new EncodedImage(), 1);
+            assertThrows(IOException.class, () -> service.export(source, target));
+        }
+        assertTrue(Files.isDirectory(target));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".part")));
+        }
+    }
+}
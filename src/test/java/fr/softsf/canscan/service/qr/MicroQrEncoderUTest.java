@@ -0,0 +1,325 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.reedsolomon.GenericGF;
+import com.google.zxing.common.reedsolomon.ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.ReedSolomonException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.EncodedSymbol;
+import fr.softsf.canscan.model.QrSymbolInfo;
+import fr.softsf.canscan.model.RenderedSymbol;
+import fr.softsf.canscan.model.SymbolType;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Micro QR encoder tests ***")
+class MicroQrEncoderUTest {
+
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+
+    /** A decoded symbol: its version, symbol number, codewords and text. */
+    private record Read(int version, int symbol, int[] codewords, String text) {}
+
+    /**
+     * Reads a Micro QR symbol without quiet zone: format information, zigzag, Reed–Solomon check
+     * and single segment parsing.
+     */
+    private static Read read(BitMatrix matrix) throws ReedSolomonException {
+        int size = matrix.getWidth();
+        int version = (size - 9) / 2;
+        int format = 0;
+        for (int i = 0; i < 15; i++) {
+            boolean bit = i < 8 ? matrix.get(8, i + 1) : matrix.get(15 - i, 8);
+            format |= bit ? 1 << i : 0;
+        }
+        int value = (format ^ 0x4445) >> 10;
+        assertEquals(
+                MicroQrEncoder.formatInformation(value >> 2, value & 3),
+                format,
+                "BCH de l'information de format");
+        int symbol = value >> 2;
+        int mask = value & 3;
+        BitArray stream = new BitArray();
+        boolean upward = true;
+        for (int right = size - 1; right > 0; right -= 2, upward = !upward) {
+            for (int step = 0; step < size; step++) {
+                int y = upward ? size - 1 - step : step;
+                for (int x = right; x >= right - 1; x--) {
+                    if (x > 8 || y > 8) {
+                        if (x > 0 && y > 0) {
+                            stream.appendBit(matrix.get(x, y) ^ masked(mask, x, y));
+                        }
+                    }
+                }
+            }
+        }
+        int dataCount = MicroQrEncoder.dataCodewordCount(symbol);
+        boolean halfLast = version == 1 || version == 3;
+        int total = new int[] {5, 10, 17, 24}[version - 1];
+        int[] codewords = new int[total];
+        int offset = 0;
+        for (int i = 0; i < total; i++) {
+            int length = halfLast && i == dataCount - 1 ? 4 : 8;
+            for (int b = 0; b < length; b++) {
+                codewords[i] = codewords[i] << 1 | (stream.get(offset++) ? 1 : 0);
+            }
+            codewords[i] <<= 8 - length;
+        }
+        int[] corrected = codewords.clone();
+        new ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256).decode(corrected, total - dataCount);
+        return new Read(version, symbol, codewords, parse(corrected, version));
+    }
+
+    private static boolean masked(int mask, int x, int y) {
+        return switch (mask) {
+            case 0 -> y % 2 == 0;
+            case 1 -> (y / 2 + x / 3) % 2 == 0;
+            case 2 -> (y * x % 2 + y * x % 3) % 2 == 0;
+            default -> ((y + x) % 2 + y * x % 3) % 2 == 0;
+        };
+    }
+
+    private static String parse(int[] codewords, int version) {
+        BitArray bits = new BitArray();
+        for (int codeword : codewords) {
+            bits.appendBits(codeword, 8);
+        }
+        int[] offset = {0};
+        int mode = take(bits, offset, version - 1);
+        int count = take(bits, offset, mode == 0 ? version + 2 : version + 1);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < count) {
+            int remaining = count - text.length();
+            if (mode == 0) {
+                int digits = Math.min(3, remaining);
+                int group = take(bits, offset, digits == 3 ? 10 : digits == 2 ? 7 : 4);
+                text.append(String.format("%0" + digits + "d", group));
+            } else if (mode == 1 && remaining > 1) {
+                int pair = take(bits, offset, 11);
+                text.append(ALPHANUMERIC.charAt(pair / 45)).append(ALPHANUMERIC.charAt(pair % 45));
+            } else if (mode == 1) {
+                text.append(ALPHANUMERIC.charAt(take(bits, offset, 6)));
+            } else {
+                text.append((char) take(bits, offset, 8));
+            }
+        }
+        return text.toString();
+    }
+
+    private static int take(BitArray bits, int[] offset, int length) {
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            value = value << 1 | (bits.get(offset[0]++) ? 1 : 0);
+        }
+        return value;
+    }
+
+    @Test
+    @DisplayName("Choisit la plus petite version selon le contenu et le niveau")
+    void givenShortPayloads_whenVersion_thenSmallestFittingMicroSymbol() {
+        MicroQrEncoder encoder = MicroQrEncoder.INSTANCE;
+        assertEquals(1, encoder.version("12345", ErrorCorrectionLevel.L));
+        assertEquals(2, encoder.version("123456", ErrorCorrectionLevel.L));
+        assertEquals(2, encoder.version("12345", ErrorCorrectionLevel.M));
+        assertEquals(2, encoder.version("AB-12", ErrorCorrectionLevel.L));
+        assertEquals(3, encoder.version("abc", ErrorCorrectionLevel.L));
+        assertEquals(4, encoder.version("1".repeat(35), ErrorCorrectionLevel.L));
+        assertEquals(0, encoder.version("1".repeat(36), ErrorCorrectionLevel.L));
+        assertEquals(4, encoder.version("123", ErrorCorrectionLevel.Q));
+        assertEquals(0, encoder.version("1", ErrorCorrectionLevel.H));
+        assertEquals(0, encoder.version("€", ErrorCorrectionLevel.L));
+        assertEquals(11, MicroQrEncoder.dimension(1));
+        assertEquals(17, MicroQrEncoder.dimension(MicroQrEncoder.MAX_VERSION));
+    }
+
+    @Test
+    @DisplayName("Produit les mots de code de l'exemple M2-L de la norme")
+    void givenStandardExample_whenEncode_thenIsoCodewords() throws Exception {
+        BitMatrix matrix = MicroQrEncoder.INSTANCE.encode("01234567", ErrorCorrectionLevel.L, 0);
+
+        Read read = read(matrix);
+
+        assertEquals(13, matrix.getWidth());
+        assertEquals(1, read.symbol());
+        assertArrayEquals(
+                new int[] {
+                    0x40, 0x18, 0xAC, 0xC3, 0x00, 0x86, 0x0D, 0x22, 0xAE, 0x30,
+                },
+                read.codewords());
+        assertEquals("01234567", read.text());
+    }
+
+    @Test
+    @DisplayName("Relit le texte encodé pour chaque mode, version et niveau")
+    void givenTexts_whenEncodeAndRead_thenSameText() throws Exception {
+        String[][] cases = {
+            {"L", "42"}, {"L", "12345"}, {"M", "2025"}, {"L", "CANSCAN"},
+            {"M", "A1"}, {"L", "café"}, {"M", "Été 2025"}, {"Q", "HELLO"},
+            {"L", "1".repeat(35)}, {"M", "https://x.fr"},
+        };
+        for (String[] c : cases) {
+            ErrorCorrectionLevel level = ErrorCorrectionLevel.valueOf(c[0]);
+            int version = MicroQrEncoder.INSTANCE.version(c[1], level);
+            BitMatrix matrix = MicroQrEncoder.INSTANCE.encode(c[1], level, 0);
+
+            Read read = read(matrix);
+
+            assertTrue(version > 0, c[1]);
+            assertEquals(version, read.version(), c[1]);
+            assertEquals(MicroQrEncoder.symbolNumber(version, level), read.symbol(), c[1]);
+            assertEquals(c[1], read.text(), c[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Dessine le motif de repérage, les séparateurs, la synchronisation et la marge")
+    void givenSymbol_whenEncodeWithMargin_thenFunctionPatterns() throws Exception {
+        BitMatrix matrix = MicroQrEncoder.INSTANCE.encode("CANSCAN", ErrorCorrectionLevel.M, 2);
+        int size = matrix.getWidth() - 4;
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(matrix.get(2 + i, 2) && matrix.get(2, 2 + i), "bord du motif");
+            assertTrue(!matrix.get(2 + i, 2 + 7) && !matrix.get(2 + 7, 2 + i), "séparateur");
+        }
+        assertTrue(matrix.get(2 + 3, 2 + 3) && !matrix.get(2 + 1, 2 + 1), "centre du motif");
+        for (int i = 8; i < size; i++) {
+            assertEquals(i % 2 == 0, matrix.get(2 + i, 2), "synchronisation horizontale");
+            assertEquals(i % 2 == 0, matrix.get(2, 2 + i), "synchronisation verticale");
+        }
+        for (int i = 0; i < matrix.getWidth(); i++) {
+            assertTrue(!matrix.get(i, 0) && !matrix.get(0, i), "marge");
+        }
+    }
+
+    @Test
+    @DisplayName("Corrige une erreur de mot de code grâce à la redondance")
+    void givenDamagedModules_whenRead_thenCorrected() throws Exception {
+        BitMatrix matrix = MicroQrEncoder.INSTANCE.encode("98765", ErrorCorrectionLevel.M, 0);
+        int size = matrix.getWidth();
+        matrix.flip(size - 1, size - 1);
+        matrix.flip(size - 2, size - 1);
+
+        assertEquals("98765", read(matrix).text());
+    }
+
+    @Test
+    @DisplayName("Refuse un contenu trop long ou hors ISO-8859-1")
+    void givenUnsupportedPayload_whenEncode_thenWriterException() {
+        assertThrows(
+                WriterException.class,
+                () -> MicroQrEncoder.INSTANCE.encode("x".repeat(40), ErrorCorrectionLevel.L, 2));
+        assertThrows(
+                WriterException.class,
+                () -> MicroQrEncoder.INSTANCE.encode("Ж", ErrorCorrectionLevel.L, 2));
+    }
+
+    @Test
+    @DisplayName("Utilise un Micro QR pour un contenu court sans logo, sinon un QR code")
+    void givenMicroQrOption_whenCreateMatrix_thenMicroSymbolOnlyWithoutLogo() throws Exception {
+        EncodedImage encodedImage = new EncodedImage();
+        CommonFields micro =
+                new CommonFields(
+                        null,
+                        200,
+                        0.27,
+                        Color.BLACK,
+                        Color.WHITE,
+                        false,
+                        2,
+                        EccLevel.AUTO,
+                        false,
+                        true);
+        CommonFields withLogo =
+                new CommonFields(
+                        new File("logo.png"),
+                        200,
+                        0.27,
+                        Color.BLACK,
+                        Color.WHITE,
+                        false,
+                        2,
+                        EccLevel.AUTO,
+                        false,
+                        true);
+
+        EncodedSymbol encoded = encodedImage.encodeSymbol("LOT-42", micro);
+        BitMatrix matrix = encoded.matrix();
+        QrSymbolInfo symbol = encoded.info();
+        BufferedImage image = encodedImage.generateImage("LOT-42", micro);
+
+        assertTrue(symbol.micro(), symbol.text());
+        assertEquals(ErrorCorrectionLevel.M, symbol.level());
+        assertEquals("Micro QR M3 (15×15 modules), niveau M", symbol.text());
+        assertEquals(19, matrix.getWidth());
+        assertEquals("LOT-42", read(crop(matrix, 2)).text());
+        assertEquals(200, image.getWidth());
+        assertFalse(encodedImage.encodeSymbol("LOT-42", withLogo).info().micro());
+    }
+
+    @Test
+    @DisplayName("Dessine un Micro QR module pour module, avec un seul motif de position")
+    void givenMicroSymbol_whenGenerateImage_thenPixelsMatchMatrix() throws Exception {
+        EncodedImage encodedImage = new EncodedImage();
+        CommonFields micro =
+                new CommonFields(
+                        null,
+                        190,
+                        0.27,
+                        Color.BLACK,
+                        Color.WHITE,
+                        false,
+                        2,
+                        EccLevel.AUTO,
+                        false,
+                        true);
+
+        BitMatrix matrix = encodedImage.createMatrix("LOT-42", micro);
+        RenderedSymbol rendered = encodedImage.generateSymbol("LOT-42", micro);
+        BufferedImage image = rendered.image();
+
+        assertEquals(SymbolType.MICRO_QR, rendered.info().type());
+        assertEquals(190, image.getHeight());
+        int module = image.getWidth() / matrix.getWidth();
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                int rgb = image.getRGB(x * module + module / 2, y * module + module / 2);
+                assertEquals(matrix.get(x, y), (rgb & 0xFFFFFF) == 0, "Module " + x + "," + y);
+            }
+        }
+    }
+
+    private static BitMatrix crop(BitMatrix matrix, int margin) {
+        int size = matrix.getWidth() - 2 * margin;
+        BitMatrix cropped = new BitMatrix(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (matrix.get(x + margin, y + margin)) {
+                    cropped.set(x, y);
+                }
+            }
+        }
+        return cropped;
+    }
+}
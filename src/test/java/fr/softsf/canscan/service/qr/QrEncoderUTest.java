@@ -0,0 +1,288 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.service.qr;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecoderResult;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.decoder.Decoder;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import fr.softsf.canscan.model.CapacityEstimate;
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.CompactionReport;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.model.QrSymbolInfo;
+import fr.softsf.canscan.model.RenderedSymbol;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** QR encoder tests ***")
+class QrEncoderUTest {
+
+    private static final String NUMERIC = "0123456789";
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+    private static final String TEXT =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ;:,.@éèàçù€\n";
+    private static final String LATIN1 = "ABCDEFéàç0123456789";
+    private static final String CONTACT =
+            "MECARD:N:Dupont,Marie;ORG:Société Exemple;TEL:+33612345678;"
+                    + "EMAIL:marie.dupont@exemple.fr;ADR:12 rue des Lilas, 69000 Lyon;"
+                    + "URL:https://exemple.fr;;";
+
+    private static BitMatrix zxing(String contents, ErrorCorrectionLevel level, int margin)
+            throws WriterException {
+        Map<EncodeHintType, Object> hints =
+                Map.of(
+                        EncodeHintType.CHARACTER_SET,
+                        "UTF-8",
+                        EncodeHintType.ERROR_CORRECTION,
+                        level,
+                        EncodeHintType.MARGIN,
+                        margin);
+        return new MultiFormatWriter().encode(contents, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    private static String random(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static void assertSameAsZxing(String contents, ErrorCorrectionLevel level, int margin)
+            throws WriterException {
+        assertEquals(
+                zxing(contents, level, margin),
+                QrEncoder.INSTANCE.encode(contents, level, margin),
+                () -> level + " " + contents.length() + " caractères");
+    }
+
+    @Test
+    void givenEveryModeAndLevelWhenEncodedThenMatrixIsBitIdenticalToZxing() throws Exception {
+        Random random = new Random(42);
+        for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+            for (int length = 1; length < 1_200; length += 1 + length / 3) {
+                for (String alphabet : new String[] {NUMERIC, ALPHANUMERIC, TEXT}) {
+                    assertSameAsZxing(random(random, alphabet, length), level, length % 5);
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenLargestPayloadsWhenEncodedThenVersion40MatchesZxing() throws Exception {
+        Random random = new Random(7);
+        assertSameAsZxing(random(random, NUMERIC, 7_089), ErrorCorrectionLevel.L, 4);
+        assertSameAsZxing(random(random, ALPHANUMERIC, 1_852), ErrorCorrectionLevel.H, 0);
+        assertSameAsZxing(random(random, TEXT, 900), ErrorCorrectionLevel.M, 3);
+        assertSameAsZxing("MECARD:N:Doe,John;TEL:0102030405;;", ErrorCorrectionLevel.H, 3);
+    }
+
+    @Test
+    void givenTooLongOrEmptyTextWhenEncodedThenFailsLikeZxing() {
+        String tooLong = "x".repeat(3_000);
+        assertThrows(
+                WriterException.class,
+                () -> QrEncoder.INSTANCE.encode(tooLong, ErrorCorrectionLevel.H, 3));
+        assertThrows(WriterException.class, () -> zxing(tooLong, ErrorCorrectionLevel.H, 3));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> QrEncoder.INSTANCE.encode("", ErrorCorrectionLevel.H, 3));
+    }
+
+    @Test
+    void givenNoLogoAreaWhenLevelSelectedThenLowestLevelIsUsed() throws Exception {
+        assertEquals(ErrorCorrectionLevel.L, QrEncoder.INSTANCE.selectLevel(CONTACT, 0, 3));
+    }
+
+    @Test
+    void givenOversizedLogoAreaWhenLevelSelectedThenStrongestFittingLevelIsUsed() throws Exception {
+        assertEquals(ErrorCorrectionLevel.H, QrEncoder.INSTANCE.selectLevel(CONTACT, 0.6, 3));
+        String bigText = "x".repeat(2300);
+        assertEquals(ErrorCorrectionLevel.M, QrEncoder.INSTANCE.selectLevel(bigText, 0.6, 3));
+        assertThrows(
+                WriterException.class,
+                () -> QrEncoder.INSTANCE.selectLevel("x".repeat(3000), 0, 3));
+    }
+
+    @Test
+    void givenContactCardWithDefaultLogoAreaWhenAutoLevelThenSmallerSymbolStillDecodes()
+            throws Exception {
+        EncodedImage encodedImage = new EncodedImage();
+        CommonFields auto =
+                new CommonFields(
+                        null,
+                        400,
+                        0.27,
+                        Color.BLACK,
+                        Color.WHITE,
+                        false,
+                        3,
+                        EccLevel.AUTO,
+                        false,
+                        false);
+        QrSymbolInfo high =
+                encodedImage
+                        .encodeSymbol(
+                                CONTACT,
+                                new CommonFields(
+                                        null, 400, 0.27, Color.BLACK, Color.WHITE, false, 3))
+                        .info();
+        RenderedSymbol rendered = encodedImage.generateSymbol(CONTACT, auto);
+        BufferedImage image = rendered.image();
+        QrSymbolInfo chosen = rendered.info();
+
+        assertNotEquals(ErrorCorrectionLevel.H, chosen.level());
+        assertEquals(ErrorCorrectionLevel.H, high.level());
+        assertEquals(17 + 4 * chosen.version(), chosen.modules());
+        assertTrue(chosen.version() < high.version(), chosen.text() + " / " + high.text());
+        BinaryBitmap bitmap =
+                new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        assertEquals(
+                CONTACT,
+                new QRCodeReader()
+                        .decode(bitmap, Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE))
+                        .getText());
+    }
+
+    @Test
+    void givenMixedTextsWhenEncodedCompactThenDecodesAndIsNoLargerThanZxingCompact()
+            throws Exception {
+        Random random = new Random(38);
+        String[] alphabets = {NUMERIC, ALPHANUMERIC, "0123456789abc", LATIN1, TEXT};
+        Decoder decoder = new Decoder();
+        for (String alphabet : alphabets) {
+            for (int length : new int[] {1, 7, 40, 150, 600}) {
+                String text = random(random, alphabet, length) + "2024" + CONTACT.substring(0, 10);
+                for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+                    BitMatrix compact = QrEncoder.INSTANCE.encode(text, level, 0, true);
+                    int version = QrEncoder.INSTANCE.version(text, level, true);
+                    int zxingVersion =
+                            Encoder.encode(text, level, Map.of(EncodeHintType.QR_COMPACT, true))
+                                    .getVersion()
+                                    .getVersionNumber();
+
+                    assertEquals(text, decoder.decode(compact).getText());
+                    assertEquals(17 + 4 * version, compact.getWidth());
+                    assertTrue(version <= QrEncoder.INSTANCE.version(text, level, false));
+                    // ZXing leaves ISO-8859-1 implicit; the explicit ECI 3 may cost a version.
+                    assertTrue(version <= zxingVersion || alphabet == LATIN1, level + " " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenDigitHeavyPayloadWhenLayoutsComparedThenCompactSymbolIsSmaller() {
+        CommonFields config =
+                new CommonFields(
+                        null, 400, 0, Color.BLACK, Color.WHITE, false, 3, EccLevel.M, true, false);
+        CompactionReport report =
+                new EncodedImage()
+                        .compareLayouts("ref:" + "0123456789".repeat(30) + ";lot A-12", config);
+
+        assertTrue(report.compact().version() < report.standard().version(), report.text());
+        assertEquals(ErrorCorrectionLevel.M, report.compact().level());
+    }
+
+    @Test
+    void givenPayloadsAroundCapacityWhenEstimatedThenEstimateAgreesWithEncoder() throws Exception {
+        Random random = new Random(39);
+        for (String alphabet : new String[] {NUMERIC, ALPHANUMERIC, TEXT}) {
+            for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+                for (boolean compact : new boolean[] {false, true}) {
+                    for (int length : new int[] {1, 90, 1200, 2400, 4000, 7100}) {
+                        String text = random(random, alphabet, length);
+                        CapacityEstimate estimate =
+                                QrEncoder.INSTANCE.estimate(text, level, compact);
+                        BitMatrix matrix;
+                        try {
+                            matrix = QrEncoder.INSTANCE.encode(text, level, 0, compact);
+                        } catch (WriterException tooBig) {
+                            assertFalse(estimate.fits(), estimate.text());
+                            assertTrue(estimate.percentUsed() > 100, estimate.text());
+                            continue;
+                        }
+                        assertTrue(estimate.fits(), estimate.text());
+                        assertEquals(matrix.getWidth(), estimate.modules());
+                        assertTrue(estimate.percentUsed() <= 100, estimate.text());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenTextTooLongForOneSymbolWhenEncodedLinkedThenSymbolsDecodeBackInSequence()
+            throws Exception {
+        String text = random(new Random(40), TEXT, 5000);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int parity = 0;
+        for (byte b : bytes) {
+            parity ^= b & 0xFF;
+        }
+        List<BitMatrix> symbols = QrEncoder.INSTANCE.encodeLinked(text, ErrorCorrectionLevel.M, 0);
+        CapacityEstimate estimate = QrEncoder.INSTANCE.estimateLinked(text, ErrorCorrectionLevel.M);
+
+        assertThrows(
+                WriterException.class,
+                () -> QrEncoder.INSTANCE.encode(text, ErrorCorrectionLevel.M, 0));
+        assertTrue(symbols.size() > 1 && symbols.size() <= QrEncoder.MAX_LINKED_SYMBOLS);
+        assertEquals(symbols.size(), estimate.symbols());
+        assertEquals(
+                symbols.stream().mapToInt(BitMatrix::getWidth).max().orElseThrow(),
+                estimate.modules());
+        StringBuilder decoded = new StringBuilder();
+        for (int i = 0; i < symbols.size(); i++) {
+            DecoderResult result = new Decoder().decode(symbols.get(i));
+            assertEquals(i << 4 | symbols.size() - 1, result.getStructuredAppendSequenceNumber());
+            assertEquals(parity, result.getStructuredAppendParity());
+            decoded.append(result.getText());
+        }
+        assertEquals(text, decoded.toString());
+    }
+
+    @Test
+    void givenTextFittingOneSymbolWhenEncodedLinkedThenSinglePlainSymbolIsProduced()
+            throws Exception {
+        List<BitMatrix> symbols =
+                QrEncoder.INSTANCE.encodeLinked(CONTACT, ErrorCorrectionLevel.H, 3);
+
+        assertEquals(
+                List.of(QrEncoder.INSTANCE.encode(CONTACT, ErrorCorrectionLevel.H, 3)), symbols);
+        assertThrows(
+                WriterException.class,
+                () ->
+                        QrEncoder.INSTANCE.encodeLinked(
+                                "x".repeat(50_000), ErrorCorrectionLevel.L, 0));
+    }
+}
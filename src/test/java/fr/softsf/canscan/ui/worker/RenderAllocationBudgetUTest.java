@@ -0,0 +1,179 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.ui.worker;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.sun.management.ThreadMXBean;
+
+import fr.softsf.canscan.model.CommonFields;
+import fr.softsf.canscan.model.EccLevel;
+import fr.softsf.canscan.ui.EncodedImage;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets of the render path, relative to the size of the output.
+ *
+ * <p>An image of {@code w × h} pixels needs a {@code 4 × w × h} bytes raster; the budgets allow
+ * that raster once, plus what each step needs by design, so that a defensive copy or a temporary
+ * full-size image makes them fail. Each measure is the smallest of several runs after warm-up, read
+ * from {@link ThreadMXBean#getThreadAllocatedBytes(long)} on the test thread.
+ */
+@DisplayName("*** Render allocation budget tests ***")
+class RenderAllocationBudgetUTest {
+
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int KB = 1024;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final double LOGO_RATIO = 0.27;
+    private static final int LOGO_SIDE = 256;
+    private static final String DATA =
+            "MECARD:N:Dupont,Marie;TEL:+33612345678;EMAIL:marie.dupont@exemple.fr;;";
+
+    /** Encoding, plus the shapes of rounded modules. */
+    private static final long SYMBOL_BUDGET = 128L * KB;
+
+    /** The PNG reader of the logo, beyond its decoded and scaled rasters. */
+    private static final long LOGO_READER_BUDGET = 512L * KB;
+
+    /** The graphics context of the scaled copy. */
+    private static final long SCALE_BUDGET = 8L * KB;
+
+    /** ImageIO's PNG writer converts and filters each row, about twice the raster in all. */
+    private static final double SAVE_RASTER_FACTOR = 2.25;
+
+    /** The PNG writer and the file stream. */
+    private static final long SAVE_BUDGET = 256L * KB;
+
+    @TempDir static Path tempDir;
+    private static File logo;
+    private final EncodedImage encodedImage = new EncodedImage();
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        assumeTrue(
+                ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threads
+                        && threads.isThreadAllocatedMemorySupported());
+        logo = tempDir.resolve("logo.png").toFile();
+        ImageIO.write(
+                new BufferedImage(LOGO_SIDE, LOGO_SIDE, BufferedImage.TYPE_INT_ARGB), "png", logo);
+    }
+
+    @ParameterizedTest(name = "generateImage size={0} rounded={1} logo={2}")
+    @CsvSource({
+        "200,false,false",
+        "200,true,true",
+        "1000,false,false",
+        "1000,true,false",
+        "1000,false,true",
+        "2000,true,true"
+    })
+    void givenConfigWhenGenerateImageThenAllocationStaysWithinOneRaster(
+            int size, boolean rounded, boolean withLogo) throws Exception {
+        CommonFields config = config(size, rounded, withLogo ? logo : null);
+        long budget = raster(size, size) + SYMBOL_BUDGET;
+        if (withLogo) {
+            int logoBox = (int) (size * LOGO_RATIO);
+            budget += raster(LOGO_SIDE, LOGO_SIDE) + raster(logoBox, logoBox) + LOGO_READER_BUDGET;
+        }
+        assertWithinBudget(allocatedBytes(() -> encodedImage.generateImage(DATA, config)), budget);
+    }
+
+    @ParameterizedTest(name = "resize from {0} to {1}")
+    @CsvSource({"200,800", "1000,400", "2000,100", "2000,800"})
+    void givenImageWhenScaledThenAllocationIsTheScaledRaster(int size, int width) throws Exception {
+        BufferedImage image = encodedImage.generateImage(DATA, config(size, false, null));
+        long budget = raster(width, width) + SCALE_BUDGET;
+        assertWithinBudget(allocatedBytes(() -> DynamicResizeWorker.scale(image, width)), budget);
+    }
+
+    @ParameterizedTest(name = "save size={0}")
+    @CsvSource({"200", "1000", "2000"})
+    void givenImageWhenSavedThenAllocationStaysWithinTheWriterBudget(int size) throws Exception {
+        BufferedImage image = encodedImage.generateImage(DATA, config(size, false, null));
+        File file = tempDir.resolve("qr-" + size + ".png").toFile();
+        long budget = (long) (raster(size, size) * SAVE_RASTER_FACTOR) + SAVE_BUDGET;
+        assertWithinBudget(
+                allocatedBytes(
+                        () -> {
+                            GenerateAndSaveWorker.saveQrCodeToFile(image, file);
+                            return file;
+                        }),
+                budget);
+    }
+
+    private static CommonFields config(int size, boolean rounded, File logoFile) {
+        return new CommonFields(
+                logoFile,
+                size,
+                LOGO_RATIO,
+                Color.BLACK,
+                Color.WHITE,
+                rounded,
+                3,
+                EccLevel.AUTO,
+                false,
+                false);
+    }
+
+    private static long raster(int width, int height) {
+        return (long) BYTES_PER_PIXEL * width * height;
+    }
+
+    private static void assertWithinBudget(long allocated, long budget) {
+        assertTrue(
+                allocated <= budget,
+                () -> String.format("%,d octets alloués pour un budget de %,d", allocated, budget));
+    }
+
+    /**
+     * Measures the bytes a step allocates on the calling thread.
+     *
+     * @param step the step, run several times
+     * @return the smallest allocation of the measured runs
+     */
+    private static long allocatedBytes(Step step) throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            step.run();
+        }
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            step.run();
+            smallest = Math.min(smallest, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        return smallest;
+    }
+
+    /** A render step whose result must stay reachable until measured. */
+    @FunctionalInterface
+    private interface Step {
+
+        /**
+         * Runs the step.
+         *
+         * @return its result
+         * @throws Exception if the step fails
+         */
+        Object run() throws Exception;
+    }
+}
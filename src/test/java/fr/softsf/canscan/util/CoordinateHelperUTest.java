@@ -5,6 +5,7 @@
  */
 package fr.softsf.canscan.util;
 
+import java.util.Random;
 import javax.swing.JTextField;
 
 import org.junit.jupiter.api.DisplayName;
@@ -63,4 +64,54 @@ class CoordinateHelperUTest {
         String result = CoordinateHelper.INSTANCE.getValidatedCoordinate(field, true);
         assertTrue(result.startsWith("-48.8566"));
     }
+
+    @Test
+    void givenRandomInputsWhenGetValidatedCoordinateThenSameAsRegexImplementation() {
+        Random random = new Random(43);
+        String alphabet = "0123456789.-e ";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int length = random.nextInt(12); length > 0; length--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            boolean isLatitude = random.nextBoolean();
+            JTextField field = new JTextField(text.toString());
+            JTextField legacyField = new JTextField(text.toString());
+            assertEquals(
+                    legacy(legacyField, isLatitude),
+                    CoordinateHelper.INSTANCE.getValidatedCoordinate(field, isLatitude),
+                    text::toString);
+            assertEquals(legacyField.getText(), field.getText(), text::toString);
+        }
+    }
+
+    /** The regular expression and {@code Math.pow} implementation the helper replaced. */
+    private static String legacy(JTextField field, boolean isLatitude) {
+        String text = field.getText().trim();
+        if (text.equals("-")) {
+            return "-0";
+        }
+        if (!text.matches("^-?\\d*(\\.\\d*)?$")) {
+            field.setText("");
+            return "";
+        }
+        double value;
+        try {
+            value = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            field.setText("");
+            return "";
+        }
+        int limit = isLatitude ? 90 : 180;
+        if (value < -limit || value > limit) {
+            field.setText("");
+            return "";
+        }
+        double factor = Math.pow(10, isLatitude ? 8 : 7);
+        value =
+                value >= 0
+                        ? Math.floor(value * factor) / factor
+                        : Math.ceil(value * factor) / factor;
+        return String.valueOf(value);
+    }
 }
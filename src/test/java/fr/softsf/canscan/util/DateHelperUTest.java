@@ -7,6 +7,10 @@ package fr.softsf.canscan.util;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,4 +55,22 @@ class DateHelperUTest {
         String result = DateHelper.INSTANCE.validateAndGetDateAndTime(null, null);
         assertEquals("", result);
     }
+
+    @Test
+    void givenRandomDatesWhenValidateAndGetDateAndTimeThenSameAsFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+        Random random = new Random(44);
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate date =
+                    LocalDate.ofEpochDay(
+                            random.nextLong(
+                                    LocalDate.of(-20, 1, 1).toEpochDay(),
+                                    LocalDate.of(12_000, 1, 1).toEpochDay()));
+            LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(86_400));
+            assertEquals(
+                    formatter.format(ZonedDateTime.of(date, time, ZoneOffset.UTC)),
+                    DateHelper.INSTANCE.validateAndGetDateAndTime(date, time),
+                    () -> date + " " + time);
+        }
+    }
 }
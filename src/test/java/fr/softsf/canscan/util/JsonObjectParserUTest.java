@@ -0,0 +1,41 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** JSON object parser tests ***")
+class JsonObjectParserUTest {
+
+    @Test
+    void givenNestedJsonWhenParsedThenMembersAreDecoded() {
+        Map<String, Object> object =
+                JsonObjectParser.parseObject(
+                        " {\"a\":\"x\\u00e9\\n\",\"n\":-1.5e2,\"b\":true,\"z\":null,"
+                                + "\"o\":{\"k\":[1,\"2\"]}} ");
+        assertEquals("xé\n", object.get("a"));
+        assertEquals("-1.5e2", object.get("n"));
+        assertEquals(Boolean.TRUE, object.get("b"));
+        assertTrue(object.containsKey("z"));
+        assertEquals(Map.of("k", List.of("1", "2")), object.get("o"));
+    }
+
+    @Test
+    void givenMalformedJsonWhenParsedThenThrows() {
+        assertThrows(
+                IllegalArgumentException.class, () -> JsonObjectParser.parseObject("{\"a\":}"));
+        assertThrows(IllegalArgumentException.class, () -> JsonObjectParser.parseObject("{} x"));
+        assertThrows(IllegalArgumentException.class, () -> JsonObjectParser.parseObject("{\"a"));
+    }
+}
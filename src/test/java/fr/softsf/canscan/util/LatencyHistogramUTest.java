@@ -0,0 +1,42 @@
+/*
+ * CanScan - Copyright © 2025-present SOFT64.FR Lob2018
+ * Licensed under the GNU General Public License v3.0 (GPLv3.0).
+ * See the full license at: https://github.com/Lob2018/CanScan?tab=License-1-ov-file#readme
+ */
+package fr.softsf.canscan.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("*** Latency histogram tests ***")
+class LatencyHistogramUTest {
+
+    @Test
+    void givenUniformValuesWhenPercentileThenWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        long p50 = histogram.valueAtPercentile(50);
+        long p99 = histogram.valueAtPercentile(99);
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000, histogram.max());
+        assertTrue(Math.abs(p50 - 50_000_000) <= 50_000_000 / 32, "p50 " + p50);
+        assertTrue(Math.abs(p99 - 99_000_000) <= 99_000_000 / 32, "p99 " + p99);
+        assertEquals(100_000_000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void givenEveryBucketWhenIndexedThenBoundsAreContiguous() {
+        for (int i = 1; i < 1_800; i++) {
+            long lower = LatencyHistogram.upperBoundOf(i - 1) + 1;
+            long upper = LatencyHistogram.upperBoundOf(i);
+            assertTrue(upper >= lower);
+            assertEquals(i, LatencyHistogram.indexOf(lower));
+            assertEquals(i, LatencyHistogram.indexOf(upper));
+        }
+    }
+}